@@ -339,6 +339,7 @@ public class SQLAdapter implements Serializable, AutoCloseable, ILoggingCustomiz
 	 * @throws SQLException Thrown, if the sql statement was malformed, could not be executed, or the connection to the database failed.
 	 */
 	public int[] insertMultiple(final String table, final List<String> keys, final List<List<? extends Object>> datarows, final int chunkSize) throws SQLException {
+		this.checkConnection();
 		int n = datarows.size();
 		List<Integer> ids = new ArrayList<>(n);
 		try (Statement stmt = this.connect.createStatement()) {
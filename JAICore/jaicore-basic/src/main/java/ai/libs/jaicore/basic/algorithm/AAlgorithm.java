@@ -201,16 +201,10 @@ public abstract class AAlgorithm<I, O> implements IAlgorithm<I, O>, ILoggingCust
 		Interrupter interrupter = Interrupter.get();
 		if (t.isInterrupted()) {
 
-			/* synchronously check whether we have been interrupted on purpose */
-			boolean isIntentionalInterrupt;
-			synchronized (interrupter) {
-				this.logger.info("Interruption detected for {}. Resetting interrupted-flag. Now checking whether this was due to a shutdown.", this.getId());
-				Thread.interrupted(); // clear the interrupt-field. This is necessary, because otherwise some shutdown-activities (like waiting for pool shutdown) might fail
-				isIntentionalInterrupt = this.hasThreadBeenInterruptedDuringShutdown(t);
-				if (!isIntentionalInterrupt) {
-					this.avoidReinterruptionOnShutdownOnCurrentThread();
-				}
-			}
+			/* atomically check whether we have been interrupted on purpose and, if not, avoid a later interrupt due to the shutdown */
+			this.logger.info("Interruption detected for {}. Resetting interrupted-flag. Now checking whether this was due to a shutdown.", this.getId());
+			Thread.interrupted(); // clear the interrupt-field. This is necessary, because otherwise some shutdown-activities (like waiting for pool shutdown) might fail
+			boolean isIntentionalInterrupt = !interrupter.avoidInterruptUnlessInterrupted(t, this.getId() + INTERRUPT_NAME_SUFFIX);
 
 			/* if the interrupt has been intentional, resolve it and proceed */
 			if (isIntentionalInterrupt) {
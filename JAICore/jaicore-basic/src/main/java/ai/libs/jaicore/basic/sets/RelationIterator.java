@@ -0,0 +1,116 @@
+package ai.libs.jaicore.basic.sets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * Lazily enumerates the tuples of a relation in lexicographic order (with respect to the order of the items in the sets).
+ *
+ * In contrast to the {@link LDSRelationComputer}, which keeps the frontier of a limited discrepancy search, this iterator only keeps the current tuple,
+ * so its memory is linear in the number of sets regardless of the size of the relation. The prefix filter is applied to every prefix, so the
+ * completions of a rejected prefix are never enumerated.
+ *
+ * @author fmohr
+ *
+ * @param <T>
+ */
+public class RelationIterator<T> implements Iterator<List<T>> {
+
+	private final List<List<T>> sets;
+	private final int numSets;
+	private final Predicate<List<T>> prefixFilter;
+
+	/* the current tuple and, for each of its positions, the index of its item in the respective set */
+	private final List<T> currentTuple;
+	private final int[] indicesOfValues;
+	private List<T> nextTuple;
+	private boolean exhausted;
+
+	public RelationIterator(final RelationComputationProblem<T> problem) {
+		super();
+		this.sets = new ArrayList<>();
+		for (Collection<T> set : problem.getSets()) {
+			this.sets.add(set instanceof List ? (List<T>) set : new ArrayList<>(set));
+		}
+		this.numSets = this.sets.size();
+		this.prefixFilter = problem.getPrefixFilter();
+		this.currentTuple = new ArrayList<>(this.numSets);
+		this.indicesOfValues = new int[this.numSets];
+		Arrays.fill(this.indicesOfValues, -1);
+		this.nextTuple = this.computeNextTuple();
+	}
+
+	/**
+	 * Extends the current tuple depth-first until it is complete and backtracks if no item of a set is admissible for the current prefix.
+	 *
+	 * @return The next tuple of the relation or NULL if there is none
+	 */
+	private List<T> computeNextTuple() {
+		if (this.exhausted) {
+			return null;
+		}
+
+		/* if the current tuple has been returned before, continue with the next item for its last position */
+		if (this.currentTuple.size() == this.numSets && !this.backtrack()) {
+			return null;
+		}
+		while (this.currentTuple.size() < this.numSets) {
+			int position = this.currentTuple.size();
+			List<T> set = this.sets.get(position);
+			int n = set.size();
+			int j = this.indicesOfValues[position] + 1;
+			boolean extended = false;
+			for (; j < n; j++) {
+				this.currentTuple.add(set.get(j));
+				if (this.prefixFilter.test(this.currentTuple)) {
+					extended = true;
+					break;
+				}
+				this.currentTuple.remove(position);
+			}
+			if (extended) {
+				this.indicesOfValues[position] = j;
+				if (position + 1 < this.numSets) {
+					this.indicesOfValues[position + 1] = -1;
+				}
+			} else if (!this.backtrack()) {
+				return null;
+			}
+		}
+		return new ArrayList<>(this.currentTuple);
+	}
+
+	/**
+	 * Removes the last item of the current tuple, so that the next item of its set is tried at its position.
+	 *
+	 * @return false if there is nothing to backtrack, i.e. the relation is exhausted
+	 */
+	private boolean backtrack() {
+		if (this.currentTuple.isEmpty()) {
+			this.exhausted = true;
+			return false;
+		}
+		this.currentTuple.remove(this.currentTuple.size() - 1);
+		return true;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return this.nextTuple != null;
+	}
+
+	@Override
+	public List<T> next() {
+		if (this.nextTuple == null) {
+			throw new NoSuchElementException();
+		}
+		List<T> tuple = this.nextTuple;
+		this.nextTuple = this.computeNextTuple();
+		return tuple;
+	}
+}
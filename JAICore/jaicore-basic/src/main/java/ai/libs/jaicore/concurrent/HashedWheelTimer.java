@@ -0,0 +1,387 @@
+package ai.libs.jaicore.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A timer that executes {@link NamedTimerTask}s on a single daemon thread, similar to {@link java.util.Timer}, but based on a hashed wheel of timeouts.
+ *
+ * Scheduling and canceling a task are O(1) operations that do not lock the timer: Scheduled tasks are put into a queue that is drained by the timer thread at every tick, and canceled tasks are removed from their
+ * bucket of the wheel by the timer thread. Tasks are executed at most one tick after their scheduled execution time. The timer thread wakes up once per tick while tasks
+ * are scheduled, so the tick duration trades the precision of the timer for its load.
+ *
+ * The timer keeps the set of its active tasks, so that these can be enumerated without inspecting the wheel, and it counts the scheduled, fired, and canceled tasks.
+ *
+ * @author fmohr
+ *
+ */
+public class HashedWheelTimer {
+	private static final Logger logger = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+	private static final int STATE_SCHEDULED = 0;
+	private static final int STATE_CANCELED = 1;
+	private static final int STATE_EXPIRED = 2;
+
+	private final long tickDuration; // in nanoseconds
+	private final Bucket[] wheel;
+	private final int mask;
+	private final long startTime = System.nanoTime();
+	private final Thread workerThread;
+	private volatile boolean running = true;
+	private volatile boolean idle = false;
+	private long tick = 0; // only accessed by the worker thread
+
+	private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+	private final Queue<Timeout> canceledTimeouts = new ConcurrentLinkedQueue<>();
+	private final Set<Timeout> activeTimeouts = ConcurrentHashMap.newKeySet();
+
+	private final LongAdder numberOfScheduledTasks = new LongAdder();
+	private final LongAdder numberOfFiredTasks = new LongAdder();
+	private final LongAdder numberOfCanceledTasks = new LongAdder();
+
+	/**
+	 * The scheduling of a task on the timer. Except for the state, the fields of a timeout are only modified by the timer thread once the timeout has been scheduled.
+	 */
+	final class Timeout {
+		private final NamedTimerTask task;
+		private final long period; // in milliseconds; 0 for tasks that are executed only once
+		private final boolean fixedRate;
+		private final AtomicInteger state = new AtomicInteger(STATE_SCHEDULED);
+		private long deadline; // in nanoseconds relative to the start time of the timer
+		private volatile long scheduledExecutionTime; // as system time in milliseconds
+		private long remainingRounds;
+		private Bucket bucket;
+		private Timeout prev;
+		private Timeout next;
+
+		private Timeout(final NamedTimerTask task, final long delay, final long period, final boolean fixedRate) {
+			this.task = task;
+			this.period = period;
+			this.fixedRate = fixedRate;
+			this.deadline = System.nanoTime() - HashedWheelTimer.this.startTime + TimeUnit.MILLISECONDS.toNanos(delay);
+			this.scheduledExecutionTime = System.currentTimeMillis() + delay;
+		}
+
+		long getScheduledExecutionTime() {
+			return this.scheduledExecutionTime;
+		}
+
+		HashedWheelTimer getTimer() {
+			return HashedWheelTimer.this;
+		}
+
+		/**
+		 * @return true iff this prevented at least one execution of the task
+		 */
+		boolean cancel() {
+			if (!this.state.compareAndSet(STATE_SCHEDULED, STATE_CANCELED)) {
+				return false;
+			}
+			HashedWheelTimer.this.activeTimeouts.remove(this);
+			HashedWheelTimer.this.canceledTimeouts.add(this);
+			HashedWheelTimer.this.numberOfCanceledTasks.increment();
+			return true;
+		}
+
+		boolean isActive() {
+			return HashedWheelTimer.this.activeTimeouts.contains(this);
+		}
+	}
+
+	/**
+	 * Doubly linked list of the timeouts that expire in the same tick (modulo the size of the wheel). Only accessed by the timer thread.
+	 */
+	private static final class Bucket {
+		private Timeout head;
+		private Timeout tail;
+
+		private void add(final Timeout timeout) {
+			timeout.bucket = this;
+			if (this.head == null) {
+				this.head = timeout;
+			} else {
+				this.tail.next = timeout;
+				timeout.prev = this.tail;
+			}
+			this.tail = timeout;
+		}
+
+		private Timeout remove(final Timeout timeout) {
+			Timeout next = timeout.next;
+			if (timeout.prev != null) {
+				timeout.prev.next = next;
+			} else {
+				this.head = next;
+			}
+			if (next != null) {
+				next.prev = timeout.prev;
+			} else {
+				this.tail = timeout.prev;
+			}
+			timeout.prev = null;
+			timeout.next = null;
+			timeout.bucket = null;
+			return next;
+		}
+	}
+
+	/**
+	 * @param name
+	 *            The name of the timer thread
+	 * @param tickDurationInMs
+	 *            The duration of a tick in milliseconds, i.e. the precision of the timer
+	 * @param ticksPerWheel
+	 *            The number of buckets of the wheel, which is rounded up to the next power of two
+	 */
+	public HashedWheelTimer(final String name, final long tickDurationInMs, final int ticksPerWheel) {
+		if (tickDurationInMs <= 0) {
+			throw new IllegalArgumentException("The tick duration must be positive.");
+		}
+		if (ticksPerWheel <= 0 || ticksPerWheel > (1 << 30)) {
+			throw new IllegalArgumentException("The number of ticks per wheel must be in [1, 2^30].");
+		}
+		this.tickDuration = TimeUnit.MILLISECONDS.toNanos(tickDurationInMs);
+		int size = Integer.highestOneBit(ticksPerWheel);
+		if (size < ticksPerWheel) {
+			size <<= 1;
+		}
+		this.wheel = new Bucket[size];
+		for (int i = 0; i < size; i++) {
+			this.wheel[i] = new Bucket();
+		}
+		this.mask = size - 1;
+		this.workerThread = new Thread(this::work, name);
+		this.workerThread.setDaemon(true);
+		this.workerThread.setPriority(Thread.NORM_PRIORITY);
+		this.workerThread.start();
+	}
+
+	/**
+	 * Schedules the task for a single execution after the given delay.
+	 *
+	 * @param task
+	 *            The task to be executed
+	 * @param delay
+	 *            The delay in milliseconds
+	 */
+	public void schedule(final NamedTimerTask task, final long delay) {
+		if (delay < 0) {
+			throw new IllegalArgumentException("Negative delay.");
+		}
+		this.schedule(task, delay, 0, false);
+	}
+
+	/**
+	 * Schedules the task for repeated fixed-delay execution, i.e. the next execution is scheduled relative to the end of the previous one.
+	 *
+	 * @param task
+	 *            The task to be executed
+	 * @param delay
+	 *            The delay of the first execution in milliseconds
+	 * @param period
+	 *            The time in milliseconds between the successive executions
+	 */
+	public void schedule(final NamedTimerTask task, final long delay, final long period) {
+		if (delay < 0) {
+			throw new IllegalArgumentException("Negative delay.");
+		}
+		if (period <= 0) {
+			throw new IllegalArgumentException("Non-positive period.");
+		}
+		this.schedule(task, delay, period, false);
+	}
+
+	/**
+	 * Schedules the task for repeated fixed-rate execution, i.e. the executions are scheduled relative to the time of the first one.
+	 *
+	 * @param task
+	 *            The task to be executed
+	 * @param delay
+	 *            The delay of the first execution in milliseconds
+	 * @param period
+	 *            The time in milliseconds between the successive executions
+	 */
+	public void scheduleAtFixedRate(final NamedTimerTask task, final long delay, final long period) {
+		if (delay < 0) {
+			throw new IllegalArgumentException("Negative delay.");
+		}
+		if (period <= 0) {
+			throw new IllegalArgumentException("Non-positive period.");
+		}
+		this.schedule(task, delay, period, true);
+	}
+
+	private void schedule(final NamedTimerTask task, final long delay, final long period, final boolean fixedRate) {
+		if (!this.running) {
+			throw new IllegalStateException("Timer already cancelled.");
+		}
+		Timeout timeout = new Timeout(task, delay, period, fixedRate);
+		task.assignTimeout(timeout);
+		this.activeTimeouts.add(timeout);
+		this.pendingTimeouts.add(timeout);
+		this.numberOfScheduledTasks.increment();
+		if (this.idle) {
+			LockSupport.unpark(this.workerThread);
+		}
+	}
+
+	/**
+	 * Terminates the timer and discards all scheduled tasks. A task that is currently executed is completed.
+	 */
+	public void cancel() {
+		this.running = false;
+		LockSupport.unpark(this.workerThread);
+		this.activeTimeouts.clear();
+	}
+
+	public boolean isTaskScheduled(final NamedTimerTask task) {
+		Timeout timeout = task.getTimeout();
+		return timeout != null && timeout.getTimer() == this && timeout.isActive();
+	}
+
+	/**
+	 * @return The tasks that are scheduled for a future execution. One-time tasks that are being executed are not active anymore, repeated tasks are active until they are canceled.
+	 */
+	public List<NamedTimerTask> getActiveTasks() {
+		List<NamedTimerTask> tasks = new ArrayList<>(this.activeTimeouts.size());
+		for (Timeout timeout : this.activeTimeouts) {
+			tasks.add(timeout.task);
+		}
+		return tasks;
+	}
+
+	public int getNumberOfActiveTasks() {
+		return this.activeTimeouts.size();
+	}
+
+	/**
+	 * @return The number of times a task has been scheduled on this timer
+	 */
+	public long getNumberOfScheduledTasks() {
+		return this.numberOfScheduledTasks.sum();
+	}
+
+	/**
+	 * @return The number of task executions of this timer; repeated tasks are counted once for each execution
+	 */
+	public long getNumberOfFiredTasks() {
+		return this.numberOfFiredTasks.sum();
+	}
+
+	/**
+	 * @return The number of tasks that have been canceled before their (next) execution
+	 */
+	public long getNumberOfCanceledTasks() {
+		return this.numberOfCanceledTasks.sum();
+	}
+
+	private void work() {
+		while (this.running) {
+			this.waitForNextTick();
+			if (!this.running) {
+				break;
+			}
+			this.removeCanceledTimeouts();
+			this.transferPendingTimeouts();
+			this.expireTimeouts(this.wheel[(int) (this.tick & this.mask)]);
+			this.tick++;
+
+			/* if there are no active tasks, wait for the next one to be scheduled */
+			if (this.activeTimeouts.isEmpty()) {
+				this.removeCanceledTimeouts();
+				this.idle = true;
+				while (this.running && this.activeTimeouts.isEmpty()) {
+					LockSupport.park(this);
+				}
+				this.idle = false;
+				this.tick = Math.max(this.tick, (System.nanoTime() - this.startTime) / this.tickDuration);
+			}
+		}
+		this.pendingTimeouts.clear();
+		this.canceledTimeouts.clear();
+		logger.info("Timer thread {} has been shut down.", Thread.currentThread());
+	}
+
+	private void waitForNextTick() {
+		long deadlineOfTick = this.tickDuration * (this.tick + 1);
+		long sleepTime;
+		while (this.running && (sleepTime = deadlineOfTick - (System.nanoTime() - this.startTime)) > 0) {
+			LockSupport.parkNanos(this, sleepTime);
+		}
+	}
+
+	private void removeCanceledTimeouts() {
+		Timeout timeout;
+		while ((timeout = this.canceledTimeouts.poll()) != null) {
+			if (timeout.bucket != null) {
+				timeout.bucket.remove(timeout);
+			}
+		}
+	}
+
+	private void transferPendingTimeouts() {
+		Timeout timeout;
+		while ((timeout = this.pendingTimeouts.poll()) != null) {
+			if (timeout.state.get() != STATE_SCHEDULED) {
+				continue;
+			}
+			long calculatedTick = timeout.deadline / this.tickDuration;
+			timeout.remainingRounds = (calculatedTick - this.tick) / this.wheel.length;
+			this.wheel[(int) (Math.max(calculatedTick, this.tick) & this.mask)].add(timeout);
+		}
+	}
+
+	private void expireTimeouts(final Bucket bucket) {
+		Timeout timeout = bucket.head;
+		while (timeout != null) {
+			if (timeout.remainingRounds <= 0) {
+				Timeout next = bucket.remove(timeout);
+				this.expire(timeout);
+				timeout = next;
+			} else {
+				timeout.remainingRounds--;
+				timeout = timeout.next;
+			}
+		}
+	}
+
+	private void expire(final Timeout timeout) {
+		if (timeout.period == 0) {
+			if (!timeout.state.compareAndSet(STATE_SCHEDULED, STATE_EXPIRED)) {
+				return;
+			}
+			this.activeTimeouts.remove(timeout);
+		} else if (timeout.state.get() != STATE_SCHEDULED) {
+			return;
+		}
+		this.numberOfFiredTasks.increment();
+		try {
+			timeout.task.run();
+		} catch (RuntimeException e) {
+			logger.error("Task {} has thrown an exception.", timeout.task, e);
+		}
+
+		/* reschedule repeated tasks unless they have been canceled in the meantime */
+		if (timeout.period > 0 && timeout.state.get() == STATE_SCHEDULED) {
+			if (timeout.fixedRate) {
+				timeout.deadline += TimeUnit.MILLISECONDS.toNanos(timeout.period);
+				timeout.scheduledExecutionTime += timeout.period;
+			} else {
+				timeout.deadline = System.nanoTime() - this.startTime + TimeUnit.MILLISECONDS.toNanos(timeout.period);
+				timeout.scheduledExecutionTime = System.currentTimeMillis() + timeout.period;
+			}
+			this.pendingTimeouts.add(timeout);
+		}
+	}
+}
@@ -5,6 +5,8 @@ import java.util.TimerTask;
 public abstract class NamedTimerTask extends TimerTask {
 
 	private String descriptor;
+	private boolean canceled;
+	private HashedWheelTimer.Timeout timeout; // the scheduling of the task on a hashed wheel timer
 
 	public NamedTimerTask() {
 		this("<unnamed task>");
@@ -23,6 +25,34 @@ public abstract class NamedTimerTask extends TimerTask {
 		this.descriptor = descriptor;
 	}
 
+	synchronized void assignTimeout(final HashedWheelTimer.Timeout timeout) {
+		if (this.canceled || this.timeout != null) {
+			throw new IllegalStateException("Task already scheduled or cancelled");
+		}
+		this.timeout = timeout;
+	}
+
+	synchronized HashedWheelTimer.Timeout getTimeout() {
+		return this.timeout;
+	}
+
+	@Override
+	public boolean cancel() {
+		HashedWheelTimer.Timeout timeoutToCancel;
+		synchronized (this) {
+			this.canceled = true;
+			timeoutToCancel = this.timeout;
+		}
+		boolean preventedExecution = timeoutToCancel != null && timeoutToCancel.cancel();
+		return super.cancel() || preventedExecution;
+	}
+
+	@Override
+	public long scheduledExecutionTime() {
+		HashedWheelTimer.Timeout scheduledTimeout = this.getTimeout();
+		return scheduledTimeout != null ? scheduledTimeout.getScheduledExecutionTime() : super.scheduledExecutionTime();
+	}
+
 	@Override
 	public String toString() {
 		return "NamedTimerTask: " + this.descriptor;
@@ -1,13 +1,16 @@
 package ai.libs.jaicore.interrupt;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -25,6 +28,9 @@ import org.slf4j.LoggerFactory;
  * 2. the Interrupter tells the time when the thread was interrupted
  * 3. the Interrupter provides a reason for the interrupt
  *
+ * The open interrupts and black-listed reasons are kept separately for each thread in immutable records. Queries only read the record of the respective thread without any locking, and modifications only
+ * lock the entry of the modified thread, so threads do not block each other when they interrupt or resolve interrupts.
+ *
  * @author fmohr
  *
  */
@@ -44,16 +50,74 @@ public class Interrupter {
 		return instance;
 	}
 
-	private final Map<Thread, Set<Object>> blackListedInterruptReasons = new HashMap<>(); // interrupts to avoid when they arrive
-	private final List<Interrupt> openInterrupts = new LinkedList<>();
+	/**
+	 * The interrupts of a thread that have not been resolved yet and the reasons of interrupts to avoid when they arrive. Records are not modified but replaced.
+	 */
+	private static class ThreadInterrupts {
+		private final List<Interrupt> openInterrupts;
+		private final Set<Object> blackListedInterruptReasons;
+
+		private ThreadInterrupts(final List<Interrupt> openInterrupts, final Set<Object> blackListedInterruptReasons) {
+			this.openInterrupts = openInterrupts;
+			this.blackListedInterruptReasons = blackListedInterruptReasons;
+		}
+
+		private boolean hasInterruptWithReason(final Object reason) {
+			return this.openInterrupts.stream().anyMatch(i -> i.getReasonForInterruption().equals(reason));
+		}
+
+		private ThreadInterrupts withInterrupt(final Interrupt interrupt) {
+			List<Interrupt> interrupts = new ArrayList<>(this.openInterrupts);
+			interrupts.add(interrupt);
+			return new ThreadInterrupts(Collections.unmodifiableList(interrupts), this.blackListedInterruptReasons);
+		}
+
+		private ThreadInterrupts withoutInterruptsWithReason(final Object reason) {
+			return of(Collections.unmodifiableList(this.openInterrupts.stream().filter(i -> !i.getReasonForInterruption().equals(reason)).collect(Collectors.toList())), this.blackListedInterruptReasons);
+		}
+
+		private ThreadInterrupts withBlackListedReason(final Object reason) {
+			Set<Object> reasons = new HashSet<>(this.blackListedInterruptReasons);
+			reasons.add(reason);
+			return new ThreadInterrupts(this.openInterrupts, Collections.unmodifiableSet(reasons));
+		}
+
+		private ThreadInterrupts withoutBlackListedReason(final Object reason) {
+			Set<Object> reasons = new HashSet<>(this.blackListedInterruptReasons);
+			reasons.remove(reason);
+			return of(this.openInterrupts, Collections.unmodifiableSet(reasons));
+		}
+
+		/**
+		 * @return The record or NULL if there is nothing to record, so that the entry of the thread is removed
+		 */
+		private static ThreadInterrupts of(final List<Interrupt> openInterrupts, final Set<Object> blackListedInterruptReasons) {
+			return openInterrupts.isEmpty() && blackListedInterruptReasons.isEmpty() ? null : new ThreadInterrupts(openInterrupts, blackListedInterruptReasons);
+		}
+	}
+
+	private static final ThreadInterrupts NO_INTERRUPTS = new ThreadInterrupts(Collections.emptyList(), Collections.emptySet());
+
+	private final Map<Thread, ThreadInterrupts> interruptsOfThreads = new ConcurrentHashMap<>();
 
-	public synchronized void interruptThread(final Thread t, final Object reason) {
-		if (this.blackListedInterruptReasons.containsKey(t) && this.blackListedInterruptReasons.get(t).contains(reason)) {
-			this.blackListedInterruptReasons.get(t).remove(reason);
+	private ThreadInterrupts getInterruptsOfThread(final Thread thread) {
+		return this.interruptsOfThreads.getOrDefault(thread, NO_INTERRUPTS);
+	}
+
+	public void interruptThread(final Thread t, final Object reason) {
+		AtomicBoolean avoided = new AtomicBoolean(false);
+		Interrupt interrupt = new Interrupt(Thread.currentThread(), t, System.currentTimeMillis(), reason);
+		this.interruptsOfThreads.compute(t, (thread, interrupts) -> {
+			if (interrupts != null && interrupts.blackListedInterruptReasons.contains(reason)) {
+				avoided.set(true);
+				return interrupts.withoutBlackListedReason(reason);
+			}
+			return (interrupts != null ? interrupts : NO_INTERRUPTS).withInterrupt(interrupt);
+		});
+		if (avoided.get()) {
 			logger.info("Thread {} is not interrupted, because it has been marked to be avoided for reason {}. Removing the entry from the black list.", t, reason);
 			return;
 		}
-		this.openInterrupts.add(new Interrupt(Thread.currentThread(), t, System.currentTimeMillis(), reason));
 		logger.info("Interrupting {} on behalf of {} with reason {}", t, Thread.currentThread(), reason);
 		t.interrupt();
 		logger.info("Interrupt accomplished. Interrupt flag of {}: {}", t, t.isInterrupted());
@@ -68,22 +132,41 @@ public class Interrupter {
 	}
 
 	public Optional<Interrupt> getInterruptOfThreadWithReason(final Thread thread, final Object reason) {
-		return this.openInterrupts.stream().filter(i -> i.getInterruptedThread() == thread && i.getReasonForInterruption().equals(reason)).findFirst();
+		return this.getInterruptsOfThread(thread).openInterrupts.stream().filter(i -> i.getReasonForInterruption().equals(reason)).findFirst();
 	}
 
 	public void avoidInterrupt(final Thread t, final Object reason) {
-		if (!this.blackListedInterruptReasons.containsKey(t)) {
-			this.blackListedInterruptReasons.put(t, new HashSet<>());
-		}
-		this.blackListedInterruptReasons.get(t).add(reason);
+		this.interruptsOfThreads.compute(t, (thread, interrupts) -> (interrupts != null ? interrupts : NO_INTERRUPTS).withBlackListedReason(reason));
+	}
+
+	/**
+	 * Black-lists the reason for interrupts of the thread unless the thread has already been interrupted with that reason. Checking and black-listing is atomic with respect to interrupts of the thread.
+	 *
+	 * @param t
+	 *            The thread for which the interrupt is to be avoided
+	 * @param reason
+	 *            The reason of the interrupt
+	 * @return true if the reason has been black-listed and false if the thread has already been interrupted with the reason
+	 */
+	public boolean avoidInterruptUnlessInterrupted(final Thread t, final Object reason) {
+		AtomicBoolean blackListed = new AtomicBoolean(false);
+		this.interruptsOfThreads.compute(t, (thread, interrupts) -> {
+			if (interrupts != null && interrupts.hasInterruptWithReason(reason)) {
+				return interrupts;
+			}
+			blackListed.set(true);
+			return (interrupts != null ? interrupts : NO_INTERRUPTS).withBlackListedReason(reason);
+		});
+		return blackListed.get();
 	}
 
 	public boolean hasThreadBeenInterruptedWithReason(final Thread thread, final Object reason) {
-		boolean matches = this.openInterrupts.stream().anyMatch(i -> i.getInterruptedThread() == thread && i.getReasonForInterruption().equals(reason));
+		ThreadInterrupts interrupts = this.getInterruptsOfThread(thread);
+		boolean matches = interrupts.hasInterruptWithReason(reason);
 		if (logger.isDebugEnabled()) {
 			if (matches) {
-				logger.debug("Reasons for why thread {} has currently been interrupted: {}. Checked reason {} matched? {}", thread,
-						this.openInterrupts.stream().filter(t -> t.getInterruptedThread() == thread).map(Interrupt::getReasonForInterruption).collect(Collectors.toList()), reason, matches);
+				logger.debug("Reasons for why thread {} has currently been interrupted: {}. Checked reason {} matched? {}", thread, interrupts.openInterrupts.stream().map(Interrupt::getReasonForInterruption).collect(Collectors.toList()),
+						reason, matches);
 			} else {
 				logger.debug("Thread {} is currently not interrupted. In particular, it is not interrupted with reason {}", thread, reason);
 			}
@@ -91,12 +174,19 @@ public class Interrupter {
 		return matches;
 	}
 
+	/**
+	 * @return A snapshot of the unresolved interrupts of all threads
+	 */
 	public Collection<Interrupt> getAllUnresolvedInterrupts() {
-		return this.openInterrupts;
+		List<Interrupt> interrupts = new ArrayList<>();
+		for (ThreadInterrupts interruptsOfThread : this.interruptsOfThreads.values()) {
+			interrupts.addAll(interruptsOfThread.openInterrupts);
+		}
+		return interrupts;
 	}
 
 	public Collection<Interrupt> getAllUnresolvedInterruptsOfThread(final Thread thread) {
-		return this.openInterrupts.stream().filter(i -> i.getInterruptedThread() == thread).collect(Collectors.toList());
+		return this.getInterruptsOfThread(thread).openInterrupts;
 	}
 
 	public Optional<Interrupt> getLatestUnresolvedInterruptOfThread(final Thread thread) {
@@ -108,14 +198,13 @@ public class Interrupter {
 	}
 
 	public boolean hasCurrentThreadOpenInterrupts() {
-		Thread currentThread = Thread.currentThread();
-		return this.openInterrupts.stream().anyMatch(i -> i.getInterruptedThread() == currentThread);
+		return !this.getInterruptsOfThread(Thread.currentThread()).openInterrupts.isEmpty();
 	}
 
-	public synchronized void markInterruptOnCurrentThreadAsResolved(final Object reason) throws InterruptedException {
+	public void markInterruptOnCurrentThreadAsResolved(final Object reason) throws InterruptedException {
 		Thread ct = Thread.currentThread();
-		this.markInterruptAsResolved(ct, reason);
-		if (this.hasCurrentThreadOpenInterrupts()) {
+		int remainingInterrupts = this.resolveInterrupt(ct, reason);
+		if (remainingInterrupts > 0) {
 			Thread.interrupted(); // clear flag prior to throwing the InterruptedException
 			logger.info("Throwing a new InterruptedException after having resolved the current interrupt, because the thread still has open interrupts! The reasons for these are: {}",
 					this.getAllUnresolvedInterruptsOfThread(ct).stream().map(Interrupt::getReasonForInterruption).collect(Collectors.toList()));
@@ -123,15 +212,30 @@ public class Interrupter {
 		}
 	}
 
-	public synchronized void markInterruptAsResolved(final Thread t, final Object reason) {
-		if (!this.hasThreadBeenInterruptedWithReason(t, reason)) {
-			throw new IllegalArgumentException("The thread " + t + " has not been interrupted with reason " + reason + ". Reasons for which it has been interrupted: "
-					+ Interrupter.get().getAllUnresolvedInterruptsOfThread(Thread.currentThread()).stream().map(Interrupt::getReasonForInterruption).collect(Collectors.toList()));
-		}
+	public void markInterruptAsResolved(final Thread t, final Object reason) {
+		this.resolveInterrupt(t, reason);
+	}
+
+	/**
+	 * @return The number of interrupts of the thread that remain open
+	 */
+	private int resolveInterrupt(final Thread t, final Object reason) {
+		AtomicBoolean resolved = new AtomicBoolean(false);
+		AtomicInteger remainingInterrupts = new AtomicInteger();
 		logger.debug("Removing interrupt with reason {} from list of open interrupts for thread {}", reason, t);
-		this.openInterrupts.removeIf(i -> i.getInterruptedThread() == t && i.getReasonForInterruption().equals(reason));
-		if (this.getAllUnresolvedInterruptsOfThread(t).contains(reason)) {
-			throw new IllegalStateException("The interrupt should have been resolved, but it has not!");
+		this.interruptsOfThreads.computeIfPresent(t, (thread, interrupts) -> {
+			if (!interrupts.hasInterruptWithReason(reason)) {
+				return interrupts;
+			}
+			resolved.set(true);
+			ThreadInterrupts remaining = interrupts.withoutInterruptsWithReason(reason);
+			remainingInterrupts.set(remaining != null ? remaining.openInterrupts.size() : 0);
+			return remaining;
+		});
+		if (!resolved.get()) {
+			throw new IllegalArgumentException("The thread " + t + " has not been interrupted with reason " + reason + ". Reasons for which it has been interrupted: "
+					+ this.getAllUnresolvedInterruptsOfThread(t).stream().map(Interrupt::getReasonForInterruption).collect(Collectors.toList()));
 		}
+		return remainingInterrupts.get();
 	}
 }
@@ -1,5 +1,7 @@
 package ai.libs.jaicore.interrupt;
 
+import java.util.concurrent.CountDownLatch;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -10,8 +12,9 @@ public class InterruptionTimerTask extends NamedTimerTask {
 	private final Thread threadToBeInterrupted;
 	private final Object reason;
 	private final Runnable hookToExecutePriorToInterruption;
-	private boolean triggered = false;
-	private boolean finished = false;
+	private volatile boolean triggered = false;
+	private volatile boolean finished = false;
+	private final CountDownLatch finishedLatch = new CountDownLatch(1);
 
 	public InterruptionTimerTask(final String descriptor, final Thread threadToBeInterrupted, final Object reason, final Runnable hookToExecutePriorToInterruption) {
 		super(descriptor);
@@ -55,15 +58,19 @@ public class InterruptionTimerTask extends NamedTimerTask {
 		if (delay > 50) {
 			logger.warn("Interrupt is executed with a delay of {}ms", delay);
 		}
-		if (hookToExecutePriorToInterruption != null) {
-			logger.debug("Running pre-interruption hook");
-			hookToExecutePriorToInterruption.run();
-		} else {
-			logger.debug("No pre-interruption hook has been defined.");
+		try {
+			if (hookToExecutePriorToInterruption != null) {
+				logger.debug("Running pre-interruption hook");
+				hookToExecutePriorToInterruption.run();
+			} else {
+				logger.debug("No pre-interruption hook has been defined.");
+			}
+			logger.debug("Interrupting the thread.");
+			Interrupter.get().interruptThread(threadToBeInterrupted, reason);
+		} finally {
+			finished = true;
+			finishedLatch.countDown();
 		}
-		logger.debug("Interrupting the thread.");
-		Interrupter.get().interruptThread(threadToBeInterrupted, reason);
-		finished = true;
 	}
 
 	public boolean isTriggered() {
@@ -73,4 +80,22 @@ public class InterruptionTimerTask extends NamedTimerTask {
 	public boolean isFinished() {
 		return finished;
 	}
+
+	/**
+	 * Blocks until the task has been executed. Since the task usually interrupts the waiting thread, the wait is not interruptible, and interrupts that arrive while
+	 * waiting are restored afterwards.
+	 */
+	public void awaitFinished() {
+		boolean interrupted = false;
+		while (!finished) {
+			try {
+				finishedLatch.await();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
 }
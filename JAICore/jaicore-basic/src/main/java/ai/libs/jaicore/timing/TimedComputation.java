@@ -42,7 +42,11 @@ public abstract class TimedComputation {
 		} catch (Exception e) {
 			caughtException = e;
 		} finally {
-			task.cancel();
+			if (!task.cancel()) {
+
+				/* the task has already been started by the timer, so wait until it has interrupted the thread before the interrupts are resolved */
+				task.awaitFinished();
+			}
 		}
 
 		/* several circumstances define the state at this point:
@@ -62,31 +66,31 @@ public abstract class TimedComputation {
 		/* now make sure that
 		 * a) the timeoutTriggered flag is true iff the TimerTask for the timeout has been executed
 		 * b) the interrupt-flag of the thread is true iff there has been another open (or untracked) interrupt
+		 *
+		 * Since the task has either been canceled or has finished, its interrupt (if any) cannot arrive anymore, so that this does not need to be synchronized with other threads.
 		 * */
 		boolean timeoutTriggered = false;
-		synchronized (interrupter) {
 
-			/* if the timeout has been triggered (with caution) */
-			logger.debug("Checking for an interruption and resolving potential interrupts.");
-			if (interrupter.hasCurrentThreadBeenInterruptedWithReason(task)) {
-				logger.info("Thread has been interrupted internally. Resolving the interrupt (this may throw an InterruptedException).");
-				timeoutTriggered = true;
-				Thread.interrupted(); // clear the interrupted field
-				try {
-					Interrupter.get().markInterruptOnCurrentThreadAsResolved(task);
-				} catch (InterruptedException e) {
-					logger.debug("Re-interrupting current thread, because another interrupt has been open.");
-					Thread.currentThread().interrupt();
-				}
+		/* if the timeout has been triggered (with caution) */
+		logger.debug("Checking for an interruption and resolving potential interrupts.");
+		if (interrupter.hasCurrentThreadBeenInterruptedWithReason(task)) {
+			logger.info("Thread has been interrupted internally. Resolving the interrupt (this may throw an InterruptedException).");
+			timeoutTriggered = true;
+			Thread.interrupted(); // clear the interrupted field
+			try {
+				interrupter.markInterruptOnCurrentThreadAsResolved(task);
+			} catch (InterruptedException e) {
+				logger.debug("Re-interrupting current thread, because another interrupt has been open.");
+				Thread.currentThread().interrupt();
 			}
+		}
 
-			/* otherwise, if the thread has been interrupted directly and not as a consequence of a shutdown, forward the interrupt */
-			else if (task.isTriggered()) {
-				interrupter.avoidInterrupt(Thread.currentThread(), task);
-				logger.info("Interrupt is external, black-listed \"{}\" for interrupts on {} and re-throwing the exception.", task, Thread.currentThread());
-			}
-			assert !interrupter.hasCurrentThreadBeenInterruptedWithReason(task);
+		/* otherwise, if the thread has been interrupted directly and not as a consequence of a shutdown, forward the interrupt */
+		else if (task.isTriggered()) {
+			interrupter.avoidInterrupt(Thread.currentThread(), task);
+			logger.info("Interrupt is external, black-listed \"{}\" for interrupts on {} and re-throwing the exception.", task, Thread.currentThread());
 		}
+		assert !interrupter.hasCurrentThreadBeenInterruptedWithReason(task);
 
 		/* if there has been an exception, throw it if it is not the InterruptedException caused by the timeout (in this case, throw an AlgorithmTimeoutedException) */
 		if (caughtException != null) {
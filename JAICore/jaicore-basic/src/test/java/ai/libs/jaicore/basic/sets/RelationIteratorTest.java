@@ -0,0 +1,74 @@
+package ai.libs.jaicore.basic.sets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.junit.Test;
+
+import ai.libs.jaicore.basic.algorithm.AlgorithmExecutionCanceledException;
+import ai.libs.jaicore.basic.algorithm.exceptions.AlgorithmTimeoutedException;
+
+public class RelationIteratorTest {
+
+	private static final List<List<Integer>> SETS = Arrays.asList(Arrays.asList(0, 1, 2, 3), Arrays.asList(0, 1, 2), Arrays.asList(0, 1, 2, 3, 4));
+
+	private List<List<Integer>> enumerate(final RelationComputationProblem<Integer> problem) {
+		List<List<Integer>> tuples = new ArrayList<>();
+		new RelationIterator<>(problem).forEachRemaining(tuples::add);
+		return tuples;
+	}
+
+	private void testThatIteratorCoincidesWithLDSRelationComputer(final Predicate<List<Integer>> prefixFilter) throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmTimeoutedException {
+		RelationComputationProblem<Integer> problem = new RelationComputationProblem<>(SETS, prefixFilter);
+		List<List<Integer>> tuples = this.enumerate(problem);
+		List<List<Integer>> expectedTuples = new LDSRelationComputer<>(problem).call();
+		assertEquals(expectedTuples.size(), tuples.size());
+		assertEquals(new HashSet<>(expectedTuples), new HashSet<>(tuples));
+
+		/* tuples must be enumerated in lexicographic order */
+		for (int i = 1; i < tuples.size(); i++) {
+			List<Integer> previous = tuples.get(i - 1);
+			List<Integer> current = tuples.get(i);
+			int j = 0;
+			while (previous.get(j).equals(current.get(j))) {
+				j++;
+			}
+			assertTrue(previous.get(j) < current.get(j));
+		}
+	}
+
+	@Test
+	public void testCartesianProduct() throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmTimeoutedException {
+		this.testThatIteratorCoincidesWithLDSRelationComputer(t -> true);
+		assertEquals(60, this.enumerate(new RelationComputationProblem<>(SETS)).size());
+	}
+
+	@Test
+	public void testRelationWithPrunedPrefixes() throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmTimeoutedException {
+		this.testThatIteratorCoincidesWithLDSRelationComputer(t -> t.stream().mapToInt(x -> x).sum() % 3 != 1);
+		this.testThatIteratorCoincidesWithLDSRelationComputer(t -> t.size() < 2 || t.get(0) < t.get(1));
+	}
+
+	@Test
+	public void testEmptyRelation() {
+		assertFalse(new RelationIterator<>(new RelationComputationProblem<>(SETS, t -> t.size() < 3)).hasNext());
+		assertFalse(new RelationIterator<>(new RelationComputationProblem<>(SETS, t -> false)).hasNext());
+	}
+
+	@Test
+	public void testThatPrunedPrefixesAreNotExtended() {
+		List<List<Integer>> testedPrefixes = new ArrayList<>();
+		this.enumerate(new RelationComputationProblem<>(SETS, t -> {
+			testedPrefixes.add(new ArrayList<>(t));
+			return t.get(0) == 0;
+		}));
+		assertTrue(testedPrefixes.stream().noneMatch(t -> t.size() > 1 && t.get(0) != 0));
+	}
+}
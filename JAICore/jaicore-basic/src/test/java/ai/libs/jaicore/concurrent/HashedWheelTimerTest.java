@@ -0,0 +1,153 @@
+package ai.libs.jaicore.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HashedWheelTimerTest {
+
+	private static final int NUMBER_OF_TASKS = 100000;
+
+	private HashedWheelTimer timer;
+
+	private static class CountingTask extends NamedTimerTask {
+		private final AtomicInteger executions = new AtomicInteger();
+		private final CountDownLatch latch;
+		private volatile long timeOfExecution;
+
+		public CountingTask(final String descriptor, final CountDownLatch latch) {
+			super(descriptor);
+			this.latch = latch;
+		}
+
+		@Override
+		public void run() {
+			this.timeOfExecution = System.currentTimeMillis();
+			this.executions.incrementAndGet();
+			this.latch.countDown();
+		}
+	}
+
+	@Before
+	public void setup() {
+		this.timer = new HashedWheelTimer("test timer", 1, 64);
+	}
+
+	@After
+	public void tearDown() {
+		this.timer.cancel();
+	}
+
+	@Test
+	public void testThatTasksAreNotExecutedBeforeTheirDeadline() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(3);
+		List<CountingTask> tasks = new ArrayList<>();
+		for (long delay : new long[] { 10, 100, 300 }) { // the last delay exceeds a round of the wheel
+			CountingTask task = new CountingTask("task with delay " + delay, latch);
+			this.timer.schedule(task, delay);
+			tasks.add(task);
+		}
+		assertEquals(3, this.timer.getNumberOfActiveTasks());
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		for (CountingTask task : tasks) {
+			assertEquals(1, task.executions.get());
+			assertTrue("Task " + task + " has been executed before its scheduled execution time.", task.timeOfExecution >= task.scheduledExecutionTime());
+		}
+		assertTrue(this.timer.getActiveTasks().isEmpty());
+		assertEquals(3, this.timer.getNumberOfScheduledTasks());
+		assertEquals(3, this.timer.getNumberOfFiredTasks());
+		assertEquals(0, this.timer.getNumberOfCanceledTasks());
+	}
+
+	@Test
+	public void testThatCanceledTasksAreNotExecuted() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(1);
+		CountingTask canceledTask = new CountingTask("canceled task", latch);
+		CountingTask executedTask = new CountingTask("executed task", latch);
+		this.timer.schedule(canceledTask, 50);
+		this.timer.schedule(executedTask, 100);
+		assertTrue(this.timer.isTaskScheduled(canceledTask));
+		assertTrue(canceledTask.cancel());
+		assertFalse(this.timer.isTaskScheduled(canceledTask));
+		assertEquals(1, this.timer.getNumberOfActiveTasks());
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		assertEquals(0, canceledTask.executions.get());
+		assertFalse(executedTask.cancel());
+		assertEquals(1, this.timer.getNumberOfFiredTasks());
+		assertEquals(1, this.timer.getNumberOfCanceledTasks());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testThatTasksCannotBeScheduledTwice() {
+		CountingTask task = new CountingTask("task", new CountDownLatch(1));
+		this.timer.schedule(task, 1000);
+		this.timer.schedule(task, 1000);
+	}
+
+	@Test
+	public void testThatRepeatedTasksAreExecutedUntilTheyCancelThemselves() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(1);
+		AtomicInteger executions = new AtomicInteger();
+		NamedTimerTask task = new NamedTimerTask("repeated task") {
+
+			@Override
+			public void run() {
+				if (executions.incrementAndGet() == 5) {
+					this.cancel();
+					latch.countDown();
+				}
+			}
+		};
+		this.timer.scheduleAtFixedRate(task, 0, 10);
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		Thread.sleep(100);
+		assertEquals(5, executions.get());
+		assertTrue(this.timer.getActiveTasks().isEmpty());
+		assertEquals(5, this.timer.getNumberOfFiredTasks());
+		assertEquals(1, this.timer.getNumberOfCanceledTasks());
+	}
+
+	@Test
+	public void testConcurrentSchedulingAndCancelingOfManyTasks() throws InterruptedException {
+		int numberOfThreads = 8;
+		int tasksPerThread = NUMBER_OF_TASKS / numberOfThreads;
+		CountDownLatch latch = new CountDownLatch(numberOfThreads * tasksPerThread / 2);
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < numberOfThreads; t++) {
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < tasksPerThread; i++) {
+					NamedTimerTask task = new NamedTimerTask("task " + i) {
+						@Override
+						public void run() {
+							latch.countDown();
+						}
+					};
+					HashedWheelTimerTest.this.timer.schedule(task, i % 2 == 0 ? 1000 : i % 200);
+					if (i % 2 == 0) {
+						task.cancel();
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		assertEquals(numberOfThreads * tasksPerThread, this.timer.getNumberOfScheduledTasks());
+		assertEquals(numberOfThreads * tasksPerThread / 2, this.timer.getNumberOfCanceledTasks());
+		assertEquals(numberOfThreads * tasksPerThread / 2, this.timer.getNumberOfFiredTasks());
+		assertEquals(0, this.timer.getNumberOfActiveTasks());
+	}
+}
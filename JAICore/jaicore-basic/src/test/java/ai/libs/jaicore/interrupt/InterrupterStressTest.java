@@ -0,0 +1,117 @@
+package ai.libs.jaicore.interrupt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import ai.libs.jaicore.basic.algorithm.exceptions.AlgorithmTimeoutedException;
+import ai.libs.jaicore.timing.TimedComputation;
+
+/**
+ * Lets many threads interrupt themselves, avoid interrupts, and run timed computations through the Interrupter at the same time and checks that no interrupt gets lost or remains open.
+ *
+ * @author fmohr
+ *
+ */
+public class InterrupterStressTest {
+
+	private static final int NUMBER_OF_THREADS = 64;
+	private static final int INTERRUPTS_PER_THREAD = 2000;
+	private static final int TIMED_COMPUTATIONS_PER_THREAD = 4;
+
+	private interface StressAction {
+		public void run(int thread) throws Exception;
+	}
+
+	private void runConcurrently(final StressAction action) throws InterruptedException {
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+			final int threadIndex = i;
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+					action.run(threadIndex);
+				} catch (Throwable e) {
+					failure.compareAndSet(null, e);
+				}
+			}, "stress-thread-" + i);
+			threads.add(thread);
+			thread.start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertNull("A thread has failed: " + failure.get(), failure.get());
+		assertTrue("Interrupter still has unresolved interrupts: " + Interrupter.get().getAllUnresolvedInterrupts(), Interrupter.get().getAllUnresolvedInterrupts().isEmpty());
+	}
+
+	@Test
+	public void testManagedInterruptsOfManyThreads() throws InterruptedException {
+		Interrupter interrupter = Interrupter.get();
+		AtomicInteger resolvedInterrupts = new AtomicInteger();
+		AtomicInteger avoidedInterrupts = new AtomicInteger();
+		this.runConcurrently(thread -> {
+			for (int i = 0; i < INTERRUPTS_PER_THREAD; i++) {
+
+				/* interrupt the thread and resolve the interrupt */
+				Object reason = "interrupt " + i + " of thread " + thread;
+				interrupter.interruptThread(Thread.currentThread(), reason);
+				assertTrue(Thread.interrupted());
+				assertTrue(interrupter.hasCurrentThreadBeenInterruptedWithReason(reason));
+				interrupter.markInterruptOnCurrentThreadAsResolved(reason);
+				assertFalse(interrupter.hasCurrentThreadOpenInterrupts());
+				resolvedInterrupts.incrementAndGet();
+
+				/* black-list a reason, which must swallow the next interrupt with it */
+				Object avoidedReason = "avoided interrupt " + i + " of thread " + thread;
+				assertTrue(interrupter.avoidInterruptUnlessInterrupted(Thread.currentThread(), avoidedReason));
+				interrupter.interruptThread(Thread.currentThread(), avoidedReason);
+				assertFalse(Thread.currentThread().isInterrupted());
+				assertFalse(interrupter.hasCurrentThreadOpenInterrupts());
+				avoidedInterrupts.incrementAndGet();
+			}
+		});
+		assertEquals(NUMBER_OF_THREADS * INTERRUPTS_PER_THREAD, resolvedInterrupts.get());
+		assertEquals(NUMBER_OF_THREADS * INTERRUPTS_PER_THREAD, avoidedInterrupts.get());
+	}
+
+	@Test
+	public void testTimedComputationsOfManyThreads() throws InterruptedException {
+		AtomicInteger timeouts = new AtomicInteger();
+		AtomicInteger results = new AtomicInteger();
+		this.runConcurrently(thread -> {
+			for (int i = 0; i < TIMED_COMPUTATIONS_PER_THREAD; i++) {
+				boolean mustTimeout = (thread + i) % 2 == 0;
+				try {
+					TimedComputation.compute(() -> {
+						if (mustTimeout) {
+							Thread.sleep(10000); // is interrupted by the timeout
+						}
+						return thread;
+					}, mustTimeout ? 10 : 10000, "stress test");
+					assertFalse(mustTimeout);
+					results.incrementAndGet();
+				} catch (AlgorithmTimeoutedException e) {
+					assertTrue(mustTimeout);
+					timeouts.incrementAndGet();
+				}
+				assertFalse(Thread.currentThread().isInterrupted());
+				assertFalse(Interrupter.get().hasCurrentThreadOpenInterrupts());
+			}
+		});
+		assertEquals(NUMBER_OF_THREADS * TIMED_COMPUTATIONS_PER_THREAD / 2, timeouts.get());
+		assertEquals(NUMBER_OF_THREADS * TIMED_COMPUTATIONS_PER_THREAD / 2, results.get());
+	}
+}
@@ -5,10 +5,13 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -19,8 +22,8 @@ import ai.libs.jaicore.basic.ILoggingCustomizable;
 import ai.libs.jaicore.basic.StringUtil;
 import ai.libs.jaicore.basic.algorithm.AlgorithmExecutionCanceledException;
 import ai.libs.jaicore.basic.algorithm.exceptions.AlgorithmTimeoutedException;
-import ai.libs.jaicore.basic.sets.LDSRelationComputer;
 import ai.libs.jaicore.basic.sets.RelationComputationProblem;
+import ai.libs.jaicore.basic.sets.RelationIterator;
 import ai.libs.jaicore.experiments.exceptions.ExperimentAlreadyExistsInDatabaseException;
 import ai.libs.jaicore.experiments.exceptions.ExperimentDBInteractionFailedException;
 import ai.libs.jaicore.experiments.exceptions.IllegalExperimentSetupException;
@@ -31,6 +34,7 @@ public class ExperimentDatabasePreparer implements ILoggingCustomizable {
 
 	private static final String PROTOCOL_JAVA = "java:";
 	private static final int MAX_MEM_DEVIATION = 50;
+	private static final int DEFAULT_CHUNK_SIZE = 10000;
 
 	private static final String LOGMESSAGE_CREATEINSTANCE = "Create a new instance of {} and ask it for the number of possible values.";
 
@@ -89,26 +93,57 @@ public class ExperimentDatabasePreparer implements ILoggingCustomizable {
 	 * @throws AlgorithmExecutionCanceledException
 	 */
 	public List<ExperimentDBEntry> synchronizeExperiments() throws ExperimentDBInteractionFailedException, IllegalExperimentSetupException, ExperimentAlreadyExistsInDatabaseException, AlgorithmTimeoutedException, InterruptedException, AlgorithmExecutionCanceledException {
+		List<ExperimentDBEntry> entries = new ArrayList<>();
+		this.synchronizeExperiments(DEFAULT_CHUNK_SIZE, entries::addAll);
+		this.logger.info("Ids of {} inserted entries: {}", entries.size(), entries.stream().map(ExperimentDBEntry::getId).collect(Collectors.toList()));
+		return entries;
+	}
 
-		/* compute all experiments */
-		List<Map<String, String>> tmpPossibleKeyCombinations = this.getAllPossibleKeyCombinations();
-		this.logger.debug("Determined {} possible combinations. Will now remove keys that are already contained.", tmpPossibleKeyCombinations.size());
-		int removed = 0;
-		Collection<ExperimentDBEntry> installedExperiments = this.handle.getAllExperiments();
-		this.logger.debug("Identified {} installed experiments. Removing these from the list of all possible experiments.", installedExperiments.size());
-		for (ExperimentDBEntry experiment : installedExperiments) {
-			tmpPossibleKeyCombinations.remove(experiment.getExperiment().getValuesOfKeyFields());
-			removed ++;
+	/**
+	 * Creates all experiments in the database that should exist with respect to the configuration but have not been created yet without holding the grid in memory.
+	 * The key combinations are enumerated lazily, and the missing experiments are created in chunks, which are passed to the consumer and can then be discarded.
+	 * Only the key values of the installed experiments are retrieved from the database and kept in memory, so the memory is linear in the number of installed
+	 * experiments and the chunk size, but does not depend on their results.
+	 *
+	 * @param chunkSize
+	 *            The number of experiments that are created at once
+	 * @param createdExperimentsConsumer
+	 *            Consumer for the entries of each chunk of created experiments
+	 * @return The number of created experiments
+	 * @throws ExperimentDBInteractionFailedException
+	 * @throws IllegalExperimentSetupException
+	 * @throws ExperimentAlreadyExistsInDatabaseException
+	 */
+	public int synchronizeExperiments(final int chunkSize, final Consumer<List<ExperimentDBEntry>> createdExperimentsConsumer) throws ExperimentDBInteractionFailedException, IllegalExperimentSetupException, ExperimentAlreadyExistsInDatabaseException {
+
+		/* only the keys of the installed experiments are kept in memory, and the created ones are added, so that combinations enumerated twice are created once */
+		Set<Map<String, String>> installedKeyCombinations = this.handle.getKeysOfAllExperiments();
+		int numberOfInstalledExperiments = installedKeyCombinations.size();
+		this.logger.debug("Identified {} installed experiments. These will be skipped when enumerating all possible experiments.", numberOfInstalledExperiments);
+
+		/* create the missing experiments chunk by chunk */
+		Iterator<Map<String, String>> keyCombinations = this.getPossibleKeyCombinationIterator();
+		List<Experiment> chunk = new ArrayList<>(chunkSize);
+		int numberOfCreatedExperiments = 0;
+		while (keyCombinations.hasNext()) {
+			Map<String, String> keyCombination = keyCombinations.next();
+			if (!installedKeyCombinations.add(keyCombination)) {
+				continue;
+			}
+			chunk.add(new Experiment(this.memoryLimit, this.cpuLimit, keyCombination));
+			if (chunk.size() == chunkSize) {
+				createdExperimentsConsumer.accept(this.handle.createAndGetExperiments(chunk));
+				numberOfCreatedExperiments += chunk.size();
+				this.logger.debug("Created {} experiments so far.", numberOfCreatedExperiments);
+				chunk = new ArrayList<>(chunkSize);
+			}
 		}
-		this.logger.debug("{} experiments already exist. Number of experiments that will be created now is {}.", removed, tmpPossibleKeyCombinations.size());
-		if (tmpPossibleKeyCombinations.isEmpty()) {
-			return new ArrayList<>(0);
+		if (!chunk.isEmpty()) {
+			createdExperimentsConsumer.accept(this.handle.createAndGetExperiments(chunk));
+			numberOfCreatedExperiments += chunk.size();
 		}
-
-		/* create experiments */
-		List<ExperimentDBEntry> entries = this.handle.createAndGetExperiments(tmpPossibleKeyCombinations.stream().map(t -> new Experiment(this.memoryLimit, this.cpuLimit, t)).collect(Collectors.toList()));
-		this.logger.info("Ids of {} inserted entries: {}", entries.size(), entries.stream().map(ExperimentDBEntry::getId).collect(Collectors.toList()));
-		return entries;
+		this.logger.info("{} experiments already existed. Created {} experiments.", numberOfInstalledExperiments, numberOfCreatedExperiments);
+		return numberOfCreatedExperiments;
 	}
 
 	private void updateExperimentSetupAccordingToConfigFromDatabase() throws ExperimentDBInteractionFailedException {
@@ -202,48 +237,70 @@ public class ExperimentDatabasePreparer implements ILoggingCustomizable {
 	public List<Map<String, String>> getAllPossibleKeyCombinations() throws IllegalExperimentSetupException, ExperimentDBInteractionFailedException, AlgorithmTimeoutedException, InterruptedException, AlgorithmExecutionCanceledException {
 		if (this.possibleKeyCombinations == null) {
 			this.logger.debug("Computing all possible experiments.");
-			this.updateExperimentSetupAccordingToConfigFromScratch();
+			List<Map<String, String>> combinations = new ArrayList<>();
+			this.getPossibleKeyCombinationIterator().forEachRemaining(combinations::add);
+			this.logger.info("Obtained {} key combinations.", combinations.size());
+			this.possibleKeyCombinations = combinations;
+		}
+		return this.possibleKeyCombinations;
+	}
 
-			/* build cartesian product over all possible key-value */
-			List<List<String>> values = new ArrayList<>();
-			for (String key : this.keyFields) {
-				if (!this.valuesForKeyFieldsInConfig.containsKey(key)) {
-					throw new IllegalStateException("No values for key " + key + " have been defined!");
-				}
-				List<String> valuesForKey = this.getAllValuesForKey(key);
-				this.logger.debug("Retrieving {} values for key {}. Enable TRACE to see all values.", valuesForKey.size(), key);
-				this.logger.trace("Values for key {}: {}", key, valuesForKey);
-				values.add(valuesForKey);
+	/**
+	 * Enumerates the key combinations lazily. The constraints are applied to every prefix of a combination, so combinations with inadmissible prefixes are never generated.
+	 *
+	 * @return Iterator over all key combinations that satisfy the constraints of the configuration
+	 * @throws IllegalExperimentSetupException
+	 * @throws ExperimentDBInteractionFailedException
+	 */
+	public Iterator<Map<String, String>> getPossibleKeyCombinationIterator() throws IllegalExperimentSetupException, ExperimentDBInteractionFailedException {
+		this.updateExperimentSetupAccordingToConfigFromScratch();
+
+		/* collect the values of each key */
+		List<List<String>> values = new ArrayList<>();
+		for (String key : this.keyFields) {
+			if (!this.valuesForKeyFieldsInConfig.containsKey(key)) {
+				throw new IllegalStateException("No values for key " + key + " have been defined!");
 			}
+			List<String> valuesForKey = this.getAllValuesForKey(key);
+			this.logger.debug("Retrieving {} values for key {}. Enable TRACE to see all values.", valuesForKey.size(), key);
+			this.logger.trace("Values for key {}: {}", key, valuesForKey);
+			values.add(valuesForKey);
+		}
 
-			/* get constraints */
-			List<Predicate<List<String>>> constraints = new ArrayList<>();
-			if (this.config.getConstraints() != null) {
-				for (String p : this.config.getConstraints()) {
-					if (!p.startsWith(PROTOCOL_JAVA)) {
-						this.logger.warn("Ignoring constraint {} since currently only java constraints are allowed.", p);
-						continue;
-					}
-					try {
-						constraints.add((Predicate<List<String>>)Class.forName(p.substring(PROTOCOL_JAVA.length()).trim()).newInstance());
-					} catch (InstantiationException | IllegalAccessException | ClassNotFoundException e) {
-						this.logger.error("Error in loading constraint {}: {}", p, e);
-					}
+		/* get constraints */
+		List<Predicate<List<String>>> constraints = new ArrayList<>();
+		if (this.config.getConstraints() != null) {
+			for (String p : this.config.getConstraints()) {
+				if (!p.startsWith(PROTOCOL_JAVA)) {
+					this.logger.warn("Ignoring constraint {} since currently only java constraints are allowed.", p);
+					continue;
+				}
+				try {
+					constraints.add((Predicate<List<String>>)Class.forName(p.substring(PROTOCOL_JAVA.length()).trim()).newInstance());
+				} catch (InstantiationException | IllegalAccessException | ClassNotFoundException e) {
+					this.logger.error("Error in loading constraint {}: {}", p, e);
 				}
 			}
+		}
 
-			/* create one experiment object from every tuple */
-			if (this.logger.isDebugEnabled()) {
-				this.logger.debug("Building relation from {} cartesian product with {} constraints.", values.stream().map(l -> "" + l.size()).collect(Collectors.joining(" x ")), constraints.size());
-			}
-			RelationComputationProblem<String> problem = constraints.isEmpty() ? new RelationComputationProblem<>(values) : new RelationComputationProblem<>(values, constraints.get(0));
-			LDSRelationComputer<String> lc = new LDSRelationComputer<>(problem);
-			lc.setLoggerName(this.getLoggerName() + ".relationcomputer");
-			List<List<String>> combinationsAsList = lc.call();
-			this.logger.info("Obtained {} key combinations. Now building maps from these.", combinationsAsList.size());
-			this.possibleKeyCombinations = combinationsAsList.stream().map(this::mapValuesToKeyValueMap).collect(Collectors.toList());
+		/* enumerate the tuples of the cartesian product that satisfy all constraints */
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug("Enumerating relation of {} cartesian product with {} constraints.", values.stream().map(l -> "" + l.size()).collect(Collectors.joining(" x ")), constraints.size());
 		}
-		return this.possibleKeyCombinations;
+		RelationComputationProblem<String> problem = new RelationComputationProblem<>(values, constraints.stream().reduce(Predicate::and).orElse(t -> true));
+		RelationIterator<String> tuples = new RelationIterator<>(problem);
+		return new Iterator<Map<String, String>>() {
+
+			@Override
+			public boolean hasNext() {
+				return tuples.hasNext();
+			}
+
+			@Override
+			public Map<String, String> next() {
+				return ExperimentDatabasePreparer.this.mapValuesToKeyValueMap(tuples.next());
+			}
+		};
 	}
 
 	private Map<String, String> mapValuesToKeyValueMap(final List<String> values) {
@@ -1,7 +1,16 @@
 package ai.libs.jaicore.experiments;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -19,6 +28,10 @@ import ai.libs.jaicore.experiments.exceptions.IllegalExperimentSetupException;
 /**
  * This class is used to run experiments.
  *
+ * The runner conducts experiments in a configurable number of slots in parallel, and the memory and CPUs available to the JVM are divided equally among the slots.
+ * Whenever slots become free, as many open experiments as there are free slots are claimed at once, so that no claimed experiment waits for a slot.
+ * If the runner or one of the slots is interrupted, the claimed experiments that have not been finished are released, and the runner throws an {@link InterruptedException}.
+ *
  * @author fmohr
  *
  */
@@ -30,9 +43,22 @@ public class ExperimentRunner implements ILoggingCustomizable {
 	private final IExperimentSetConfig config;
 	private final IExperimentSetEvaluator conductor;
 	private final IExperimentDatabaseHandle handle;
+	private final int numberOfSlots;
 	private final int availableMemoryInMB;
+	private final int availableCPUs;
 
 	public ExperimentRunner(final IExperimentSetConfig config, final IExperimentSetEvaluator conductor, final IExperimentDatabaseHandle databaseHandle) throws ExperimentDBInteractionFailedException {
+		this(config, conductor, databaseHandle, 1);
+	}
+
+	/**
+	 * @param numberOfSlots
+	 *            The number of experiments that are conducted in parallel. Each experiment must declare the share of the memory and CPUs of the JVM that is available to a slot.
+	 */
+	public ExperimentRunner(final IExperimentSetConfig config, final IExperimentSetEvaluator conductor, final IExperimentDatabaseHandle databaseHandle, final int numberOfSlots) throws ExperimentDBInteractionFailedException {
+		if (numberOfSlots < 1) {
+			throw new IllegalArgumentException("The number of slots must be positive but is " + numberOfSlots);
+		}
 
 		/* check data base configuration */
 		this.config = config;
@@ -41,7 +67,9 @@ public class ExperimentRunner implements ILoggingCustomizable {
 		this.logger.debug("Created ExperimentRunner. Now updating its configuration from the database.");
 		this.logger.info("Successfully created and initialized ExperimentRunner.");
 		this.handle.setup(config);
-		this.availableMemoryInMB = (int)(Runtime.getRuntime().maxMemory() / 1024 / 1024);
+		this.numberOfSlots = numberOfSlots;
+		this.availableMemoryInMB = (int)(Runtime.getRuntime().maxMemory() / 1024 / 1024 / numberOfSlots);
+		this.availableCPUs = Math.max(1, Runtime.getRuntime().availableProcessors() / numberOfSlots);
 	}
 
 	/**
@@ -58,26 +86,92 @@ public class ExperimentRunner implements ILoggingCustomizable {
 	 * @throws IllegalExperimentSetupException
 	 */
 	public void randomlyConductExperiments(final int maxNumberOfExperiments) throws ExperimentDBInteractionFailedException, InterruptedException {
-		this.logger.info("Starting to run up to {} experiments.", maxNumberOfExperiments);
-
-		int numberOfConductedExperiments = 0;
-		while (!Thread.interrupted() && (maxNumberOfExperiments <= 0 || numberOfConductedExperiments < maxNumberOfExperiments)) {
-			List<ExperimentDBEntry> openRandomExperiments = this.handle.getRandomOpenExperiments(1);
-			if (openRandomExperiments.isEmpty()) {
-				this.logger.info("No more open experiments found.");
-				break;
+		this.logger.info("Starting to run up to {} experiments in {} slots.", maxNumberOfExperiments, this.numberOfSlots);
+
+		Set<ExperimentDBEntry> experimentsWaitingForSlot = ConcurrentHashMap.newKeySet();
+		Semaphore freeSlots = new Semaphore(this.numberOfSlots);
+		AtomicInteger numberOfConductedExperiments = new AtomicInteger();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		AtomicInteger counter = new AtomicInteger(0);
+		ExecutorService slots = Executors.newFixedThreadPool(this.numberOfSlots, r -> {
+			Thread t = new Thread(r);
+			t.setName("ExperimentRunner-slot-" + counter.incrementAndGet());
+			return t;
+		});
+		int numberOfStartedExperiments = 0;
+		try {
+			while (failure.get() == null && (maxNumberOfExperiments <= 0 || numberOfStartedExperiments < maxNumberOfExperiments)) {
+				if (Thread.interrupted()) {
+					throw new InterruptedException("The experiment runner has been interrupted.");
+				}
+
+				/* wait for a free slot and claim one experiment for each free slot, so that the experiments are started right when they are claimed */
+				freeSlots.acquire();
+				int numberOfFreeSlots = 1 + freeSlots.drainPermits();
+				if (failure.get() != null) {
+					break;
+				}
+				int batchSize = maxNumberOfExperiments <= 0 ? numberOfFreeSlots : Math.min(numberOfFreeSlots, maxNumberOfExperiments - numberOfStartedExperiments);
+				List<ExperimentDBEntry> claimedExperiments = this.handle.startRandomOpenExperiments(batchSize);
+				freeSlots.release(numberOfFreeSlots - claimedExperiments.size());
+				if (claimedExperiments.isEmpty()) {
+					this.logger.info("No more open experiments found.");
+					break;
+				}
+				this.logger.debug("Claimed {} experiments.", claimedExperiments.size());
+				for (ExperimentDBEntry exp : claimedExperiments) {
+					numberOfStartedExperiments++;
+					experimentsWaitingForSlot.add(exp);
+					slots.submit(() -> {
+						experimentsWaitingForSlot.remove(exp);
+						try {
+							this.conductStartedExperiment(exp);
+							numberOfConductedExperiments.incrementAndGet();
+						} catch (Throwable e) { // errors must also stop the runner, since they would otherwise be swallowed by the executor
+							failure.compareAndSet(null, e); // an interrupted experiment has been released, and the runner stops
+						} finally {
+							freeSlots.release();
+						}
+					});
+				}
+			}
+		} catch (InterruptedException e) {
+			slots.shutdownNow(); // the interrupted slots release their experiments
+			throw e;
+		} finally {
+			slots.shutdown();
+			try {
+				slots.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				slots.shutdownNow();
+				throw e;
+			} finally {
+				this.releaseExperiments(experimentsWaitingForSlot); // submitted experiments that have not been taken by a slot before the shutdown
 			}
-			ExperimentDBEntry exp = openRandomExperiments.get(0);
-			this.checkExperimentValidity(exp.getExperiment());
-			this.logger.info("Conduct experiment with key values: {}", exp.getExperiment().getValuesOfKeyFields());
+		}
+		if (failure.get() instanceof InterruptedException) {
+			throw (InterruptedException) failure.get();
+		}
+		if (failure.get() instanceof ExperimentDBInteractionFailedException) {
+			throw (ExperimentDBInteractionFailedException) failure.get();
+		}
+		if (failure.get() instanceof Error) {
+			throw (Error) failure.get();
+		}
+		if (failure.get() != null) {
+			throw (RuntimeException) failure.get();
+		}
+		this.logger.info("Successfully finished {} experiments.", numberOfConductedExperiments.get());
+	}
+
+	private void releaseExperiments(final Collection<ExperimentDBEntry> experiments) {
+		for (ExperimentDBEntry exp : experiments) {
 			try {
-				this.conductExperiment(exp);
-				numberOfConductedExperiments++;
-			} catch (ExperimentAlreadyStartedException e) {
-				this.logger.warn("Experiment was conducted in the meanwhile.");
+				this.handle.releaseExperiment(exp);
+			} catch (ExperimentDBInteractionFailedException e) {
+				this.logger.error("Could not release claimed but not conducted experiment {}. Message of {}: {}", exp.getId(), e.getClass().getName(), e.getMessage());
 			}
 		}
-		this.logger.info("Successfully finished {} experiments.", numberOfConductedExperiments);
 	}
 
 	/**
@@ -109,21 +203,32 @@ public class ExperimentRunner implements ILoggingCustomizable {
 	 *             experiment
 	 */
 	public void conductExperiment(final ExperimentDBEntry expEntry) throws ExperimentDBInteractionFailedException, ExperimentAlreadyStartedException, InterruptedException {
-
-		/* run experiment */
 		if (expEntry == null) {
 			throw new IllegalArgumentException("Cannot conduct NULL experiment!");
 		}
+		this.checkExperimentResources(expEntry.getExperiment());
+		this.handle.startExperiment(expEntry);
+		this.runExperiment(expEntry);
+	}
+
+	/**
+	 * Conducts an experiment that has already been started by this runner. If the experiment cannot be conducted in a slot or its evaluation is interrupted, it is released again.
+	 */
+	private void conductStartedExperiment(final ExperimentDBEntry expEntry) throws ExperimentDBInteractionFailedException, InterruptedException {
+		try {
+			this.checkExperimentValidity(expEntry.getExperiment());
+			this.checkExperimentResources(expEntry.getExperiment());
+		} catch (RuntimeException e) {
+			this.handle.releaseExperiment(expEntry);
+			throw e;
+		}
+		this.logger.info("Conduct experiment with key values: {}", expEntry.getExperiment().getValuesOfKeyFields());
+		this.runExperiment(expEntry);
+	}
+
+	private void runExperiment(final ExperimentDBEntry expEntry) throws ExperimentDBInteractionFailedException, InterruptedException {
 		Throwable error = null;
 		try {
-			double memoryDeviation = Math.abs(expEntry.getExperiment().getMemoryInMB() - this.availableMemoryInMB) * 1f / expEntry.getExperiment().getMemoryInMB();
-			if (memoryDeviation > MAX_MEM_DEVIATION) {
-				throw new IllegalStateException("Cannot conduct experiment " + expEntry.getExperiment() + ", because the available memory is " + this.availableMemoryInMB + " where declared is " + expEntry.getExperiment().getMemoryInMB() + ". Deviation: " + memoryDeviation);
-			}
-			if (expEntry.getExperiment().getNumCPUs() > Runtime.getRuntime().availableProcessors()) {
-				throw new IllegalStateException("Cannot conduct experiment " + expEntry.getExperiment() + ", because only " + Runtime.getRuntime().availableProcessors() + " CPU cores are available where declared is " + expEntry.getExperiment().getNumCPUs());
-			}
-			this.handle.startExperiment(expEntry);
 			this.conductor.evaluate(expEntry, m -> {
 				try {
 					this.handle.updateExperiment(expEntry, m);
@@ -132,13 +237,33 @@ public class ExperimentRunner implements ILoggingCustomizable {
 				}
 			});
 
+		} catch (InterruptedException e) {
+			this.logger.info("Evaluation of experiment {} has been interrupted, releasing it.", expEntry.getId());
+			this.handle.releaseExperiment(expEntry);
+			throw e;
 		} catch (ExperimentEvaluationFailedException e) {
 			error = e.getCause();
 			this.logger.error("Experiment failed due to {}. Message: {}. Stack trace: {}", error.getClass().getName(), error.getMessage(), Arrays.asList(error.getStackTrace()).stream().map(s -> "\n\t" + s).collect(Collectors.toList()));
+		} catch (RuntimeException | Error e) {
+
+			/* the experiment is finished with the unexpected exception, so that it does not appear to be running forever, and the exception is passed on */
+			this.logger.error("Evaluation of experiment {} threw an unexpected {}.", expEntry.getId(), e.getClass().getName(), e);
+			this.handle.finishExperiment(expEntry, e);
+			throw e;
 		}
 		this.handle.finishExperiment(expEntry, error);
 	}
 
+	private void checkExperimentResources(final Experiment experiment) {
+		double memoryDeviation = Math.abs(experiment.getMemoryInMB() - this.availableMemoryInMB) * 1f / experiment.getMemoryInMB();
+		if (memoryDeviation > MAX_MEM_DEVIATION) {
+			throw new IllegalStateException("Cannot conduct experiment " + experiment + ", because the available memory is " + this.availableMemoryInMB + " where declared is " + experiment.getMemoryInMB() + ". Deviation: " + memoryDeviation);
+		}
+		if (experiment.getNumCPUs() > this.availableCPUs) {
+			throw new IllegalStateException("Cannot conduct experiment " + experiment + ", because only " + this.availableCPUs + " CPU cores are available where declared is " + experiment.getNumCPUs());
+		}
+	}
+
 	private void checkExperimentValidity(final Experiment experiment) {
 		if (SetUtil.differenceNotEmpty(this.config.getKeyFields(), experiment.getValuesOfKeyFields().keySet())) {
 			throw new IllegalArgumentException("The experiment " + experiment + " is invalid, because key fields have not been defined: " + SetUtil.difference(this.config.getKeyFields(), experiment.getValuesOfKeyFields().keySet()));
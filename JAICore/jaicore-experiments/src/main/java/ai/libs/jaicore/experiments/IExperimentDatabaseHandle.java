@@ -3,6 +3,7 @@ package ai.libs.jaicore.experiments;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import ai.libs.jaicore.experiments.exceptions.ExperimentAlreadyExistsInDatabaseException;
 import ai.libs.jaicore.experiments.exceptions.ExperimentAlreadyStartedException;
@@ -40,6 +41,14 @@ public interface IExperimentDatabaseHandle {
 	 */
 	public List<ExperimentDBEntry> getAllExperiments() throws ExperimentDBInteractionFailedException;
 
+	/**
+	 * Returns the values of the key fields of all experiments contained in the database. In contrast to {@link #getAllExperiments()}, the result values are not retrieved.
+	 *
+	 * @return Set of the key field values of all experiments
+	 * @throws ExperimentDBInteractionFailedException
+	 */
+	public Set<Map<String, String>> getKeysOfAllExperiments() throws ExperimentDBInteractionFailedException;
+
 	/**
 	 * Returns a list of all experiments contained in the database
 	 *
@@ -118,6 +127,24 @@ public interface IExperimentDatabaseHandle {
 	 */
 	public void startExperiment(final ExperimentDBEntry exp) throws ExperimentAlreadyStartedException, ExperimentUpdateFailedException;
 
+	/**
+	 * Atomically marks up to limit randomly chosen open experiments as started on the current machine.
+	 * In contrast to starting experiments obtained by getRandomOpenExperiments, no other runner can start the returned experiments anymore.
+	 *
+	 * @param limit Maximum number of experiments that should be started
+	 * @return List of experiments that have been started, which is empty if there are no open experiments
+	 * @throws ExperimentDBInteractionFailedException
+	 */
+	public List<ExperimentDBEntry> startRandomOpenExperiments(int limit) throws ExperimentDBInteractionFailedException;
+
+	/**
+	 * Marks an experiment that has been started but not conducted as open again.
+	 *
+	 * @param exp The experiment that has been started on the current machine
+	 * @throws ExperimentDBInteractionFailedException
+	 */
+	public void releaseExperiment(final ExperimentDBEntry exp) throws ExperimentDBInteractionFailedException;
+
 	/**
 	 * Updates non-keyfield values of the experiment.
 	 *
@@ -11,9 +11,12 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -184,6 +187,40 @@ public class AExperimenterSQLHandle implements IExperimentDatabaseHandle, ILoggi
 		}
 	}
 
+	@Override
+	public Set<Map<String, String>> getKeysOfAllExperiments() throws ExperimentDBInteractionFailedException {
+		if (this.config == null || this.keyFields == null) {
+			throw new IllegalStateException(ERROR_NOSETUP);
+		}
+		List<String> dbKeys = new ArrayList<>(this.keyFields.length);
+		StringBuilder queryStringSB = new StringBuilder();
+		queryStringSB.append("SELECT ");
+		for (String key : this.keyFields) {
+			String dbKey = this.getDatabaseFieldnameForConfigEntry(key);
+			queryStringSB.append(dbKeys.isEmpty() ? "`" : ", `");
+			queryStringSB.append(dbKey + "`");
+			dbKeys.add(dbKey);
+		}
+		queryStringSB.append(" FROM `");
+		queryStringSB.append(this.tablename);
+		queryStringSB.append("`");
+		try (PreparedStatement stmt = this.adapter.getPreparedStatement(queryStringSB.toString())) {
+			try (ResultSet rs = stmt.executeQuery()) {
+				Set<Map<String, String>> keys = new HashSet<>();
+				while (rs.next()) {
+					Map<String, String> keyValues = new HashMap<>();
+					for (String dbKey : dbKeys) {
+						keyValues.put(dbKey, rs.getString(dbKey));
+					}
+					keys.add(keyValues);
+				}
+				return keys;
+			}
+		} catch (SQLException e) {
+			throw new ExperimentDBInteractionFailedException(e);
+		}
+	}
+
 	@Override
 	public List<ExperimentDBEntry> getOpenExperiments() throws ExperimentDBInteractionFailedException {
 		StringBuilder queryStringSB = new StringBuilder();
@@ -446,6 +483,50 @@ public class AExperimenterSQLHandle implements IExperimentDatabaseHandle, ILoggi
 		}
 	}
 
+	/**
+	 * Claims the experiments in a single update by writing a unique claim token into the host field of randomly chosen open experiments.
+	 * Since the update only affects experiments that have not been started yet, concurrent claims of several runners never overlap.
+	 * The claimed experiments are then retrieved via the token, which is finally replaced by the name of the host.
+	 */
+	@Override
+	public List<ExperimentDBEntry> startRandomOpenExperiments(final int limit) throws ExperimentDBInteractionFailedException {
+		if (this.config == null || this.keyFields == null) {
+			throw new IllegalStateException(ERROR_NOSETUP);
+		}
+		try {
+			String host = InetAddress.getLocalHost().getHostName();
+			String claim = host + "#" + UUID.randomUUID();
+			String now = new SimpleDateFormat(DATE_FORMAT).format(new Date());
+			int numberOfClaimedExperiments = this.adapter.update("UPDATE `" + this.tablename + "` SET `" + FIELD_TIME_START + "` = ?, `" + FIELD_HOST + "` = ? WHERE `" + FIELD_TIME_START + "` IS NULL ORDER BY RAND() LIMIT " + limit,
+					Arrays.asList(now, claim));
+			this.logger.debug("Claimed {} open experiments with claim {}", numberOfClaimedExperiments, claim);
+			if (numberOfClaimedExperiments == 0) {
+				return new ArrayList<>();
+			}
+			List<ExperimentDBEntry> claimedExperiments;
+			try (PreparedStatement statement = this.adapter.getPreparedStatement(this.getSQLPrefixForSelectQuery() + "WHERE `" + FIELD_HOST + "` = ?")) {
+				statement.setString(1, claim);
+				try (ResultSet rs = statement.executeQuery()) {
+					claimedExperiments = this.getAllFromResultSet(rs);
+				}
+			}
+			this.adapter.update("UPDATE `" + this.tablename + "` SET `" + FIELD_HOST + "` = ? WHERE `" + FIELD_HOST + "` = ?", Arrays.asList(host, claim));
+			return claimedExperiments;
+		} catch (SQLException | UnknownHostException e) {
+			throw new ExperimentDBInteractionFailedException(e);
+		}
+	}
+
+	@Override
+	public void releaseExperiment(final ExperimentDBEntry exp) throws ExperimentDBInteractionFailedException {
+		try (PreparedStatement statement = this.adapter.getPreparedStatement("UPDATE `" + this.tablename + "` SET `" + FIELD_TIME_START + "` = NULL, `" + FIELD_HOST + "` = NULL WHERE `" + FIELD_ID + "` = ? AND `" + FIELD_TIME_END + "` IS NULL")) {
+			statement.setInt(1, exp.getId());
+			statement.executeUpdate();
+		} catch (SQLException e) {
+			throw new ExperimentDBInteractionFailedException(e);
+		}
+	}
+
 	@Override
 	public String getLoggerName() {
 		return this.logger.getName();
@@ -0,0 +1,736 @@
+package ai.libs.jaicore.experiments.databasehandle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import ai.libs.jaicore.basic.ILoggingCustomizable;
+import ai.libs.jaicore.basic.SQLAdapter;
+import ai.libs.jaicore.basic.sets.SetUtil;
+import ai.libs.jaicore.experiments.Experiment;
+import ai.libs.jaicore.experiments.ExperimentDBEntry;
+import ai.libs.jaicore.experiments.IExperimentDatabaseHandle;
+import ai.libs.jaicore.experiments.IExperimentSetConfig;
+import ai.libs.jaicore.experiments.exceptions.ExperimentAlreadyExistsInDatabaseException;
+import ai.libs.jaicore.experiments.exceptions.ExperimentAlreadyStartedException;
+import ai.libs.jaicore.experiments.exceptions.ExperimentDBInteractionFailedException;
+import ai.libs.jaicore.experiments.exceptions.ExperimentUpdateFailedException;
+
+/**
+ * Experiment database handle that keeps the experiment table in a local file, so no database server is required.
+ *
+ * The file is an append-only log in which every line is a JSON object that creates, updates, or deletes a row of the table, and the rows are indexed in memory.
+ * Every access locks the file and first applies the lines appended by other processes, so several JVMs on the same machine can share the file and claim experiments from it.
+ * Once the log holds many more records than the table has rows, it is compacted into one record per row. The compacted log starts with a new first line, by which the
+ * other processes notice that they have to read it again from the beginning.
+ * The rows have the columns of the table of {@link AExperimenterSQLHandle}, and {@link #exportToDatabase(SQLAdapter, String)} copies them into such a table.
+ *
+ * @author fmohr
+ *
+ */
+public class ExperimenterFileHandle implements IExperimentDatabaseHandle, ILoggingCustomizable, AutoCloseable {
+
+	private Logger logger = LoggerFactory.getLogger(ExperimenterFileHandle.class);
+
+	private static final String ERROR_NOSETUP = "No key fields defined. Setup the handler before using it.";
+	private static final String FIELD_ID = "experiment_id";
+	private static final String FIELD_MEMORY = "memory";
+	private static final String FIELD_MEMORY_MAX = FIELD_MEMORY + "_max";
+	private static final String FIELD_HOST = "host";
+	private static final String FIELD_NUMCPUS = "cpus";
+	private static final String FIELD_TIME = "time";
+	private static final String FIELD_TIME_CREATED = FIELD_TIME + "_created";
+	private static final String FIELD_TIME_START = FIELD_TIME + "_started";
+	private static final String FIELD_TIME_END = FIELD_TIME + "_end";
+	private static final String FIELD_EXCEPTION = "exception";
+	private static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
+
+	private static final String RECORD_ID = "id";
+	private static final String RECORD_VALUES = "values";
+	private static final String RECORD_DELETED = "deleted";
+	private static final String RECORD_COMPACTION = "compaction";
+
+	private static final int READ_CHUNK_SIZE = 1 << 16;
+	private static final int COMPACTION_FACTOR = 4;
+	private static final int MIN_RECORDS_FOR_COMPACTION = 10000;
+
+	/* handles of the same file in one JVM must not lock it at the same time, because file locks are held on behalf of the whole JVM */
+	private static final Map<String, ReentrantLock> LOCKS_OF_FILES = new ConcurrentHashMap<>();
+
+	private final File file;
+	private final File compactedFile;
+	private final File compactedFileInProgress;
+	private final ReentrantLock lock;
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final Random random = new Random();
+
+	/* the rows of the table as of the last read position in the log */
+	private final Map<Integer, Map<String, String>> rows = new LinkedHashMap<>();
+	private final Set<Map<String, String>> keysOfRows = new HashSet<>();
+	private RandomAccessFile log;
+	private long readPosition;
+	private int highestId;
+	private int numberOfRecordsInLog;
+	private byte[] firstLine;
+
+	private IExperimentSetConfig config;
+	private String[] keyFields;
+	private String[] resultFields;
+
+	public ExperimenterFileHandle(final File file) {
+		super();
+		this.file = file.getAbsoluteFile();
+		this.compactedFile = new File(this.file.getPath() + ".compacted");
+		this.compactedFileInProgress = new File(this.file.getPath() + ".compacted.tmp");
+		this.lock = LOCKS_OF_FILES.computeIfAbsent(this.file.getPath(), f -> new ReentrantLock());
+	}
+
+	@Override
+	public void setup(final IExperimentSetConfig config) throws ExperimentDBInteractionFailedException {
+		this.config = config;
+		this.keyFields = config.getKeyFields().toArray(new String[] {}); // redundant to increase performance
+		this.resultFields = config.getResultFields().toArray(new String[] {}); // redundant to increase performance
+		this.lock.lock();
+		try {
+			if (this.log == null) {
+				this.log = new RandomAccessFile(this.file, "rw");
+				this.resetIndex();
+			}
+		} catch (FileNotFoundException e) {
+			throw new ExperimentDBInteractionFailedException(e);
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Functional interface for accesses to the table while the file is locked.
+	 */
+	private interface ITableAccess<T, E extends Exception> {
+		public T access() throws E, IOException;
+	}
+
+	/**
+	 * Locks the file, applies the records that have been appended to the log in the meantime, and accesses the table.
+	 */
+	private <T, E extends Exception> T accessTable(final ITableAccess<T, E> access) throws E, ExperimentDBInteractionFailedException {
+		if (this.config == null || this.keyFields == null) {
+			throw new IllegalStateException(ERROR_NOSETUP);
+		}
+		this.lock.lock();
+		try {
+			if (this.log == null) {
+				throw new ExperimentDBInteractionFailedException(new FileNotFoundException("The experiment file " + this.file + " has been deleted."));
+			}
+			FileLock fileLock = this.log.getChannel().lock();
+			try {
+				this.recoverInterruptedCompaction();
+				this.readNewRecords();
+				return access.access();
+			} finally {
+				fileLock.release();
+			}
+		} catch (IOException e) {
+			throw new ExperimentDBInteractionFailedException(e);
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void resetIndex() {
+		this.rows.clear();
+		this.keysOfRows.clear();
+		this.readPosition = 0;
+		this.highestId = 0;
+		this.numberOfRecordsInLog = 0;
+		this.firstLine = null;
+	}
+
+	/**
+	 * Checks whether the log has been rewritten by another process, which is the case if it has become shorter or starts with another line than before.
+	 */
+	private boolean isLogRewritten(final long length) throws IOException {
+		if (length < this.readPosition) {
+			return true;
+		}
+		if (this.firstLine == null) {
+			return false;
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(this.firstLine.length);
+		FileChannel channel = this.log.getChannel();
+		while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+			/* read until the buffer is full or the end of the file is reached */
+		}
+		return buffer.hasRemaining() || !Arrays.equals(buffer.array(), this.firstLine);
+	}
+
+	/**
+	 * Applies the complete lines after the read position. The log is read in chunks, so only the current line is held in memory.
+	 */
+	private void readNewRecords() throws IOException {
+		long length = this.log.length();
+		if (this.isLogRewritten(length)) {
+			this.logger.info("The experiment file {} has been rewritten by another process, reading it from the beginning.", this.file);
+			this.resetIndex();
+		}
+		if (length == this.readPosition) {
+			return;
+		}
+		FileChannel channel = this.log.getChannel();
+		ByteBuffer chunk = ByteBuffer.allocate((int) Math.min(READ_CHUNK_SIZE, length - this.readPosition));
+		ByteArrayOutputStream line = new ByteArrayOutputStream();
+		long chunkPosition = this.readPosition;
+		int numberOfRecords = 0;
+		while (chunkPosition < length) {
+			chunk.clear();
+			chunk.limit((int) Math.min(chunk.capacity(), length - chunkPosition));
+			int read = channel.read(chunk, chunkPosition);
+			if (read < 0) {
+				break;
+			}
+			byte[] bytes = chunk.array();
+			int lineStart = 0;
+			for (int i = 0; i < read; i++) {
+				if (bytes[i] == '\n') {
+					line.write(bytes, lineStart, i + 1 - lineStart);
+					this.applyLine(line.toByteArray());
+					line.reset();
+					lineStart = i + 1;
+					this.readPosition = chunkPosition + lineStart;
+					numberOfRecords++;
+				}
+			}
+
+			/* the rest of the chunk is the beginning of the next line, which may also be incomplete, since it may be written right now */
+			line.write(bytes, lineStart, read - lineStart);
+			chunkPosition += read;
+		}
+		this.logger.debug("Applied {} new records of the experiment file.", numberOfRecords);
+	}
+
+	private void applyLine(final byte[] line) throws IOException {
+		if (this.readPosition == 0) {
+			this.firstLine = line;
+		}
+		if (line.length > 1) {
+			this.applyRecord(this.mapper.readTree(new String(line, StandardCharsets.UTF_8)));
+			this.numberOfRecordsInLog++;
+		}
+	}
+
+	private void applyRecord(final JsonNode record) {
+		int id = record.get(RECORD_ID).asInt();
+		this.highestId = Math.max(this.highestId, id);
+		if (record.has(RECORD_COMPACTION)) {
+			return;
+		}
+		if (record.has(RECORD_DELETED)) {
+			Map<String, String> row = this.rows.remove(id);
+			if (row != null) {
+				this.keysOfRows.remove(this.getKeysOfRow(row));
+			}
+			return;
+		}
+		Map<String, String> row = this.rows.get(id);
+		if (row == null) {
+			row = new HashMap<>();
+			this.rows.put(id, row);
+			this.applyValues(record, row);
+			this.keysOfRows.add(this.getKeysOfRow(row));
+		} else {
+			this.applyValues(record, row);
+		}
+	}
+
+	private void applyValues(final JsonNode record, final Map<String, String> row) {
+		Iterator<Entry<String, JsonNode>> values = record.get(RECORD_VALUES).fields();
+		while (values.hasNext()) {
+			Entry<String, JsonNode> value = values.next();
+			if (value.getValue().isNull()) {
+				row.remove(value.getKey());
+			} else {
+				row.put(value.getKey(), value.getValue().asText());
+			}
+		}
+	}
+
+	/**
+	 * Appends the records to the log and applies them to the table. Must only be called while the file is locked and all complete lines have been read.
+	 *
+	 * Since no other process writes to the file while it is locked, an incomplete last line has been left by a process that crashed while writing it. Such a line is
+	 * discarded, because the records appended after it would otherwise be corrupted.
+	 */
+	private void appendRecords(final List<ObjectNode> records) throws IOException {
+		if (records.isEmpty()) {
+			return;
+		}
+		StringBuilder lines = new StringBuilder();
+		for (ObjectNode record : records) {
+			lines.append(this.mapper.writeValueAsString(record));
+			lines.append('\n');
+		}
+		if (this.log.length() > this.readPosition) {
+			this.logger.warn("Discarding the incomplete last line of the experiment file {}, which has been left by an interrupted write.", this.file);
+			this.log.setLength(this.readPosition);
+		}
+		this.log.seek(this.readPosition);
+		this.log.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+		this.log.getChannel().force(false);
+		this.readNewRecords();
+		if (this.numberOfRecordsInLog >= COMPACTION_FACTOR * this.rows.size() + MIN_RECORDS_FOR_COMPACTION) {
+			this.compactLog();
+		}
+	}
+
+	/**
+	 * Rewrites the log with one record per row. Must only be called while the file is locked and all records have been read.
+	 *
+	 * The compacted log is first written to a separate file, which is renamed once it is complete. If the process crashes while the log is overwritten with it, the
+	 * next process that locks the file finishes the compaction in {@link #recoverInterruptedCompaction()}.
+	 */
+	private void compactLog() throws IOException {
+		this.logger.info("Compacting the experiment file {} from {} records to {} rows.", this.file, this.numberOfRecordsInLog, this.rows.size());
+		try (FileChannel compacted = new RandomAccessFile(this.compactedFileInProgress, "rw").getChannel()) {
+			compacted.truncate(0);
+
+			/* the first line is new, so that other processes notice the compaction, and it preserves the highest id, so that ids of deleted rows are not reused */
+			ObjectNode header = this.mapper.createObjectNode();
+			header.put(RECORD_ID, this.highestId);
+			header.put(RECORD_COMPACTION, UUID.randomUUID().toString());
+			compacted.write(ByteBuffer.wrap((this.mapper.writeValueAsString(header) + "\n").getBytes(StandardCharsets.UTF_8)));
+			for (Entry<Integer, Map<String, String>> row : this.rows.entrySet()) {
+				compacted.write(ByteBuffer.wrap((this.mapper.writeValueAsString(this.getUpdateRecord(row.getKey(), row.getValue())) + "\n").getBytes(StandardCharsets.UTF_8)));
+			}
+			compacted.force(false);
+		}
+		Files.move(this.compactedFileInProgress.toPath(), this.compactedFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		this.overwriteLogWithCompactedFile();
+	}
+
+	private void overwriteLogWithCompactedFile() throws IOException {
+		FileChannel channel = this.log.getChannel();
+		try (FileChannel compacted = new RandomAccessFile(this.compactedFile, "r").getChannel()) {
+			long size = compacted.size();
+			long copied = 0;
+			while (copied < size) {
+				copied += channel.transferFrom(compacted, copied, size - copied);
+			}
+			channel.truncate(size);
+			channel.force(false);
+		}
+		Files.delete(this.compactedFile.toPath());
+		this.resetIndex();
+		this.readNewRecords();
+	}
+
+	/**
+	 * Finishes a compaction of a process that crashed while overwriting the log, and removes a compacted log that has not been completely written.
+	 * Must only be called while the file is locked.
+	 */
+	private void recoverInterruptedCompaction() throws IOException {
+		if (this.compactedFileInProgress.exists()) {
+			Files.deleteIfExists(this.compactedFileInProgress.toPath());
+		}
+		if (this.compactedFile.exists()) {
+			this.logger.warn("Finishing the interrupted compaction of the experiment file {}.", this.file);
+			this.overwriteLogWithCompactedFile();
+		}
+	}
+
+	/**
+	 * Rewrites the log of the file with one record per experiment. This happens automatically once the log holds many more records than there are experiments.
+	 *
+	 * @throws ExperimentDBInteractionFailedException
+	 */
+	public void compact() throws ExperimentDBInteractionFailedException {
+		this.accessTable(() -> {
+			this.compactLog();
+			return null;
+		});
+	}
+
+	private ObjectNode getUpdateRecord(final int id, final Map<String, ? extends Object> values) {
+		ObjectNode record = this.mapper.createObjectNode();
+		record.put(RECORD_ID, id);
+		ObjectNode valuesNode = record.putObject(RECORD_VALUES);
+		values.forEach((k, v) -> {
+			if (v == null) {
+				valuesNode.putNull(k);
+			} else {
+				valuesNode.put(k, v.toString());
+			}
+		});
+		return record;
+	}
+
+	private Map<String, String> getKeysOfRow(final Map<String, String> row) {
+		Map<String, String> keyValues = new HashMap<>();
+		for (String key : this.keyFields) {
+			keyValues.put(key, row.get(key));
+		}
+		return keyValues;
+	}
+
+	private ExperimentDBEntry getEntryOfRow(final int id, final Map<String, String> row) {
+		Map<String, String> keyValues = this.getKeysOfRow(row);
+		Map<String, Object> resultValues = new HashMap<>();
+		for (String key : this.resultFields) {
+			resultValues.put(key, row.get(key));
+		}
+		return new ExperimentDBEntry(id, new Experiment(Integer.parseInt(row.get(FIELD_MEMORY_MAX)), Integer.parseInt(row.get(FIELD_NUMCPUS)), keyValues, resultValues));
+	}
+
+	private List<ExperimentDBEntry> getExperimentsWithRows(final Predicate<Map<String, String>> filter) throws ExperimentDBInteractionFailedException {
+		return this.accessTable(() -> this.rows.entrySet().stream().filter(e -> filter.test(e.getValue())).map(e -> this.getEntryOfRow(e.getKey(), e.getValue())).collect(Collectors.toList()));
+	}
+
+	private static String getNow() {
+		return new SimpleDateFormat(DATE_FORMAT).format(new Date());
+	}
+
+	@Override
+	public Collection<String> getConsideredValuesForKey(final String key) throws ExperimentDBInteractionFailedException {
+		return this.accessTable(() -> this.rows.values().stream().map(r -> r.get(key)).collect(Collectors.toCollection(LinkedHashSet::new)));
+	}
+
+	@Override
+	public List<ExperimentDBEntry> getAllExperiments() throws ExperimentDBInteractionFailedException {
+		return this.getExperimentsWithRows(r -> true);
+	}
+
+	@Override
+	public Set<Map<String, String>> getKeysOfAllExperiments() throws ExperimentDBInteractionFailedException {
+		return this.accessTable(() -> new HashSet<>(this.keysOfRows));
+	}
+
+	@Override
+	public int getNumberOfAllExperiments() throws ExperimentDBInteractionFailedException {
+		return this.accessTable(this.rows::size);
+	}
+
+	@Override
+	public List<ExperimentDBEntry> getConductedExperiments() throws ExperimentDBInteractionFailedException {
+		return this.getExperimentsWithRows(r -> r.containsKey(FIELD_TIME_START));
+	}
+
+	@Override
+	public List<ExperimentDBEntry> getOpenExperiments() throws ExperimentDBInteractionFailedException {
+		return this.getExperimentsWithRows(r -> !r.containsKey(FIELD_TIME_START));
+	}
+
+	@Override
+	public List<ExperimentDBEntry> getRandomOpenExperiments(final int limit) throws ExperimentDBInteractionFailedException {
+		return this.accessTable(() -> this.getRandomOpenRows(limit).stream().map(id -> this.getEntryOfRow(id, this.rows.get(id))).collect(Collectors.toList()));
+	}
+
+	private List<Integer> getRandomOpenRows(final int limit) {
+		List<Integer> openRows = this.rows.entrySet().stream().filter(e -> !e.getValue().containsKey(FIELD_TIME_START)).map(Entry::getKey).collect(Collectors.toList());
+		Collections.shuffle(openRows, this.random);
+		return openRows.subList(0, Math.min(limit, openRows.size()));
+	}
+
+	@Override
+	public List<ExperimentDBEntry> getRunningExperiments() throws ExperimentDBInteractionFailedException {
+		return this.getExperimentsWithRows(r -> r.containsKey(FIELD_TIME_START) && !r.containsKey(FIELD_TIME_END));
+	}
+
+	@Override
+	public ExperimentDBEntry getExperimentWithId(final int id) throws ExperimentDBInteractionFailedException {
+		return this.accessTable(() -> {
+			if (!this.rows.containsKey(id)) {
+				throw new IllegalArgumentException("There is no experiment with id " + id);
+			}
+			return this.getEntryOfRow(id, this.rows.get(id));
+		});
+	}
+
+	@Override
+	public ExperimentDBEntry createAndGetExperiment(final Experiment experiment) throws ExperimentDBInteractionFailedException, ExperimentAlreadyExistsInDatabaseException {
+
+		/* first check whether exactly the same experiment (with the same seed) has been conducted previously */
+		if (this.getConductedExperiments().stream().anyMatch(e -> e.getExperiment().equals(experiment))) {
+			throw new ExperimentAlreadyExistsInDatabaseException();
+		}
+		return this.createAndGetExperiments(Arrays.asList(experiment)).get(0);
+	}
+
+	@Override
+	public List<ExperimentDBEntry> createAndGetExperiments(final List<Experiment> experiments) throws ExperimentDBInteractionFailedException, ExperimentAlreadyExistsInDatabaseException {
+		if (experiments == null || experiments.isEmpty()) {
+			throw new IllegalArgumentException();
+		}
+		return this.accessTable(() -> {
+
+			/* first check that none of the experiments exists already or is contained twice */
+			Set<Map<String, String>> newKeys = new HashSet<>();
+			for (Experiment experiment : experiments) {
+				Map<String, String> keyValues = new HashMap<>();
+				for (String key : this.keyFields) {
+					keyValues.put(key, experiment.getValuesOfKeyFields().get(key));
+				}
+				if (this.keysOfRows.contains(keyValues) || !newKeys.add(keyValues)) {
+					throw new ExperimentAlreadyExistsInDatabaseException();
+				}
+			}
+
+			/* create rows with the next ids */
+			String now = getNow();
+			List<ObjectNode> records = new ArrayList<>(experiments.size());
+			List<ExperimentDBEntry> entries = new ArrayList<>(experiments.size());
+			int id = this.highestId;
+			for (Experiment experiment : experiments) {
+				Map<String, Object> values = new HashMap<>();
+				for (String key : this.keyFields) {
+					values.put(key, experiment.getValuesOfKeyFields().get(key));
+				}
+				values.put(FIELD_MEMORY_MAX, experiment.getMemoryInMB());
+				values.put(FIELD_NUMCPUS, experiment.getNumCPUs());
+				values.put(FIELD_TIME_CREATED, now);
+				records.add(this.getUpdateRecord(++id, values));
+				entries.add(new ExperimentDBEntry(id, experiment));
+			}
+			this.logger.debug("Inserting {} entries", records.size());
+			this.appendRecords(records);
+			return entries;
+		});
+	}
+
+	@Override
+	public void startExperiment(final ExperimentDBEntry exp) throws ExperimentAlreadyStartedException, ExperimentUpdateFailedException {
+		Map<String, Object> initValues = new HashMap<>();
+		initValues.put(FIELD_TIME_START, getNow());
+		try {
+			initValues.put(FIELD_HOST, InetAddress.getLocalHost().getHostName());
+		} catch (UnknownHostException e) {
+			throw new ExperimentUpdateFailedException(e);
+		}
+		Map<String, String> condition = new HashMap<>();
+		condition.put(FIELD_TIME_START, null);
+		if (!this.updateExperimentConditionally(exp, condition, initValues)) {
+			throw new ExperimentAlreadyStartedException();
+		}
+	}
+
+	@Override
+	public List<ExperimentDBEntry> startRandomOpenExperiments(final int limit) throws ExperimentDBInteractionFailedException {
+		Map<String, Object> initValues = new HashMap<>();
+		initValues.put(FIELD_TIME_START, getNow());
+		try {
+			initValues.put(FIELD_HOST, InetAddress.getLocalHost().getHostName());
+		} catch (UnknownHostException e) {
+			throw new ExperimentDBInteractionFailedException(e);
+		}
+		return this.accessTable(() -> {
+			List<Integer> ids = this.getRandomOpenRows(limit);
+			this.appendRecords(ids.stream().map(id -> this.getUpdateRecord(id, initValues)).collect(Collectors.toList()));
+			this.logger.debug("Claimed {} open experiments", ids.size());
+			return ids.stream().map(id -> this.getEntryOfRow(id, this.rows.get(id))).collect(Collectors.toList());
+		});
+	}
+
+	@Override
+	public void releaseExperiment(final ExperimentDBEntry exp) throws ExperimentDBInteractionFailedException {
+		Map<String, Object> values = new HashMap<>();
+		values.put(FIELD_TIME_START, null);
+		values.put(FIELD_HOST, null);
+		this.accessTable(() -> {
+			Map<String, String> row = this.rows.get(exp.getId());
+			if (row != null && !row.containsKey(FIELD_TIME_END)) {
+				this.appendRecords(Arrays.asList(this.getUpdateRecord(exp.getId(), values)));
+			}
+			return null;
+		});
+	}
+
+	@Override
+	public void updateExperiment(final ExperimentDBEntry exp, final Map<String, ? extends Object> values) throws ExperimentUpdateFailedException {
+		this.updateExperimentConditionally(exp, new HashMap<>(), values);
+	}
+
+	@Override
+	public boolean updateExperimentConditionally(final ExperimentDBEntry exp, final Map<String, String> conditions, final Map<String, ? extends Object> values) throws ExperimentUpdateFailedException {
+		Collection<String> resultFieldsAsList = Arrays.asList(this.resultFields);
+		Collection<String> writableFields = new ArrayList<>(resultFieldsAsList);
+		writableFields.add(FIELD_HOST);
+		writableFields.add(FIELD_TIME_START);
+		writableFields.add(FIELD_EXCEPTION);
+		writableFields.add(FIELD_TIME_END);
+		if (!writableFields.containsAll(values.keySet())) {
+			throw new IllegalArgumentException("The value set contains non-result fields: " + SetUtil.difference(values.keySet(), writableFields));
+		}
+		String now = getNow();
+		String memoryUsageInMB = String.valueOf(Runtime.getRuntime().totalMemory() / 1024 / 1024);
+		Map<String, String> valuesToWrite = new HashMap<>();
+		values.forEach((k, v) -> valuesToWrite.put(k, v != null ? v.toString() : null));
+		for (String result : values.keySet()) {
+			if (resultFieldsAsList.contains(result)) {
+				if (this.config.getFieldsForWhichToIgnoreTime() == null || !this.config.getFieldsForWhichToIgnoreTime().contains(result)) {
+					valuesToWrite.put(result + "_" + FIELD_TIME, now);
+				}
+				if (this.config.getFieldsForWhichToIgnoreMemory() == null || !this.config.getFieldsForWhichToIgnoreMemory().contains(result)) {
+					valuesToWrite.put(result + "_" + FIELD_MEMORY, memoryUsageInMB);
+				}
+			}
+		}
+		try {
+			return this.accessTable(() -> {
+				Map<String, String> row = this.rows.get(exp.getId());
+				if (row == null || conditions.entrySet().stream().anyMatch(c -> c.getValue() == null ? row.containsKey(c.getKey()) : !c.getValue().equals(row.get(c.getKey())))) {
+					return false;
+				}
+				this.appendRecords(Arrays.asList(this.getUpdateRecord(exp.getId(), valuesToWrite)));
+				return true;
+			});
+		} catch (ExperimentUpdateFailedException e) {
+			throw e;
+		} catch (ExperimentDBInteractionFailedException e) {
+			throw new ExperimentUpdateFailedException(e);
+		}
+	}
+
+	@Override
+	public void finishExperiment(final ExperimentDBEntry expEntry, final Throwable error) throws ExperimentDBInteractionFailedException {
+		Map<String, Object> valuesToAddAfterRun = new HashMap<>();
+		if (error != null) {
+			StringBuilder exceptionEntry = new StringBuilder();
+			exceptionEntry.append(error.getClass().getName() + "\n" + error.getMessage());
+			for (StackTraceElement se : error.getStackTrace()) {
+				exceptionEntry.append("\n\t" + se);
+			}
+			valuesToAddAfterRun.put(FIELD_EXCEPTION, exceptionEntry.toString());
+		}
+		valuesToAddAfterRun.put(FIELD_TIME_END, getNow());
+		this.updateExperiment(expEntry, valuesToAddAfterRun);
+	}
+
+	@Override
+	public void finishExperiment(final ExperimentDBEntry expEntry) throws ExperimentDBInteractionFailedException {
+		this.finishExperiment(expEntry, null);
+	}
+
+	@Override
+	public void deleteExperiment(final ExperimentDBEntry exp) throws ExperimentDBInteractionFailedException {
+		this.accessTable(() -> {
+			ObjectNode record = this.mapper.createObjectNode();
+			record.put(RECORD_ID, exp.getId());
+			record.put(RECORD_DELETED, true);
+			this.appendRecords(Arrays.asList(record));
+			return null;
+		});
+	}
+
+	/**
+	 * Deletes the file. Other processes that still use the file should be stopped before, since they keep working on their copy of the deleted file.
+	 */
+	@Override
+	public void deleteDatabase() throws ExperimentDBInteractionFailedException {
+		this.lock.lock();
+		try {
+			this.close();
+			Files.deleteIfExists(this.file.toPath());
+			Files.deleteIfExists(this.compactedFile.toPath());
+			Files.deleteIfExists(this.compactedFileInProgress.toPath());
+		} catch (IOException e) {
+			throw new ExperimentDBInteractionFailedException(e);
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Copies all experiments into the table of the given database, which is created with the schema of {@link AExperimenterSQLHandle} if it does not exist.
+	 * The ids of the experiments are preserved, so the table should not contain other experiments.
+	 *
+	 * @param adapter
+	 *            The adapter for the database into which the experiments are exported
+	 * @param tablename
+	 *            The name of the table into which the experiments are exported
+	 * @throws ExperimentDBInteractionFailedException
+	 */
+	public void exportToDatabase(final SQLAdapter adapter, final String tablename) throws ExperimentDBInteractionFailedException {
+		new ExperimenterMySQLHandle(adapter, tablename).setup(this.config);
+
+		/* group the rows by their non-empty columns, because the rows of a multi-insert must have the same columns */
+		Map<List<String>, List<List<? extends Object>>> rowsByColumns = new LinkedHashMap<>();
+		this.accessTable(() -> {
+			for (Entry<Integer, Map<String, String>> row : this.rows.entrySet()) {
+				Map<String, String> values = new TreeMap<>(row.getValue());
+				values.put(FIELD_ID, String.valueOf(row.getKey()));
+				rowsByColumns.computeIfAbsent(new ArrayList<>(values.keySet()), c -> new ArrayList<>()).add(new ArrayList<>(values.values()));
+			}
+			return null;
+		});
+		try {
+			for (Entry<List<String>, List<List<? extends Object>>> rowsWithColumns : rowsByColumns.entrySet()) {
+				this.logger.debug("Exporting {} rows with columns {}", rowsWithColumns.getValue().size(), rowsWithColumns.getKey());
+				adapter.insertMultiple(tablename, rowsWithColumns.getKey(), rowsWithColumns.getValue());
+			}
+		} catch (SQLException e) {
+			throw new ExperimentDBInteractionFailedException(e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.lock.lock();
+		try {
+			if (this.log != null) {
+				this.log.close();
+				this.log = null;
+			}
+			this.resetIndex();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public String getLoggerName() {
+		return this.logger.getName();
+	}
+
+	@Override
+	public void setLoggerName(final String name) {
+		this.logger = LoggerFactory.getLogger(name);
+	}
+}
@@ -0,0 +1,90 @@
+package ai.libs.jaicore.experiments;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ai.libs.jaicore.experiments.databasehandle.ExperimenterFileHandle;
+
+public class ExperimentDatabasePreparerTest {
+
+	private File file;
+
+	@Before
+	public void setup() throws IOException {
+		this.file = File.createTempFile("experiments", ".log");
+	}
+
+	@After
+	public void tearDown() {
+		this.file.delete();
+	}
+
+	private IExperimentSetConfig getConfig(final String configFile) {
+		return (IExperimentSetConfig) ConfigFactory.create(IExperimentSetConfig.class).loadPropertiesFromFile(new File(configFile));
+	}
+
+	@Test
+	public void testThatExperimentsAreCreatedInChunks() throws Exception {
+		for (String configFile : new String[] { "testrsc/experiment-constrained.cfg", "testrsc/experiment-unconstrained.cfg" }) {
+			IExperimentSetConfig config = this.getConfig(configFile);
+			ExperimentRunnerTester.Generator generator = new ExperimentRunnerTester.Generator();
+			int numberOfDistinctGeneratedValues = (int) IntStream.range(0, generator.getNumberOfValues()).mapToObj(generator::getValue).distinct().count();
+			int expectedNumberOfExperiments = config.getConstraints() == null ? (3 * numberOfDistinctGeneratedValues) : 4;
+			try (ExperimenterFileHandle handle = new ExperimenterFileHandle(this.file)) {
+				ExperimentDatabasePreparer preparer = new ExperimentDatabasePreparer(config, handle);
+				List<Integer> chunkSizes = new ArrayList<>();
+				List<ExperimentDBEntry> entries = new ArrayList<>();
+				int numberOfCreatedExperiments = preparer.synchronizeExperiments(3, chunk -> {
+					chunkSizes.add(chunk.size());
+					entries.addAll(chunk);
+				});
+				assertEquals(expectedNumberOfExperiments, numberOfCreatedExperiments);
+				assertEquals(expectedNumberOfExperiments, handle.getNumberOfAllExperiments());
+				assertEquals(expectedNumberOfExperiments, entries.size());
+				assertTrue(chunkSizes.stream().allMatch(s -> s <= 3));
+
+				/* a second synchronization must not create any experiment */
+				assertTrue(new ExperimentDatabasePreparer(config, handle).synchronizeExperiments().isEmpty());
+				handle.deleteDatabase();
+			}
+		}
+	}
+
+	@Test
+	public void testThatLargeGridsAreEnumeratedLazily() throws Exception {
+		int valuesPerKey = 1000;
+		String values = IntStream.range(0, valuesPerKey).mapToObj(String::valueOf).collect(Collectors.joining(","));
+		Map<String, String> properties = new HashMap<>();
+		properties.put(IExperimentSetConfig.MEM_MAX, "1000");
+		properties.put(IExperimentSetConfig.CPU_MAX, "1");
+		properties.put(IExperimentSetConfig.KEYFIELDS, "A,B");
+		properties.put(IExperimentSetConfig.RESULTFIELDS, "C");
+		properties.put("A", values);
+		properties.put("B", values);
+		IExperimentSetConfig config = ConfigFactory.create(IExperimentSetConfig.class, properties);
+		try (ExperimenterFileHandle handle = new ExperimenterFileHandle(this.file)) {
+			Iterator<Map<String, String>> keyCombinations = new ExperimentDatabasePreparer(config, handle).getPossibleKeyCombinationIterator();
+			int numberOfCombinations = 0;
+			while (keyCombinations.hasNext()) {
+				keyCombinations.next();
+				numberOfCombinations++;
+			}
+			assertEquals(valuesPerKey * valuesPerKey, numberOfCombinations);
+		}
+	}
+}
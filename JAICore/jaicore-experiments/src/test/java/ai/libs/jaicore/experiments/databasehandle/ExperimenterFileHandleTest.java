@@ -0,0 +1,341 @@
+package ai.libs.jaicore.experiments.databasehandle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ai.libs.jaicore.experiments.Experiment;
+import ai.libs.jaicore.experiments.ExperimentDBEntry;
+import ai.libs.jaicore.experiments.ExperimentRunner;
+import ai.libs.jaicore.experiments.IExperimentSetConfig;
+import ai.libs.jaicore.experiments.exceptions.ExperimentAlreadyExistsInDatabaseException;
+import ai.libs.jaicore.experiments.exceptions.ExperimentDBInteractionFailedException;
+
+public class ExperimenterFileHandleTest {
+
+	private static final int NUMBER_OF_EXPERIMENTS = 200;
+	private static final int NUMBER_OF_HANDLES = 4;
+	private static final int NUMBER_OF_SLOTS = 4;
+
+	private File file;
+	private IExperimentSetConfig config;
+
+	@Before
+	public void setup() throws IOException {
+		this.file = File.createTempFile("experiments", ".log");
+		Map<String, String> properties = new HashMap<>();
+		properties.put(IExperimentSetConfig.KEYFIELDS, "A,B");
+		properties.put(IExperimentSetConfig.RESULTFIELDS, "C");
+		this.config = ConfigFactory.create(IExperimentSetConfig.class, properties);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		this.file.delete();
+	}
+
+	private ExperimenterFileHandle getHandle() throws ExperimentDBInteractionFailedException {
+		ExperimenterFileHandle handle = new ExperimenterFileHandle(this.file);
+		handle.setup(this.config);
+		return handle;
+	}
+
+	private List<ExperimentDBEntry> createExperiments(final ExperimenterFileHandle handle, final int memoryInMB) throws ExperimentDBInteractionFailedException, ExperimentAlreadyExistsInDatabaseException {
+		List<Experiment> experiments = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_EXPERIMENTS; i++) {
+			Map<String, String> keys = new HashMap<>();
+			keys.put("A", String.valueOf(i % 10));
+			keys.put("B", String.valueOf(i / 10));
+			experiments.add(new Experiment(memoryInMB, 1, keys));
+		}
+		return handle.createAndGetExperiments(experiments);
+	}
+
+	@Test
+	public void testThatExperimentsArePersistedAndUpdated() throws Exception {
+		try (ExperimenterFileHandle handle = this.getHandle()) {
+			List<ExperimentDBEntry> experiments = this.createExperiments(handle, 1000);
+			ExperimentDBEntry experiment = experiments.get(0);
+			handle.startExperiment(experiment);
+			Map<String, Object> results = new HashMap<>();
+			results.put("C", "result with \"quotes\"\nand a line break");
+			handle.updateExperiment(experiment, results);
+			handle.finishExperiment(experiments.get(0), new IllegalStateException("error"));
+			handle.deleteExperiment(experiments.get(1));
+		}
+
+		/* a new handle must obtain the same state from the file */
+		try (ExperimenterFileHandle handle = this.getHandle()) {
+			assertEquals(NUMBER_OF_EXPERIMENTS - 1, handle.getNumberOfAllExperiments());
+			assertEquals(NUMBER_OF_EXPERIMENTS - 2, handle.getOpenExperiments().size());
+			assertEquals(1, handle.getConductedExperiments().size());
+			assertTrue(handle.getRunningExperiments().isEmpty());
+			Experiment experiment = handle.getConductedExperiments().get(0).getExperiment();
+			assertEquals("result with \"quotes\"\nand a line break", experiment.getValuesOfResultFields().get("C"));
+			assertEquals(1000, experiment.getMemoryInMB());
+			assertEquals(10, handle.getConsideredValuesForKey("A").size());
+			try {
+				handle.createAndGetExperiment(experiment);
+				fail("Creating a conducted experiment again should fail.");
+			} catch (ExperimentAlreadyExistsInDatabaseException e) {
+				/* expected */
+			}
+			try {
+				this.createExperiments(handle, 1000);
+				fail("Creating the same experiments again should fail.");
+			} catch (ExperimentAlreadyExistsInDatabaseException e) {
+				/* expected */
+			}
+			assertEquals(NUMBER_OF_EXPERIMENTS - 1, handle.getKeysOfAllExperiments().size());
+		}
+	}
+
+	@Test
+	public void testThatRecordsAreAppendedAfterTruncatedLine() throws Exception {
+		try (ExperimenterFileHandle handle = this.getHandle()) {
+			this.createExperiments(handle, 1000);
+		}
+
+		/* simulate a process that crashed while writing a record */
+		try (Writer writer = new FileWriter(this.file, true)) {
+			writer.write("{\"id\":1,\"values\":{\"time_st");
+		}
+		try (ExperimenterFileHandle handle = this.getHandle()) {
+			assertEquals(NUMBER_OF_EXPERIMENTS, handle.getOpenExperiments().size());
+			handle.startExperiment(handle.getExperimentWithId(1));
+		}
+		try (ExperimenterFileHandle handle = this.getHandle()) {
+			assertEquals(NUMBER_OF_EXPERIMENTS, handle.getNumberOfAllExperiments());
+			assertEquals(1, handle.getRunningExperiments().size());
+			assertEquals(1, handle.getRunningExperiments().get(0).getId());
+		}
+	}
+
+	@Test
+	public void testThatNullResultsRemoveValues() throws Exception {
+		try (ExperimenterFileHandle handle = this.getHandle()) {
+			ExperimentDBEntry experiment = this.createExperiments(handle, 1000).get(0);
+			handle.startExperiment(experiment);
+			handle.updateExperiment(experiment, Collections.singletonMap("C", "result"));
+			handle.updateExperiment(experiment, Collections.singletonMap("C", null));
+			assertNull(handle.getExperimentWithId(experiment.getId()).getExperiment().getValuesOfResultFields().get("C"));
+		}
+	}
+
+	@Test
+	public void testThatRecordsLongerThanReadChunksAreRead() throws Exception {
+		StringBuilder result = new StringBuilder();
+		for (int i = 0; i < 100000; i++) {
+			result.append(i % 10);
+		}
+		try (ExperimenterFileHandle handle = this.getHandle()) {
+			ExperimentDBEntry experiment = this.createExperiments(handle, 1000).get(0);
+			handle.startExperiment(experiment);
+			handle.updateExperiment(experiment, Collections.singletonMap("C", result.toString()));
+		}
+		try (ExperimenterFileHandle handle = this.getHandle()) {
+			assertEquals(NUMBER_OF_EXPERIMENTS, handle.getNumberOfAllExperiments());
+			assertEquals(result.toString(), handle.getExperimentWithId(1).getExperiment().getValuesOfResultFields().get("C"));
+		}
+	}
+
+	@Test
+	public void testThatCompactedLogIsReadByOtherHandles() throws Exception {
+		try (ExperimenterFileHandle handle = this.getHandle(); ExperimenterFileHandle otherHandle = this.getHandle()) {
+			List<ExperimentDBEntry> experiments = this.createExperiments(handle, 1000);
+			for (ExperimentDBEntry experiment : experiments.subList(0, 10)) {
+				handle.startExperiment(experiment);
+				handle.updateExperiment(experiment, Collections.singletonMap("C", "result"));
+			}
+			handle.deleteExperiment(experiments.get(NUMBER_OF_EXPERIMENTS - 1));
+			assertEquals(NUMBER_OF_EXPERIMENTS - 1, otherHandle.getNumberOfAllExperiments());
+
+			long lengthBeforeCompaction = this.file.length();
+			handle.compact();
+			assertTrue(this.file.length() < lengthBeforeCompaction);
+
+			/* the other handle must notice the compaction and must not reuse the id of the deleted experiment */
+			assertEquals(NUMBER_OF_EXPERIMENTS - 1, otherHandle.getNumberOfAllExperiments());
+			assertEquals(10, otherHandle.getRunningExperiments().size());
+			Map<String, String> keys = new HashMap<>();
+			keys.put("A", "new");
+			keys.put("B", "new");
+			ExperimentDBEntry newExperiment = otherHandle.createAndGetExperiments(Collections.singletonList(new Experiment(1000, 1, keys))).get(0);
+			assertEquals(NUMBER_OF_EXPERIMENTS + 1, newExperiment.getId());
+			assertEquals(NUMBER_OF_EXPERIMENTS, handle.getNumberOfAllExperiments());
+		}
+		try (ExperimenterFileHandle handle = this.getHandle()) {
+			assertEquals(NUMBER_OF_EXPERIMENTS, handle.getNumberOfAllExperiments());
+			assertEquals("result", handle.getExperimentWithId(1).getExperiment().getValuesOfResultFields().get("C"));
+		}
+	}
+
+	@Test
+	public void testThatConcurrentHandlesClaimEveryExperimentExactlyOnce() throws Exception {
+		try (ExperimenterFileHandle handle = this.getHandle()) {
+			this.createExperiments(handle, 1000);
+		}
+		Set<Integer> claimedIds = Collections.synchronizedSet(new HashSet<>());
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_HANDLES; i++) {
+			Thread thread = new Thread(() -> {
+				try (ExperimenterFileHandle handle = this.getHandle()) {
+					List<ExperimentDBEntry> claimedExperiments;
+					while (!(claimedExperiments = handle.startRandomOpenExperiments(7)).isEmpty()) {
+						for (ExperimentDBEntry experiment : claimedExperiments) {
+							assertTrue("Experiment " + experiment.getId() + " has been claimed twice.", claimedIds.add(experiment.getId()));
+						}
+					}
+				} catch (Throwable e) {
+					failure.compareAndSet(null, e);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertNull(failure.get());
+		assertEquals(NUMBER_OF_EXPERIMENTS, claimedIds.size());
+		try (ExperimenterFileHandle handle = this.getHandle()) {
+			assertEquals(NUMBER_OF_EXPERIMENTS, handle.getRunningExperiments().size());
+
+			/* released experiments can be claimed again */
+			ExperimentDBEntry experiment = handle.getRunningExperiments().get(0);
+			handle.releaseExperiment(experiment);
+			assertEquals(1, handle.getOpenExperiments().size());
+			assertEquals(experiment.getId(), handle.startRandomOpenExperiments(10).get(0).getId());
+			assertTrue(handle.startRandomOpenExperiments(10).isEmpty());
+		}
+	}
+
+	@Test
+	public void testThatRunnerConductsAllExperimentsInParallelSlots() throws Exception {
+		int memoryPerSlotInMB = (int) (Runtime.getRuntime().maxMemory() / 1024 / 1024 / NUMBER_OF_SLOTS);
+		try (ExperimenterFileHandle handle = this.getHandle()) {
+			this.createExperiments(handle, memoryPerSlotInMB);
+			ExperimentRunner runner = new ExperimentRunner(this.config, (experimentEntry, processor) -> {
+				Map<String, Object> results = new HashMap<>();
+				results.put("C", experimentEntry.getExperiment().getValuesOfKeyFields().get("A") + "/" + experimentEntry.getExperiment().getValuesOfKeyFields().get("B"));
+				processor.processResults(results);
+			}, handle, NUMBER_OF_SLOTS);
+			runner.randomlyConductExperiments();
+			Collection<ExperimentDBEntry> conductedExperiments = handle.getConductedExperiments();
+			assertEquals(NUMBER_OF_EXPERIMENTS, conductedExperiments.size());
+			assertTrue(handle.getRunningExperiments().isEmpty());
+			for (ExperimentDBEntry entry : conductedExperiments) {
+				Experiment experiment = entry.getExperiment();
+				assertEquals(experiment.getValuesOfKeyFields().get("A") + "/" + experiment.getValuesOfKeyFields().get("B"), experiment.getValuesOfResultFields().get("C"));
+			}
+			handle.deleteDatabase();
+			assertFalse(this.file.exists());
+		}
+	}
+
+	@Test
+	public void testThatInterruptedEvaluationIsReleasedAndStopsRunner() throws Exception {
+		int memoryPerSlotInMB = (int) (Runtime.getRuntime().maxMemory() / 1024 / 1024 / NUMBER_OF_SLOTS);
+		try (ExperimenterFileHandle handle = this.getHandle()) {
+			this.createExperiments(handle, memoryPerSlotInMB);
+			AtomicInteger evaluations = new AtomicInteger();
+			ExperimentRunner runner = new ExperimentRunner(this.config, (experimentEntry, processor) -> {
+				if (evaluations.incrementAndGet() == 10) {
+					throw new InterruptedException();
+				}
+			}, handle, NUMBER_OF_SLOTS);
+			try {
+				runner.randomlyConductExperiments();
+				fail("The runner should have been interrupted.");
+			} catch (InterruptedException e) {
+				/* expected */
+			}
+			assertTrue(handle.getRunningExperiments().isEmpty());
+			assertEquals(evaluations.get() - 1, handle.getConductedExperiments().size());
+			assertEquals(NUMBER_OF_EXPERIMENTS - evaluations.get() + 1, handle.getOpenExperiments().size());
+		}
+	}
+
+	@Test
+	public void testThatErrorInEvaluationIsRecordedAndStopsRunner() throws Exception {
+		int memoryPerSlotInMB = (int) (Runtime.getRuntime().maxMemory() / 1024 / 1024 / NUMBER_OF_SLOTS);
+		try (ExperimenterFileHandle handle = this.getHandle()) {
+			this.createExperiments(handle, memoryPerSlotInMB);
+			AtomicInteger evaluations = new AtomicInteger();
+			ExperimentRunner runner = new ExperimentRunner(this.config, (experimentEntry, processor) -> {
+				if (evaluations.incrementAndGet() == 10) {
+					throw new AssertionError("error in evaluation");
+				}
+			}, handle, NUMBER_OF_SLOTS);
+			try {
+				runner.randomlyConductExperiments();
+				fail("The runner should have passed on the error.");
+			} catch (AssertionError e) {
+				assertEquals("error in evaluation", e.getMessage());
+			}
+
+			/* the experiment with the error has been finished like the others */
+			assertTrue(handle.getRunningExperiments().isEmpty());
+			assertEquals(evaluations.get(), handle.getConductedExperiments().size());
+			assertEquals(NUMBER_OF_EXPERIMENTS - evaluations.get(), handle.getOpenExperiments().size());
+		}
+	}
+
+	@Test
+	public void testThatInterruptedRunnerReleasesClaimedExperiments() throws Exception {
+		int memoryPerSlotInMB = (int) (Runtime.getRuntime().maxMemory() / 1024 / 1024 / NUMBER_OF_SLOTS);
+		try (ExperimenterFileHandle handle = this.getHandle()) {
+			this.createExperiments(handle, memoryPerSlotInMB);
+			CountDownLatch busySlots = new CountDownLatch(NUMBER_OF_SLOTS);
+			ExperimentRunner runner = new ExperimentRunner(this.config, (experimentEntry, processor) -> {
+				busySlots.countDown();
+				Thread.sleep(60000);
+			}, handle, NUMBER_OF_SLOTS);
+			AtomicReference<Throwable> exceptionOfRunner = new AtomicReference<>();
+			Thread runnerThread = new Thread(() -> {
+				try {
+					runner.randomlyConductExperiments();
+				} catch (Throwable e) {
+					exceptionOfRunner.set(e);
+				}
+			});
+			runnerThread.start();
+
+			/* interrupt the runner while it waits for a free slot */
+			busySlots.await();
+			while (runnerThread.getState() != Thread.State.WAITING) {
+				Thread.sleep(10);
+			}
+			assertEquals(NUMBER_OF_SLOTS, handle.getRunningExperiments().size()); // no experiment is claimed before a slot is free
+			runnerThread.interrupt();
+			runnerThread.join();
+			assertTrue(exceptionOfRunner.get() instanceof InterruptedException);
+			assertTrue(handle.getRunningExperiments().isEmpty());
+			assertEquals(NUMBER_OF_EXPERIMENTS, handle.getOpenExperiments().size());
+		}
+	}
+}
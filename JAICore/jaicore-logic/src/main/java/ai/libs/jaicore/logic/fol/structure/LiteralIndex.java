@@ -0,0 +1,124 @@
+package ai.libs.jaicore.logic.fol.structure;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An index of literals by their property (including negation) and by the constants occurring at their argument positions. It is used by {@link LiteralSet} to answer queries for literals of a given property or for
+ * literals that may be unified with a given literal without scanning the whole set.
+ *
+ * @author fmohr
+ *
+ */
+public class LiteralIndex {
+
+	private final Map<String, Set<Literal>> literalsByProperty = new HashMap<>();
+	private final Map<ArgumentKey, Set<Literal>> literalsByArgument = new HashMap<>();
+
+	private static class ArgumentKey {
+		private final String property;
+		private final int position;
+		private final LiteralParam constant;
+
+		public ArgumentKey(final String property, final int position, final LiteralParam constant) {
+			super();
+			this.property = property;
+			this.position = position;
+			this.constant = constant;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.property, this.position, this.constant);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (!(obj instanceof ArgumentKey)) {
+				return false;
+			}
+			ArgumentKey other = (ArgumentKey) obj;
+			return this.position == other.position && this.property.equals(other.property) && this.constant.equals(other.constant);
+		}
+	}
+
+	public LiteralIndex() {
+		super();
+	}
+
+	public LiteralIndex(final Collection<Literal> literals) {
+		this();
+		literals.forEach(this::add);
+	}
+
+	public void add(final Literal literal) {
+		String property = literal.getProperty();
+		this.literalsByProperty.computeIfAbsent(property, p -> new HashSet<>()).add(literal);
+		List<LiteralParam> params = literal.getParameters();
+		for (int i = 0; i < params.size(); i++) {
+			if (params.get(i) instanceof ConstantParam) {
+				this.literalsByArgument.computeIfAbsent(new ArgumentKey(property, i, params.get(i)), k -> new HashSet<>()).add(literal);
+			}
+		}
+	}
+
+	public void remove(final Literal literal) {
+		String property = literal.getProperty();
+		removeFromBucket(this.literalsByProperty, property, literal);
+		List<LiteralParam> params = literal.getParameters();
+		for (int i = 0; i < params.size(); i++) {
+			if (params.get(i) instanceof ConstantParam) {
+				removeFromBucket(this.literalsByArgument, new ArgumentKey(property, i, params.get(i)), literal);
+			}
+		}
+	}
+
+	private static <K> void removeFromBucket(final Map<K, Set<Literal>> map, final K key, final Literal literal) {
+		Set<Literal> bucket = map.get(key);
+		if (bucket != null && bucket.remove(literal) && bucket.isEmpty()) {
+			map.remove(key);
+		}
+	}
+
+	/**
+	 * @param property
+	 *            The property of the literals including a leading "!" for negated literals
+	 * @return The indexed literals with the given property
+	 */
+	public Set<Literal> getLiteralsWithProperty(final String property) {
+		return Collections.unmodifiableSet(this.literalsByProperty.getOrDefault(property, Collections.emptySet()));
+	}
+
+	/**
+	 * Returns a (typically small) superset of the indexed literals that can be unified with the given literal, i.e. that have the same property (and sign) and the same constants where the given literal has constants.
+	 * This is the smallest set of literals sharing one of these constants at the respective position, or all literals with the property if the given literal has no constants.
+	 *
+	 * @param literal
+	 *            The literal that shall be unified
+	 * @return Candidates for the unification
+	 */
+	public Set<Literal> getCandidatesForUnification(final Literal literal) {
+		String property = literal.getProperty();
+		Set<Literal> candidates = this.literalsByProperty.getOrDefault(property, Collections.emptySet());
+		List<LiteralParam> params = literal.getParameters();
+		for (int i = 0; i < params.size() && !candidates.isEmpty(); i++) {
+			if (params.get(i) instanceof ConstantParam) {
+				Set<Literal> literalsWithConstant = this.literalsByArgument.getOrDefault(new ArgumentKey(property, i, params.get(i)), Collections.emptySet());
+				if (literalsWithConstant.size() < candidates.size()) {
+					candidates = literalsWithConstant;
+				}
+			}
+		}
+		return Collections.unmodifiableSet(candidates);
+	}
+
+	public Set<String> getProperties() {
+		return Collections.unmodifiableSet(this.literalsByProperty.keySet());
+	}
+}
@@ -3,6 +3,7 @@ package ai.libs.jaicore.logic.fol.structure;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -17,6 +18,9 @@ import ai.libs.jaicore.basic.sets.SetUtil;
 /**
  * A set of literals.
  *
+ * Queries for literals with a given property or for literals that can be unified with a given literal are answered by a {@link LiteralIndex}, which is created on the first such query and kept up to date by
+ * subsequent modifications.
+ *
  * @author mbunse
  */
 
@@ -28,6 +32,8 @@ public class LiteralSet extends HashSet<Literal> {
 	private static final long serialVersionUID = 6767454041686262363L;
 	private static Logger logger = LoggerFactory.getLogger(LiteralSet.class);
 
+	private transient volatile LiteralIndex index;
+
 	/**
 	 * Creates an empty literal set. Literals can be added later.
 	 */
@@ -96,6 +102,93 @@ public class LiteralSet extends HashSet<Literal> {
 		return this.add(new Literal(literalDescriptor));
 	}
 
+	@Override
+	public boolean add(final Literal literal) {
+		boolean added = super.add(literal);
+		LiteralIndex currentIndex = this.index;
+		if (added && currentIndex != null) {
+			currentIndex.add(literal);
+		}
+		return added;
+	}
+
+	@Override
+	public boolean remove(final Object o) {
+		boolean removed = super.remove(o);
+		LiteralIndex currentIndex = this.index;
+		if (removed && currentIndex != null) {
+			currentIndex.remove((Literal) o);
+		}
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		this.index = null;
+	}
+
+	@Override
+	public Iterator<Literal> iterator() {
+		Iterator<Literal> it = super.iterator();
+		return new Iterator<Literal>() {
+			private Literal last;
+
+			@Override
+			public boolean hasNext() {
+				return it.hasNext();
+			}
+
+			@Override
+			public Literal next() {
+				this.last = it.next();
+				return this.last;
+			}
+
+			@Override
+			public void remove() {
+				it.remove();
+				LiteralIndex currentIndex = LiteralSet.this.index;
+				if (currentIndex != null) {
+					currentIndex.remove(this.last);
+				}
+			}
+		};
+	}
+
+	@Override
+	public Object clone() {
+		LiteralSet copy = (LiteralSet) super.clone();
+		copy.index = null;
+		return copy;
+	}
+
+	/**
+	 * @return The index of the literals of this set, which is created if it does not exist yet.
+	 */
+	public LiteralIndex getIndex() {
+		LiteralIndex currentIndex = this.index;
+		if (currentIndex == null) {
+			synchronized (this) {
+				currentIndex = this.index;
+				if (currentIndex == null) {
+					currentIndex = new LiteralIndex(this);
+					this.index = currentIndex;
+				}
+			}
+		}
+		return currentIndex;
+	}
+
+	/**
+	 * @param literal
+	 *            A literal
+	 * @return The literals of this set that may be unified with the given literal (see {@link LiteralIndex#getCandidatesForUnification(Literal)})
+	 */
+	public Set<Literal> getCandidatesForUnification(final Literal literal) {
+		return this.getIndex().getCandidatesForUnification(literal);
+	}
+
 	/**
 	 * @param conclusion
 	 *            Another literal set that may be concluded by this literal set.
@@ -241,12 +334,8 @@ public class LiteralSet extends HashSet<Literal> {
 	}
 
 	public boolean containsLiteralWithPredicatename(final String predicateName) {
-		for (Literal l : this) {
-			if (l.getPropertyName().equals(predicateName)) {
-				return true;
-			}
-		}
-		return false;
+		LiteralIndex currentIndex = this.getIndex();
+		return !currentIndex.getLiteralsWithProperty(predicateName).isEmpty() || !currentIndex.getLiteralsWithProperty("!" + predicateName).isEmpty();
 	}
 
 	public boolean hasVariables() {
@@ -254,14 +343,9 @@ public class LiteralSet extends HashSet<Literal> {
 	}
 
 	public Set<Literal> getLiteralsWithPropertyName(final String propertyName) {
-		Set<Literal> literalsWithPropertyName = new HashSet<>();
-
-		for (Literal lit : this) {
-			if (lit.getPropertyName().equals(propertyName)) {
-				literalsWithPropertyName.add(lit);
-			}
-		}
-
+		LiteralIndex currentIndex = this.getIndex();
+		Set<Literal> literalsWithPropertyName = new HashSet<>(currentIndex.getLiteralsWithProperty(propertyName));
+		literalsWithPropertyName.addAll(currentIndex.getLiteralsWithProperty("!" + propertyName));
 		return literalsWithPropertyName;
 	}
 }
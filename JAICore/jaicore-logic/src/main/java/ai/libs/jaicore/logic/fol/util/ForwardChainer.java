@@ -263,10 +263,12 @@ public class ForwardChainer extends AAlgorithm<ForwardChainingProblem, Collectio
 
 		/*
 		 * otherwise, select literal from the factbase that could be used for
-		 * unification
+		 * unification. If the factbase is a literal set, only its indexed candidates
+		 * need to be considered.
 		 */
 		else {
-			for (Literal fact : factbase) {
+			Collection<Literal> candidates = factbase instanceof LiteralSet ? ((LiteralSet) factbase).getCandidatesForUnification(l) : factbase;
+			for (Literal fact : candidates) {
 				if (!fact.getPropertyName().equals(l.getPropertyName()) || fact.isPositive() != l.isPositive()) {
 					continue;
 				}
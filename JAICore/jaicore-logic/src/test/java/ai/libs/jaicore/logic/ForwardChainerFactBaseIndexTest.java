@@ -0,0 +1,94 @@
+package ai.libs.jaicore.logic;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import ai.libs.jaicore.basic.algorithm.AlgorithmExecutionCanceledException;
+import ai.libs.jaicore.basic.algorithm.exceptions.AlgorithmTimeoutedException;
+import ai.libs.jaicore.logic.fol.structure.Literal;
+import ai.libs.jaicore.logic.fol.structure.LiteralParam;
+import ai.libs.jaicore.logic.fol.structure.Monom;
+import ai.libs.jaicore.logic.fol.structure.VariableParam;
+import ai.libs.jaicore.logic.fol.util.ForwardChainer;
+import ai.libs.jaicore.logic.fol.util.ForwardChainingProblem;
+import ai.libs.jaicore.logic.fol.util.LogicUtil;
+
+/**
+ * Checks that the groundings of a HASCO-like precondition in states of increasing size are the same for the indexed fact base (a {@link Monom}) and for a plain collection of the same literals, and that forward chaining in the
+ * indexed fact base yields exactly the one expected solution.
+ *
+ * The states resemble those of HASCO: every component instance has a "resolves" literal linking it to its parent, a parameter container for each of its parameters, and a value for each container.
+ *
+ * @author fmohr
+ *
+ */
+@RunWith(Parameterized.class)
+public class ForwardChainerFactBaseIndexTest {
+
+	private static final int PARAMS_PER_COMPONENT = 5;
+
+	@Parameters(name = "components = {0}")
+	public static Collection<Object[]> data() {
+		List<Object[]> data = new ArrayList<>();
+		for (int components : new int[] { 10, 100, 1000 }) {
+			data.add(new Object[] { components });
+		}
+		return data;
+	}
+
+	// fields used together with @Parameter must be public
+	@Parameter(0)
+	public int numberOfComponentInstances;
+
+	private Monom getState() {
+		Monom state = new Monom();
+		for (int i = 0; i < this.numberOfComponentInstances; i++) {
+			String parent = i == 0 ? "request" : "c" + (i - 1);
+			state.add(new Literal("resolves('" + parent + "', 'IFace', 'Component" + (i % 10) + "', 'c" + i + "')"));
+			for (int p = 0; p < PARAMS_PER_COMPONENT; p++) {
+				state.add(new Literal("parameterContainer('Component" + (i % 10) + "', 'p" + p + "', 'c" + i + "', 'c" + i + "_p" + p + "')"));
+				state.add(new Literal("val('c" + i + "_p" + p + "', 'v" + p + "')"));
+			}
+		}
+		return state;
+	}
+
+	@Test
+	public void testThatIndexedAndUnindexedFactBasesYieldTheSameGroundings() throws AlgorithmTimeoutedException, InterruptedException, AlgorithmExecutionCanceledException {
+		Monom state = this.getState();
+		List<Literal> unindexedState = new ArrayList<>(state);
+		int parentId = this.numberOfComponentInstances / 2;
+		Monom conclusion = new Monom("resolves('c" + parentId + "', 'IFace', c, ci) & parameterContainer(c, 'p2', ci, pc) & val(pc, 'v2')");
+
+		/* the groundings of each single literal must not depend on whether the fact base is indexed */
+		ForwardChainer fc = new ForwardChainer(new ForwardChainingProblem(new Monom(), conclusion, true));
+		for (Literal literal : conclusion) {
+			Collection<Map<VariableParam, LiteralParam>> indexedGroundings = fc.getGroundingsUnderWhichALiteralAppearsInFactBase(state, literal, Integer.MAX_VALUE);
+			Collection<Map<VariableParam, LiteralParam>> unindexedGroundings = fc.getGroundingsUnderWhichALiteralAppearsInFactBase(unindexedState, literal, Integer.MAX_VALUE);
+			assertEquals(indexedGroundings.size(), new HashSet<>(indexedGroundings).size());
+			assertEquals(new HashSet<>(unindexedGroundings), new HashSet<>(indexedGroundings));
+		}
+
+		/* solving the whole problem recursively grounds the remaining literals in the (indexed) state; the only solution is the child of the given component instance */
+		Collection<Map<VariableParam, LiteralParam>> solutions = new ForwardChainer(new ForwardChainingProblem(state, conclusion, true)).call();
+		int childId = parentId + 1;
+		Map<VariableParam, LiteralParam> expectedSolution = new HashMap<>();
+		expectedSolution.put(new VariableParam("c"), LogicUtil.parseParamName("'Component" + (childId % 10) + "'"));
+		expectedSolution.put(new VariableParam("ci"), LogicUtil.parseParamName("'c" + childId + "'"));
+		expectedSolution.put(new VariableParam("pc"), LogicUtil.parseParamName("'c" + childId + "_p2'"));
+		assertEquals(1, solutions.size());
+		assertEquals(expectedSolution, solutions.iterator().next());
+	}
+}
@@ -1,7 +1,12 @@
 package ai.libs.jaicore.logic;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -67,4 +72,33 @@ public class LiteralSetTest {
 
 	} // testImplies
 
+	/**
+	 * Test that the index answers queries correctly after the set has been modified.
+	 */
+	@Test
+	public void testIndexIsUpdatedOnModifications() {
+		LiteralSet set = new LiteralSet("resolves('a', 'b') & resolves('a', 'c') & !resolves('b', 'c') & val('p', 'v')", "&");
+		assertEquals(3, set.getLiteralsWithPropertyName("resolves").size());
+		assertTrue(set.containsLiteralWithPredicatename("val"));
+
+		Literal pattern = new Literal("resolves", Arrays.asList(new ConstantParam("a"), new VariableParam("x")));
+		assertEquals(new HashSet<>(Arrays.asList(new Literal("resolves('a', 'b')"), new Literal("resolves('a', 'c')"))), set.getCandidatesForUnification(pattern));
+
+		set.add(new Literal("resolves('a', 'd')"));
+		set.remove(new Literal("resolves('a', 'b')"));
+		Iterator<Literal> it = set.iterator();
+		while (it.hasNext()) {
+			if (it.next().getPropertyName().equals("val")) {
+				it.remove();
+			}
+		}
+		assertFalse(set.containsLiteralWithPredicatename("val"));
+		assertEquals(new HashSet<>(Arrays.asList(new Literal("resolves('a', 'c')"), new Literal("resolves('a', 'd')"))), set.getCandidatesForUnification(pattern));
+		assertEquals(new HashSet<>(Arrays.asList(new Literal("!resolves('b', 'c')"))), set.getCandidatesForUnification(new Literal("!resolves(x, 'c')")));
+
+		LiteralSet copy = (LiteralSet) set.clone();
+		copy.add(new Literal("resolves('a', 'e')"));
+		assertEquals(2, set.getCandidatesForUnification(pattern).size());
+		assertEquals(3, copy.getCandidatesForUnification(pattern).size());
+	}
 }
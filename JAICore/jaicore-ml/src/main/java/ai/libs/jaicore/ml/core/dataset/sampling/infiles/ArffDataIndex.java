@@ -0,0 +1,215 @@
+package ai.libs.jaicore.ml.core.dataset.sampling.infiles;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Index of the positions of the datapoint lines in an ARFF file. The index is
+ * created in a single pass over the memory-mapped file, after which single
+ * datapoints can be read by positional reads without scanning the file again.
+ * Like {@link ai.libs.jaicore.ml.core.dataset.ArffUtilities}, empty lines and
+ * comments are not considered to be datapoints and datapoints are trimmed.
+ *
+ * Indices are cached per file (and invalidated if the file is modified), so
+ * that subsequent samples of the same file share the index. The cache holds
+ * the indices of the files that have been used most recently.
+ */
+public class ArffDataIndex {
+
+	private static final int MAPPING_SIZE = 1 << 26;
+	private static final int MAX_CACHED_INDICES = 8;
+	private static final byte[] DATA_TAG = "@data".getBytes(StandardCharsets.US_ASCII);
+
+	private static final Map<File, ArffDataIndex> CACHE = Collections.synchronizedMap(new LinkedHashMap<File, ArffDataIndex>(16, .75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<File, ArffDataIndex> eldest) {
+			return this.size() > MAX_CACHED_INDICES;
+		}
+	});
+
+	private final File file;
+	private final long fileLength;
+	private final long lastModified;
+
+	private int size = 0;
+	private long[] starts = new long[1024];
+	private int[] lengths = new int[1024];
+
+	private ArffDataIndex(final File file) throws IOException {
+		this.file = file;
+		this.fileLength = file.length();
+		this.lastModified = file.lastModified();
+		this.scan();
+	}
+
+	/**
+	 * Returns the (possibly cached) index of the given ARFF file.
+	 *
+	 * @param file
+	 *            The ARFF file.
+	 * @return The index of the datapoints of the file.
+	 * @throws IOException
+	 *             Could not read from the given file.
+	 */
+	public static ArffDataIndex of(final File file) throws IOException {
+		File key = file.getCanonicalFile();
+		ArffDataIndex index = CACHE.get(key);
+		if (index != null && index.fileLength == key.length() && index.lastModified == key.lastModified()) {
+			return index;
+		}
+		index = new ArffDataIndex(key);
+		CACHE.put(key, index);
+		return index;
+	}
+
+	/**
+	 * Creates a new index of a file without consulting the cache, e.g. for
+	 * temporary files.
+	 *
+	 * @param file
+	 *            The ARFF file.
+	 * @return The index of the datapoints of the file.
+	 * @throws IOException
+	 *             Could not read from the given file.
+	 */
+	public static ArffDataIndex create(final File file) throws IOException {
+		return new ArffDataIndex(file);
+	}
+
+	private void scan() throws IOException {
+		try (FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ)) {
+			long length = channel.size();
+			boolean inData = false;
+			long lineStart = 0;
+			long firstNonWhitespace = -1;
+			long lastNonWhitespace = -1;
+			boolean isComment = false;
+			int tagMatch = 0;
+			for (long mappingStart = 0; mappingStart < length; mappingStart += MAPPING_SIZE) {
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mappingStart, Math.min(MAPPING_SIZE, length - mappingStart));
+				int limit = buffer.limit();
+				for (int i = 0; i < limit; i++) {
+					byte b = buffer.get(i);
+					long position = mappingStart + i;
+					if (b == '\n') {
+						if (firstNonWhitespace >= 0 && !isComment) {
+							if (inData) {
+								this.add(firstNonWhitespace, (int) (lastNonWhitespace - firstNonWhitespace + 1));
+							} else if (tagMatch == DATA_TAG.length && lastNonWhitespace - firstNonWhitespace + 1 == DATA_TAG.length) {
+								inData = true;
+							}
+						}
+						lineStart = position + 1;
+						firstNonWhitespace = -1;
+						lastNonWhitespace = -1;
+						isComment = false;
+						tagMatch = 0;
+					} else if ((b & 0xFF) > ' ') { // bytes of non-ASCII characters are negative
+						if (firstNonWhitespace < 0) {
+							firstNonWhitespace = position;
+							isComment = b == '%';
+						}
+						int offsetInLine = (int) Math.min(Integer.MAX_VALUE, position - firstNonWhitespace);
+						if (offsetInLine == tagMatch && tagMatch < DATA_TAG.length && b == DATA_TAG[tagMatch]) {
+							tagMatch++;
+						}
+						lastNonWhitespace = position;
+					}
+				}
+			}
+			if (inData && firstNonWhitespace >= 0 && !isComment && lineStart < length) {
+				this.add(firstNonWhitespace, (int) (lastNonWhitespace - firstNonWhitespace + 1));
+			}
+		}
+	}
+
+	private void add(final long start, final int length) {
+		if (this.size == this.starts.length) {
+			this.starts = Arrays.copyOf(this.starts, 2 * this.size);
+			this.lengths = Arrays.copyOf(this.lengths, 2 * this.size);
+		}
+		this.starts[this.size] = start;
+		this.lengths[this.size] = length;
+		this.size++;
+	}
+
+	/**
+	 * @return The number of datapoints in the file.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	public File getFile() {
+		return this.file;
+	}
+
+	/**
+	 * Opens the indexed file for reading datapoints by
+	 * {@link #readDatapoint(FileChannel, int)}.
+	 *
+	 * @return A channel of the file, which must be closed by the caller.
+	 * @throws IOException
+	 *             Could not open the file.
+	 */
+	public FileChannel open() throws IOException {
+		return FileChannel.open(this.file.toPath(), StandardOpenOption.READ);
+	}
+
+	/**
+	 * Reads a single datapoint.
+	 *
+	 * @param channel
+	 *            Channel obtained from {@link #open()}.
+	 * @param index
+	 *            The index of the datapoint among all datapoints of the file.
+	 * @return The trimmed datapoint line.
+	 * @throws IOException
+	 *             Could not read from the file.
+	 */
+	public String readDatapoint(final FileChannel channel, final int index) throws IOException {
+		if (index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException("There is no datapoint " + index + " in a file with " + this.size + " datapoints.");
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(this.lengths[index]);
+		long position = this.starts[index];
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new IOException("Unexpected end of file " + this.file + ", which has been modified after indexing.");
+			}
+		}
+		return new String(buffer.array(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Writes the datapoints with the given indices in the given order, each
+	 * followed by a line break.
+	 *
+	 * @param indices
+	 *            The indices of the datapoints.
+	 * @param writer
+	 *            The writer the datapoints are written to.
+	 * @throws IOException
+	 *             Could not read from the file or write to the writer.
+	 */
+	public void writeDatapoints(final int[] indices, final Writer writer) throws IOException {
+		try (FileChannel channel = this.open()) {
+			for (int index : indices) {
+				writer.write(this.readDatapoint(channel, index));
+				writer.write("\n");
+			}
+		}
+	}
+}
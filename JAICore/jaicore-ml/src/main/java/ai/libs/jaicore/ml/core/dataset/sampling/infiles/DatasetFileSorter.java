@@ -1,26 +1,45 @@
 package ai.libs.jaicore.ml.core.dataset.sampling.infiles;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
 
 import ai.libs.jaicore.basic.TempFileHandler;
 import ai.libs.jaicore.ml.core.dataset.ArffUtilities;
 
 /**
- * Sorts a Dataset file with a Mergesort. A TempFileHandler can be given or a
- * new one will be created otherwise.
- * 
+ * Sorts a Dataset file with an external mergesort: The datapoints are read in
+ * runs that fit into a bounded amount of memory, each run is sorted in memory
+ * and written to a temporary file, and the runs are merged with a k-way merge.
+ * The sort is stable. A TempFileHandler can be given or a new one will be
+ * created otherwise. The datapoints are read and written as UTF-8, like
+ * {@link ArffDataIndex} reads them.
+ *
  * @author Lukas Brandt
  */
 public class DatasetFileSorter {
 
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/* rough estimate of the memory needed for a line in addition to its characters (String and array headers, list entry) */
+	private static final int LINE_OVERHEAD_IN_BYTES = 64;
+
 	private File datasetFile;
 	private TempFileHandler tempFileHandler;
 	private boolean usesOwnTempFileHandler;
+	private long memoryLimitInBytes = 64L * 1024 * 1024;
+	private int maxRunsPerMerge = 64;
 
 	// Default comperator, which compared the single features as strings
 	private Comparator<String> comparator = (s1, s2) -> {
@@ -55,6 +74,29 @@ public class DatasetFileSorter {
 		this.comparator = comparator;
 	}
 
+	/**
+	 * @param memoryLimitInBytes
+	 *            Approximate amount of memory used for the datapoints of a run.
+	 */
+	public void setMemoryLimit(long memoryLimitInBytes) {
+		if (memoryLimitInBytes <= 0) {
+			throw new IllegalArgumentException("The memory limit must be positive.");
+		}
+		this.memoryLimitInBytes = memoryLimitInBytes;
+	}
+
+	/**
+	 * @param maxRunsPerMerge
+	 *            Maximum number of runs (and hence open files) that are merged at
+	 *            once. If there are more runs, they are merged in several passes.
+	 */
+	public void setMaxRunsPerMerge(int maxRunsPerMerge) {
+		if (maxRunsPerMerge < 2) {
+			throw new IllegalArgumentException("At least two runs must be merged at once.");
+		}
+		this.maxRunsPerMerge = maxRunsPerMerge;
+	}
+
 	/**
 	 * 
 	 * @param sortedFilePath
@@ -62,120 +104,135 @@ public class DatasetFileSorter {
 	 * @throws IOException
 	 */
 	public File sort(String sortedFilePath) throws IOException {
-		IOException exception;
-		try (FileWriter fileWriter = new FileWriter(new File(sortedFilePath));
-				FileReader fr = new FileReader(this.datasetFile);
-				BufferedReader datasetFileReader = new BufferedReader(fr)) {
+		List<String> runs = new ArrayList<>();
+		try (Writer fileWriter = openWriter(new File(sortedFilePath));
+				BufferedReader datasetFileReader = openReader(this.datasetFile)) {
 			// Create a new file for the sorted dataset with the ARFF header
-			String arffHeader;
-			arffHeader = ArffUtilities.extractArffHeader(this.datasetFile);
-			fileWriter.write(arffHeader);
+			fileWriter.write(ArffUtilities.extractArffHeader(this.datasetFile));
+			ArffUtilities.skipWithReaderToDatapoints(datasetFileReader);
 
-			// Create a temp file with all datapoints
-			String tempFileUUID = this.tempFileHandler.createTempFile();
-			FileWriter tempFileWriter = this.tempFileHandler.getFileWriterForTempFile(tempFileUUID);
+			// Read the datapoints in runs that fit into memory and write the sorted runs to temp files
+			List<String> run = new ArrayList<>();
+			long memoryOfRun = 0;
 			String dataPointLine;
-			boolean datastarted = false;
 			while ((dataPointLine = datasetFileReader.readLine()) != null) {
-				if (dataPointLine.trim().equals("") || dataPointLine.trim().charAt(0) == '%') {
+				String datapoint = dataPointLine.trim();
+				if (datapoint.isEmpty() || datapoint.charAt(0) == '%') {
 					continue;
 				}
-				if (datastarted) {
-					tempFileWriter.write(dataPointLine.trim() + "\n");
-				} else {
-					if (dataPointLine.trim().equals("@data")) {
-						datastarted = true;
-					}
+				run.add(datapoint);
+				memoryOfRun += 2L * datapoint.length() + LINE_OVERHEAD_IN_BYTES;
+				if (memoryOfRun >= this.memoryLimitInBytes) {
+					runs.add(this.writeSortedRun(run));
+					run.clear();
+					memoryOfRun = 0;
 				}
 			}
-			tempFileWriter.flush();
-			datasetFileReader.close();
 
-			// Sort the temp file
-			String sortedFileUUID = mergesort(tempFileUUID);
+			// If all datapoints fit into memory, no temp files are necessary
+			if (runs.isEmpty()) {
+				run.sort(this.comparator);
+				for (String datapoint : run) {
+					fileWriter.write(datapoint);
+					fileWriter.write("\n");
+				}
+				return new File(sortedFilePath);
+			}
+			if (!run.isEmpty()) {
+				runs.add(this.writeSortedRun(run));
+				run.clear();
+			}
 
-			// Write the sorted lines from the temp file to the output file.
-			BufferedReader sortedReader = this.tempFileHandler.getFileReaderForTempFile(sortedFileUUID);
-			String line;
-			while ((line = sortedReader.readLine()) != null) {
-				fileWriter.write(line + "\n");
+			// Merge the runs in passes until they can be merged into the output file at once
+			while (runs.size() > this.maxRunsPerMerge) {
+				List<String> mergedRuns = new ArrayList<>();
+				for (int i = 0; i < runs.size(); i += this.maxRunsPerMerge) {
+					List<String> group = runs.subList(i, Math.min(runs.size(), i + this.maxRunsPerMerge));
+					String mergedRun = this.tempFileHandler.createTempFile();
+					try (Writer writer = openWriter(this.tempFileHandler.getTempFile(mergedRun))) {
+						this.merge(group, writer);
+					}
+					group.forEach(this.tempFileHandler::deleteTempFile);
+					mergedRuns.add(mergedRun);
+				}
+				runs = mergedRuns;
 			}
-			fileWriter.flush();
+			this.merge(runs, fileWriter);
 			return new File(sortedFilePath);
-		} catch (IOException e) {
-			exception = e;
 		} finally {
+			runs.forEach(this.tempFileHandler::deleteTempFile);
 			// Start clean up of the temporary file handler if a new one was used for this
 			// sorting.
 			if (usesOwnTempFileHandler) {
 				this.tempFileHandler.close();
 			}
 		}
-		throw exception;
 	}
 
-	private String mergesort(String fileUUID) throws IOException {
-		int length = ArffUtilities.countDatasetEntries(this.tempFileHandler.getTempFile(fileUUID), false);
-		if (length <= 1) {
-			return fileUUID;
-		} else {
-			// Split the existing file into two halfs
-			String leftUUID = this.tempFileHandler.createTempFile();
-			String rightUUID = this.tempFileHandler.createTempFile();
-			FileWriter leftWriter = this.tempFileHandler.getFileWriterForTempFile(leftUUID);
-			FileWriter rightWriter = this.tempFileHandler.getFileWriterForTempFile(rightUUID);
-			BufferedReader reader = this.tempFileHandler.getFileReaderForTempFile(fileUUID);
-			int i = 0;
-			String line;
-			while ((line = reader.readLine()) != null) {
-				if (i < (length / 2)) {
-					leftWriter.write(line + "\n");
-				} else {
-					rightWriter.write(line + "\n");
-				}
-				i++;
+	private static BufferedReader openReader(File file) throws IOException {
+		return new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE);
+	}
+
+	private static Writer openWriter(File file) throws IOException {
+		return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE);
+	}
+
+	private String writeSortedRun(List<String> run) throws IOException {
+		run.sort(this.comparator);
+		String uuid = this.tempFileHandler.createTempFile();
+		try (Writer writer = openWriter(this.tempFileHandler.getTempFile(uuid))) {
+			for (String datapoint : run) {
+				writer.write(datapoint);
+				writer.write("\n");
 			}
-			leftWriter.flush();
-			rightWriter.flush();
-			// Sort the two halfs
-			String sortedLeftUUID = mergesort(leftUUID);
-			String sortedRightUUID = mergesort(rightUUID);
-			// Merge the sorted halfs back together ande delete the left and right temp
-			// files
-			String mergedFileUUID = merge(sortedLeftUUID, sortedRightUUID);
-			this.tempFileHandler.deleteTempFile(leftUUID);
-			this.tempFileHandler.deleteTempFile(rightUUID);
-			return mergedFileUUID;
 		}
+		return uuid;
 	}
 
-	private String merge(String leftUUID, String rightUUID) throws IOException {
-		String uuid = this.tempFileHandler.createTempFile();
-		FileWriter writer = this.tempFileHandler.getFileWriterForTempFile(uuid);
-		BufferedReader leftReader = this.tempFileHandler.getFileReaderForTempFile(leftUUID);
-		BufferedReader rightReader = this.tempFileHandler.getFileReaderForTempFile(rightUUID);
-		String leftLine = leftReader.readLine();
-		String rightLine = rightReader.readLine();
-		while (leftLine != null || rightLine != null) {
-			if (leftLine == null) {
-				writer.write(rightLine + "\n");
-				rightLine = rightReader.readLine();
-			} else if (rightLine == null) {
-				writer.write(leftLine + "\n");
-				leftLine = leftReader.readLine();
-			} else {
-				int c = this.comparator.compare(leftLine, rightLine);
-				if (c > 0) {
-					writer.write(rightLine + "\n");
-					rightLine = rightReader.readLine();
-				} else {
-					writer.write(leftLine + "\n");
-					leftLine = leftReader.readLine();
+	/**
+	 * Merges the given sorted runs. Equal datapoints are taken from the runs in
+	 * the order of the runs, so that the sort stays stable.
+	 */
+	private void merge(List<String> runUUIDs, Writer writer) throws IOException {
+		List<BufferedReader> readers = new ArrayList<>(runUUIDs.size());
+		try {
+			PriorityQueue<RunHead> heads = new PriorityQueue<>(runUUIDs.size(), (h1, h2) -> {
+				int c = this.comparator.compare(h1.datapoint, h2.datapoint);
+				return c != 0 ? c : Integer.compare(h1.run, h2.run);
+			});
+			for (int i = 0; i < runUUIDs.size(); i++) {
+				BufferedReader reader = openReader(this.tempFileHandler.getTempFile(runUUIDs.get(i)));
+				readers.add(reader);
+				String datapoint = reader.readLine();
+				if (datapoint != null) {
+					heads.add(new RunHead(datapoint, i));
 				}
 			}
+			while (!heads.isEmpty()) {
+				RunHead head = heads.poll();
+				writer.write(head.datapoint);
+				writer.write("\n");
+				String next = readers.get(head.run).readLine();
+				if (next != null) {
+					head.datapoint = next;
+					heads.add(head);
+				}
+			}
+		} finally {
+			for (BufferedReader reader : readers) {
+				reader.close();
+			}
+		}
+	}
+
+	private static class RunHead {
+		private String datapoint;
+		private final int run;
+
+		private RunHead(String datapoint, int run) {
+			this.datapoint = datapoint;
+			this.run = run;
 		}
-		writer.flush();
-		return uuid;
 	}
 
 }
@@ -1,15 +1,12 @@
 package ai.libs.jaicore.ml.core.dataset.sampling.infiles;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.Random;
 
 import ai.libs.jaicore.basic.algorithm.AlgorithmExecutionCanceledException;
 import ai.libs.jaicore.basic.algorithm.events.AlgorithmEvent;
 import ai.libs.jaicore.basic.algorithm.exceptions.AlgorithmException;
-import ai.libs.jaicore.ml.core.dataset.ArffUtilities;
 import ai.libs.jaicore.ml.core.dataset.sampling.SampleElementAddedEvent;
 
 /**
@@ -17,16 +14,20 @@ import ai.libs.jaicore.ml.core.dataset.sampling.SampleElementAddedEvent;
  * Random Sampling for streamed data). For a desired sample of size n, the first
  * n elements of the stream are directly selected and the remaining ones will
  * replace these with decreasing probability.
+ *
+ * The datapoints are not read while streaming. Instead, the sampling works on
+ * the {@link ArffDataIndex} of the file (which is shared by subsequent samples
+ * of the same file), and only the sampled datapoints are read from the file.
  * 
  * @author Lukas Brandt
  */
 public class ReservoirSampling extends AFileSamplingAlgorithm {
 
 	private Random random;
-	private BufferedReader reader;
+	private ArffDataIndex index;
 	private int datapointAmount;
 	private int streamedDatapoints;
-	private String[] sampledDatapoints;
+	private int[] sampledDatapoints;
 
 	public ReservoirSampling(Random random, File input) {
 		super(input);
@@ -40,44 +41,32 @@ public class ReservoirSampling extends AFileSamplingAlgorithm {
 		case CREATED:
 			// Initialize variables.
 			try {
-				this.datapointAmount = ArffUtilities.countDatasetEntries(this.getInput(), true);
+				this.index = ArffDataIndex.of(this.getInput());
+				this.datapointAmount = this.index.size();
 				this.streamedDatapoints = 0;
-				this.sampledDatapoints = new String[this.sampleSize];
-				this.reader = new BufferedReader(new FileReader(this.getInput()));
-				ArffUtilities.skipWithReaderToDatapoints(reader);
+				this.sampledDatapoints = new int[Math.min(this.sampleSize, this.datapointAmount)];
 				return this.activate();
 			} catch (IOException e) {
-				throw new AlgorithmException(e, "Was not able to count the datapoints.");
+				throw new AlgorithmException(e, "Was not able to index the datapoints.");
 			}
 		case ACTIVE:
 			if (this.streamedDatapoints < this.datapointAmount) {
-				try {
-					// Get current datapoint.
-					String datapoint = reader.readLine();
-					if (datapoint != null && datapoint.trim().length() > 0 && datapoint.trim().charAt(0) != '%') {
-						if (this.streamedDatapoints < this.sampleSize) {
-							// Take the first n elements directly for the sample.
-							this.sampledDatapoints[streamedDatapoints] = datapoint.trim();
-						} else {
-							// Replace elements with decreasing probability.
-							int j = this.random.nextInt(this.streamedDatapoints);
-							if (j < this.sampleSize) {
-								this.sampledDatapoints[j] = datapoint.trim();
-							}
-						}
+				if (this.streamedDatapoints < this.sampledDatapoints.length) {
+					// Take the first n elements directly for the sample.
+					this.sampledDatapoints[streamedDatapoints] = this.streamedDatapoints;
+				} else {
+					// Replace elements with decreasing probability.
+					int j = this.random.nextInt(this.streamedDatapoints);
+					if (j < this.sampledDatapoints.length) {
+						this.sampledDatapoints[j] = this.streamedDatapoints;
 					}
-					this.streamedDatapoints++;
-					return new SampleElementAddedEvent(getId());
-				} catch (IOException e) {
-					throw new AlgorithmException(e, "Was not able to read datapoint line from input file");
 				}
+				this.streamedDatapoints++;
+				return new SampleElementAddedEvent(getId());
 			} else {
 				try {
-					this.reader.close();
 					// Write sampled datapoints into output file and terminate.
-					for (int i = 0; i < this.sampledDatapoints.length; i++) {
-						this.outputFileWriter.write(sampledDatapoints[i] + "\n");
-					}
+					this.index.writeDatapoints(this.sampledDatapoints, this.outputFileWriter);
 					return this.terminate();
 				} catch (IOException e) {
 					throw new AlgorithmException(e, "Was not able to write sampled datapoints into output files.");
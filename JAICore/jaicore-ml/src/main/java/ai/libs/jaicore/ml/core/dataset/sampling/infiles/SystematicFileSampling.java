@@ -1,20 +1,21 @@
 package ai.libs.jaicore.ml.core.dataset.sampling.infiles;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
 import java.util.UUID;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import ai.libs.jaicore.basic.TempFileHandler;
 import ai.libs.jaicore.basic.algorithm.AlgorithmExecutionCanceledException;
 import ai.libs.jaicore.basic.algorithm.events.AlgorithmEvent;
 import ai.libs.jaicore.basic.algorithm.exceptions.AlgorithmException;
-import ai.libs.jaicore.ml.core.dataset.ArffUtilities;
 import ai.libs.jaicore.ml.core.dataset.sampling.SampleElementAddedEvent;
 
 /**
@@ -25,12 +26,14 @@ import ai.libs.jaicore.ml.core.dataset.sampling.SampleElementAddedEvent;
  */
 public class SystematicFileSampling extends AFileSamplingAlgorithm {
 
+	private static final Logger LOG = LoggerFactory.getLogger(SystematicFileSampling.class);
+
 	private Random random;
-	private int index;
 	private int addedDatapoints;
 	private TempFileHandler tempFileHandler;
 	private Comparator<String> datapointComparator;
-	private BufferedReader sortedDatasetFileReader;
+	private ArffDataIndex sortedDatasetIndex;
+	private FileChannel sortedDatasetFileChannel;
 	private List<Integer> indicesForSelection;
 
 	/**
@@ -63,7 +66,7 @@ public class SystematicFileSampling extends AFileSamplingAlgorithm {
 			throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmException {
 		switch (this.getState()) {
 		case CREATED:
-			// Sort dataset and skip with reader the ARFF header.
+			// Sort dataset and index the datapoints of the sorted file.
 			File sortedDatasetFile = null;
 			try {
 				DatasetFileSorter sorter = new DatasetFileSorter(this.getInput(), this.tempFileHandler);
@@ -73,44 +76,33 @@ public class SystematicFileSampling extends AFileSamplingAlgorithm {
 				sortedDatasetFile = sorter.sort(
 						this.tempFileHandler.getTempFileDirPath() + File.separator + UUID.randomUUID().toString());
 				sortedDatasetFile.deleteOnExit();
-				this.sortedDatasetFileReader = new BufferedReader(new FileReader(sortedDatasetFile));
-				ArffUtilities.skipWithReaderToDatapoints(this.sortedDatasetFileReader);
+				this.sortedDatasetIndex = ArffDataIndex.create(sortedDatasetFile);
+				this.sortedDatasetFileChannel = this.sortedDatasetIndex.open();
 			} catch (IOException e) {
 				throw new AlgorithmException(e, "Was not able to create a sorted dataset file.");
 			}
-			// Count datapoints in the sorted dataset and initialize variables.
-			try {
-				this.addedDatapoints = 0;
-				this.index = 0;
-				int datapointAmount = ArffUtilities.countDatasetEntries(sortedDatasetFile, true);
-				this.indicesForSelection = new LinkedList<>();
-				int k = datapointAmount / this.sampleSize;
-				int startIndex = this.random.nextInt(datapointAmount);
-				int i = 0;
-				while (this.indicesForSelection.size() < this.sampleSize) {
-					int e = (startIndex + k * (i++)) % datapointAmount;
-					this.indicesForSelection.add(e);
-				}
-				this.indicesForSelection.sort(Integer::compare);
-				return this.activate();
-			} catch (IOException e) {
-				throw new AlgorithmException(e, "Was not able to count the datapoints.");
+			// Initialize variables.
+			this.addedDatapoints = 0;
+			int datapointAmount = this.sortedDatasetIndex.size();
+			this.indicesForSelection = new ArrayList<>(this.sampleSize);
+			int k = datapointAmount / this.sampleSize;
+			int startIndex = this.random.nextInt(datapointAmount);
+			int i = 0;
+			while (this.indicesForSelection.size() < this.sampleSize) {
+				int e = (startIndex + k * (i++)) % datapointAmount;
+				this.indicesForSelection.add(e);
 			}
+			this.indicesForSelection.sort(Integer::compare);
+			return this.activate();
 		case ACTIVE:
 			// If the sample size is not reached yet, add the next datapoint from the
 			// systematic sampling method.
 			if (this.addedDatapoints < this.sampleSize) {
 				try {
-					// Determine and find the next k-th element.
+					// Read the next k-th element directly from its position in the sorted file.
 					int e = this.indicesForSelection.get(this.addedDatapoints);
-					String datapoint = this.sortedDatasetFileReader.readLine();
-					this.index++;
-					while (this.index < e) {
-						datapoint = this.sortedDatasetFileReader.readLine();
-						this.index++;
-					}
+					String datapoint = this.sortedDatasetIndex.readDatapoint(this.sortedDatasetFileChannel, e);
 					// Add this datapoint to the output file.
-					assert datapoint != null;
 					this.outputFileWriter.write(datapoint + "\n");
 					this.addedDatapoints++;
 					return new SampleElementAddedEvent(getId());
@@ -137,6 +129,13 @@ public class SystematicFileSampling extends AFileSamplingAlgorithm {
 
 	@Override
 	protected void cleanUp() {
+		if (this.sortedDatasetFileChannel != null) {
+			try {
+				this.sortedDatasetFileChannel.close();
+			} catch (IOException e) {
+				LOG.warn("Could not close sorted dataset file.", e);
+			}
+		}
 		this.tempFileHandler.cleanUp();
 	}
 
@@ -14,11 +14,28 @@ public class SimpleRandomSampling<I, D extends IOrderedDataset<I>> extends ASamp
 
 	private D copyDataset;
 
+	private SimpleRandomSampling<I, D> previousRun = null;
+
 	public SimpleRandomSampling(final Random random, final D input) {
 		super(input);
 		this.random = random;
 	}
 
+	/**
+	 * Lets this run extend the sample of a previous run on the same input, so that only the missing instances are drawn from those that the previous run has not
+	 * drawn. The resulting sample is still a simple random sample of the input, and it contains the sample of the previous run. If the previous run has not drawn a
+	 * sample or its sample is larger than the sample size of this run, the sample is drawn from scratch.
+	 *
+	 * @param previousRun
+	 *            A finished run on the same input
+	 */
+	public void setPreviousRun(final SimpleRandomSampling<I, D> previousRun) {
+		if (previousRun.getInput() != this.getInput()) {
+			throw new IllegalArgumentException("The previous run must have been conducted on the same input.");
+		}
+		this.previousRun = previousRun;
+	}
+
 	@Override
 	public AlgorithmEvent nextWithException() throws AlgorithmException {
 		switch (this.getState()) {
@@ -26,7 +43,13 @@ public class SimpleRandomSampling<I, D extends IOrderedDataset<I>> extends ASamp
 			try {
 				this.sample = (D) this.getInput().createEmpty();
 				this.copyDataset = (D) this.getInput().createEmpty();
-				this.copyDataset.addAll(this.getInput());
+				if (this.previousRun != null && this.previousRun.copyDataset != null && this.previousRun.sample.size() <= this.sampleSize) {
+					this.sample.addAll(this.previousRun.sample);
+					this.copyDataset.addAll(this.previousRun.copyDataset);
+				} else {
+					this.copyDataset.addAll(this.getInput());
+				}
+				this.previousRun = null; // do not keep the chain of all previous runs and their copies of the dataset alive
 			} catch (DatasetCreationException e) {
 				throw new AlgorithmException(e, "Could not create a copy of the dataset.");
 			}
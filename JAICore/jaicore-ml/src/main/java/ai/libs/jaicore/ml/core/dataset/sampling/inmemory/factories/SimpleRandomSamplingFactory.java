@@ -4,14 +4,28 @@ import java.util.Random;
 
 import ai.libs.jaicore.ml.core.dataset.IOrderedDataset;
 import ai.libs.jaicore.ml.core.dataset.sampling.inmemory.SimpleRandomSampling;
-import ai.libs.jaicore.ml.core.dataset.sampling.inmemory.factories.interfaces.ISamplingAlgorithmFactory;
+import ai.libs.jaicore.ml.core.dataset.sampling.inmemory.factories.interfaces.IRerunnableSamplingAlgorithmFactory;
 
-public class SimpleRandomSamplingFactory<I, D extends IOrderedDataset<I>> implements ISamplingAlgorithmFactory<I, D, SimpleRandomSampling<I, D>> {
+/**
+ * Creates simple random samplings. If a previous run on the same dataset is set, the created sampling extends its sample, so that samples of increasing size
+ * are nested.
+ */
+public class SimpleRandomSamplingFactory<I, D extends IOrderedDataset<I>> implements IRerunnableSamplingAlgorithmFactory<I, D, SimpleRandomSampling<I, D>> {
+
+	private SimpleRandomSampling<I, D> previousRun = null;
+
+	@Override
+	public void setPreviousRun(final SimpleRandomSampling<I, D> previousRun) {
+		this.previousRun = previousRun;
+	}
 
 	@Override
 	public SimpleRandomSampling<I, D> getAlgorithm(final int sampleSize, final D inputDataset, final Random random) {
 		SimpleRandomSampling<I, D> simpleRandomSampling = new SimpleRandomSampling<>(random, inputDataset);
 		simpleRandomSampling.setSampleSize(sampleSize);
+		if (this.previousRun != null && this.previousRun.getInput() == inputDataset) {
+			simpleRandomSampling.setPreviousRun(this.previousRun);
+		}
 		return simpleRandomSampling;
 	}
 
@@ -21,8 +21,10 @@ import org.deeplearning4j.nn.weights.WeightInit;
 import org.deeplearning4j.nn.workspace.LayerWorkspaceMgr;
 import org.deeplearning4j.util.ModelSerializer;
 import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
 import org.nd4j.linalg.learning.config.Adam;
 import org.nd4j.linalg.primitives.Pair;
 import org.slf4j.Logger;
@@ -51,6 +53,13 @@ import ai.libs.jaicore.ml.dyadranking.dataset.IDyadRankingInstance;
  * models based on joint feature representations. Machine Learning, 107(5),
  * 903–941. https://doi.org/10.1007/s10994-017-5694-9
  *
+ * Predictions are computed with batched forward passes, i.e. the dyads of one
+ * or many rankings are stacked into a single matrix that is fed through the
+ * network at once. Each thread querying the ranker uses its own replica of the
+ * network and its own input buffer, so a trained ranker can be queried by
+ * several threads concurrently. Training and querying the ranker at the same
+ * time is not supported.
+ *
  * @author Helena Graf, Jonas Hanselle, Michael Braun
  *
  */
@@ -59,11 +68,49 @@ implements IPLDyadRanker, IOnlineLearner<IDyadRankingInstance, IDyadRankingInsta
 
 	private static final Logger log = LoggerFactory.getLogger(PLNetDyadRanker.class);
 
-	private MultiLayerNetwork plNet;
+	/* maximum number of dyads that are fed through the network in a single forward pass */
+	private static final int MAX_INFERENCE_BATCH_SIZE = 10000;
+
+	private volatile MultiLayerNetwork plNet;
 	private IPLNetDyadRankerConfiguration configuration;
 	private int epoch;
 	private int iteration;
 
+	/* incremented whenever the parameters of the plNet are changed in place, so that the inference replicas can be refreshed */
+	private volatile int paramsVersion;
+	private final ThreadLocal<InferenceContext> inferenceContexts = ThreadLocal.withInitial(InferenceContext::new);
+
+	/**
+	 * Holds the replica of the plNet and the input buffer used by one thread for
+	 * inference. A {@link MultiLayerNetwork} stores the activations of its layers
+	 * during a forward pass, so it must not be used by several threads at once.
+	 */
+	private static class InferenceContext {
+		private MultiLayerNetwork source;
+		private int version;
+		private MultiLayerNetwork replica;
+		private INDArray inputBuffer;
+
+		private MultiLayerNetwork getReplica(final MultiLayerNetwork currentSource, final int currentVersion) {
+			if (this.source != currentSource || this.replica == null) {
+				this.replica = currentSource.clone();
+				this.source = currentSource;
+			} else if (this.version != currentVersion) {
+				this.replica.setParams(currentSource.params());
+			}
+			this.version = currentVersion;
+			return this.replica;
+		}
+
+		private INDArray getInputBuffer(final int rows, final int columns) {
+			if (this.inputBuffer == null || this.inputBuffer.columns() != columns || this.inputBuffer.rows() < rows) {
+				int capacity = this.inputBuffer != null && this.inputBuffer.columns() == columns ? Math.max(rows, 2 * this.inputBuffer.rows()) : rows;
+				this.inputBuffer = Nd4j.create(capacity, columns);
+			}
+			return this.inputBuffer;
+		}
+	}
+
 	/**
 	 * Constructs a new {@link PLNetDyadRanker} using the default
 	 * {@link IPLNetDyadRankerConfiguration}.
@@ -238,6 +285,7 @@ implements IPLDyadRanker, IOnlineLearner<IDyadRankingInstance, IDyadRankingInsta
 		}
 		cumulativeDeltaW.muli(1 / actualMiniBatchSize);
 		this.plNet.params().subi(cumulativeDeltaW);
+		this.paramsVersion++;
 		this.iteration++;
 	}
 
@@ -263,6 +311,7 @@ implements IPLDyadRanker, IOnlineLearner<IDyadRankingInstance, IDyadRankingInsta
 		}
 		INDArray deltaW = this.computeScaledGradient(instance);
 		this.plNet.params().subi(deltaW);
+		this.paramsVersion++;
 		this.iteration++;
 	}
 
@@ -284,38 +333,48 @@ implements IPLDyadRanker, IOnlineLearner<IDyadRankingInstance, IDyadRankingInsta
 
 	@Override
 	public IDyadRankingInstance predict(final IDyadRankingInstance instance) throws PredictionException {
-		if (this.plNet == null) {
-			int dyadSize = (instance.getDyadAtPosition(0).getInstance().length())
-					+ (instance.getDyadAtPosition(0).getAlternative().length());
-			this.plNet = this.createNetwork(dyadSize);
-			this.plNet.init();
-		}
-
-		List<Pair<Dyad, Double>> dyadUtilityPairs = new ArrayList<>(instance.length());
-		for (Dyad dyad : instance) {
-			INDArray plNetInput = this.dyadToVector(dyad);
-			double plNetOutput = this.plNet.output(plNetInput).getDouble(0);
-			dyadUtilityPairs.add(new Pair<Dyad, Double>(dyad, plNetOutput));
-		}
-		// sort the instance in descending order of utility values
-		Collections.sort(dyadUtilityPairs, Comparator.comparing(p -> -p.getRight()));
-		List<Dyad> ranking = new ArrayList<>();
-
-		for (Pair<Dyad, Double> pair : dyadUtilityPairs) {
-			ranking.add(pair.getLeft());
-		}
-		return new DyadRankingInstance(ranking);
+		return this.rankBySkills(this.getSortedDyadUtilityPairsForInstance(instance));
 	}
 
+	/**
+	 * Ranks the dyads of all instances of the dataset. The dyads of all instances
+	 * are stacked into batches, so that only one forward pass of the plNet is
+	 * required per {@value #MAX_INFERENCE_BATCH_SIZE} dyads.
+	 */
 	@Override
 	public List<IDyadRankingInstance> predict(final DyadRankingDataset dataset) throws PredictionException {
 		List<IDyadRankingInstance> results = new ArrayList<>(dataset.size());
+		if (dataset.isEmpty()) {
+			return results;
+		}
+		List<Dyad> allDyads = new ArrayList<>();
 		for (IDyadRankingInstance instance : dataset) {
-			results.add(this.predict(instance));
+			for (Dyad dyad : instance) {
+				allDyads.add(dyad);
+			}
+		}
+		double[] skills = this.getSkillsForDyads(allDyads);
+		int offset = 0;
+		for (IDyadRankingInstance instance : dataset) {
+			List<Pair<Dyad, Double>> dyadUtilityPairs = new ArrayList<>(instance.length());
+			for (int i = 0; i < instance.length(); i++) {
+				dyadUtilityPairs.add(new Pair<>(allDyads.get(offset + i), skills[offset + i]));
+			}
+			offset += instance.length();
+			Collections.sort(dyadUtilityPairs, Comparator.comparing(p -> -p.getRight()));
+			results.add(this.rankBySkills(dyadUtilityPairs));
 		}
 		return results;
 	}
 
+	private IDyadRankingInstance rankBySkills(final List<Pair<Dyad, Double>> sortedDyadUtilityPairs) {
+		List<Dyad> ranking = new ArrayList<>(sortedDyadUtilityPairs.size());
+		for (Pair<Dyad, Double> pair : sortedDyadUtilityPairs) {
+			ranking.add(pair.getLeft());
+		}
+		return new DyadRankingInstance(ranking);
+	}
+
 	/**
 	 * Computes the average error on a set of dyad rankings in terms on the negative
 	 * log likelihood (NLL).
@@ -489,12 +548,7 @@ implements IPLDyadRanker, IOnlineLearner<IDyadRankingInstance, IDyadRankingInsta
 		if (queryInstance.length() != 2) {
 			throw new IllegalArgumentException("Can only provide certainty for pairs of dyads!");
 		}
-		List<Pair<Dyad, Double>> dyadUtilityPairs = new ArrayList<>(queryInstance.length());
-		for (Dyad dyad : queryInstance) {
-			INDArray plNetInput = this.dyadToVector(dyad);
-			double plNetOutput = this.plNet.output(plNetInput).getDouble(0);
-			dyadUtilityPairs.add(new Pair<Dyad, Double>(dyad, plNetOutput));
-		}
+		List<Pair<Dyad, Double>> dyadUtilityPairs = this.getDyadUtilityPairsForInstance(queryInstance);
 		return Math.abs(dyadUtilityPairs.get(0).getRight() - dyadUtilityPairs.get(1).getRight());
 	}
 
@@ -506,25 +560,11 @@ implements IPLDyadRanker, IOnlineLearner<IDyadRankingInstance, IDyadRankingInsta
 	 * @return The pair of {@link Dyad}s for which the model is least certain.
 	 */
 	public IDyadRankingInstance getPairWithLeastCertainty(final IDyadRankingInstance drInstance) {
-
-		if (this.plNet == null) {
-			int dyadSize = (drInstance.getDyadAtPosition(0).getInstance().length())
-					+ (drInstance.getDyadAtPosition(0).getAlternative().length());
-			this.plNet = this.createNetwork(dyadSize);
-			this.plNet.init();
-		}
-
 		if (drInstance.length() < 2) {
 			throw new IllegalArgumentException("The query instance must contain at least 2 dyads!");
 		}
-		List<Pair<Dyad, Double>> dyadUtilityPairs = new ArrayList<>(drInstance.length());
-		for (Dyad dyad : drInstance) {
-			INDArray plNetInput = this.dyadToVector(dyad);
-			double plNetOutput = this.plNet.output(plNetInput).getDouble(0);
-			dyadUtilityPairs.add(new Pair<Dyad, Double>(dyad, plNetOutput));
-		}
 		// sort the instance in descending order of utility values
-		Collections.sort(dyadUtilityPairs, Comparator.comparing(p -> -p.getRight()));
+		List<Pair<Dyad, Double>> dyadUtilityPairs = this.getSortedDyadUtilityPairsForInstance(drInstance);
 		int indexOfPairWithLeastCertainty = 0;
 		double currentlyLowestCertainty = Double.MAX_VALUE;
 		for (int i = 0; i < dyadUtilityPairs.size() - 1; i++) {
@@ -560,18 +600,14 @@ implements IPLDyadRanker, IOnlineLearner<IDyadRankingInstance, IDyadRankingInsta
 	}
 
 	private List<Pair<Dyad, Double>> getDyadUtilityPairsForInstance(final IDyadRankingInstance drInstance) {
-		if (this.plNet == null) {
-			int dyadSize = (drInstance.getDyadAtPosition(0).getInstance().length())
-					+ (drInstance.getDyadAtPosition(0).getAlternative().length());
-			this.plNet = this.createNetwork(dyadSize);
-			this.plNet.init();
-		}
-
-		List<Pair<Dyad, Double>> dyadUtilityPairs = new ArrayList<>(drInstance.length());
+		List<Dyad> dyads = new ArrayList<>(drInstance.length());
 		for (Dyad dyad : drInstance) {
-			INDArray plNetInput = this.dyadToVector(dyad);
-			double plNetOutput = this.plNet.output(plNetInput).getDouble(0);
-			dyadUtilityPairs.add(new Pair<Dyad, Double>(dyad, plNetOutput));
+			dyads.add(dyad);
+		}
+		double[] skills = this.getSkillsForDyads(dyads);
+		List<Pair<Dyad, Double>> dyadUtilityPairs = new ArrayList<>(dyads.size());
+		for (int i = 0; i < skills.length; i++) {
+			dyadUtilityPairs.add(new Pair<>(dyads.get(i), skills[i]));
 		}
 		return dyadUtilityPairs;
 	}
@@ -717,8 +753,67 @@ implements IPLDyadRanker, IOnlineLearner<IDyadRankingInstance, IDyadRankingInsta
 		if (this.plNet == null) {
 			return Double.NaN;
 		}
-		INDArray plNetInput = this.dyadToVector(dyad);
-		return this.plNet.output(plNetInput).getDouble(0);
+		return this.getSkillsForDyads(Collections.singletonList(dyad))[0];
+	}
+
+	/**
+	 * Returns the latent skill values predicted by the PLNet for the given
+	 * {@link Dyad}s. The dyads are stacked into one input matrix, so that all skills
+	 * are computed in a single forward pass of the PLNet (or, for very large lists,
+	 * in one forward pass per {@value #MAX_INFERENCE_BATCH_SIZE} dyads). If the
+	 * PLNet has not been created yet, it is initialized according to the dimension
+	 * of the first dyad. This method may be called by several threads
+	 * concurrently.
+	 *
+	 * @param dyads
+	 *            {@link Dyad}s for which the skills are to be predicted. All dyads
+	 *            must have the same dimension.
+	 * @return Skills of the given {@link Dyad}s in the order of the list.
+	 */
+	public double[] getSkillsForDyads(final List<Dyad> dyads) {
+		double[] skills = new double[dyads.size()];
+		if (dyads.isEmpty()) {
+			return skills;
+		}
+		Dyad firstDyad = dyads.get(0);
+		int dyadSize = firstDyad.getInstance().length() + firstDyad.getAlternative().length();
+		MultiLayerNetwork network = this.getOrCreateNetwork(dyadSize);
+		InferenceContext context = this.inferenceContexts.get();
+		MultiLayerNetwork replica = context.getReplica(network, this.paramsVersion);
+		for (int batchStart = 0; batchStart < skills.length; batchStart += MAX_INFERENCE_BATCH_SIZE) {
+			int batchSize = Math.min(MAX_INFERENCE_BATCH_SIZE, skills.length - batchStart);
+			INDArray buffer = context.getInputBuffer(batchSize, dyadSize);
+			DataBuffer data = buffer.data();
+			for (int i = 0; i < batchSize; i++) {
+				Dyad dyad = dyads.get(batchStart + i);
+				int offset = i * dyadSize;
+				int instanceSize = dyad.getInstance().length();
+				if (instanceSize + dyad.getAlternative().length() != dyadSize) {
+					throw new IllegalArgumentException("All dyads must have the same dimension, but " + dyad + " does not have dimension " + dyadSize + ".");
+				}
+				for (int j = 0; j < instanceSize; j++) {
+					data.put(offset + j, dyad.getInstance().getValue(j));
+				}
+				for (int j = instanceSize; j < dyadSize; j++) {
+					data.put(offset + j, dyad.getAlternative().getValue(j - instanceSize));
+				}
+			}
+			INDArray input = batchSize == buffer.rows() ? buffer : buffer.get(NDArrayIndex.interval(0, batchSize), NDArrayIndex.all());
+			INDArray output = replica.output(input);
+			for (int i = 0; i < batchSize; i++) {
+				skills[batchStart + i] = output.getDouble(i);
+			}
+		}
+		return skills;
+	}
+
+	private synchronized MultiLayerNetwork getOrCreateNetwork(final int dyadSize) {
+		if (this.plNet == null) {
+			MultiLayerNetwork network = this.createNetwork(dyadSize);
+			network.init();
+			this.plNet = network;
+		}
+		return this.plNet;
 	}
 
 }
\ No newline at end of file
@@ -17,6 +17,7 @@ import ai.libs.jaicore.math.linearalgebra.Vector;
 import ai.libs.jaicore.ml.core.exception.PredictionException;
 import ai.libs.jaicore.ml.dyadranking.Dyad;
 import ai.libs.jaicore.ml.dyadranking.algorithm.IDyadRanker;
+import ai.libs.jaicore.ml.dyadranking.algorithm.PLNetDyadRanker;
 import ai.libs.jaicore.ml.dyadranking.dataset.DyadRankingDataset;
 import ai.libs.jaicore.ml.dyadranking.dataset.DyadRankingInstance;
 import ai.libs.jaicore.ml.dyadranking.dataset.IDyadRankingInstance;
@@ -26,6 +27,14 @@ import ai.libs.jaicore.search.model.travesaltree.Node;
 /**
  * A queue whose elements are nodes, sorted by a dyad ranker.
  *
+ * By default, the ranking of all nodes in the queue is predicted again whenever
+ * a node is added. If the queue ranks incrementally (which requires a
+ * {@link PLNetDyadRanker}), only the skills of the newly added nodes are
+ * predicted, since the Plackett-Luce skill of a dyad does not depend on the
+ * other dyads. New nodes are collected and only ranked (all in one batch) once
+ * the order of the queue is accessed, and they are then inserted into the
+ * queue, which is kept sorted by skill.
+ *
  * @author Helena Graf
  *
  * @param <N>
@@ -62,6 +71,16 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 
 	private List<Dyad> queryDyads = new ArrayList<>();
 
+	/** whether only newly added nodes are ranked, see {@link #setIncrementalRanking(boolean)} */
+	private boolean incrementalRanking = false;
+
+	/** skills of the nodes in the queue (in the same order) if ranking incrementally */
+	private List<Double> skills = new ArrayList<>();
+
+	/** nodes (and their dyads) that have been added but not been ranked yet if ranking incrementally */
+	private List<Node<N, V>> unrankedNodes = new ArrayList<>();
+	private List<Dyad> unrankedDyads = new ArrayList<>();
+
 	/** connects nodes to their respective characterizations */
 	private BiMap<Node<N, V>, Vector> nodesAndCharacterizationsMap = HashBiMap.create();
 
@@ -110,37 +129,41 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 
 	@Override
 	public int size() {
-		return this.queue.size();
+		return this.queue.size() + this.unrankedNodes.size();
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return this.queue.isEmpty();
+		return this.queue.isEmpty() && this.unrankedNodes.isEmpty();
 	}
 
 	@Override
 	public boolean contains(final Object o) {
-		return this.queue.contains(o);
+		return this.nodesAndCharacterizationsMap.containsKey(o);
 	}
 
 	@Override
 	public Iterator<Node<N, V>> iterator() {
+		this.rankUnrankedNodes();
 		return this.queue.iterator();
 	}
 
 	@Override
 	public Object[] toArray() {
+		this.rankUnrankedNodes();
 		return this.queue.toArray();
 	}
 
 	@Override
 	public <T> T[] toArray(final T[] a) {
+		this.rankUnrankedNodes();
 		return this.queue.toArray(a);
 	}
 
 	@Override
 	public boolean remove(final Object o) {
 		if (o instanceof Node<?, ?>) {
+			this.rankUnrankedNodes();
 			int index = -1;
 			for (int i = 0; i < this.queue.size(); i++) {
 				if (this.queue.get(i).equals(o)) {
@@ -161,7 +184,7 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 
 	@Override
 	public boolean containsAll(final Collection<?> c) {
-		return this.queue.containsAll(c);
+		return c.stream().allMatch(this::contains);
 	}
 
 	@Override
@@ -199,13 +222,17 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 	@Override
 	public void clear() {
 		this.queue.clear();
+		this.skills.clear();
+		this.unrankedNodes.clear();
+		this.unrankedDyads.clear();
+		this.queryDyads.clear();
 		this.nodesAndCharacterizationsMap.clear();
 		this.nodeCharacterizations.clear();
 	}
 
 	@Override
 	public boolean add(final Node<N, V> e) {
-		if (this.queue.contains(e)) {
+		if (this.contains(e)) {
 			return true;
 		} else if (e != null) {
 			try {
@@ -215,7 +242,6 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 				this.nodeCharacterizations.add(characterization);
 
 				Dyad newDyad = new Dyad(this.contextCharacterization, characterization);
-				this.queryDyads.add(newDyad);
 
 				if (this.useScaler) {
 					// scale node
@@ -229,7 +255,15 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 				// add new pairing of node and characterization
 				this.nodesAndCharacterizationsMap.put(e, characterization);
 
+				// the new node is ranked together with all nodes added until the order of the queue is accessed
+				if (this.isRankingIncrementally()) {
+					this.unrankedNodes.add(e);
+					this.unrankedDyads.add(newDyad);
+					return true;
+				}
+
 				// predict new ranking and reorder queue accordingly
+				this.queryDyads.add(newDyad);
 				IDyadRankingInstance prediction = this.dyadRanker.predict(new DyadRankingInstance(this.queryDyads));
 				this.queue.clear();
 				for (int i = 0; i < prediction.length(); i++) {
@@ -247,6 +281,8 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 				this.logger.warn("Failed to characterize: {}", e1.getLocalizedMessage());
 				// remove unneeded characterization (ranking has failed)
 				this.nodeCharacterizations.remove(this.nodeCharacterizations.size() - 1);
+				this.nodesAndCharacterizationsMap.remove(e);
+				this.queryDyads.remove(this.queryDyads.size() - 1);
 				return false;
 			}
 		} else {
@@ -254,6 +290,57 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 		}
 	}
 
+	/**
+	 * Predicts the skills of all nodes added since the last access to the order of
+	 * the queue in a single batch and inserts them into the queue according to
+	 * their skills. Among nodes with the same skill, the nodes added earlier come
+	 * first.
+	 */
+	private void rankUnrankedNodes() {
+		if (this.unrankedNodes.isEmpty()) {
+			return;
+		}
+		this.logger.trace("Rank {} new nodes in OPEN list of size {}", this.unrankedNodes.size(), this.queue.size());
+		double[] skillsOfUnrankedNodes = ((PLNetDyadRanker) this.dyadRanker).getSkillsForDyads(this.unrankedDyads);
+		for (int i = 0; i < skillsOfUnrankedNodes.length; i++) {
+			double skill = skillsOfUnrankedNodes[i];
+
+			// binary search for the first node with a lower skill
+			int low = 0;
+			int high = this.skills.size();
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (this.skills.get(mid) >= skill) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			this.queue.add(low, this.unrankedNodes.get(i));
+			this.skills.add(low, skill);
+		}
+		this.unrankedNodes.clear();
+		this.unrankedDyads.clear();
+	}
+
+	/**
+	 * Discards the predicted skills of all nodes in the queue, so that they are
+	 * ranked again on the next access to the order of the queue. This is
+	 * necessary if the ranker or the context characterization changes.
+	 */
+	private void discardSkills() {
+		for (Node<N, V> node : this.queue) {
+			this.unrankedNodes.add(node);
+			this.unrankedDyads.add(new Dyad(this.contextCharacterization, this.nodesAndCharacterizationsMap.get(node)));
+		}
+		this.queue.clear();
+		this.skills.clear();
+	}
+
+	private boolean isRankingIncrementally() {
+		return this.incrementalRanking && this.dyadRanker instanceof PLNetDyadRanker;
+	}
+
 	private void replaceNaNByZeroes(final Vector vector) {
 		for (int i = 0; i < vector.length(); i++) {
 			if (Double.isNaN(vector.getValue(i))) {
@@ -273,10 +360,15 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 	}
 
 	public Node<N, V> removeNodeAtPosition(final int i) {
+		this.rankUnrankedNodes();
 		Node<N, V> removedNode = this.queue.remove(i);
 		this.logger.trace("Retrieve node from OPEN. Is goal: {}, Index: {}", removedNode.isGoal(), i);
 		this.nodeCharacterizations.remove(this.nodesAndCharacterizationsMap.get(removedNode));
 		Vector removedAlternative = this.nodesAndCharacterizationsMap.remove(removedNode);
+		if (this.isRankingIncrementally()) {
+			this.skills.remove(i);
+			return removedNode;
+		}
 
 		int index = -1;
 		for (int j = 0; j < this.queryDyads.size(); j++) {
@@ -286,7 +378,7 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 			}
 		}
 
-		if (index >= -1) {
+		if (index != -1) {
 			this.queryDyads.remove(index);
 		}
 
@@ -295,7 +387,7 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 
 	@Override
 	public Node<N, V> poll() {
-		if (!this.queue.isEmpty()) {
+		if (!this.isEmpty()) {
 			return this.remove();
 		} else {
 			return null;
@@ -304,12 +396,13 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 
 	@Override
 	public Node<N, V> element() {
+		this.rankUnrankedNodes();
 		return this.queue.get(0);
 	}
 
 	@Override
 	public Node<N, V> peek() {
-		if (!this.queue.isEmpty()) {
+		if (!this.isEmpty()) {
 			this.logger.trace("Peek from OPEN. Is goal: {}", this.element().isGoal());
 			return this.element();
 		} else {
@@ -336,7 +429,45 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 	 */
 	public void setDyadRanker(final IDyadRanker dyadRanker) {
 		this.logger.trace("Update dyad ranker. Was {} now is {}", this.dyadRanker.getClass(), dyadRanker.getClass());
+		this.rankUnrankedNodes();
 		this.dyadRanker = dyadRanker;
+		if (this.isRankingIncrementally()) {
+			this.discardSkills();
+		} else {
+			this.skills.clear();
+			this.queryDyads.clear();
+			for (Node<N, V> node : this.queue) {
+				this.queryDyads.add(new Dyad(this.contextCharacterization, this.nodesAndCharacterizationsMap.get(node)));
+			}
+		}
+	}
+
+	/**
+	 * Returns whether only the skills of newly added nodes are predicted instead of
+	 * the ranking of all nodes in the queue.
+	 *
+	 * @return whether the queue ranks incrementally
+	 */
+	public boolean isIncrementalRanking() {
+		return this.incrementalRanking;
+	}
+
+	/**
+	 * Configures whether only the skills of newly added nodes are predicted
+	 * instead of the ranking of all nodes in the queue whenever a node is added.
+	 * New nodes are then ranked in a batch when the order of the queue is accessed
+	 * for the next time. Incremental ranking is only applied if the dyad ranker is
+	 * a {@link PLNetDyadRanker}; for other rankers, the queue keeps predicting the
+	 * whole ranking. The mode can only be changed while the queue is empty.
+	 *
+	 * @param incrementalRanking
+	 *            whether the queue shall rank incrementally
+	 */
+	public void setIncrementalRanking(final boolean incrementalRanking) {
+		if (!this.isEmpty()) {
+			throw new IllegalStateException("The ranking mode can only be changed while the queue is empty.");
+		}
+		this.incrementalRanking = incrementalRanking;
 	}
 
 	public AbstractDyadScaler getScaler() {
@@ -354,8 +485,12 @@ public abstract class ADyadRankedNodeQueue<N, V extends Comparable<V>> implement
 		this.scaler = scaler;
 
 		// transform dataset
+		this.rankUnrankedNodes();
 		this.contextCharacterization = this.originalContextCharacterization.addConstantToCopy(0);
 		this.transformContextCharacterization();
+		if (this.isRankingIncrementally()) {
+			this.discardSkills();
+		}
 	}
 
 	private void transformContextCharacterization() {
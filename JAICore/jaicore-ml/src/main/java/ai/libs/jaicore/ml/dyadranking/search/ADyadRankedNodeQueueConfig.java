@@ -39,6 +39,11 @@ public abstract class ADyadRankedNodeQueueConfig<N>
 	 */
 	protected AbstractDyadScaler scaler;
 
+	/**
+	 * whether the queue only ranks newly added nodes (see {@link ADyadRankedNodeQueue#setIncrementalRanking(boolean)})
+	 */
+	protected boolean incrementalRanking = false;
+
 	/**
 	 * Construct a new dyad ranking node queue configuration.
 	 * 
@@ -94,4 +99,23 @@ public abstract class ADyadRankedNodeQueueConfig<N>
 	public void setScaler(AbstractDyadScaler scaler) {
 		this.scaler = scaler;
 	}
+
+	/**
+	 * Get whether the queue only ranks newly added nodes instead of re-ranking all nodes.
+	 * 
+	 * @return whether the queue ranks incrementally
+	 */
+	public boolean isIncrementalRanking() {
+		return incrementalRanking;
+	}
+
+	/**
+	 * Set whether the queue only ranks newly added nodes instead of re-ranking all nodes.
+	 * This requires the ranker to be a {@link PLNetDyadRanker}.
+	 * 
+	 * @param incrementalRanking whether the queue ranks incrementally
+	 */
+	public void setIncrementalRanking(boolean incrementalRanking) {
+		this.incrementalRanking = incrementalRanking;
+	}
 }
@@ -43,6 +43,8 @@ public class LearningCurveExtrapolationEvaluator<I extends ILabeledAttributeArra
 	private LearningCurveExtrapolationMethod extrapolationMethod;
 	private long seed;
 	private int fullDatasetSize = -1;
+	private boolean incrementalTraining = false;
+	private int numberOfThreads = 1;
 	private static final boolean EVALUATE_ACCURACY = false; // otherwise error rate
 	private final EventBus eventBus = new EventBus();
 
@@ -76,6 +78,20 @@ public class LearningCurveExtrapolationEvaluator<I extends ILabeledAttributeArra
 		this.fullDatasetSize = fullDatasetSize;
 	}
 
+	/**
+	 * @see LearningCurveExtrapolator#setIncrementalTraining(boolean)
+	 */
+	public void setIncrementalTraining(final boolean incrementalTraining) {
+		this.incrementalTraining = incrementalTraining;
+	}
+
+	/**
+	 * @see LearningCurveExtrapolator#setNumberOfThreads(int)
+	 */
+	public void setNumberOfThreads(final int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
 	/**
 	 * Computes the (estimated) measure of the classifier on the full dataset
 	 */
@@ -87,6 +103,8 @@ public class LearningCurveExtrapolationEvaluator<I extends ILabeledAttributeArra
 		try {
 			LearningCurveExtrapolator<I, D> extrapolator = new LearningCurveExtrapolator<>(this.extrapolationMethod, classifier, this.dataset, this.trainSplitForAnchorpointsMeasurement, this.anchorpoints, this.samplingAlgorithmFactory, this.seed);
 			extrapolator.setLoggerName(this.getLoggerName() + ".extrapolator");
+			extrapolator.setIncrementalTraining(this.incrementalTraining);
+			extrapolator.setNumberOfThreads(this.numberOfThreads);
 
 			/* Create the extrapolator and calculate the accuracy the classifier would have if it was trained on the complete dataset. */
 			this.logger.debug("Extrapolating learning curve.");
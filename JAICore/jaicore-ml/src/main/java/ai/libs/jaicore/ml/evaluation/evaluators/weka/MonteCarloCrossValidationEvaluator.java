@@ -1,16 +1,26 @@
 package ai.libs.jaicore.ml.evaluation.evaluators.weka;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.apache.commons.math3.stat.inference.TTest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
 
+import ai.libs.jaicore.basic.IInformedObjectEvaluatorExtension;
 import ai.libs.jaicore.basic.ILoggingCustomizable;
 import ai.libs.jaicore.basic.algorithm.exceptions.ObjectEvaluationFailedException;
 import ai.libs.jaicore.basic.events.IEvent;
@@ -21,6 +31,7 @@ import ai.libs.jaicore.ml.evaluation.evaluators.weka.splitevaluation.AbstractSpl
 import ai.libs.jaicore.ml.evaluation.evaluators.weka.splitevaluation.ISplitBasedClassifierEvaluator;
 import ai.libs.jaicore.ml.weka.dataset.splitter.IDatasetSplitter;
 import ai.libs.jaicore.ml.weka.dataset.splitter.MulticlassClassStratifiedSplitter;
+import ai.libs.jaicore.ml.weka.dataset.splitter.SplitCache;
 import ai.libs.jaicore.ml.weka.dataset.splitter.SplitFailedException;
 import weka.classifiers.Classifier;
 import weka.core.Instances;
@@ -31,10 +42,22 @@ import weka.core.Instances;
  * {@link AbstractSplitBasedClassifierEvaluator} to evaluate the classifier on a random
  * split of the dataset.
  *
+ * The splits can be evaluated in parallel (see {@link #setNumberOfThreads(int)}), in which case every split is evaluated on its own copy of the classifier. The pool
+ * of the evaluator is shut down by {@link #close()}, and its idle threads terminate anyway. Several evaluators can also share a pool (see {@link #setPool(ExecutorService, int)}).
+ *
+ * If racing is enabled (see {@link #setRacing(double, int)}), the evaluation is stopped as soon as a one-sample t-test on the scores of the splits evaluated so far
+ * shows that the classifier is significantly worse than the best score known (see {@link #updateBestScore(Double)}). The returned score is then the mean over the
+ * evaluated splits only.
+ *
+ * The splits are obtained from a {@link SplitCache}, by default the one shared by all evaluators of the process (see {@link #setSplitCache(SplitCache)}), so evaluators on the same data object and with the same splitter object do not compute and store
+ * their own copies of the splits.
+ *
  * @author fmohr, joshua
  *
  */
-public class MonteCarloCrossValidationEvaluator implements IClassifierEvaluator, ILoggingCustomizable, IEventEmitter {
+public class MonteCarloCrossValidationEvaluator implements IClassifierEvaluator, IInformedObjectEvaluatorExtension<Double>, ILoggingCustomizable, IEventEmitter, AutoCloseable {
+
+	private static final long KEEP_ALIVE_TIME_OF_THREADS_IN_MS = 60000;
 
 	private final EventBus eventBus = new EventBus();
 	private boolean hasListeners;
@@ -49,7 +72,32 @@ public class MonteCarloCrossValidationEvaluator implements IClassifierEvaluator,
 	/* Can either compute the loss or cache it */
 	private final ISplitBasedClassifierEvaluator<Double> splitBasedEvaluator;
 
-	private final Map<Long, List<Instances>> splitCache = new HashMap<>();
+	private SplitCache splitCache = SplitCache.getDefault();
+
+	/* parallelization */
+	private int numberOfThreads = 1;
+	private ExecutorService pool;
+	private boolean ownsPool;
+
+	/* racing */
+	private double racingSignificanceLevel = 0;
+	private int minNumberOfSplitsForRacing = 2;
+	private Double bestScore;
+
+	private static class SplitEvaluationResult {
+		private final Classifier classifier;
+		private final List<Instances> split;
+		private final int splitEvaluationTime;
+		private final double score;
+
+		public SplitEvaluationResult(final Classifier classifier, final List<Instances> split, final int splitEvaluationTime, final double score) {
+			super();
+			this.classifier = classifier;
+			this.split = split;
+			this.splitEvaluationTime = splitEvaluationTime;
+			this.score = score;
+		}
+	}
 
 	public MonteCarloCrossValidationEvaluator(final ISplitBasedClassifierEvaluator<Double> splitBasedEvaluator, final IDatasetSplitter datasetSplitter, final int repeats, final Instances data, final double trainingPortion,
 			final long seed) {
@@ -80,6 +128,133 @@ public class MonteCarloCrossValidationEvaluator implements IClassifierEvaluator,
 		this.canceled = true;
 	}
 
+	/**
+	 * Sets the number of splits that are evaluated at the same time. With one thread (default), the splits are evaluated one after another in the calling thread using the given classifier itself. With more threads, every split
+	 * is evaluated on a copy of the classifier, so the given classifier is not trained by the evaluation.
+	 *
+	 * @param numberOfThreads
+	 */
+	public void setNumberOfThreads(final int numberOfThreads) {
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("The number of threads must be positive.");
+		}
+		if (this.pool != null) {
+			throw new IllegalStateException("The number of threads can only be set once.");
+		}
+		this.numberOfThreads = numberOfThreads;
+		if (numberOfThreads > 1) {
+			this.pool = createPool(numberOfThreads);
+			this.ownsPool = true;
+		}
+	}
+
+	/**
+	 * Evaluates the splits in the given pool, which may be shared with other evaluators and is not shut down by this evaluator.
+	 *
+	 * @param pool
+	 *            The pool in which the splits are evaluated
+	 * @param numberOfThreads
+	 *            The number of threads of the pool
+	 */
+	public void setPool(final ExecutorService pool, final int numberOfThreads) {
+		if (pool == null) {
+			throw new IllegalArgumentException("The pool must not be null.");
+		}
+		if (this.pool != null) {
+			throw new IllegalStateException("The number of threads can only be set once.");
+		}
+		this.numberOfThreads = numberOfThreads;
+		this.pool = pool;
+		this.ownsPool = false;
+	}
+
+	/**
+	 * Creates a pool for the evaluation of splits whose threads terminate when they have been idle for a while, so pools that are not shut down do not keep threads alive.
+	 *
+	 * @param numberOfThreads
+	 *            The maximum number of threads of the pool
+	 * @return The pool
+	 */
+	public static ExecutorService createPool(final int numberOfThreads) {
+		AtomicInteger threadCounter = new AtomicInteger();
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(numberOfThreads, numberOfThreads, KEEP_ALIVE_TIME_OF_THREADS_IN_MS, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+			Thread t = new Thread(r, "MCCV-worker-" + threadCounter.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+
+	public int getNumberOfThreads() {
+		return this.numberOfThreads;
+	}
+
+	/**
+	 * @param splitCache
+	 *            The cache the splits are obtained from, e.g. a cache with a different memory bound than the default one
+	 */
+	public void setSplitCache(final SplitCache splitCache) {
+		if (splitCache == null) {
+			throw new IllegalArgumentException("The split cache must not be null.");
+		}
+		this.splitCache = splitCache;
+	}
+
+	public SplitCache getSplitCache() {
+		return this.splitCache;
+	}
+
+	/**
+	 * Enables racing, i.e. the evaluation of a classifier is stopped once it is significantly worse than the best known score.
+	 *
+	 * @param significanceLevel
+	 *            The significance level of the t-test that decides whether the classifier is worse than the best known score; 0 disables racing.
+	 * @param minNumberOfSplits
+	 *            The number of splits that must have been evaluated before the classifier can be ruled out (at least 2).
+	 */
+	public void setRacing(final double significanceLevel, final int minNumberOfSplits) {
+		if (significanceLevel < 0 || significanceLevel >= 0.5) {
+			throw new IllegalArgumentException("The significance level must be in [0, 0.5).");
+		}
+		if (minNumberOfSplits < 2) {
+			throw new IllegalArgumentException("Racing requires at least two evaluated splits.");
+		}
+		this.racingSignificanceLevel = significanceLevel;
+		this.minNumberOfSplitsForRacing = minNumberOfSplits;
+	}
+
+	@Override
+	public void updateBestScore(final Double bestScore) {
+		this.bestScore = bestScore;
+	}
+
+	private boolean isRuledOut(final DescriptiveStatistics stats) {
+		if (this.racingSignificanceLevel <= 0 || this.bestScore == null || stats.getN() < this.minNumberOfSplitsForRacing || stats.getN() >= this.repeats || stats.getMean() <= this.bestScore) {
+			return false;
+		}
+		if (stats.getVariance() == 0) { // the t-test is not defined here, but all observations are worse than the best score
+			return true;
+		}
+		return new TTest().tTest(this.bestScore, stats.getValues(), this.racingSignificanceLevel);
+	}
+
+	private List<Instances> getSplit(final int i) throws ObjectEvaluationFailedException, InterruptedException {
+		try {
+			return this.splitCache.getSplit(this.data, this.datasetSplitter, this.seed + i, this.trainingPortion);
+		} catch (SplitFailedException e) {
+			throw new ObjectEvaluationFailedException("Could not evaluate classifier!", e);
+		}
+	}
+
+	private void registerSplitEvaluation(final Classifier pl, final SplitEvaluationResult result, final DescriptiveStatistics stats, final long startTimestamp) {
+		if (this.hasListeners) {
+			this.eventBus.post(new MCCVSplitEvaluationEvent(result.classifier, result.split.get(0).size(), result.split.get(1).size(), result.splitEvaluationTime, result.score));
+		}
+		this.logger.info("Score for evaluation of {} with split #{}/{}: {} after {}ms", pl.getClass().getName(), stats.getN() + 1, this.repeats, result.score, (System.currentTimeMillis() - startTimestamp));
+		stats.addValue(result.score);
+	}
+
 	@Override
 	public Double evaluate(final Classifier pl) throws ObjectEvaluationFailedException, InterruptedException {
 		return this.evaluate(pl, new DescriptiveStatistics());
@@ -93,39 +268,97 @@ public class MonteCarloCrossValidationEvaluator implements IClassifierEvaluator,
 		long startTimestamp = System.currentTimeMillis();
 		/* perform random stratified split */
 		this.logger.info("Starting MMCV evaluation of {} (Description: {})", pl.getClass().getName(), WekaUtil.getClassifierDescriptor(pl));
+		if (this.numberOfThreads > 1) {
+			this.evaluateSplitsInParallel(pl, stats, startTimestamp);
+		} else {
+			this.evaluateSplitsSequentially(pl, stats, startTimestamp);
+		}
+		Double score = stats.getMean();
+		this.logger.info("Obtained score of {} for classifier {} in {}ms.", score, pl.getClass().getName(), (System.currentTimeMillis() - startTimestamp));
+		return score;
+	}
+
+	private void evaluateSplitsSequentially(final Classifier pl, final DescriptiveStatistics stats, final long startTimestamp) throws ObjectEvaluationFailedException, InterruptedException {
 		for (int i = 0; i < this.repeats && !this.canceled; i++) {
 			this.logger.debug("Obtaining predictions of {} for split #{}/{}", pl, i + 1, this.repeats);
 			if (Thread.interrupted()) { // clear the interrupted field. This is Java a general convention when an InterruptedException is thrown (see Java documentation for details)
 				this.logger.info("MCCV has been interrupted, leaving MCCV.");
 				throw new InterruptedException("MCCV has been interrupted.");
 			}
-
-			if (!this.splitCache.containsKey(this.seed + i)) {
-				try {
-					this.splitCache.put(this.seed + i, this.datasetSplitter.split(this.data, this.seed + i, this.trainingPortion));
-				} catch (SplitFailedException e) {
-					throw new ObjectEvaluationFailedException("Could not evaluate classifier!", e);
-				}
-			}
-			List<Instances> split = this.splitCache.get(this.seed + i);
+			List<Instances> split = this.getSplit(i);
 
 			try {
 				long startTimeForSplitEvaluation = System.currentTimeMillis();
 				double score = this.splitBasedEvaluator.evaluateSplit(pl, split.get(0), split.get(1));
-				if (this.hasListeners) {
-					this.eventBus.post(new MCCVSplitEvaluationEvent(pl, split.get(0).size(), split.get(1).size(), (int) (System.currentTimeMillis() - startTimeForSplitEvaluation), score));
-				}
-				this.logger.info("Score for evaluation of {} with split #{}/{}: {} after {}ms", pl.getClass().getName(), i + 1, this.repeats, score, (System.currentTimeMillis() - startTimestamp));
-				stats.addValue(score);
+				this.registerSplitEvaluation(pl, new SplitEvaluationResult(pl, split, (int) (System.currentTimeMillis() - startTimeForSplitEvaluation), score), stats, startTimestamp);
 			} catch (InterruptedException e) {
 				throw e;
 			} catch (Exception e) {
 				throw new ObjectEvaluationFailedException("Could not evaluate classifier!", e);
 			}
+			if (this.isRuledOut(stats)) {
+				this.logger.info("Stopping MCCV of {} after {}/{} splits, because its mean score {} is significantly worse than the best score {}.", pl.getClass().getName(), stats.getN(), this.repeats, stats.getMean(), this.bestScore);
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Evaluates the splits on copies of the classifier in the thread pool. The splits themselves are created in the calling thread. Since the scores are registered in the order in which the evaluations finish, racing may stop after
+	 * different splits than in the sequential mode.
+	 */
+	private void evaluateSplitsInParallel(final Classifier pl, final DescriptiveStatistics stats, final long startTimestamp) throws ObjectEvaluationFailedException, InterruptedException {
+		CompletionService<SplitEvaluationResult> completionService = new ExecutorCompletionService<>(this.pool);
+		List<Future<SplitEvaluationResult>> runningEvaluations = new ArrayList<>();
+		try {
+			for (int i = 0; i < this.repeats && !this.canceled; i++) {
+				if (Thread.interrupted()) {
+					this.logger.info("MCCV has been interrupted, leaving MCCV.");
+					throw new InterruptedException("MCCV has been interrupted.");
+				}
+				List<Instances> split = this.getSplit(i);
+				Classifier copy;
+				try {
+					copy = WekaUtil.cloneClassifier(pl);
+				} catch (Exception e) {
+					throw new ObjectEvaluationFailedException("Could not copy classifier for parallel evaluation!", e);
+				}
+				runningEvaluations.add(completionService.submit(() -> {
+					long startTimeForSplitEvaluation = System.currentTimeMillis();
+					double score = this.splitBasedEvaluator.evaluateSplit(copy, split.get(0), split.get(1));
+					return new SplitEvaluationResult(copy, split, (int) (System.currentTimeMillis() - startTimeForSplitEvaluation), score);
+				}));
+			}
+			for (int finished = 0; finished < runningEvaluations.size() && !this.canceled; finished++) {
+				Future<SplitEvaluationResult> future = completionService.take();
+				try {
+					this.registerSplitEvaluation(pl, future.get(), stats, startTimestamp);
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof InterruptedException) {
+						throw (InterruptedException) e.getCause();
+					}
+					throw new ObjectEvaluationFailedException("Could not evaluate classifier!", e.getCause());
+				}
+				if (this.isRuledOut(stats)) {
+					this.logger.info("Stopping MCCV of {} after {}/{} splits, because its mean score {} is significantly worse than the best score {}.", pl.getClass().getName(), stats.getN(), this.repeats, stats.getMean(), this.bestScore);
+					break;
+				}
+			}
+		} finally {
+			for (Future<SplitEvaluationResult> future : runningEvaluations) {
+				future.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Shuts down the pool of the evaluator unless it has been set via {@link #setPool(ExecutorService, int)}.
+	 */
+	@Override
+	public void close() {
+		if (this.ownsPool) {
+			this.pool.shutdownNow();
 		}
-		Double score = stats.getMean();
-		this.logger.info("Obtained score of {} for classifier {} in {}ms.", score, pl.getClass().getName(), (System.currentTimeMillis() - startTimestamp));
-		return score;
 	}
 
 	public ISplitBasedClassifierEvaluator<Double> getBridge() {
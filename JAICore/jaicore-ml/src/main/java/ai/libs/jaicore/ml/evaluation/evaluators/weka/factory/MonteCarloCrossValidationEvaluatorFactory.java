@@ -1,5 +1,7 @@
 package ai.libs.jaicore.ml.evaluation.evaluators.weka.factory;
 
+import java.util.concurrent.ExecutorService;
+
 import ai.libs.jaicore.ml.evaluation.evaluators.weka.MonteCarloCrossValidationEvaluator;
 import ai.libs.jaicore.ml.evaluation.evaluators.weka.splitevaluation.ISplitBasedClassifierEvaluator;
 import ai.libs.jaicore.ml.weka.dataset.splitter.IDatasetSplitter;
@@ -7,11 +9,18 @@ import weka.core.Instances;
 
 /**
  * Factory for configuring standard Monte Carlo cross-validation evaluators.
+ *
+ * If the splits are evaluated in parallel, all evaluators of the factory share one pool, whose threads terminate when they are idle.
  * @author mwever
  *
  */
 public class MonteCarloCrossValidationEvaluatorFactory extends AMonteCarloCrossValidationBasedEvaluatorFactory {
 
+	private int numThreads = 1;
+	private double racingSignificanceLevel = 0;
+	private int minNumberOfSplitsForRacing = 2;
+	private ExecutorService pool;
+
 	/**
 	 * Standard C'tor.
 	 */
@@ -54,11 +63,52 @@ public class MonteCarloCrossValidationEvaluatorFactory extends AMonteCarloCrossV
 		return (MonteCarloCrossValidationEvaluatorFactory) super.withTimeoutForSolutionEvaluation(timeoutForSolutionEvaluation);
 	}
 
+	/**
+	 * Configures the number of splits that are evaluated in parallel.
+	 * @param numThreads The number of threads of the pool shared by the evaluators.
+	 * @return The factory object.
+	 */
+	public synchronized MonteCarloCrossValidationEvaluatorFactory withNumThreads(final int numThreads) {
+		if (numThreads != this.numThreads) {
+			this.pool = null; // evaluators created before keep the previous pool, whose threads terminate once they are idle
+		}
+		this.numThreads = numThreads;
+		return this;
+	}
+
+	/**
+	 * Configures the evaluators to stop early if a classifier is significantly worse than the best known score.
+	 * @param significanceLevel The significance level of the t-test; 0 disables racing.
+	 * @param minNumberOfSplits The number of splits that must have been evaluated before stopping.
+	 * @return The factory object.
+	 */
+	public MonteCarloCrossValidationEvaluatorFactory withRacing(final double significanceLevel, final int minNumberOfSplits) {
+		this.racingSignificanceLevel = significanceLevel;
+		this.minNumberOfSplitsForRacing = minNumberOfSplits;
+		return this;
+	}
+
+	public int getNumThreads() {
+		return this.numThreads;
+	}
+
 	@Override
 	public MonteCarloCrossValidationEvaluator getIClassifierEvaluator(final Instances dataset, final long seed) {
 		if (this.getSplitBasedEvaluator() == null) {
 			throw new IllegalStateException("Cannot create MCCV, because no splitBasedEvaluator has been set!");
 		}
-		return new MonteCarloCrossValidationEvaluator(this.getSplitBasedEvaluator(), this.getDatasetSplitter(), this.getNumMCIterations(), dataset, this.getTrainFoldSize(), seed);
+		MonteCarloCrossValidationEvaluator evaluator = new MonteCarloCrossValidationEvaluator(this.getSplitBasedEvaluator(), this.getDatasetSplitter(), this.getNumMCIterations(), dataset, this.getTrainFoldSize(), seed);
+		if (this.numThreads > 1) {
+			evaluator.setPool(this.getPool(), this.numThreads);
+		}
+		evaluator.setRacing(this.racingSignificanceLevel, this.minNumberOfSplitsForRacing);
+		return evaluator;
+	}
+
+	private synchronized ExecutorService getPool() {
+		if (this.pool == null) {
+			this.pool = MonteCarloCrossValidationEvaluator.createPool(this.numThreads);
+		}
+		return this.pool;
 	}
 }
@@ -1,8 +1,25 @@
 package ai.libs.jaicore.ml.intervaltree;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.ToDoubleBiFunction;
 
 import org.apache.commons.math3.geometry.euclidean.oned.Interval;
 import org.slf4j.Logger;
@@ -32,10 +49,17 @@ public class ExtendedRandomForest extends RandomForest implements RangeQueryPred
 
 	private static final Logger log = LoggerFactory.getLogger(ExtendedRandomForest.class);
 
+	private static final long KEEP_ALIVE_TIME_OF_THREADS_IN_MS = 60000;
+
 	private final IntervalAggregator forestAggregator;
 
 	private FeatureSpace featureSpace;
 
+	private final Map<Set<Integer>, Double> marginalVarianceContributions = new ConcurrentHashMap<>();
+
+	/* the pool used for the computations on the trees; its threads terminate when it is idle, so it need not be shut down */
+	private transient ThreadPoolExecutor pool;
+
 	public ExtendedRandomForest() {
 		this(new QuantileAggregator(0.15), new AggressiveAggregator());
 	}
@@ -64,18 +88,20 @@ public class ExtendedRandomForest extends RandomForest implements RangeQueryPred
 	}
 
 	/**
-	 * Needs to be called before predicting marginal variance contributions!
+	 * Needs to be called before predicting marginal variance contributions! The
+	 * trees are prepared in parallel if the forest has several execution slots.
 	 *
 	 * @param Instances
 	 *            for which marginal variance contributions are to be estimated
 	 */
 	public void prepareForest(final Instances data) {
 		this.featureSpace = new FeatureSpace(data);
-		for (Classifier classifier : this.m_Classifiers) {
-			ExtendedRandomTree curTree = (ExtendedRandomTree) classifier;
+		this.marginalVarianceContributions.clear();
+		this.computeForEachTree(curTree -> {
 			curTree.setFeatureSpace(this.featureSpace);
 			curTree.preprocess();
-		}
+			return null;
+		});
 	}
 
 	public void printVariances() {
@@ -86,23 +112,120 @@ public class ExtendedRandomForest extends RandomForest implements RangeQueryPred
 	}
 
 	public double computeMarginalVarianceContributionForFeatureSubset(final Set<Integer> features) {
-		double avg = 0;
-		for (Classifier classifier : this.m_Classifiers) {
-			ExtendedRandomTree curTree = (ExtendedRandomTree) classifier;
-			double curMarg = curTree.computeMarginalVarianceContributionForSubsetOfFeatures(features);
-			avg += curMarg * 1.0 / this.m_Classifiers.length;
+		return this.computeMarginalVarianceContributionsForFeatureSubsets(Arrays.asList(features)).get(features);
+	}
+
+	/**
+	 * Computes the marginal variance contributions of several feature subsets at
+	 * once. The contributions of the trees are computed in parallel if the forest
+	 * has several execution slots, and the averaged contributions are memoized
+	 * until the forest is prepared again.
+	 *
+	 * @param subsets
+	 *            Feature subsets for which the contributions are computed
+	 * @return Marginal variance contribution of each feature subset
+	 */
+	public Map<Set<Integer>, Double> computeMarginalVarianceContributionsForFeatureSubsets(final Collection<Set<Integer>> subsets) {
+		Set<Set<Integer>> keysToCompute = new LinkedHashSet<>();
+		for (Set<Integer> subset : subsets) {
+			if (!this.marginalVarianceContributions.containsKey(subset)) {
+				keysToCompute.add(Collections.unmodifiableSet(new HashSet<>(subset)));
+			}
+		}
+		if (!keysToCompute.isEmpty()) {
+			List<Set<Integer>> subsetsToCompute = new ArrayList<>(keysToCompute);
+			double[] averages = this.computeAveragesOverTrees(subsetsToCompute, ExtendedRandomTree::computeMarginalVarianceContributionForSubsetOfFeatures);
+			for (int i = 0; i < averages.length; i++) {
+				this.marginalVarianceContributions.put(subsetsToCompute.get(i), averages[i]);
+			}
 		}
-		return avg;
+		Map<Set<Integer>, Double> contributions = new HashMap<>();
+		for (Set<Integer> subset : subsets) {
+			contributions.put(subset, this.marginalVarianceContributions.get(subset));
+		}
+		return contributions;
 	}
 
 	public double computeMarginalVarianceContributionForFeatureSubsetNotNormalized(final Set<Integer> features) {
-		double avg = 0;
-		for (Classifier classifier : this.m_Classifiers) {
-			ExtendedRandomTree curTree = (ExtendedRandomTree) classifier;
-			double curMarg = curTree.computeMarginalVarianceContributionForSubsetOfFeaturesNotNormalized(features);
-			avg += curMarg * 1.0 / this.m_Classifiers.length;
+		return this.computeAveragesOverTrees(Arrays.asList(features), ExtendedRandomTree::computeMarginalVarianceContributionForSubsetOfFeaturesNotNormalized)[0];
+	}
+
+	private double[] computeAveragesOverTrees(final List<Set<Integer>> subsets, final ToDoubleBiFunction<ExtendedRandomTree, Set<Integer>> treeContribution) {
+		List<double[]> contributionsOfTrees = this.computeForEachTree(curTree -> {
+			double[] contributions = new double[subsets.size()];
+			for (int i = 0; i < contributions.length; i++) {
+				contributions[i] = treeContribution.applyAsDouble(curTree, subsets.get(i));
+			}
+			return contributions;
+		});
+
+		// sum up in the order of the trees, so that the result does not depend on the number of threads
+		double[] averages = new double[subsets.size()];
+		for (double[] contributions : contributionsOfTrees) {
+			for (int i = 0; i < averages.length; i++) {
+				averages[i] += contributions[i] * 1.0 / this.m_Classifiers.length;
+			}
+		}
+		return averages;
+	}
+
+	/**
+	 * Applies a computation to each tree of the forest. The trees are processed by
+	 * as many threads as the forest has execution slots.
+	 *
+	 * @param computation
+	 * @return Results of the computation in the order of the trees
+	 */
+	private <T> List<T> computeForEachTree(final Function<ExtendedRandomTree, T> computation) {
+		List<T> results = new ArrayList<>(this.m_Classifiers.length);
+		int numberOfThreads = Math.min(this.getNumExecutionSlots() < 1 ? Runtime.getRuntime().availableProcessors() : this.getNumExecutionSlots(), this.m_Classifiers.length);
+		if (numberOfThreads <= 1) {
+			for (Classifier classifier : this.m_Classifiers) {
+				results.add(computation.apply((ExtendedRandomTree) classifier));
+			}
+			return results;
+		}
+
+		ExecutorService treePool = this.getPool(numberOfThreads);
+		List<Future<T>> futures = new ArrayList<>(this.m_Classifiers.length);
+		try {
+			for (Classifier classifier : this.m_Classifiers) {
+				futures.add(treePool.submit(() -> computation.apply((ExtendedRandomTree) classifier)));
+			}
+			for (Future<T> future : futures) {
+				results.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while computing fANOVA on the trees.", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Could not compute fANOVA on a tree.", e.getCause());
+		} finally {
+			for (Future<T> future : futures) {
+				future.cancel(true);
+			}
 		}
-		return avg;
+		return results;
+	}
+
+	/**
+	 * Returns the pool of this forest, which is created on the first use and only replaced if the number of threads changes.
+	 */
+	private synchronized ExecutorService getPool(final int numberOfThreads) {
+		if (this.pool == null || this.pool.getMaximumPoolSize() != numberOfThreads) {
+			if (this.pool != null) {
+				this.pool.shutdown();
+			}
+			AtomicInteger counter = new AtomicInteger(0);
+			this.pool = new ThreadPoolExecutor(numberOfThreads, numberOfThreads, KEEP_ALIVE_TIME_OF_THREADS_IN_MS, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+				Thread t = new Thread(r);
+				t.setName("ExtendedRandomForest-worker-" + counter.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			});
+			this.pool.allowCoreThreadTimeOut(true);
+		}
+		return this.pool;
 	}
 
 	/**
@@ -121,6 +244,12 @@ public class ExtendedRandomForest extends RandomForest implements RangeQueryPred
 		return this.featureSpace;
 	}
 
+	@Override
+	public void buildClassifier(final Instances data) throws Exception {
+		this.marginalVarianceContributions.clear();
+		super.buildClassifier(data);
+	}
+
 	@Override
 	protected String defaultClassifierString() {
 		return "jaicore.ml.intervaltree.ExtendedRandomTree";
@@ -12,13 +12,11 @@ import java.util.List;
 import java.util.Map.Entry;
 import java.util.Queue;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.apache.commons.math3.geometry.euclidean.oned.Interval;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 import ai.libs.jaicore.ml.core.CategoricalFeatureDomain;
@@ -61,6 +59,10 @@ public class ExtendedRandomTree extends RandomTree implements RangeQueryPredicto
 	private ArrayList<Set<Double>> splitPoints;
 	private double totalVariance;
 	private transient Observation[][] allObservations;
+	private transient double[] predictionsOfLeaves;
+	private transient double[] relativeSizesOfLeaves;
+	private transient double[][] relativeRangeSizesOfLeaves;
+	private transient int[][][] observationRunsOfLeaves;
 	private HashMap<Set<Integer>, Double> varianceOfSubsetIndividual;
 	private HashMap<Set<Integer>, Double> varianceOfSubsetTotal;
 	private HashMap<Tree, Double> mapForEmptyLeaves;
@@ -166,48 +168,18 @@ public class ExtendedRandomTree extends RandomTree implements RangeQueryPredicto
 	}
 
 	/**
-	 * Computes the variance contribution of a subset of features.
+	 * Computes the standard deviation that is individually contributed by a subset of features.
 	 *
 	 * @param features
-	 * @return Variance contribution of the feature subset
+	 * @return Standard deviation contributed by the feature subset
 	 */
-	public double computeMarginalStandardDeviationForSubsetOfFeatures(Set<Integer> features) {
-		if (!this.isPrepared) {
-			LOGGER.warn(LOG_WARN_NOT_PREPARED);
-			this.preprocess();
-		}
-		// as we use a set as a key, we should at least make it immutable
-		features = Collections.unmodifiableSet(features);
+	public synchronized double computeMarginalStandardDeviationForSubsetOfFeatures(final Set<Integer> features) {
+		this.ensurePrepared();
 		if (this.totalVariance == 0.0d) {
 			LOGGER.warn(LOG_WARN_VARIANCE_ZERO);
 			return Double.NaN;
 		}
-
-		double vU;
-		if (this.varianceOfSubsetTotal.containsKey(features)) {
-			vU = this.varianceOfSubsetTotal.get(features);
-		} else {
-			vU = this.computeTotalVarianceOfSubset(features);
-		}
-		LOGGER.trace(LOG_TOTAL_VAR, features, vU);
-
-		for (int k = 1; k < features.size(); k++) {
-			// generate all subsets of size k
-			Set<Set<Integer>> subsets = Sets.combinations(features, k);
-			for (Set<Integer> subset : subsets) {
-				if (subset.isEmpty()) {
-					continue;
-				}
-				LOGGER.trace("Subtracting {} for {}", this.varianceOfSubsetIndividual.get(subset), subset);
-				vU -= this.varianceOfSubsetIndividual.get(subset);
-			}
-		}
-		LOGGER.trace(LOG_INDIVIDUAL_VAR, features, vU);
-		if (vU < 0.0d) {
-			vU = 0.0d;
-		}
-		this.varianceOfSubsetIndividual.put(features, vU);
-		return Math.sqrt(vU);
+		return Math.sqrt(this.computeIndividualVarianceOfSubset(features));
 	}
 
 	/**
@@ -216,41 +188,13 @@ public class ExtendedRandomTree extends RandomTree implements RangeQueryPredicto
 	 * @param features
 	 * @return Variance contribution of the feature subset
 	 */
-	public double computeMarginalVarianceContributionForSubsetOfFeatures(Set<Integer> features) {
-		if (!this.isPrepared) {
-			LOGGER.warn(LOG_WARN_NOT_PREPARED);
-			this.preprocess();
-		}
-
-		features = Collections.unmodifiableSet(features);
+	public synchronized double computeMarginalVarianceContributionForSubsetOfFeatures(final Set<Integer> features) {
+		this.ensurePrepared();
 		if (this.totalVariance == 0.0d) {
 			LOGGER.warn(LOG_WARN_VARIANCE_ZERO);
 			return Double.NaN;
 		}
-
-		double vU;
-		if (this.varianceOfSubsetTotal.containsKey(features)) {
-			vU = this.varianceOfSubsetTotal.get(features);
-		} else {
-			vU = this.computeTotalVarianceOfSubset(features);
-		}
-		LOGGER.trace(LOG_TOTAL_VAR, features, vU);
-
-		for (int k = 1; k < features.size(); k++) {
-			// generate all subsets of size k
-			Set<Set<Integer>> subsets = Sets.combinations(features, k);
-			for (Set<Integer> subset : subsets) {
-				if (subset.isEmpty()) {
-					continue;
-				}
-				LOGGER.trace("Subtracting {} for {} ", this.varianceOfSubsetIndividual.get(subset), subset);
-				vU -= this.varianceOfSubsetIndividual.get(subset);
-			}
-		}
-		LOGGER.trace(LOG_INDIVIDUAL_VAR, features, vU);
-		vU = Math.max(vU, 0);
-		this.varianceOfSubsetIndividual.put(features, vU);
-		return vU / this.totalVariance;
+		return this.computeIndividualVarianceOfSubset(features) / this.totalVariance;
 	}
 
 	/**
@@ -260,87 +204,75 @@ public class ExtendedRandomTree extends RandomTree implements RangeQueryPredicto
 	 * @param features
 	 * @return Variance contribution of the feature subset
 	 */
-	public double computeMarginalVarianceContributionForSubsetOfFeaturesNotNormalized(Set<Integer> features) {
-		if (!this.isPrepared) {
-			LOGGER.warn(LOG_WARN_NOT_PREPARED);
-			this.preprocess();
-		}
-
-		features = Collections.unmodifiableSet(features);
+	public synchronized double computeMarginalVarianceContributionForSubsetOfFeaturesNotNormalized(final Set<Integer> features) {
+		this.ensurePrepared();
 		if (this.totalVariance == 0.0d) {
 			LOGGER.warn(LOG_WARN_VARIANCE_ZERO);
 			return Double.NaN;
 		}
+		return this.computeIndividualVarianceOfSubset(features);
+	}
 
-		double vU;
-		if (this.varianceOfSubsetTotal.containsKey(features)) {
-			vU = this.varianceOfSubsetTotal.get(features);
-		} else {
-			vU = this.computeTotalVarianceOfSubset(features);
+	private void ensurePrepared() {
+		if (!this.isPrepared) {
+			LOGGER.warn(LOG_WARN_NOT_PREPARED);
+			this.preprocess();
+		}
+	}
+
+	/**
+	 * Computes the variance that is individually contributed by a subset of features, i.e. the total variance of its marginal predictions minus the individual
+	 * variances of all of its proper subsets. The individual variances are memoized, so the ones of the proper subsets are computed at most once per tree.
+	 *
+	 * @param features
+	 * @return Individual variance of the feature subset
+	 */
+	private double computeIndividualVarianceOfSubset(final Set<Integer> features) {
+		Set<Integer> key = getKey(features);
+		Double individualVariance = this.varianceOfSubsetIndividual.get(key);
+		if (individualVariance != null) {
+			return individualVariance;
 		}
-		LOGGER.trace(LOG_TOTAL_VAR, features, vU);
+		double vU = this.computeTotalVarianceOfSubset(key);
+		LOGGER.trace(LOG_TOTAL_VAR, key, vU);
 
-		for (int k = 1; k < features.size(); k++) {
+		for (int k = 1; k < key.size(); k++) {
 			// generate all subsets of size k
-			Set<Set<Integer>> subsets = Sets.combinations(features, k);
-			for (Set<Integer> subset : subsets) {
-				if (subset.isEmpty()) {
-					continue;
-				}
-				LOGGER.trace("Subtracting {} for {} ", this.varianceOfSubsetIndividual.get(subset), subset);
-				vU -= this.varianceOfSubsetIndividual.get(subset);
+			for (Set<Integer> subset : Sets.combinations(key, k)) {
+				double subsetVariance = this.computeIndividualVarianceOfSubset(subset);
+				LOGGER.trace("Subtracting {} for {} ", subsetVariance, subset);
+				vU -= subsetVariance;
 			}
 		}
-		LOGGER.trace(LOG_INDIVIDUAL_VAR, features, vU);
-		if (vU < 0.0d) {
-			vU = 0.0d;
-		}
-		this.varianceOfSubsetIndividual.put(features, vU);
+		LOGGER.trace(LOG_INDIVIDUAL_VAR, key, vU);
+		vU = Math.max(vU, 0);
+		this.varianceOfSubsetIndividual.put(key, vU);
 		return vU;
 	}
 
 	/**
-	 * Computes a marginal prediction for a subset of features and a set of
-	 * observations (\hat{a}_U in the paper)
+	 * As we use sets as keys, we copy them into immutable ones.
+	 */
+	private static Set<Integer> getKey(final Set<Integer> features) {
+		return Collections.unmodifiableSet(new HashSet<>(features));
+	}
+
+	/**
+	 * Returns the prediction of a leaf. Leaves that are reached by a split on a categorical feature do not contain a class distribution in the WEKA RandomTree, so
+	 * the prediction of their parent is used.
 	 *
-	 * @param indices
-	 * @param observations
-	 * @return Marginal prediction for the subset of features.
+	 * @param leaf
+	 * @return Prediction of the leaf
 	 */
-	private double getMarginalPrediction(final List<Integer> indices, final List<Observation> observations) {
-		double result = 0;
-		Set<Integer> subset = new HashSet<>();
-		subset.addAll(indices);
-		List<Double> obsList = new ArrayList<>(observations.size());
-		for (Observation obs : observations) {
-			obsList.add(obs.midPoint);
-		}
-		boolean consistentWithAnyLeaf = false;
-		for (Entry<Tree, FeatureSpace> leafEntry : this.partitioning.entrySet()) {
-			Tree leaf = leafEntry.getKey();
-			if (this.partitioning.get(leaf).containsPartialInstance(indices, obsList)) {
-				double sizeOfLeaf = this.partitioning.get(leaf).getRangeSizeOfAllButSubset(subset);
-				double sizeOfDomain = this.featureSpace.getRangeSizeOfAllButSubset(subset);
-				double fractionOfSpaceForThisLeaf = sizeOfLeaf / sizeOfDomain;
-				double prediction;
-
-				if (leaf.getM_Classdistribution() != null) {
-					prediction = leaf.getM_Classdistribution()[0];
-				} else if (this.mapForEmptyLeaves.containsKey(leaf)) {
-					prediction = this.mapForEmptyLeaves.get(leaf);
-				} else {
-					LOGGER.warn("No prediction found anywhere!");
-					prediction = Double.NaN;
-				}
-				assert prediction != Double.NaN : "Prediction must not be NaN";
-				result += prediction * fractionOfSpaceForThisLeaf;
-				consistentWithAnyLeaf = true;
-			}
-		}
-		if (!consistentWithAnyLeaf) {
-			LOGGER.warn("Observation {} is not consistent with any leaf with indices: {}", obsList, indices);
+	private double getPredictionOfLeaf(final Tree leaf) {
+		if (leaf.getM_Classdistribution() != null) {
+			return leaf.getM_Classdistribution()[0];
+		} else if (this.mapForEmptyLeaves.containsKey(leaf)) {
+			return this.mapForEmptyLeaves.get(leaf);
+		} else {
+			LOGGER.warn("No prediction found anywhere!");
+			return Double.NaN;
 		}
-		return result;
 	}
 
 	/**
@@ -463,50 +395,305 @@ public class ExtendedRandomTree extends RandomTree implements RangeQueryPredicto
 		}
 	}
 
+	/**
+	 * Precomputes for each leaf its prediction, the fraction of the feature space
+	 * and of the range of each feature it covers, and the observations of each feature that lie in it. The observations of a feature
+	 * are sorted, so the ones in a leaf are stored as runs of consecutive indices
+	 * (usually a single one). This is done once, so that the marginal predictions
+	 * for a subset of features can be accumulated leaf by leaf instead of searching
+	 * the consistent leaves for each combination of observations.
+	 */
+	private void computeLeafStructure() {
+		int numberOfLeaves = this.leaves.size();
+		int dimensionality = this.featureSpace.getDimensionality();
+		this.predictionsOfLeaves = new double[numberOfLeaves];
+		this.relativeSizesOfLeaves = new double[numberOfLeaves];
+		this.relativeRangeSizesOfLeaves = new double[numberOfLeaves][dimensionality];
+		this.observationRunsOfLeaves = new int[numberOfLeaves][dimensionality][];
+		for (int leafIndex = 0; leafIndex < numberOfLeaves; leafIndex++) {
+			Tree leaf = this.leaves.get(leafIndex);
+			FeatureSpace leafSpace = this.partitioning.get(leaf);
+			this.predictionsOfLeaves[leafIndex] = this.getPredictionOfLeaf(leaf);
+			this.relativeSizesOfLeaves[leafIndex] = 1.0d;
+			for (int featureIndex = 0; featureIndex < dimensionality; featureIndex++) {
+				FeatureDomain leafDomain = leafSpace.getFeatureDomain(featureIndex);
+				this.relativeRangeSizesOfLeaves[leafIndex][featureIndex] = leafDomain.getRangeSize() / this.featureSpace.getFeatureDomain(featureIndex).getRangeSize();
+				this.relativeSizesOfLeaves[leafIndex] *= this.relativeRangeSizesOfLeaves[leafIndex][featureIndex];
+				Observation[] observations = this.allObservations[featureIndex];
+				List<Integer> runs = new ArrayList<>();
+				for (int observationIndex = 0; observationIndex < observations.length; observationIndex++) {
+					if (leafDomain.containsInstance(observations[observationIndex].midPoint)) {
+						if (!runs.isEmpty() && runs.get(runs.size() - 1) == observationIndex) {
+							runs.set(runs.size() - 1, observationIndex + 1);
+						} else {
+							runs.add(observationIndex);
+							runs.add(observationIndex + 1);
+						}
+					}
+				}
+				this.observationRunsOfLeaves[leafIndex][featureIndex] = runs.stream().mapToInt(Integer::intValue).toArray();
+			}
+		}
+	}
+
 	/**
 	 * Computes the total variance of marginal predictions for a given set of
 	 * features.
 	 *
+	 * The marginal predictions (\hat{a}_U in the paper) are computed for all
+	 * combinations of observations of the features at once: Each leaf adds its
+	 * prediction, weighted by the fraction of the remaining features' space it
+	 * covers, to the box of combinations of observations that are consistent with
+	 * it. The boxes are added to a difference array at their corners only, and
+	 * prefix sums along each feature yield the marginal predictions.
+	 *
 	 * @param features
-	 * @return
+	 * @return Total variance of the marginal predictions
+	 */
+	public synchronized double computeTotalVarianceOfSubset(final Set<Integer> features) {
+		this.ensurePrepared();
+		Set<Integer> key = getKey(features);
+		Double totalVarianceOfSubset = this.varianceOfSubsetTotal.get(key);
+		if (totalVarianceOfSubset != null) {
+			return totalVarianceOfSubset;
+		}
+		int[] featureArray = key.stream().mapToInt(Integer::intValue).sorted().toArray();
+		int[] numbersOfObservations = new int[featureArray.length];
+		for (int i = 0; i < featureArray.length; i++) {
+			numbersOfObservations[i] = this.allObservations[featureArray[i]].length;
+		}
+
+		// the difference array has one more entry per feature than there are observations, the first feature varying slowest
+		int[] strides = new int[featureArray.length];
+		int size = 1;
+		for (int i = featureArray.length - 1; i >= 0; i--) {
+			strides[i] = size;
+			size *= numbersOfObservations[i] + 1;
+		}
+		double[] marginalPredictions = new double[size];
+		List<Integer> leavesWithoutPrediction = this.addContributionsOfLeaves(marginalPredictions, featureArray, strides);
+		computePrefixSums(marginalPredictions, numbersOfObservations, strides);
+		for (int leafIndex : leavesWithoutPrediction) {
+			this.removeMarginalPredictionsOfLeaf(marginalPredictions, leafIndex, featureArray, strides);
+		}
+		double vU = this.computeWeightedVarianceOfMarginalPredictions(marginalPredictions, featureArray, numbersOfObservations, strides);
+		this.varianceOfSubsetTotal.put(key, vU);
+		return vU;
+	}
+
+	/**
+	 * Adds the contribution of each leaf, i.e. its prediction weighted by the
+	 * fraction of the space of the remaining features it covers, to the corners of
+	 * the boxes of combinations of observations that are consistent with it.
+	 *
+	 * @return Indices of the leaves that have no prediction and were skipped
+	 */
+	private List<Integer> addContributionsOfLeaves(final double[] differences, final int[] features, final int[] strides) {
+		List<Integer> leavesWithoutPrediction = new ArrayList<>();
+		int[][] runs = new int[features.length][];
+		int[] runPositions = new int[features.length];
+		for (int leafIndex = 0; leafIndex < this.predictionsOfLeaves.length; leafIndex++) {
+			if (Double.isNaN(this.predictionsOfLeaves[leafIndex])) {
+				leavesWithoutPrediction.add(leafIndex);
+				continue;
+			}
+			if (!this.getRunsOfLeaf(leafIndex, features, runs)) {
+				continue;
+			}
+			double fractionOfSpaceForThisLeaf = this.relativeSizesOfLeaves[leafIndex];
+			for (int featureIndex : features) {
+				fractionOfSpaceForThisLeaf /= this.relativeRangeSizesOfLeaves[leafIndex][featureIndex];
+			}
+			double contribution = this.predictionsOfLeaves[leafIndex] * fractionOfSpaceForThisLeaf;
+			Arrays.fill(runPositions, 0);
+			do {
+				addToCornersOfBox(differences, runs, runPositions, strides, contribution);
+			} while (nextCombination(runPositions, runs, 2));
+		}
+		return leavesWithoutPrediction;
+	}
+
+	private static void addToCornersOfBox(final double[] differences, final int[][] runs, final int[] runPositions, final int[] strides, final double value) {
+		for (int corner = 0; corner < 1 << runs.length; corner++) {
+			int index = 0;
+			double sign = 1.0d;
+			for (int i = 0; i < runs.length; i++) {
+				if ((corner & (1 << i)) == 0) {
+					index += runs[i][runPositions[i]] * strides[i];
+				} else {
+					index += runs[i][runPositions[i] + 1] * strides[i];
+					sign = -sign;
+				}
+			}
+			differences[index] += sign * value;
+		}
+	}
+
+	/**
+	 * Turns the difference array into the marginal predictions by summing up along each feature.
 	 */
-	public double computeTotalVarianceOfSubset(Set<Integer> features) {
-		features = Collections.unmodifiableSet(features);
-		if (this.varianceOfSubsetTotal.containsKey(features)) {
-			return this.varianceOfSubsetTotal.get(features);
-		}
-		List<List<Observation>> observationList = new LinkedList<>();
-		List<Set<Observation>> observationSet = new LinkedList<>();
-		for (int featureIndex : features) {
-			List<Observation> list = Arrays.stream(this.allObservations[featureIndex]).collect(Collectors.toList());
-			HashSet<Observation> hSet = new HashSet<>();
-			hSet.addAll(list);
-			observationList.add(list);
-			observationSet.add(hSet);
-		}
-		List<List<Observation>> observationProduct = Lists.cartesianProduct(observationList);
-		double vU;
+	private static void computePrefixSums(final double[] values, final int[] numbersOfObservations, final int[] strides) {
+		for (int i = 0; i < strides.length; i++) {
+			int length = numbersOfObservations[i] + 1;
+			for (int index = 0; index < values.length; index++) {
+				if ((index / strides[i]) % length != 0) {
+					values[index] += values[index - strides[i]];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Combinations of observations that are consistent with a leaf without prediction have no marginal prediction.
+	 */
+	private void removeMarginalPredictionsOfLeaf(final double[] marginalPredictions, final int leafIndex, final int[] features, final int[] strides) {
+		int[][] runs = new int[features.length][];
+		if (!this.getRunsOfLeaf(leafIndex, features, runs)) {
+			return;
+		}
+		int[] observationIndices = new int[features.length];
+		for (int i = 0; i < features.length; i++) {
+			observationIndices[i] = runs[i][0];
+		}
+		do {
+			int index = 0;
+			for (int i = 0; i < features.length; i++) {
+				index += observationIndices[i] * strides[i];
+			}
+			marginalPredictions[index] = Double.NaN;
+		} while (nextObservationInRuns(observationIndices, runs));
+	}
+
+	/**
+	 * Computes the variance of the marginal predictions, each weighted by the
+	 * product of the interval sizes of its observations. The size of the remaining
+	 * features is the same for all combinations and hence does not change the
+	 * weighted variance.
+	 */
+	private double computeWeightedVarianceOfMarginalPredictions(final double[] marginalPredictions, final int[] features, final int[] numbersOfObservations, final int[] strides) {
 		WeightedVarianceHelper stat = new WeightedVarianceHelper();
-		for (List<Observation> curObs : observationProduct) {
-			ArrayList<Integer> featureList = new ArrayList<>();
-			featureList.addAll(features);
-			Collections.sort(featureList);
-			double marginalPrediction = this.getMarginalPrediction(featureList, curObs);
+		int[] observationIndices = new int[features.length];
+		boolean hasCombinations = Arrays.stream(numbersOfObservations).allMatch(n -> n > 0);
+		while (hasCombinations) {
+			int index = 0;
 			double prodOfIntervalSizes = 1.0d;
-			for (Observation obs : curObs) {
+			for (int i = 0; i < features.length; i++) {
+				index += observationIndices[i] * strides[i];
+				Observation obs = this.allObservations[features[i]][observationIndices[i]];
 				if (obs.intervalSize != 0) {
 					prodOfIntervalSizes *= obs.intervalSize;
 				}
 			}
-			double sizeOfAllButFeatures = this.getFeatureSpace().getRangeSizeOfAllButSubset(features);
-			if (!Double.isNaN(marginalPrediction)) {
-				stat.push(marginalPrediction, sizeOfAllButFeatures * prodOfIntervalSizes);
+			if (!Double.isNaN(marginalPredictions[index])) {
+				stat.push(marginalPredictions[index], prodOfIntervalSizes);
+			}
+			hasCombinations = nextCombination(observationIndices, numbersOfObservations);
+		}
+		return stat.getPopulaionVariance();
+	}
+
+	/**
+	 * Collects the runs of observations of a leaf for the given features.
+	 *
+	 * @return false if the leaf contains no observation of one of the features
+	 */
+	private boolean getRunsOfLeaf(final int leafIndex, final int[] features, final int[][] runs) {
+		for (int i = 0; i < runs.length; i++) {
+			runs[i] = this.observationRunsOfLeaves[leafIndex][features[i]];
+			if (runs[i].length == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
 
+	/**
+	 * Advances a combination of indices like an odometer, the last index varying fastest.
+	 *
+	 * @return false if all combinations have been enumerated
+	 */
+	private static boolean nextCombination(final int[] indices, final int[] numbersOfIndices) {
+		for (int i = indices.length - 1; i >= 0; i--) {
+			if (++indices[i] < numbersOfIndices[i]) {
+				return true;
 			}
+			indices[i] = 0;
 		}
-		vU = stat.getPopulaionVariance();
-		this.varianceOfSubsetTotal.put(features, vU);
-		return vU;
+		return false;
+	}
+
+	/**
+	 * Advances a combination of positions in the given runs (each run taking up step entries) like an odometer.
+	 *
+	 * @return false if all combinations have been enumerated
+	 */
+	private static boolean nextCombination(final int[] positions, final int[][] runs, final int step) {
+		for (int i = positions.length - 1; i >= 0; i--) {
+			positions[i] += step;
+			if (positions[i] < runs[i].length) {
+				return true;
+			}
+			positions[i] = 0;
+		}
+		return false;
+	}
+
+	/**
+	 * Advances a combination of observation indices within the given runs like an odometer.
+	 *
+	 * @return false if all combinations have been enumerated
+	 */
+	private static boolean nextObservationInRuns(final int[] observationIndices, final int[][] runs) {
+		for (int i = observationIndices.length - 1; i >= 0; i--) {
+			int next = observationIndices[i] + 1;
+			int run = 0;
+			while (run < runs[i].length && runs[i][run + 1] <= observationIndices[i]) {
+				run += 2;
+			}
+			if (next < runs[i][run + 1]) {
+				observationIndices[i] = next;
+				return true;
+			}
+			if (run + 2 < runs[i].length) {
+				observationIndices[i] = runs[i][run + 2];
+				return true;
+			}
+			observationIndices[i] = runs[i][0];
+		}
+		return false;
+	}
+
+	/**
+	 * Computes the total variance of the predictions of the tree, i.e. the total
+	 * variance of marginal predictions for all features. As each combination of
+	 * observations of all features lies in exactly one leaf, the predictions of the
+	 * leaves are weighted by the sizes of the combinations they contain, which
+	 * avoids enumerating the combinations of all features.
+	 *
+	 * @return Total variance of the tree
+	 */
+	private double computeTotalVarianceOfAllFeatures() {
+		WeightedVarianceHelper stat = new WeightedVarianceHelper();
+		for (int leafIndex = 0; leafIndex < this.predictionsOfLeaves.length; leafIndex++) {
+			if (Double.isNaN(this.predictionsOfLeaves[leafIndex])) {
+				continue;
+			}
+			double sizeOfCombinations = 1.0d;
+			for (int featureIndex = 0; featureIndex < this.observationRunsOfLeaves[leafIndex].length; featureIndex++) {
+				int[] runs = this.observationRunsOfLeaves[leafIndex][featureIndex];
+				double sizeOfObservations = 0.0d;
+				for (int run = 0; run < runs.length; run += 2) {
+					for (int observationIndex = runs[run]; observationIndex < runs[run + 1]; observationIndex++) {
+						sizeOfObservations += this.allObservations[featureIndex][observationIndex].intervalSize;
+					}
+				}
+				sizeOfCombinations *= sizeOfObservations;
+			}
+			if (sizeOfCombinations > 0) {
+				stat.push(this.predictionsOfLeaves[leafIndex], sizeOfCombinations);
+			}
+		}
+		return stat.getPopulaionVariance();
 	}
 
 	public double getTotalVariance() {
@@ -514,17 +701,24 @@ public class ExtendedRandomTree extends RandomTree implements RangeQueryPredicto
 	}
 
 	/**
-	 * Sets up the tree for fANOVA
+	 * Sets up the tree for fANOVA. Previously computed variances are discarded.
 	 */
-	public void preprocess() {
+	public synchronized void preprocess() {
+		this.leaves.clear();
+		this.partitioning.clear();
+		this.mapForEmptyLeaves.clear();
+		this.varianceOfSubsetTotal.clear();
+		this.varianceOfSubsetIndividual.clear();
 		this.computePartitioning(this.featureSpace, this.m_Tree);
 		this.collectSplitPointsAndIntervalSizes(this.m_Tree);
 		this.computeObservations();
+		this.computeLeafStructure();
 		HashSet<Integer> set = new HashSet<>();
 		for (int i = 0; i < this.featureSpace.getDimensionality(); i++) {
 			set.add(i);
 		}
-		this.totalVariance = this.computeTotalVarianceOfSubset(set);
+		this.totalVariance = this.computeTotalVarianceOfAllFeatures();
+		this.varianceOfSubsetTotal.put(getKey(set), this.totalVariance);
 		this.isPrepared = true;
 	}
 
@@ -0,0 +1,240 @@
+package ai.libs.jaicore.ml.learningcurve.extrapolation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.math3.exception.MathIllegalStateException;
+import org.apache.commons.math3.fitting.leastsquares.LeastSquaresBuilder;
+import org.apache.commons.math3.fitting.leastsquares.LeastSquaresOptimizer.Optimum;
+import org.apache.commons.math3.fitting.leastsquares.LevenbergMarquardtOptimizer;
+import org.apache.commons.math3.fitting.leastsquares.MultivariateJacobianFunction;
+import org.apache.commons.math3.fitting.leastsquares.ParameterValidator;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+import org.apache.commons.math3.util.Pair;
+
+/**
+ * Base class for fitting the parameters of a learning curve to anchor points by non-linear least squares. The fitting runs in the JVM and does not keep any state
+ * except for a cache of the configurations that have been fitted, so a fitter may be shared among threads.
+ *
+ * The cache is keyed by the vector of anchor points. It holds at most the configured number of configurations and evicts the least recently used ones. The cached
+ * configurations are returned as they are and must hence not be modified.
+ *
+ * @author fmohr
+ *
+ * @param <C>
+ *            The type of configuration (i.e. the parameters of the curve) that is fitted
+ */
+public abstract class ALeastSquaresCurveFitter<C> {
+
+	public static final int DEFAULT_CACHE_CAPACITY = 1000;
+
+	private static final int MAX_EVALUATIONS = 1000;
+	private static final int MAX_ITERATIONS = 1000;
+	private static final double RELATIVE_DIFFERENTIATION_STEP = 1E-6;
+
+	/**
+	 * A curve whose value depends on a vector of parameters.
+	 */
+	@FunctionalInterface
+	protected interface ParametricCurve {
+		public double value(double[] parameters, double x);
+	}
+
+	private static class AnchorPoints {
+		private final int[] xValues;
+		private final double[] yValues;
+		private final int hashCode;
+
+		public AnchorPoints(final int[] xValues, final double[] yValues) {
+			this.xValues = xValues.clone();
+			this.yValues = yValues.clone();
+			this.hashCode = 31 * Arrays.hashCode(this.xValues) + Arrays.hashCode(this.yValues);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof AnchorPoints)) {
+				return false;
+			}
+			AnchorPoints other = (AnchorPoints) obj;
+			return Arrays.equals(this.xValues, other.xValues) && Arrays.equals(this.yValues, other.yValues);
+		}
+	}
+
+	private final Map<AnchorPoints, C> configurations;
+
+	protected ALeastSquaresCurveFitter() {
+		this(DEFAULT_CACHE_CAPACITY);
+	}
+
+	/**
+	 * @param cacheCapacity
+	 *            The maximum number of fitted configurations held in memory; 0 disables the cache
+	 */
+	protected ALeastSquaresCurveFitter(final int cacheCapacity) {
+		if (cacheCapacity < 0) {
+			throw new IllegalArgumentException("The capacity of the cache must not be negative.");
+		}
+		this.configurations = cacheCapacity > 0 ? Collections.synchronizedMap(new LinkedHashMap<AnchorPoints, C>(16, .75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<AnchorPoints, C> eldest) {
+				return this.size() > cacheCapacity;
+			}
+		}) : null;
+	}
+
+	/**
+	 * Fits the curve to the given anchor points or returns the cached configuration if these anchor points have been fitted before.
+	 *
+	 * @param xValues
+	 *            The sample sizes of the anchor points
+	 * @param yValues
+	 *            The scores of the learner at the anchor points
+	 * @return The configuration of the curve that fits the anchor points best
+	 * @throws InvalidAnchorPointsException
+	 *             if the anchor points are not sufficient to fit the curve
+	 */
+	public C fit(final int[] xValues, final double[] yValues) throws InvalidAnchorPointsException {
+		this.checkAnchorPoints(xValues, yValues);
+		if (this.configurations == null) {
+			return this.fitAnchorPoints(toDoubleArray(xValues), yValues);
+		}
+		AnchorPoints key = new AnchorPoints(xValues, yValues);
+		C configuration = this.configurations.get(key);
+		if (configuration == null) {
+			configuration = this.fitAnchorPoints(toDoubleArray(xValues), yValues);
+			this.configurations.put(key, configuration);
+		}
+		return configuration;
+	}
+
+	/**
+	 * @return The number of different x-values that is at least required to fit the curve
+	 */
+	protected abstract int getMinimumNumberOfAnchorPoints();
+
+	/**
+	 * Fits the curve to anchor points that have already been checked to be valid.
+	 */
+	protected abstract C fitAnchorPoints(double[] xValues, double[] yValues) throws InvalidAnchorPointsException;
+
+	private void checkAnchorPoints(final int[] xValues, final double[] yValues) throws InvalidAnchorPointsException {
+		if (xValues.length != yValues.length) {
+			throw new IllegalArgumentException("The number of x-values (" + xValues.length + ") does not match the number of y-values (" + yValues.length + ").");
+		}
+		Set<Integer> differentXValues = new HashSet<>();
+		for (int i = 0; i < xValues.length; i++) {
+			if (xValues[i] <= 0 || Double.isNaN(yValues[i]) || Double.isInfinite(yValues[i])) {
+				throw new InvalidAnchorPointsException();
+			}
+			differentXValues.add(xValues[i]);
+		}
+		if (differentXValues.size() < this.getMinimumNumberOfAnchorPoints()) {
+			throw new InvalidAnchorPointsException();
+		}
+	}
+
+	private static double[] toDoubleArray(final int[] values) {
+		double[] array = new double[values.length];
+		for (int i = 0; i < values.length; i++) {
+			array[i] = values[i];
+		}
+		return array;
+	}
+
+	/**
+	 * Minimizes the sum of squared residuals of the curve on the given points with the Levenberg-Marquardt algorithm.
+	 *
+	 * @param yValues
+	 *            The y-values of the points
+	 * @param model
+	 *            The values of the curve at the x-values of the points and their Jacobian with respect to the parameters
+	 * @param start
+	 *            The parameters from which the optimization starts
+	 * @param validator
+	 *            Maps the parameters to the feasible region after each step; may be null
+	 * @return The optimal parameters or null if the optimization did not converge or ended in parameters for which the curve is not defined at the points
+	 */
+	protected static double[] optimize(final double[] yValues, final MultivariateJacobianFunction model, final double[] start, final ParameterValidator validator) {
+		LeastSquaresBuilder builder = new LeastSquaresBuilder().model(model).target(yValues).start(start).maxEvaluations(MAX_EVALUATIONS).maxIterations(MAX_ITERATIONS);
+		if (validator != null) {
+			builder.parameterValidator(validator);
+		}
+		Optimum optimum;
+		try {
+			optimum = new LevenbergMarquardtOptimizer().optimize(builder.build());
+		} catch (MathIllegalStateException e) {
+			return null;
+		}
+		double[] parameters = optimum.getPoint().toArray();
+		for (double parameter : parameters) {
+			if (Double.isNaN(parameter) || Double.isInfinite(parameter)) {
+				return null;
+			}
+		}
+		double rms = optimum.getRMS();
+		return Double.isNaN(rms) || Double.isInfinite(rms) ? null : parameters;
+	}
+
+	/**
+	 * Creates the model of a curve for which no analytical derivatives are available. The Jacobian is approximated by central differences.
+	 *
+	 * @param xValues
+	 *            The x-values at which the curve is evaluated
+	 * @param curve
+	 *            The curve
+	 * @return The model of the curve on the given x-values
+	 */
+	protected static MultivariateJacobianFunction getModelWithNumericalJacobian(final double[] xValues, final ParametricCurve curve) {
+		return point -> {
+			double[] parameters = point.toArray();
+			double[] values = new double[xValues.length];
+			for (int i = 0; i < xValues.length; i++) {
+				values[i] = curve.value(parameters, xValues[i]);
+			}
+			double[][] jacobian = new double[xValues.length][parameters.length];
+			for (int j = 0; j < parameters.length; j++) {
+				double original = parameters[j];
+				double step = RELATIVE_DIFFERENTIATION_STEP * Math.max(Math.abs(original), 1);
+				for (int i = 0; i < xValues.length; i++) {
+					parameters[j] = original + step;
+					double upper = curve.value(parameters, xValues[i]);
+					parameters[j] = original - step;
+					double lower = curve.value(parameters, xValues[i]);
+					jacobian[i][j] = (upper - lower) / (2 * step);
+				}
+				parameters[j] = original;
+			}
+			return new Pair<RealVector, RealMatrix>(new ArrayRealVector(values, false), new Array2DRowRealMatrix(jacobian, false));
+		};
+	}
+
+	/**
+	 * @return The sum of squared residuals of the curve with the given parameters on the given points
+	 */
+	protected static double getSumOfSquaredResiduals(final double[] xValues, final double[] yValues, final ParametricCurve curve, final double[] parameters) {
+		double sum = 0;
+		for (int i = 0; i < xValues.length; i++) {
+			double residual = yValues[i] - curve.value(parameters, xValues[i]);
+			sum += residual * residual;
+		}
+		return sum;
+	}
+}
@@ -1,13 +1,19 @@
 package ai.libs.jaicore.ml.learningcurve.extrapolation;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Random;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,11 +28,16 @@ import ai.libs.jaicore.ml.core.dataset.sampling.inmemory.ASamplingAlgorithm;
 import ai.libs.jaicore.ml.core.dataset.sampling.inmemory.factories.interfaces.IRerunnableSamplingAlgorithmFactory;
 import ai.libs.jaicore.ml.core.dataset.sampling.inmemory.factories.interfaces.ISamplingAlgorithmFactory;
 import ai.libs.jaicore.ml.core.dataset.weka.WekaInstances;
+import ai.libs.jaicore.ml.core.exception.TrainingException;
 import ai.libs.jaicore.ml.interfaces.LearningCurve;
+import weka.classifiers.AbstractClassifier;
 import weka.classifiers.Classifier;
+import weka.classifiers.UpdateableClassifier;
+import weka.core.BatchPredictor;
 import weka.core.Instance;
 import weka.core.Instances;
 import weka.core.UnsupportedAttributeTypeException;
+import weka.core.Utils;
 
 /**
  * Abstract class for implementing a learning curve extrapolation method with
@@ -35,6 +46,10 @@ import weka.core.UnsupportedAttributeTypeException;
  * (subsample size, learner accuracy) a custom method of learning curve
  * extrapolation can be applied.
  *
+ * Updateable learners can be trained incrementally on nested subsamples, and
+ * other learners can be trained on the anchor points in parallel (see
+ * {@link #setIncrementalTraining(boolean)} and {@link #setNumberOfThreads(int)}).
+ *
  * @author Lukas Brandt
  */
 public class LearningCurveExtrapolator<I extends ILabeledAttributeArrayInstance<?>, D extends IOrderedLabeledAttributeArrayDataset<I, ?>> implements ILoggingCustomizable {
@@ -52,6 +67,8 @@ public class LearningCurveExtrapolator<I extends ILabeledAttributeArrayInstance<
 	private final int[] anchorPoints;
 	private final double[] yValues;
 	private final int[] trainingTimes;
+	private boolean incrementalTraining = false;
+	private int numberOfThreads = 1;
 
 	/**
 	 * Create a learning curve extrapolator with a subsampling factory.
@@ -108,31 +125,21 @@ public class LearningCurveExtrapolator<I extends ILabeledAttributeArrayInstance<
 		try {
 			Instances testInstances = ((WekaInstances<Object>) this.test).getList();
 
-			// Create subsamples at the anchorpoints and measure the accuracy there.
-			for (int i = 0; i < this.anchorPoints.length; i++) {
-
-				// If it is a rerunnable factory, set the previous run.
-				if (this.samplingAlgorithmFactory instanceof IRerunnableSamplingAlgorithmFactory && this.samplingAlgorithm != null) {
-					((IRerunnableSamplingAlgorithmFactory<I, D, ASamplingAlgorithm<I, D>>) this.samplingAlgorithmFactory).setPreviousRun(this.samplingAlgorithm);
-				}
-				this.samplingAlgorithm = this.samplingAlgorithmFactory.getAlgorithm(this.anchorPoints[i], this.train, this.random);
-				IOrderedLabeledAttributeArrayDataset<?, ?> subsampledDataset = this.samplingAlgorithm.call();
-
-				// Train classifier on subsample.
-				this.logger.debug("Running classifier with {} data points.", this.anchorPoints[i]);
-				long start = System.currentTimeMillis();
-				this.learner.buildClassifier(((WekaInstances<Object>) subsampledDataset).getList());
-				this.trainingTimes[i] = (int) (System.currentTimeMillis() - start);
-
-				// Measure accuracy of the trained learner on test split.
-				double correctCounter = 0d;
-				for (Instance instance : testInstances) {
-					if (this.learner.classifyInstance(instance) == instance.classValue()) {
-						correctCounter++;
-					}
+			// Train the classifier on subsamples at the anchorpoints and measure the accuracy on the test split. Only the parallel training needs all subsamples at once.
+			if (this.incrementalTraining && this.learner instanceof UpdateableClassifier) {
+				this.measureAnchorPointsIncrementally(testInstances);
+			} else if (this.numberOfThreads > 1 && this.anchorPoints.length > 1) {
+				this.measureAnchorPointsInParallel(testInstances);
+			} else {
+				for (int i = 0; i < this.anchorPoints.length; i++) {
+					Instances subsample = this.drawSubsample(i);
+					this.logger.debug("Running classifier with {} data points.", this.anchorPoints[i]);
+					long start = System.currentTimeMillis();
+					this.learner.buildClassifier(subsample);
+					this.trainingTimes[i] = (int) (System.currentTimeMillis() - start);
+					this.yValues[i] = getAccuracy(this.learner, testInstances);
+					this.logger.debug("Training finished. Observed learning curve value (accuracy) of {}.", this.yValues[i]);
 				}
-				this.yValues[i] = correctCounter / testInstances.size();
-				this.logger.debug("Training finished. Observed learning curve value (accuracy) of {}.", this.yValues[i]);
 			}
 			if (this.logger.isInfoEnabled()) {
 				this.logger.info("Computed accuracies of {} for anchor points {}. Now extrapolating a curve from these observations.", Arrays.toString(this.yValues), Arrays.toString(this.anchorPoints));
@@ -152,6 +159,236 @@ public class LearningCurveExtrapolator<I extends ILabeledAttributeArrayInstance<
 
 	}
 
+	/**
+	 * Draws the subsample for the anchorpoint with the given index. Subsamples must be drawn in the order of the anchorpoints, because a rerunnable factory builds
+	 * on the previous run.
+	 */
+	@SuppressWarnings("unchecked")
+	private Instances drawSubsample(final int anchorPointIndex) throws InterruptedException, AlgorithmExecutionCanceledException, TimeoutException, AlgorithmException {
+
+		// If it is a rerunnable factory, set the previous run.
+		if (this.samplingAlgorithmFactory instanceof IRerunnableSamplingAlgorithmFactory && this.samplingAlgorithm != null) {
+			((IRerunnableSamplingAlgorithmFactory<I, D, ASamplingAlgorithm<I, D>>) this.samplingAlgorithmFactory).setPreviousRun(this.samplingAlgorithm);
+		}
+		this.samplingAlgorithm = this.samplingAlgorithmFactory.getAlgorithm(this.anchorPoints[anchorPointIndex], this.train, this.random);
+		IOrderedLabeledAttributeArrayDataset<?, ?> subsampledDataset = this.samplingAlgorithm.call();
+		return ((WekaInstances<Object>) subsampledDataset).getList();
+	}
+
+	/**
+	 * Trains the updateable learner on the first subsample and, as long as each subsample contains the previous one, only feeds the instances that have been added
+	 * to it. If a subsample does not contain the previous one, the learner is trained from scratch on it. The training time of an anchor point is the accumulated
+	 * time needed to obtain the model for it.
+	 */
+	private void measureAnchorPointsIncrementally(final Instances testInstances) throws Exception {
+		UpdateableClassifier updateableLearner = (UpdateableClassifier) this.learner;
+		Map<InstanceValues, Integer> previousSubsample = null;
+		int sizeOfPreviousSubsample = 0;
+		long accumulatedTrainingTime = 0;
+		for (int i = 0; i < this.anchorPoints.length; i++) {
+			Instances subsample = this.drawSubsample(i);
+			long start = System.currentTimeMillis();
+			List<Instance> addedInstances = previousSubsample != null ? getAddedInstances(previousSubsample, sizeOfPreviousSubsample, subsample) : null;
+			if (addedInstances != null) {
+				this.logger.debug("Updating classifier with {} new data points to reach {} data points.", addedInstances.size(), this.anchorPoints[i]);
+				for (Instance instance : addedInstances) {
+					updateableLearner.updateClassifier(instance);
+				}
+			} else {
+				this.logger.debug("Running classifier with {} data points.", this.anchorPoints[i]);
+				this.learner.buildClassifier(subsample);
+				accumulatedTrainingTime = 0;
+			}
+			accumulatedTrainingTime += System.currentTimeMillis() - start;
+			this.trainingTimes[i] = (int) accumulatedTrainingTime;
+			if (i < this.anchorPoints.length - 1) {
+				previousSubsample = getValueCounts(subsample);
+				sizeOfPreviousSubsample = subsample.size();
+			}
+			this.yValues[i] = getAccuracy(this.learner, testInstances);
+			this.logger.debug("Training finished. Observed learning curve value (accuracy) of {}.", this.yValues[i]);
+		}
+	}
+
+	/**
+	 * Trains copies of the learner on the subsamples in parallel. The learner itself is trained on the last subsample, so that it is in the same state as after a
+	 * sequential run.
+	 */
+	private void measureAnchorPointsInParallel(final Instances testInstances) throws Exception {
+		List<Instances> subsamples = new ArrayList<>(this.anchorPoints.length);
+		for (int i = 0; i < this.anchorPoints.length; i++) {
+			subsamples.add(this.drawSubsample(i));
+		}
+
+		List<Classifier> learners = new ArrayList<>(this.anchorPoints.length);
+		Classifier[] copies = AbstractClassifier.makeCopies(this.learner, this.anchorPoints.length - 1);
+		learners.addAll(Arrays.asList(copies));
+		learners.add(this.learner);
+
+		AtomicInteger counter = new AtomicInteger(0);
+		ExecutorService pool = Executors.newFixedThreadPool(Math.min(this.numberOfThreads, this.anchorPoints.length), r -> {
+			Thread t = new Thread(r);
+			t.setName("LearningCurveExtrapolator-worker-" + counter.incrementAndGet());
+			return t;
+		});
+		try {
+			List<Future<double[]>> measurements = new ArrayList<>(this.anchorPoints.length);
+			for (int i = 0; i < this.anchorPoints.length; i++) {
+				Classifier anchorPointLearner = learners.get(i);
+				Instances subsample = subsamples.get(i);
+				measurements.add(pool.submit(() -> {
+					long start = System.currentTimeMillis();
+					anchorPointLearner.buildClassifier(subsample);
+					long trainingTime = System.currentTimeMillis() - start;
+					return new double[] { trainingTime, getAccuracy(anchorPointLearner, testInstances) };
+				}));
+			}
+			for (int i = 0; i < this.anchorPoints.length; i++) {
+				double[] measurement;
+				try {
+					measurement = measurements.get(i).get();
+				} catch (ExecutionException e) {
+					throw new TrainingException("Could not train or test the classifier on " + this.anchorPoints[i] + " data points.", e.getCause());
+				}
+				this.trainingTimes[i] = (int) measurement[0];
+				this.yValues[i] = measurement[1];
+				this.logger.debug("Training with {} data points finished. Observed learning curve value (accuracy) of {}.", this.anchorPoints[i], this.yValues[i]);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Computes the accuracy of the learner on the test instances. If the learner predicts batches of instances more efficiently than single instances, all test
+	 * instances are predicted in one batch.
+	 */
+	private static double getAccuracy(final Classifier learner, final Instances testInstances) throws Exception {
+		double correctCounter = 0d;
+		if (learner instanceof BatchPredictor && ((BatchPredictor) learner).implementsMoreEfficientBatchPrediction()) {
+			double[][] distributions = ((BatchPredictor) learner).distributionsForInstances(testInstances);
+			for (int i = 0; i < distributions.length; i++) {
+				Instance instance = testInstances.get(i);
+				if (getPrediction(distributions[i], instance) == instance.classValue()) {
+					correctCounter++;
+				}
+			}
+		} else {
+			for (Instance instance : testInstances) {
+				if (learner.classifyInstance(instance) == instance.classValue()) {
+					correctCounter++;
+				}
+			}
+		}
+		return correctCounter / testInstances.size();
+	}
+
+	/**
+	 * @return The prediction for the given distribution, derived in the same way as in {@link AbstractClassifier#classifyInstance(Instance)}
+	 */
+	private static double getPrediction(final double[] distribution, final Instance instance) {
+		if (instance.classAttribute().isNominal()) {
+			double max = 0;
+			int maxIndex = 0;
+			for (int i = 0; i < distribution.length; i++) {
+				if (distribution[i] > max) {
+					maxIndex = i;
+					max = distribution[i];
+				}
+			}
+			return max > 0 ? maxIndex : Utils.missingValue();
+		}
+		return instance.classAttribute().isNumeric() || instance.classAttribute().isDate() ? distribution[0] : Utils.missingValue();
+	}
+
+	/**
+	 * The values and the weight of an instance. Subsamples contain copies of the instances of the training split, so instances are compared by their values.
+	 */
+	private static class InstanceValues {
+		private final double[] values;
+		private final double weight;
+		private final int hashCode;
+
+		public InstanceValues(final Instance instance) {
+			this.values = instance.toDoubleArray();
+			this.weight = instance.weight();
+			this.hashCode = 31 * Arrays.hashCode(this.values) + Double.hashCode(this.weight);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof InstanceValues)) {
+				return false;
+			}
+			InstanceValues other = (InstanceValues) obj;
+			return Double.compare(this.weight, other.weight) == 0 && Arrays.equals(this.values, other.values);
+		}
+	}
+
+	private static Map<InstanceValues, Integer> getValueCounts(final Instances instances) {
+		Map<InstanceValues, Integer> counts = new HashMap<>();
+		for (Instance instance : instances) {
+			counts.merge(new InstanceValues(instance), 1, Integer::sum);
+		}
+		return counts;
+	}
+
+	/**
+	 * @return The instances of the subsample that are not contained in the previous subsample or null if the subsample does not contain the previous subsample
+	 */
+	private static List<Instance> getAddedInstances(final Map<InstanceValues, Integer> previousSubsample, final int sizeOfPreviousSubsample, final Instances subsample) {
+		if (subsample.size() < sizeOfPreviousSubsample) {
+			return null;
+		}
+		List<Instance> addedInstances = new ArrayList<>(subsample.size() - sizeOfPreviousSubsample);
+		for (Instance instance : subsample) {
+			InstanceValues values = new InstanceValues(instance);
+			Integer count = previousSubsample.get(values);
+			if (count != null && count > 0) {
+				previousSubsample.put(values, count - 1);
+			} else {
+				addedInstances.add(instance);
+			}
+		}
+		return addedInstances.size() == subsample.size() - sizeOfPreviousSubsample ? addedInstances : null;
+	}
+
+	/**
+	 * @param incrementalTraining
+	 *            If true and the learner is an {@link UpdateableClassifier}, the learner is only updated with the instances that are added from one anchor point
+	 *            to the next, provided that the subsamples are nested (e.g. drawn by a {@link IRerunnableSamplingAlgorithmFactory}).
+	 */
+	public void setIncrementalTraining(final boolean incrementalTraining) {
+		this.incrementalTraining = incrementalTraining;
+	}
+
+	public boolean isIncrementalTraining() {
+		return this.incrementalTraining;
+	}
+
+	/**
+	 * @param numberOfThreads
+	 *            The number of threads used to train the learner on the anchor points in parallel if it is not trained incrementally. The default is 1.
+	 */
+	public void setNumberOfThreads(final int numberOfThreads) {
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("The number of threads must be positive.");
+		}
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	public int getNumberOfThreads() {
+		return this.numberOfThreads;
+	}
+
 	@SuppressWarnings("unchecked")
 	private void createSplit(final double trainsplit, final long seed) throws DatasetCreationException {
 		long start = System.currentTimeMillis();
@@ -9,27 +9,35 @@ import ai.libs.jaicore.ml.learningcurve.extrapolation.client.ExtrapolationServic
 
 /**
  * This class describes a method for learning curve extrapolation which
- * generates an Inverse Power Law function. The parameter of this function are
- * predicted in an external component that is called via HTTP.
+ * generates an Inverse Power Law function. By default, the parameters of this
+ * function are fitted to the anchor points in the JVM by an
+ * {@link InversePowerLawFitter}. Alternatively, they can be predicted by an
+ * external component that is called via HTTP.
  * 
  * @author Lukas Brandt
  *
  */
 public class InversePowerLawExtrapolationMethod implements LearningCurveExtrapolationMethod {
 
-	// We assume the service to be running locally
 	private static final String ENDPOINT = "/jaicore/web/api/v1/ipl/modelparams";
 
-	private static final String DEFAULT_HOST = "localhost";
-
-	private static final String DEFAULT_PORT = "8081";
+	/* the fitter is shared by all extrapolation methods, so that the configurations of anchor points are cached process-wide */
+	private static final InversePowerLawFitter DEFAULT_FITTER = new InversePowerLawFitter();
 
 	private String serviceUrl;
+	private InversePowerLawFitter fitter;
 
 	public InversePowerLawExtrapolationMethod() {
-		this.serviceUrl = "http://" + DEFAULT_HOST + ":" + DEFAULT_PORT + ENDPOINT;
+		this(DEFAULT_FITTER);
+	}
+
+	public InversePowerLawExtrapolationMethod(final InversePowerLawFitter fitter) {
+		this.fitter = fitter;
 	}
 
+	/**
+	 * Creates an extrapolation method that requests the parameters from the service at the given host and port.
+	 */
 	public InversePowerLawExtrapolationMethod(String serviceHost, String port) {
 		this.serviceUrl = "http://" + serviceHost + ":" + port + ENDPOINT;
 	}
@@ -37,6 +45,10 @@ public class InversePowerLawExtrapolationMethod implements LearningCurveExtrapol
 	@Override
 	public LearningCurve extrapolateLearningCurveFromAnchorPoints(int[] xValues, double[] yValues, int dataSetSize)
 			throws InvalidAnchorPointsException, InterruptedException, ExecutionException {
+		if (this.fitter != null) {
+			return new InversePowerLawLearningCurve(this.fitter.fit(xValues, yValues));
+		}
+
 		// Request model parameters to create learning curve
 		ExtrapolationServiceClient<InversePowerLawConfiguration> client = new ExtrapolationServiceClient<>(serviceUrl,
 				InversePowerLawConfiguration.class);
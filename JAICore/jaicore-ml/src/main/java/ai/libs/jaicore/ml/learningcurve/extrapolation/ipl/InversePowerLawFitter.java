@@ -0,0 +1,122 @@
+package ai.libs.jaicore.ml.learningcurve.extrapolation.ipl;
+
+import org.apache.commons.math3.fitting.leastsquares.MultivariateJacobianFunction;
+import org.apache.commons.math3.fitting.leastsquares.ParameterValidator;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+import org.apache.commons.math3.util.Pair;
+
+import ai.libs.jaicore.ml.learningcurve.extrapolation.ALeastSquaresCurveFitter;
+
+/**
+ * Fits the parameters a, b and c of the Inverse Power Law f(x) = (1-a) - b * x^c to anchor points by least squares.
+ *
+ * For a fixed exponent c, the function is linear in (1-a) and b, so the optimal values of these are computed in closed form for a grid of exponents. The best of
+ * these solutions is the start point of a Levenberg-Marquardt optimization of all three parameters, which keeps a in (0,1) and c in (-1,0).
+ *
+ * At least four different anchor points are required, i.e. one more than the number of parameters.
+ *
+ * @author fmohr
+ *
+ */
+public class InversePowerLawFitter extends ALeastSquaresCurveFitter<InversePowerLawConfiguration> {
+
+	private static final int MINIMUM_NUMBER_OF_ANCHOR_POINTS = 4;
+	private static final double EPSILON = 0.00000000001;
+	private static final int EXPONENT_GRID_SIZE = 50;
+
+	private static final ParametricCurve CURVE = (p, x) -> (1 - p[0]) - p[1] * Math.pow(x, p[2]);
+
+	private static final ParameterValidator VALIDATOR = point -> {
+		RealVector validPoint = point.copy();
+		validPoint.setEntry(0, Math.max(EPSILON, Math.min(point.getEntry(0), 1 - EPSILON)));
+		validPoint.setEntry(2, Math.max(-1 + EPSILON, Math.min(point.getEntry(2), -EPSILON)));
+		return validPoint;
+	};
+
+	public InversePowerLawFitter() {
+		super();
+	}
+
+	public InversePowerLawFitter(final int cacheCapacity) {
+		super(cacheCapacity);
+	}
+
+	@Override
+	protected int getMinimumNumberOfAnchorPoints() {
+		return MINIMUM_NUMBER_OF_ANCHOR_POINTS;
+	}
+
+	@Override
+	protected InversePowerLawConfiguration fitAnchorPoints(final double[] xValues, final double[] yValues) {
+		double[] start = VALIDATOR.validate(new ArrayRealVector(getBestParametersOnExponentGrid(xValues, yValues), false)).toArray();
+		double[] parameters = optimize(yValues, getModel(xValues), start, VALIDATOR);
+		if (parameters == null || getSumOfSquaredResiduals(xValues, yValues, CURVE, parameters) > getSumOfSquaredResiduals(xValues, yValues, CURVE, start)) {
+			parameters = start;
+		}
+		InversePowerLawConfiguration configuration = new InversePowerLawConfiguration();
+		configuration.setA(parameters[0]);
+		configuration.setB(parameters[1]);
+		configuration.setC(parameters[2]);
+		return configuration;
+	}
+
+	private static double[] getBestParametersOnExponentGrid(final double[] xValues, final double[] yValues) {
+		int n = xValues.length;
+		double meanY = 0;
+		for (double y : yValues) {
+			meanY += y;
+		}
+		meanY /= n;
+
+		double[] bestParameters = null;
+		double bestSumOfSquaredResiduals = Double.POSITIVE_INFINITY;
+		double[] z = new double[n];
+		for (int k = 1; k < EXPONENT_GRID_SIZE; k++) {
+			double c = -k / (double) EXPONENT_GRID_SIZE;
+
+			/* simple linear regression of y on z = x^c, i.e. y = intercept + slope * z with intercept = 1 - a and slope = -b */
+			double meanZ = 0;
+			for (int i = 0; i < n; i++) {
+				z[i] = Math.pow(xValues[i], c);
+				meanZ += z[i];
+			}
+			meanZ /= n;
+			double covariance = 0;
+			double variance = 0;
+			for (int i = 0; i < n; i++) {
+				covariance += (z[i] - meanZ) * (yValues[i] - meanY);
+				variance += (z[i] - meanZ) * (z[i] - meanZ);
+			}
+			double slope = covariance / variance;
+			double intercept = meanY - slope * meanZ;
+			double[] parameters = { 1 - intercept, -slope, c };
+			double sumOfSquaredResiduals = getSumOfSquaredResiduals(xValues, yValues, CURVE, parameters);
+			if (sumOfSquaredResiduals < bestSumOfSquaredResiduals) {
+				bestSumOfSquaredResiduals = sumOfSquaredResiduals;
+				bestParameters = parameters;
+			}
+		}
+		return bestParameters;
+	}
+
+	private static MultivariateJacobianFunction getModel(final double[] xValues) {
+		return point -> {
+			double a = point.getEntry(0);
+			double b = point.getEntry(1);
+			double c = point.getEntry(2);
+			double[] values = new double[xValues.length];
+			double[][] jacobian = new double[xValues.length][3];
+			for (int i = 0; i < xValues.length; i++) {
+				double power = Math.pow(xValues[i], c);
+				values[i] = (1 - a) - b * power;
+				jacobian[i][0] = -1;
+				jacobian[i][1] = -power;
+				jacobian[i][2] = -b * power * Math.log(xValues[i]);
+			}
+			return new Pair<RealVector, RealMatrix>(new ArrayRealVector(values, false), new Array2DRowRealMatrix(jacobian, false));
+		};
+	}
+}
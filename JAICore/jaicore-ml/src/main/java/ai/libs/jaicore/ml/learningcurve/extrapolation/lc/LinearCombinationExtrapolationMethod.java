@@ -9,28 +9,36 @@ import ai.libs.jaicore.ml.learningcurve.extrapolation.client.ExtrapolationServic
 
 /**
  * This class describes a method for learning curve extrapolation which
- * generates a linear combination of suitable functions. The parameter of these
- * functions as well as the weighting of the are sampled via MCMC. The actual
- * MCMC sampling is done in an external component that is called via HTTP.
+ * generates a linear combination of suitable functions. By default, the
+ * parameters of these functions as well as their weights are fitted to the
+ * anchor points in the JVM by a {@link LinearCombinationFitter}.
+ * Alternatively, they can be sampled via MCMC in an external component that is
+ * called via HTTP.
  * 
  * @author Felix Weiland
  *
  */
 public class LinearCombinationExtrapolationMethod implements LearningCurveExtrapolationMethod {
 
-	// We assume the service to be running locally
 	private static final String ENDPOINT = "/jaicore/web/api/v1/mcmc/modelparams";
 
-	private static final String DEFAULT_HOST = "localhost";
-
-	private static final String DEFAULT_PORT = "8080";
+	/* the fitter is shared by all extrapolation methods, so that the configurations of anchor points are cached process-wide */
+	private static final LinearCombinationFitter DEFAULT_FITTER = new LinearCombinationFitter();
 
 	private String serviceUrl;
+	private LinearCombinationFitter fitter;
 
 	public LinearCombinationExtrapolationMethod() {
-		this.serviceUrl = "http://" + DEFAULT_HOST + ":" + DEFAULT_PORT + ENDPOINT;
+		this(DEFAULT_FITTER);
+	}
+
+	public LinearCombinationExtrapolationMethod(final LinearCombinationFitter fitter) {
+		this.fitter = fitter;
 	}
 
+	/**
+	 * Creates an extrapolation method that requests the parameters from the MCMC service at the given host and port.
+	 */
 	public LinearCombinationExtrapolationMethod(String serviceHost, String port) {
 		this.serviceUrl = "http://" + serviceHost + ":" + port + ENDPOINT;
 	}
@@ -38,6 +46,10 @@ public class LinearCombinationExtrapolationMethod implements LearningCurveExtrap
 	@Override
 	public LearningCurve extrapolateLearningCurveFromAnchorPoints(int[] xValues, double[] yValues, int dataSetSize)
 			throws InvalidAnchorPointsException, InterruptedException, ExecutionException {
+		if (this.fitter != null) {
+			return new LinearCombinationLearningCurve(this.fitter.fit(xValues, yValues), dataSetSize);
+		}
+
 		// Request model parameters to create learning curve
 		ExtrapolationServiceClient<LinearCombinationLearningCurveConfiguration> client = new ExtrapolationServiceClient<>(
 				serviceUrl, LinearCombinationLearningCurveConfiguration.class);
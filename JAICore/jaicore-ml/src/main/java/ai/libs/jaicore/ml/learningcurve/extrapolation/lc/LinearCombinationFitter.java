@@ -0,0 +1,181 @@
+package ai.libs.jaicore.ml.learningcurve.extrapolation.lc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ai.libs.jaicore.ml.learningcurve.extrapolation.ALeastSquaresCurveFitter;
+import ai.libs.jaicore.ml.learningcurve.extrapolation.InvalidAnchorPointsException;
+
+/**
+ * Fits a linear combination of the parametric function families of the {@link LinearCombinationLearningCurve} to anchor points by least squares.
+ *
+ * Each family is fitted individually with the Levenberg-Marquardt algorithm, starting from parameters that are derived from the range of the anchor points. A family
+ * is only considered if there are more anchor points than it has parameters. The fitted families are weighted by their Akaike weights, i.e. proportional to
+ * exp(-AIC/2) with AIC = n * ln(SSE/n) + 2k, so that families with a good fit and few parameters dominate the combination. The result is a configuration with a
+ * single parameter set.
+ *
+ * @author fmohr
+ *
+ */
+public class LinearCombinationFitter extends ALeastSquaresCurveFitter<LinearCombinationLearningCurveConfiguration> {
+
+	private static final int MINIMUM_NUMBER_OF_ANCHOR_POINTS = 3;
+
+	/* lower bound for the mean squared residual, which keeps the AIC of (almost) interpolating fits finite */
+	private static final double MINIMUM_MEAN_SQUARED_RESIDUAL = 1E-12;
+
+	private static final double MINIMUM_RANGE = 1E-3;
+
+	/* factors of the largest anchor point at which a fitted curve must still be defined */
+	private static final double[] EXTRAPOLATION_FACTORS = { 2, 10, 100 };
+
+	/**
+	 * Computes the parameters from which the fitting of a family starts.
+	 */
+	@FunctionalInterface
+	private interface StartPointProvider {
+		public double[] getStartPoint(double minX, double maxX, double minY, double maxY);
+	}
+
+	private static class FunctionFamily {
+		private final String name;
+		private final String[] parameterNames;
+		private final ParametricCurve curve;
+		private final StartPointProvider startPointProvider;
+
+		public FunctionFamily(final String name, final String[] parameterNames, final ParametricCurve curve, final StartPointProvider startPointProvider) {
+			super();
+			this.name = name;
+			this.parameterNames = parameterNames;
+			this.curve = curve;
+			this.startPointProvider = startPointProvider;
+		}
+	}
+
+	private static final List<FunctionFamily> FAMILIES = Arrays.asList(
+			new FunctionFamily(LinearCombinationConstants.VAPOR_PRESSURE, new String[] { LinearCombinationConstants.A, LinearCombinationConstants.B, LinearCombinationConstants.C },
+					(p, x) -> Math.exp(p[0] + (p[1] / x) + p[2] * Math.log(x)), (minX, maxX, minY, maxY) -> new double[] { Math.log(Math.max(maxY, MINIMUM_RANGE)), 0, 0 }),
+			new FunctionFamily(LinearCombinationConstants.POW_3, new String[] { LinearCombinationConstants.C, LinearCombinationConstants.A, LinearCombinationConstants.ALPHA },
+					(p, x) -> p[0] - p[1] * Math.pow(x, -1 * p[2]), (minX, maxX, minY, maxY) -> new double[] { maxY, (maxY - minY) * Math.sqrt(minX), .5 }),
+			new FunctionFamily(LinearCombinationConstants.LOG_LOG_LINEAR, new String[] { LinearCombinationConstants.A, LinearCombinationConstants.B }, (p, x) -> Math.log(p[0] * Math.log(x) + p[1]),
+					(minX, maxX, minY, maxY) -> {
+						double a = (Math.exp(maxY) - Math.exp(minY)) / (Math.log(maxX) - Math.log(minX));
+						return new double[] { a, Math.exp(minY) - a * Math.log(minX) };
+					}),
+			new FunctionFamily(LinearCombinationConstants.HILL_3, new String[] { LinearCombinationConstants.Y, LinearCombinationConstants.ETA, LinearCombinationConstants.KAPPA },
+					(p, x) -> (p[0] * Math.pow(x, p[1])) / (Math.pow(p[2], p[1]) + Math.pow(x, p[1])), (minX, maxX, minY, maxY) -> new double[] { maxY, 1, minX }),
+			new FunctionFamily(LinearCombinationConstants.LOG_POWER, new String[] { LinearCombinationConstants.A, LinearCombinationConstants.B, LinearCombinationConstants.C },
+					(p, x) -> p[0] / (1 + Math.pow(x / Math.exp(p[1]), p[2])), (minX, maxX, minY, maxY) -> new double[] { maxY, Math.log(minX), -1 }),
+			new FunctionFamily(LinearCombinationConstants.POW_4,
+					new String[] { LinearCombinationConstants.C, LinearCombinationConstants.A, LinearCombinationConstants.B, LinearCombinationConstants.ALPHA },
+					(p, x) -> p[0] - Math.pow(p[1] * x + p[2], -p[3]), (minX, maxX, minY, maxY) -> new double[] { maxY, 1, 0, .5 }),
+			new FunctionFamily(LinearCombinationConstants.MMF,
+					new String[] { LinearCombinationConstants.ALPHA, LinearCombinationConstants.BETA, LinearCombinationConstants.DELTA, LinearCombinationConstants.KAPPA },
+					(p, x) -> p[0] - ((p[0] - p[1]) / (1 + Math.pow(p[3] * x, p[2]))), (minX, maxX, minY, maxY) -> new double[] { maxY, minY, 1, 1 / minX }),
+			new FunctionFamily(LinearCombinationConstants.EXP_4,
+					new String[] { LinearCombinationConstants.C, LinearCombinationConstants.A, LinearCombinationConstants.B, LinearCombinationConstants.ALPHA },
+					(p, x) -> p[0] - Math.exp(-p[1] * Math.pow(x, p[3]) + p[2]), (minX, maxX, minY, maxY) -> new double[] { maxY, 1 / Math.sqrt(minX), Math.log(Math.max(maxY - minY, MINIMUM_RANGE)), .5 }),
+			new FunctionFamily(LinearCombinationConstants.JANOSCHEK,
+					new String[] { LinearCombinationConstants.ALPHA, LinearCombinationConstants.BETA, LinearCombinationConstants.DELTA, LinearCombinationConstants.KAPPA },
+					(p, x) -> p[0] - (p[0] - p[1]) * Math.exp(-p[3] * Math.pow(x, p[2])), (minX, maxX, minY, maxY) -> new double[] { maxY, minY, 1, 1 / minX }),
+			new FunctionFamily(LinearCombinationConstants.WEIBULL,
+					new String[] { LinearCombinationConstants.ALPHA, LinearCombinationConstants.BETA, LinearCombinationConstants.DELTA, LinearCombinationConstants.KAPPA },
+					(p, x) -> p[0] - (p[0] - p[1]) * Math.exp(-1 * Math.pow(p[3] * x, p[2])), (minX, maxX, minY, maxY) -> new double[] { maxY, minY, 1, 1 / minX }),
+			new FunctionFamily(LinearCombinationConstants.ILOG_2, new String[] { LinearCombinationConstants.C, LinearCombinationConstants.A }, (p, x) -> p[0] - (p[1] / Math.log(x)),
+					(minX, maxX, minY, maxY) -> new double[] { maxY, 0 }));
+
+	public LinearCombinationFitter() {
+		super();
+	}
+
+	public LinearCombinationFitter(final int cacheCapacity) {
+		super(cacheCapacity);
+	}
+
+	@Override
+	protected int getMinimumNumberOfAnchorPoints() {
+		return MINIMUM_NUMBER_OF_ANCHOR_POINTS;
+	}
+
+	@Override
+	protected LinearCombinationLearningCurveConfiguration fitAnchorPoints(final double[] xValues, final double[] yValues) throws InvalidAnchorPointsException {
+		int n = xValues.length;
+		double minX = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < n; i++) {
+			minX = Math.min(minX, xValues[i]);
+			maxX = Math.max(maxX, xValues[i]);
+			minY = Math.min(minY, yValues[i]);
+			maxY = Math.max(maxY, yValues[i]);
+		}
+
+		/* fit the families individually and compute their AIC */
+		List<FunctionFamily> fittedFamilies = new ArrayList<>();
+		List<double[]> fittedParameters = new ArrayList<>();
+		List<Double> aics = new ArrayList<>();
+		double minAic = Double.POSITIVE_INFINITY;
+		for (FunctionFamily family : FAMILIES) {
+			int k = family.parameterNames.length;
+			if (n <= k) {
+				continue;
+			}
+			double[] parameters = optimize(yValues, getModelWithNumericalJacobian(xValues, family.curve), family.startPointProvider.getStartPoint(minX, maxX, minY, maxY), null);
+			if (parameters == null) {
+				continue;
+			}
+			double sumOfSquaredResiduals = getSumOfSquaredResiduals(xValues, yValues, family.curve, parameters);
+			if (Double.isNaN(sumOfSquaredResiduals) || Double.isInfinite(sumOfSquaredResiduals) || !isDefinedBeyondAnchorPoints(family.curve, parameters, maxX)) {
+				continue;
+			}
+			double aic = n * Math.log(Math.max(sumOfSquaredResiduals / n, MINIMUM_MEAN_SQUARED_RESIDUAL)) + 2 * k;
+			fittedFamilies.add(family);
+			fittedParameters.add(parameters);
+			aics.add(aic);
+			minAic = Math.min(minAic, aic);
+		}
+		if (fittedFamilies.isEmpty()) {
+			throw new InvalidAnchorPointsException();
+		}
+
+		/* combine the fitted families with their Akaike weights */
+		double[] weights = new double[fittedFamilies.size()];
+		double sumOfWeights = 0;
+		for (int i = 0; i < weights.length; i++) {
+			weights[i] = Math.exp(-(aics.get(i) - minAic) / 2);
+			sumOfWeights += weights[i];
+		}
+		Map<String, Double> weightsOfFamilies = new HashMap<>();
+		Map<String, Map<String, Double>> parametersOfFamilies = new HashMap<>();
+		for (int i = 0; i < weights.length; i++) {
+			FunctionFamily family = fittedFamilies.get(i);
+			double[] parameters = fittedParameters.get(i);
+			Map<String, Double> namedParameters = new HashMap<>();
+			for (int j = 0; j < parameters.length; j++) {
+				namedParameters.put(family.parameterNames[j], parameters[j]);
+			}
+			weightsOfFamilies.put(family.name, weights[i] / sumOfWeights);
+			parametersOfFamilies.put(family.name, namedParameters);
+		}
+		LinearCombinationParameterSet parameterSet = new LinearCombinationParameterSet();
+		parameterSet.setWeights(weightsOfFamilies);
+		parameterSet.setParameters(parametersOfFamilies);
+		LinearCombinationLearningCurveConfiguration configuration = new LinearCombinationLearningCurveConfiguration();
+		configuration.setParameterSets(Arrays.asList(parameterSet));
+		return configuration;
+	}
+
+	private static boolean isDefinedBeyondAnchorPoints(final ParametricCurve curve, final double[] parameters, final double maxX) {
+		for (double factor : EXTRAPOLATION_FACTORS) {
+			double value = curve.value(parameters, factor * maxX);
+			if (Double.isNaN(value) || Double.isInfinite(value)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -32,8 +32,21 @@ public class LCNetClient {
 
 	private Logger logger = LoggerFactory.getLogger(LCNetClient.class);
 
-	// TODO Should not be hardcoded like this
-	private static final String SERVER_ADDRESS = "http://localhost:5001/";
+	public static final String DEFAULT_SERVER_ADDRESS = "http://localhost:5001/";
+
+	private final String serverAddress;
+
+	public LCNetClient() {
+		this(DEFAULT_SERVER_ADDRESS);
+	}
+
+	/**
+	 * @param serverAddress
+	 *            The base URL of the server that runs pybnn, e.g. http://localhost:5001/
+	 */
+	public LCNetClient(final String serverAddress) {
+		this.serverAddress = serverAddress.endsWith("/") ? serverAddress : serverAddress + "/";
+	}
 
 	public void train(final int[] xValues, final double[] yValues, final int dataSetSize, final double[][] configurations, final String identifier) throws TrainingException {
 		if (xValues.length != yValues.length) {
@@ -116,7 +129,7 @@ public class LCNetClient {
 	}
 
 	private HttpURLConnection establishHttpCon(final String urlParameter, final String identifier) throws IOException {
-		URL url = new URL(SERVER_ADDRESS + urlParameter + "/" + identifier);
+		URL url = new URL(this.serverAddress + urlParameter + "/" + identifier);
 		HttpURLConnection httpCon = null;
 		httpCon = (HttpURLConnection) url.openConnection();
 		httpCon.setDoOutput(true);
@@ -19,12 +19,17 @@ import ai.libs.jaicore.ml.learningcurve.extrapolation.LearningCurveExtrapolation
 
 public class LCNetExtrapolationMethod implements LearningCurveExtrapolationMethod {
 
-	private LCNetClient lcNet = new LCNetClient();
+	private LCNetClient lcNet;
 	private String identifier;
 	private double[] configurations;
 
 	public LCNetExtrapolationMethod(final String identifier) {
+		this(identifier, new LCNetClient());
+	}
+
+	public LCNetExtrapolationMethod(final String identifier, final LCNetClient lcNet) {
 		this.identifier = identifier;
+		this.lcNet = lcNet;
 		this.configurations = null;
 	}
 
@@ -38,7 +43,7 @@ public class LCNetExtrapolationMethod implements LearningCurveExtrapolationMetho
 		if(this.configurations == null) {
 			throw new UnsupportedOperationException("Configurations is not allowed to be null");
 		} else {
-			return new PointWiseLearningCurve(dataSetSize, this.configurations, this.identifier);
+			return new PointWiseLearningCurve(dataSetSize, this.configurations, this.identifier, this.lcNet);
 		}
 	}
 
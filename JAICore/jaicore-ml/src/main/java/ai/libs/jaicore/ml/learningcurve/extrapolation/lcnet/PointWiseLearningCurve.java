@@ -15,13 +15,18 @@ public class PointWiseLearningCurve implements LearningCurve {
 	private int dataSetSize;
 	private double[] configurations;
 
-	private LCNetClient lcNetClient = new LCNetClient();
+	private LCNetClient lcNetClient;
 	private String identifier;
 
 	public PointWiseLearningCurve(final int dataSetSize, final double[] configurations, final String identifier) {
+		this(dataSetSize, configurations, identifier, new LCNetClient());
+	}
+
+	public PointWiseLearningCurve(final int dataSetSize, final double[] configurations, final String identifier, final LCNetClient lcNetClient) {
 		this.dataSetSize = dataSetSize;
 		this.configurations = configurations;
 		this.identifier = identifier;
+		this.lcNetClient = lcNetClient;
 	}
 
 	@Override
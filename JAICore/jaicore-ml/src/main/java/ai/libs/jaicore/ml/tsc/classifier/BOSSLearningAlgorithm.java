@@ -103,6 +103,7 @@ public class BOSSLearningAlgorithm extends ASimplifiedTSCLearningAlgorithm<Integ
 		TimeSeriesDataset data = this.getInput();
 		for (int matrix = 0; matrix < data.getNumberOfVariables(); matrix++) {
 			this.histograms.clear();
+			double[][] values = data.getValues(matrix);
 			for (int instance = 0; instance < data.getNumberOfInstances(); instance++) {
 				/*
 				 * Every instance results in an own histogram there for has its own HashMap of
@@ -114,7 +115,7 @@ public class BOSSLearningAlgorithm extends ASimplifiedTSCLearningAlgorithm<Integ
 				 * is done because every instance creates a list of new smaller instances when
 				 * split into sliding windows.
 				 */
-				TimeSeriesDataset tmp = slide.specialFitTransform(data.getValues(matrix)[instance]);
+				TimeSeriesDataset tmp = slide.specialFitTransform(values[instance]);
 
 				/* The from one instance resulting dataset is z-normalized. */
 				ZTransformer znorm = new ZTransformer();
@@ -14,6 +14,8 @@ import ai.libs.jaicore.basic.sets.Pair;
 import ai.libs.jaicore.ml.core.exception.PredictionException;
 import ai.libs.jaicore.ml.tsc.classifier.ASimplifiedTSClassifier;
 import ai.libs.jaicore.ml.tsc.dataset.TimeSeriesDataset;
+import ai.libs.jaicore.ml.tsc.distances.DTWLowerBounds;
+import ai.libs.jaicore.ml.tsc.distances.DynamicTimeWarping;
 import ai.libs.jaicore.ml.tsc.distances.ITimeSeriesDistance;
 
 /**
@@ -26,6 +28,10 @@ import ai.libs.jaicore.ml.tsc.distances.ITimeSeriesDistance;
  * <code>d(S, T) >= max_{T' in NN} d(S, T')</code>.
  * </p>
  * From the labels of the instances in <code>NN</code> the label for <code>T</code> is aggregated, e.g. via majority vote.
+ * <p>
+ * If the distance measure is {@link DynamicTimeWarping} with absolute point distance, the search follows the UCR suite: the candidates are first checked against the LB_Kim and LB_Keogh lower bounds (with envelopes of the
+ * training series that are computed once), and the distance of the remaining candidates is computed with early abandoning, both with respect to the k-th best distance found so far.
+ * </p>
  *
  * @author fischor
  */
@@ -61,6 +67,65 @@ public class NearestNeighborClassifier extends ASimplifiedTSClassifier<Integer>
 
 	}
 
+	/**
+	 * Bounded max-heap of the k best (class, distance)-pairs found so far, held in primitive arrays.
+	 */
+	private static class KBestNeighbors {
+		private final int[] classes;
+		private final double[] distances;
+		private int size = 0;
+
+		public KBestNeighbors(final int k) {
+			this.classes = new int[k];
+			this.distances = new double[k];
+		}
+
+		/**
+		 * @return The distance a candidate must fall below to be among the k best neighbors.
+		 */
+		public double getThreshold() {
+			return this.size < this.distances.length ? Double.MAX_VALUE : this.distances[0];
+		}
+
+		public void offer(final int targetClass, final double distance) {
+			if (this.size < this.distances.length) {
+				int i = this.size++;
+				while (i > 0 && this.distances[(i - 1) / 2] < distance) {
+					int parent = (i - 1) / 2;
+					this.classes[i] = this.classes[parent];
+					this.distances[i] = this.distances[parent];
+					i = parent;
+				}
+				this.classes[i] = targetClass;
+				this.distances[i] = distance;
+			} else if (distance < this.distances[0]) {
+				int i = 0;
+				while (2 * i + 1 < this.size) {
+					int child = 2 * i + 1;
+					if (child + 1 < this.size && this.distances[child + 1] > this.distances[child]) {
+						child++;
+					}
+					if (this.distances[child] <= distance) {
+						break;
+					}
+					this.classes[i] = this.classes[child];
+					this.distances[i] = this.distances[child];
+					i = child;
+				}
+				this.classes[i] = targetClass;
+				this.distances[i] = distance;
+			}
+		}
+
+		public PriorityQueue<Pair<Integer, Double>> toQueue() {
+			PriorityQueue<Pair<Integer, Double>> queue = new PriorityQueue<>(Math.max(1, this.size), nearestNeighborComparator);
+			for (int i = 0; i < this.size; i++) {
+				queue.add(new Pair<>(this.classes[i], this.distances[i]));
+			}
+			return queue;
+		}
+	}
+
 	/**
 	 * Singleton comparator instance for the nearest neighbor priority queues, used for the nearest neighbor calculation.
 	 */
@@ -86,6 +151,9 @@ public class NearestNeighborClassifier extends ASimplifiedTSClassifier<Integer>
 	/** Target values for the instances. Set by the algorithm. */
 	protected int[] targets;
 
+	/** LB_Keogh envelopes of the instances if the distance measure is DTW. Computed on first prediction. */
+	private double[][][] envelopes;
+
 	/**
 	 * Creates a k nearest neighbor classifier.
 	 *
@@ -192,21 +260,43 @@ public class NearestNeighborClassifier extends ASimplifiedTSClassifier<Integer>
 	 */
 	protected PriorityQueue<Pair<Integer, Double>> calculateNearestNeigbors(final double[] testInstance) {
 		int numberOfTrainInstances = this.values.length;
-		// Priority queue of (class, distance)-pairs for nearest neigbors, sorted by
-		// distance ascending.
-		PriorityQueue<Pair<Integer, Double>> nearestNeighbors = new PriorityQueue<>(nearestNeighborComparator);
+		KBestNeighbors nearestNeighbors = new KBestNeighbors(this.k);
+
+		// Use the lower bound cascade and early abandoning for DTW.
+		if (this.distanceMeasure instanceof DynamicTimeWarping && ((DynamicTimeWarping) this.distanceMeasure).isLowerBoundedByLBKeogh()) {
+			DynamicTimeWarping dtw = (DynamicTimeWarping) this.distanceMeasure;
+			double[][][] envelopesOfTrainInstances = this.getEnvelopes(dtw.getWindow());
+			for (int i = 0; i < numberOfTrainInstances; i++) {
+				double threshold = nearestNeighbors.getThreshold();
+				if (DTWLowerBounds.lbKim(testInstance, this.values[i]) > threshold) {
+					continue;
+				}
+				if (testInstance.length == this.values[i].length && DTWLowerBounds.lbKeogh(testInstance, envelopesOfTrainInstances[i], threshold) > threshold) {
+					continue;
+				}
+				double d = dtw.distance(testInstance, this.values[i], dtw.getWindow(), threshold);
+				nearestNeighbors.offer(this.targets[i], d);
+			}
+			return nearestNeighbors.toQueue();
+		}
 
 		// Calculate the k nearest neighbors.
 		for (int i = 0; i < numberOfTrainInstances; i++) {
 			double d = this.distanceMeasure.distance(testInstance, this.values[i]);
+			nearestNeighbors.offer(this.targets[i], d);
+		}
+		return nearestNeighbors.toQueue();
+	}
 
-			Pair<Integer, Double> neighbor = new Pair<>(this.targets[i], d);
-			nearestNeighbors.add(neighbor);
-			if (nearestNeighbors.size() > this.k) {
-				nearestNeighbors.poll();
+	private synchronized double[][][] getEnvelopes(final int window) {
+		if (this.envelopes == null) {
+			double[][][] envelopesOfTrainInstances = new double[this.values.length][][];
+			for (int i = 0; i < this.values.length; i++) {
+				envelopesOfTrainInstances[i] = DTWLowerBounds.envelope(this.values[i], window);
 			}
+			this.envelopes = envelopesOfTrainInstances;
 		}
-		return nearestNeighbors;
+		return this.envelopes;
 	}
 
 	/**
@@ -341,6 +431,7 @@ public class NearestNeighborClassifier extends ASimplifiedTSClassifier<Integer>
 			throw new IllegalArgumentException("Values must not be null");
 		}
 		this.values = values;
+		this.envelopes = null;
 	}
 
 	/**
@@ -235,8 +235,9 @@ public class TimeSeriesBagOfFeaturesClassifier extends ASimplifiedTSClassifier<I
 
 		// Uses the prediction of single instances
 		final List<Integer> result = new ArrayList<>();
-		for (int i = 0; i < dataset.getValues(0).length; i++) {
-			result.add(this.predict(dataset.getValues(0)[i]));
+		final double[][] values = dataset.getValues(0);
+		for (int i = 0; i < values.length; i++) {
+			result.add(this.predict(values[i]));
 		}
 		return result;
 	}
@@ -0,0 +1,293 @@
+package ai.libs.jaicore.ml.tsc.dataset;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Value (or timestamp) matrix of a time series variable whose rows are stored
+ * one after another in a single contiguous buffer. The buffer is either a
+ * <code>double[]</code> on the heap or a memory-mapped file, so that datasets
+ * with many series neither consist of many small arrays nor need to reside on
+ * the heap.
+ *
+ * <p>
+ * The <code>i</code>-th row occupies the positions
+ * <code>offsets[i], ..., offsets[i+1] - 1</code> of the buffer. Rows can be
+ * accessed without copying through {@link #getRow(int)} (a view on the buffer)
+ * or, for heap buffers, through {@link #getData()} and {@link #getOffset(int)}.
+ * </p>
+ * <p>
+ * A file is mapped as a whole, so a memory-mapped matrix holds at most
+ * {@link #MAX_NUMBER_OF_MAPPED_VALUES} values (2GB).
+ * </p>
+ *
+ * @author fischor
+ */
+public class ContiguousTimeSeriesMatrix {
+
+	/** The maximum number of values of a memory-mapped matrix, limited by the size of a single mapping. */
+	public static final int MAX_NUMBER_OF_MAPPED_VALUES = Integer.MAX_VALUE / Double.BYTES;
+
+	/** The values of all rows. */
+	private final DoubleBuffer data;
+
+	/** Start positions of the rows in the buffer, plus the end of the last row. */
+	private final int[] offsets;
+
+	private ContiguousTimeSeriesMatrix(final DoubleBuffer data, final int[] offsets) {
+		this.data = data;
+		this.offsets = offsets;
+	}
+
+	/**
+	 * Creates a contiguous heap copy of the given matrix.
+	 *
+	 * @param matrix Matrix with one time series per row.
+	 * @return The contiguous matrix.
+	 */
+	public static ContiguousTimeSeriesMatrix fromMatrix(final double[][] matrix) {
+		if (matrix == null) {
+			throw new IllegalArgumentException("Matrix must not be null.");
+		}
+		Builder builder = new Builder();
+		for (double[] row : matrix) {
+			builder.addRow(row);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Returns the number of rows, i.e. instances.
+	 *
+	 * @return The number of rows.
+	 */
+	public int getNumberOfRows() {
+		return this.offsets.length - 1;
+	}
+
+	/**
+	 * Returns the length of the time series in a row.
+	 *
+	 * @param row Index of the row.
+	 * @return The length of the row.
+	 */
+	public int getRowLength(final int row) {
+		return this.offsets[row + 1] - this.offsets[row];
+	}
+
+	/**
+	 * Returns a single value.
+	 *
+	 * @param row    Index of the row.
+	 * @param column Index of the value in the row.
+	 * @return The value.
+	 */
+	public double get(final int row, final int column) {
+		if (column < 0 || column >= this.getRowLength(row)) {
+			throw new IndexOutOfBoundsException("Column " + column + " does not exist in row " + row + " of length " + this.getRowLength(row));
+		}
+		return this.data.get(this.offsets[row] + column);
+	}
+
+	/**
+	 * Returns a read-only view on a row, which does not copy the values.
+	 *
+	 * @param row Index of the row.
+	 * @return View on the row, with position 0 being the first value of the row.
+	 */
+	public DoubleBuffer getRow(final int row) {
+		DoubleBuffer view = this.data.asReadOnlyBuffer();
+		view.position(this.offsets[row]);
+		view.limit(this.offsets[row + 1]);
+		return view.slice();
+	}
+
+	/**
+	 * Copies a row into a new array.
+	 *
+	 * @param row Index of the row.
+	 * @return The values of the row.
+	 */
+	public double[] copyRow(final int row) {
+		double[] values = new double[this.getRowLength(row)];
+		this.getRow(row).get(values);
+		return values;
+	}
+
+	/**
+	 * Copies the rows into a (non-contiguous) matrix as used by the classifiers.
+	 *
+	 * @return The matrix.
+	 */
+	public double[][] toMatrix() {
+		double[][] matrix = new double[this.getNumberOfRows()][];
+		for (int i = 0; i < matrix.length; i++) {
+			matrix[i] = this.copyRow(i);
+		}
+		return matrix;
+	}
+
+	/**
+	 * States whether the values are stored in a <code>double[]</code> on the heap.
+	 *
+	 * @return <code>True</code>, if the values are accessible via
+	 *         {@link #getData()}. <code>False</code>, otherwise.
+	 */
+	public boolean isOnHeap() {
+		return this.data.hasArray();
+	}
+
+	/**
+	 * Returns the array backing a heap matrix, which must not be modified.
+	 *
+	 * @return The values of all rows.
+	 * @throws UnsupportedOperationException If the matrix is not stored on the heap.
+	 */
+	public double[] getData() {
+		if (!this.data.hasArray()) {
+			throw new UnsupportedOperationException("The values of a memory-mapped matrix are not backed by an array.");
+		}
+		return this.data.array();
+	}
+
+	/**
+	 * Returns the position of the first value of a row in {@link #getData()}.
+	 *
+	 * @param row Index of the row.
+	 * @return The offset of the row.
+	 */
+	public int getOffset(final int row) {
+		return this.offsets[row];
+	}
+
+	/**
+	 * Builder that appends rows to the buffer. Rows are either added as a whole
+	 * ({@link #addRow(double[])}) or value by value ({@link #add(double)} followed
+	 * by {@link #endRow()}), which allows loaders to fill the buffer without
+	 * creating an array per row.
+	 */
+	public static class Builder implements Closeable {
+
+		/** Heap buffer, or null if the values are written to a file. */
+		private double[] values;
+
+		/** File to be memory-mapped, or null for heap buffers. */
+		private final File file;
+		private final DataOutputStream out;
+
+		private int size = 0;
+		private int[] offsets = new int[16];
+		private int numberOfRows = 0;
+
+		/**
+		 * Creates a builder for a matrix on the heap.
+		 */
+		public Builder() {
+			this.values = new double[1024];
+			this.file = null;
+			this.out = null;
+		}
+
+		/**
+		 * Creates a builder for a matrix that is memory-mapped from the given file
+		 * (which is overwritten).
+		 *
+		 * @param file The file storing the values.
+		 * @throws IOException
+		 */
+		public Builder(final File file) throws IOException {
+			this.values = null;
+			this.file = file;
+			this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+		}
+
+		/**
+		 * Appends a value to the current row.
+		 *
+		 * @param value The value.
+		 * @throws IOException If the value cannot be written or the file would
+		 *                     exceed the size that can be mapped.
+		 */
+		public void add(final double value) throws IOException {
+			if (this.out != null) {
+				if (this.size == MAX_NUMBER_OF_MAPPED_VALUES) {
+					throw new IOException("Cannot add more than " + MAX_NUMBER_OF_MAPPED_VALUES + " values (2GB) to the memory-mapped matrix in " + this.file
+							+ ", since the file is mapped as a whole. Split the data into several datasets.");
+				}
+				this.out.writeDouble(value);
+			} else {
+				if (this.size == this.values.length) {
+					this.values = Arrays.copyOf(this.values, 2 * this.values.length);
+				}
+				this.values[this.size] = value;
+			}
+			this.size++;
+		}
+
+		/**
+		 * Finishes the current row.
+		 */
+		public void endRow() {
+			this.numberOfRows++;
+			if (this.numberOfRows == this.offsets.length) {
+				this.offsets = Arrays.copyOf(this.offsets, 2 * this.offsets.length);
+			}
+			this.offsets[this.numberOfRows] = this.size;
+		}
+
+		/**
+		 * Appends a whole row.
+		 *
+		 * @param row The values of the row.
+		 */
+		public void addRow(final double[] row) {
+			try {
+				if (this.out == null && this.size + row.length > this.values.length) {
+					this.values = Arrays.copyOf(this.values, Math.max(2 * this.values.length, this.size + row.length));
+				}
+				for (double value : row) {
+					this.add(value);
+				}
+			} catch (IOException e) {
+				throw new IllegalStateException("Could not write row to " + this.file, e);
+			}
+			this.endRow();
+		}
+
+		/**
+		 * Creates the matrix from the rows added so far.
+		 *
+		 * @return The matrix.
+		 */
+		public ContiguousTimeSeriesMatrix build() {
+			int[] rowOffsets = Arrays.copyOf(this.offsets, this.numberOfRows + 1);
+			if (this.out == null) {
+				return new ContiguousTimeSeriesMatrix(DoubleBuffer.wrap(Arrays.copyOf(this.values, this.size)), rowOffsets);
+			}
+			try {
+				this.out.close();
+				try (FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ)) {
+					// the mapping stays valid after the channel has been closed
+					return new ContiguousTimeSeriesMatrix(channel.map(FileChannel.MapMode.READ_ONLY, 0, (long) this.size * Double.BYTES).asDoubleBuffer(), rowOffsets);
+				}
+			} catch (IOException e) {
+				throw new IllegalStateException("Could not map " + this.file, e);
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (this.out != null) {
+				this.out.close();
+			}
+		}
+	}
+}
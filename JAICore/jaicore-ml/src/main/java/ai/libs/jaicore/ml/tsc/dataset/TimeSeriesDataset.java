@@ -1,5 +1,6 @@
 package ai.libs.jaicore.ml.tsc.dataset;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import ai.libs.jaicore.ml.tsc.util.ClassMapper;
@@ -26,6 +27,16 @@ import ai.libs.jaicore.ml.tsc.util.ClassMapper;
  * integer array. The <code>i</code>-th entry of this array corresponds to the
  * <code>i</code>-th instance of the dataset.
  * </p>
+ * <p>
+ * Value matrices can also be given as {@link ContiguousTimeSeriesMatrix}
+ * objects (see {@link #fromContiguous(List, int[])}), which store all rows of
+ * a variable in one buffer. As long as a contiguous variable is only accessed
+ * through {@link #getContiguousValues(int)}, no matrix is created for it. Once
+ * its matrix is requested, the variable is converted and from then on kept as
+ * matrix, so that the classifiers can access and modify it as usual. The
+ * contiguous representation of a variable given as matrix is created whenever
+ * it is requested and is not retained by the dataset.
+ * </p>
  *
  * @author fischor
  */
@@ -37,6 +48,14 @@ public class TimeSeriesDataset {
 	/** Values of time series variables. */
 	private List<double[][]> valueMatrices;
 
+	/**
+	 * Contiguous representation of the values of time series variables. Null, if
+	 * no variable is stored contiguously. Otherwise, the list is aligned with
+	 * {@link #valueMatrices}, and exactly one of the entries of both lists at an
+	 * index is not null.
+	 */
+	private List<ContiguousTimeSeriesMatrix> contiguousValueMatrices;
+
 	/** Timestamps of time series variables. */
 	private List<double[][]> timestampMatrices;
 
@@ -133,6 +152,39 @@ public class TimeSeriesDataset {
 
 	}
 
+	private TimeSeriesDataset(final List<ContiguousTimeSeriesMatrix> contiguousValueMatrices, final int[] targets, final boolean train) {
+		this.numberOfInstances = contiguousValueMatrices.get(0).getNumberOfRows();
+		this.contiguousValueMatrices = new ArrayList<>(contiguousValueMatrices);
+		this.valueMatrices = new ArrayList<>();
+		this.timestampMatrices = new ArrayList<>();
+		for (int i = 0; i < contiguousValueMatrices.size(); i++) {
+			this.valueMatrices.add(null);
+			this.timestampMatrices.add(null);
+		}
+		this.targets = targets;
+		this.train = train;
+	}
+
+	/**
+	 * Creates a time series dataset without timestamps whose values are stored
+	 * contiguously. Let `n` be the number of instances.
+	 *
+	 * @param valueMatrices Values for the time series variables, each with `n`
+	 *                      rows.
+	 * @param targets       Target values for the instances. Or `null` for a test
+	 *                      dataset.
+	 * @return The dataset.
+	 */
+	public static TimeSeriesDataset fromContiguous(final List<ContiguousTimeSeriesMatrix> valueMatrices, final int[] targets) {
+		if (valueMatrices == null || valueMatrices.isEmpty()) {
+			throw new IllegalArgumentException("At least one value matrix must be given.");
+		}
+		if (targets == null) {
+			return new TimeSeriesDataset(valueMatrices, new int[valueMatrices.get(0).getNumberOfRows()], false);
+		}
+		return new TimeSeriesDataset(valueMatrices, targets, true);
+	}
+
 	/**
 	 * Add a time series variable with timestamps to the dataset.
 	 *
@@ -149,6 +201,9 @@ public class TimeSeriesDataset {
 		// ..
 		this.valueMatrices.add(valueMatrix);
 		this.timestampMatrices.add(timestampMatrix);
+		if (this.contiguousValueMatrices != null) {
+			this.contiguousValueMatrices.add(null);
+		}
 	}
 
 	/**
@@ -163,6 +218,9 @@ public class TimeSeriesDataset {
 		// ..
 		this.valueMatrices.add(valueMatrix);
 		this.timestampMatrices.add(null);
+		if (this.contiguousValueMatrices != null) {
+			this.contiguousValueMatrices.add(null);
+		}
 	}
 
 	/**
@@ -174,6 +232,9 @@ public class TimeSeriesDataset {
 	public void remove(final int index) {
 		this.valueMatrices.remove(index);
 		this.timestampMatrices.remove(index);
+		if (this.contiguousValueMatrices != null) {
+			this.contiguousValueMatrices.remove(index);
+		}
 	}
 
 	/**
@@ -191,6 +252,9 @@ public class TimeSeriesDataset {
 	 */
 	public void replace(final int index, final double[][] valueMatrix, final double[][] timestampMatrix) {
 		this.valueMatrices.set(index, valueMatrix);
+		if (this.contiguousValueMatrices != null) {
+			this.contiguousValueMatrices.set(index, null);
+		}
 		if (timestampMatrix != null && this.timestampMatrices != null && this.timestampMatrices.size() > index) {
 			this.timestampMatrices.set(index, timestampMatrix);
 		}
@@ -226,7 +290,9 @@ public class TimeSeriesDataset {
 
 	/**
 	 * Getter for the value matrix at a specific index. Throws an exception if no
-	 * timestamp matrix exists at this index.
+	 * timestamp matrix exists at this index. If the variable is stored
+	 * contiguously, it is converted into a matrix on the first call, which then
+	 * replaces the contiguous representation.
 	 *
 	 * @param index The index of the value matrix.
 	 * @return The value matrix at index <code>index</code>.
@@ -234,7 +300,31 @@ public class TimeSeriesDataset {
 	 *                                   <code>index</code>.
 	 */
 	public double[][] getValues(final int index) {
-		return this.valueMatrices.get(index);
+		double[][] valueMatrix = this.valueMatrices.get(index);
+		if (valueMatrix == null && this.contiguousValueMatrices != null && this.contiguousValueMatrices.get(index) != null) {
+			valueMatrix = this.contiguousValueMatrices.get(index).toMatrix();
+			this.valueMatrices.set(index, valueMatrix);
+			this.contiguousValueMatrices.set(index, null);
+		}
+		return valueMatrix;
+	}
+
+	/**
+	 * Getter for the contiguous representation of the value matrix at a specific
+	 * index. If the variable has been given as <code>double[][]</code>, a new
+	 * contiguous representation is created on each call.
+	 *
+	 * @param index The index of the value matrix.
+	 * @return The contiguous value matrix at index <code>index</code>.
+	 * @throws IndexOutOfBoundsException If there is no value matrix at index
+	 *                                   <code>index</code>.
+	 */
+	public ContiguousTimeSeriesMatrix getContiguousValues(final int index) {
+		double[][] valueMatrix = this.valueMatrices.get(index);
+		if (valueMatrix == null && this.contiguousValueMatrices != null) {
+			return this.contiguousValueMatrices.get(index);
+		}
+		return ContiguousTimeSeriesMatrix.fromMatrix(valueMatrix);
 	}
 
 	/**
@@ -257,7 +347,7 @@ public class TimeSeriesDataset {
 	 *         if no value matrix exists at index <code>index</code>.
 	 */
 	public double[][] getValuesOrNull(final int index) {
-		return this.valueMatrices.size() > index ? this.valueMatrices.get(index) : null;
+		return this.valueMatrices.size() > index ? this.getValues(index) : null;
 	}
 
 	/**
@@ -327,11 +417,17 @@ public class TimeSeriesDataset {
 	}
 
 	/**
-	 * Getter for {@link TimeSeriesDataset#valueMatrices}.
+	 * Getter for {@link TimeSeriesDataset#valueMatrices}. Variables stored
+	 * contiguously are converted into matrices (see {@link #getValues(int)}).
 	 *
 	 * @return the valueMatrices
 	 */
 	public List<double[][]> getValueMatrices() {
+		if (this.contiguousValueMatrices != null) {
+			for (int i = 0; i < this.valueMatrices.size(); i++) {
+				this.getValues(i);
+			}
+		}
 		return this.valueMatrices;
 	}
 
@@ -351,6 +447,7 @@ public class TimeSeriesDataset {
 	 */
 	public void setValueMatrices(final List<double[][]> valueMatrices) {
 		this.valueMatrices = valueMatrices;
+		this.contiguousValueMatrices = null;
 	}
 
 	/**
@@ -0,0 +1,115 @@
+package ai.libs.jaicore.ml.tsc.distances;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Lower bounds for the {@link DynamicTimeWarping} distance with absolute point
+ * distance as used in the UCR suite ("Searching and Mining Trillions of Time
+ * Series Subsequences under Dynamic Time Warping", Rakthanmanon et al.).
+ *
+ * The bounds are cheap compared to the distance itself and are meant to be
+ * evaluated in a cascade (first {@link #lbKim(double[], double[])}, then
+ * {@link #lbKeogh(double[], double[][], double)}) in nearest neighbor search, so
+ * that the distance only needs to be computed for candidates that cannot be
+ * ruled out by a bound.
+ *
+ * @author fischor
+ */
+public class DTWLowerBounds {
+
+	private DTWLowerBounds() {
+		/* no instantiation desired */
+	}
+
+	/**
+	 * Simplified LB_Kim, i.e. the distance of the first and the last points,
+	 * which are matched by every warping path.
+	 *
+	 * @param a First time series.
+	 * @param b Second time series.
+	 * @return Lower bound for the DTW distance of <code>a</code> and
+	 *         <code>b</code>.
+	 */
+	public static double lbKim(final double[] a, final double[] b) {
+		double lb = Math.abs(a[0] - b[0]);
+		if (a.length > 1 || b.length > 1) {
+			lb += Math.abs(a[a.length - 1] - b[b.length - 1]);
+		}
+		return lb;
+	}
+
+	/**
+	 * Computes the envelope of a time series for LB_Keogh, i.e. the maximum and
+	 * minimum values in a sliding window, in linear time (Lemire's streaming
+	 * algorithm).
+	 *
+	 * @param t Time series.
+	 * @param w Size of the Sakoe-Chiba band; negative for unconstrained warping.
+	 * @return Array <code>{upper, lower}</code> of the upper and lower envelope.
+	 */
+	public static double[][] envelope(final double[] t, final int w) {
+		int n = t.length;
+		int r = w < 0 ? n : w;
+		double[] upper = new double[n];
+		double[] lower = new double[n];
+		Deque<Integer> maxIndices = new ArrayDeque<>();
+		Deque<Integer> minIndices = new ArrayDeque<>();
+
+		// Index i enters the deques when it becomes part of the window of i - r.
+		for (int i = 0; i < n + r; i++) {
+			if (i < n) {
+				while (!maxIndices.isEmpty() && t[maxIndices.peekLast()] <= t[i]) {
+					maxIndices.pollLast();
+				}
+				maxIndices.addLast(i);
+				while (!minIndices.isEmpty() && t[minIndices.peekLast()] >= t[i]) {
+					minIndices.pollLast();
+				}
+				minIndices.addLast(i);
+			}
+			int center = i - r;
+			if (center >= 0 && center < n) {
+				while (maxIndices.peekFirst() < center - r) {
+					maxIndices.pollFirst();
+				}
+				while (minIndices.peekFirst() < center - r) {
+					minIndices.pollFirst();
+				}
+				upper[center] = t[maxIndices.peekFirst()];
+				lower[center] = t[minIndices.peekFirst()];
+			}
+		}
+		return new double[][] { upper, lower };
+	}
+
+	/**
+	 * LB_Keogh, i.e. the sum of the distances of the points of the query to the
+	 * envelope of the candidate. Only valid for time series of equal length.
+	 *
+	 * @param query    The query time series.
+	 * @param envelope The envelope of the candidate as computed by
+	 *                 {@link #envelope(double[], int)} with the window of the DTW
+	 *                 distance.
+	 * @param limit    The computation is abandoned once the bound exceeds this
+	 *                 limit.
+	 * @return Lower bound for the DTW distance of the query and the candidate (or
+	 *         a partial sum exceeding the limit).
+	 */
+	public static double lbKeogh(final double[] query, final double[][] envelope, final double limit) {
+		double[] upper = envelope[0];
+		double[] lower = envelope[1];
+		if (query.length != upper.length) {
+			throw new IllegalArgumentException("LB_Keogh requires time series of equal length.");
+		}
+		double lb = 0;
+		for (int i = 0; i < query.length && lb <= limit; i++) {
+			if (query[i] > upper[i]) {
+				lb += query[i] - upper[i];
+			} else if (query[i] < lower[i]) {
+				lb += lower[i] - query[i];
+			}
+		}
+		return lb;
+	}
+}
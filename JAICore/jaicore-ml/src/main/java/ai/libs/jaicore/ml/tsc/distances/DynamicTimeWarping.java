@@ -1,5 +1,7 @@
 package ai.libs.jaicore.ml.tsc.distances;
 
+import java.util.Arrays;
+
 /**
  * Implementation of the Dynamic Time Warping (DTW) measure as published in
  * "Using Dynamic Time Warping to FindPatterns in Time Series" Donald J. Berndt
@@ -17,18 +19,53 @@ package ai.libs.jaicore.ml.tsc.distances;
  * <code>delta(i,j) is the point distance between <code>A_i</code> and
  * <code>B_i</code>.
  *
+ * The cumulative distances are computed row by row in two rolling buffers
+ * instead of the full matrix. Since all point distances are non-negative, the
+ * computation is abandoned as soon as a whole row exceeds the best-so-far value
+ * (see {@link Abandonable}), in which case {@link Double#MAX_VALUE} is
+ * returned. This makes the measure suited for nearest neighbor search, where
+ * most candidates are worse than the best one found so far.
+ *
  * @author fischor
  */
-public class DynamicTimeWarping implements ITimeSeriesDistance {
+public class DynamicTimeWarping implements ITimeSeriesDistance, Abandonable {
 
 	/** Distance measure for scalar points. */
 	private IScalarDistance delta;
 
+	/**
+	 * Whether the point distance is the absolute distance, which is required for
+	 * the lower bounds in {@link DTWLowerBounds}.
+	 */
+	private final boolean absolutePointDistance;
+
+	/**
+	 * Size of the Sakoe-Chiba band, i.e. the maximum warping; negative if the
+	 * warping is not constrained.
+	 */
+	private final int window;
+
+	/** Limit for early abandoning. */
+	private double bestSoFar = Double.MAX_VALUE;
+
 	/**
 	 * Creates an instance with absolute distance as point distance.
 	 */
 	public DynamicTimeWarping() {
-		this((x, y) -> Math.abs(x - y));
+		this(-1);
+	}
+
+	/**
+	 * Creates an instance with absolute distance as point distance whose warping
+	 * is constrained to a Sakoe-Chiba band.
+	 *
+	 * @param window Maximum distance of the indices of matched points; negative for
+	 *               unconstrained warping.
+	 */
+	public DynamicTimeWarping(final int window) {
+		this.delta = (x, y) -> Math.abs(x - y);
+		this.absolutePointDistance = true;
+		this.window = window;
 	}
 
 	/**
@@ -43,64 +80,95 @@ public class DynamicTimeWarping implements ITimeSeriesDistance {
 		}
 
 		this.delta = delta;
+		this.absolutePointDistance = false;
+		this.window = -1;
 	}
 
 	@Override
 	public double distance(final double[] a, final double[] b) {
-		// Care in the most algorithm descriptions, the time series are 1-indexed.
+		return this.distance(a, b, this.window, this.bestSoFar);
+	}
+
+	public double distanceWithWindow(final double[] a, final double[] b, final int w) {
+		return this.distance(a, b, w, this.bestSoFar);
+	}
 
+	/**
+	 * Computes the distance with early abandoning.
+	 *
+	 * @param a     First time series.
+	 * @param b     Second time series.
+	 * @param w     Size of the Sakoe-Chiba band; negative for unconstrained
+	 *              warping.
+	 * @param limit The computation is abandoned once the distance is known to be
+	 *              greater than this limit.
+	 * @return The distance or {@link Double#MAX_VALUE} if it is greater than the
+	 *         limit.
+	 */
+	public double distance(final double[] a, final double[] b, int w, final double limit) {
+		// Care in the most algorithm descriptions, the time series are 1-indexed.
 		int n = a.length;
 		int m = b.length;
-		double[][] matrix = new double[n + 1][m + 1]; // from 0 to n+1 incl. and 0 to m+1 incl.
+		w = w < 0 ? Math.max(n, m) : Math.max(w, Math.abs(n - m));
 
-		// Initialize first row and column to infinity (except [0][0]).
-		for (int i = 1; i <= n; i++) {
-			matrix[i][0] = Double.MAX_VALUE;
-		}
-		for (int j = 1; j <= m; j++) {
-			matrix[0][j] = Double.MAX_VALUE;
-		}
-		// Initialize [0][0] with 0.
-		matrix[0][0] = 0d;
+		// Rows i-1 and i of the cumulative distance matrix (from 0 to m incl.).
+		double[] previousRow = new double[m + 1];
+		double[] currentRow = new double[m + 1];
+
+		// Initialize first row to infinity (except [0][0]).
+		Arrays.fill(previousRow, Double.MAX_VALUE);
+		previousRow[0] = 0d;
 
 		// Dynamic programming.
 		for (int i = 1; i <= n; i++) {
-			for (int j = 1; j <= m; j++) {
+			int from = Math.max(1, i - w);
+			int to = Math.min(m, i + w);
+
+			// Cells outside of the band are infinite.
+			Arrays.fill(currentRow, 0, from, Double.MAX_VALUE);
+			if (to < m) {
+				currentRow[to + 1] = Double.MAX_VALUE;
+			}
+			double minOfRow = Double.MAX_VALUE;
+			for (int j = from; j <= to; j++) {
 				double cost = this.delta.distance(a[i - 1], b[j - 1]); // 1 indexed in algo.
-				double mini = Math.min(matrix[i - 1][j], Math.min(matrix[i][j - 1], matrix[i - 1][j - 1]));
-				matrix[i][j] = cost + mini;
+				double mini = Math.min(previousRow[j], Math.min(currentRow[j - 1], previousRow[j - 1]));
+				currentRow[j] = cost + mini;
+				minOfRow = Math.min(minOfRow, currentRow[j]);
+			}
+
+			// Every warping path passes this row, so its distance is at least the minimum.
+			if (minOfRow > limit) {
+				return Double.MAX_VALUE;
 			}
+			double[] tmp = previousRow;
+			previousRow = currentRow;
+			currentRow = tmp;
 		}
 
-		return matrix[n][m];
+		return previousRow[m] > limit ? Double.MAX_VALUE : previousRow[m];
 	}
 
-	public double distanceWithWindow(final double[] a, final double[] b, int w) {
-		int n = a.length;
-		int m = b.length;
-		double[][] matrix = new double[n + 1][m + 1];
-
-		w = Math.max(w, Math.abs(n - m));
+	/**
+	 * @return Whether the lower bounds in {@link DTWLowerBounds} are valid for
+	 *         this measure.
+	 */
+	public boolean isLowerBoundedByLBKeogh() {
+		return this.absolutePointDistance;
+	}
 
-		// Initialize first row and column to infinity (except [0][0]).
-		for (int i = 1; i <= n; i++) {
-			matrix[i][0] = Double.MAX_VALUE;
-		}
-		for (int j = 1; j <= m; j++) {
-			matrix[0][j] = Double.MAX_VALUE;
-		}
-		// Initialize [0][0] with 0.
-		matrix[0][0] = 0d;
+	public int getWindow() {
+		return this.window;
+	}
 
-		for (int i = 1; i <= n; i++) {
-			for (int j = Math.max(1, i - w); j <= Math.min(m, i + w); j++) {
-				double cost = this.delta.distance(a[i - 1], b[j - 1]);
-				double mini = Math.min(matrix[i - 1][j], Math.min(matrix[i][j - 1], matrix[i - 1][j - 1]));
-				matrix[i][j] = cost + mini;
-			}
-		}
+	@Override
+	public void setBestSoFar(final double limit) {
+		this.bestSoFar = limit;
+	}
 
-		return matrix[n][m];
+	@Override
+	public double getBestSoFar() {
+		return this.bestSoFar;
 	}
 
 }
\ No newline at end of file
@@ -37,9 +37,10 @@ public class SAX implements IFilter {
 
 		for (int matrix = 0; matrix < input.getNumberOfVariables(); matrix++) {
 			double[][] newMatrix = new double[input.getNumberOfInstances()][this.wordLength];
+			double[][] values = input.getValues(matrix);
 
 			for (int instance = 0; instance < input.getNumberOfInstances(); instance++) {
-				double[] ppaOfInstance = PPA.ppa(input.getValues(matrix)[instance], this.wordLength);
+				double[] ppaOfInstance = PPA.ppa(values[instance], this.wordLength);
 				double[] tsasString = new double[this.wordLength];
 				double[] localLookupTable = this.lookuptable[matrix];
 
@@ -77,9 +78,10 @@ public class SAX implements IFilter {
 
 			double[] max = new double[input.getNumberOfInstances()];
 			double[] min = new double[input.getNumberOfInstances()];
+			double[][] values = input.getValues(matrix);
 			for (int instance = 0; instance < input.getNumberOfInstances(); instance++) {
-				max[instance] = Arrays.stream(input.getValues(matrix)[instance]).max().getAsDouble();
-				min[instance] = Arrays.stream(input.getValues(matrix)[instance]).min().getAsDouble();
+				max[instance] = Arrays.stream(values[instance]).max().getAsDouble();
+				min[instance] = Arrays.stream(values[instance]).min().getAsDouble();
 			}
 			maxAndMin[0][matrix] = Arrays.stream(max).max().getAsDouble();
 			maxAndMin[1][matrix] = Arrays.stream(min).min().getAsDouble();
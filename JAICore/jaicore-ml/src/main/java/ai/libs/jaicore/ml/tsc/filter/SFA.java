@@ -68,9 +68,10 @@ public class SFA implements IFilter {
 		// calculate SFA words for every instance and its DFT coefficients
 		for (int matrix = 0; matrix < this.dFTDataset.getNumberOfVariables(); matrix++) {
 			double[][] sfaWords = new double[this.dFTDataset.getNumberOfInstances()][this.numberOfDesieredDFTCoefficients * 2];
+			double[][] dFTValues = this.dFTDataset.getValues(matrix);
 			for (int instance = 0; instance < this.dFTDataset.getNumberOfInstances(); instance++) {
 				for (int entry = 0; entry < this.numberOfDesieredDFTCoefficients * 2; entry++) {
-					double elem = this.dFTDataset.getValues(matrix)[instance][entry];
+					double elem = dFTValues[instance][entry];
 					// get the lookup table for DFT values of the instance
 					double[] lookup = this.lookupTable.get(matrix)[entry];
 
@@ -132,12 +133,13 @@ public class SFA implements IFilter {
 		for (int matrix = 0; matrix < this.dFTDataset.getNumberOfVariables(); matrix++) {
 			// for each part of every coefficient calculate the bins for the alphabet (number of bins == number of letters)
 			double[][] lookUpTable = new double[this.numberOfDesieredDFTCoefficients * 2][this.alphabet.length - 1];
+			double[][] dFTValues = this.dFTDataset.getValues(matrix);
 
 			for (int coeficient = 0; coeficient < this.numberOfDesieredDFTCoefficients * 2; coeficient++) {
 				// get the columns of the DFT dataset
 				double[] toBin = new double[input.getNumberOfInstances()];
 				for (int instances = 0; instances < this.dFTDataset.getNumberOfInstances(); instances++) {
-					toBin[instances] = this.dFTDataset.getValues(matrix)[instances][coeficient];
+					toBin[instances] = dFTValues[instances][coeficient];
 				}
 
 				// Sort ascending
@@ -19,6 +19,7 @@ import org.slf4j.LoggerFactory;
 
 import ai.libs.jaicore.basic.sets.Pair;
 import ai.libs.jaicore.basic.sets.SetUtil;
+import ai.libs.jaicore.ml.tsc.dataset.ContiguousTimeSeriesMatrix;
 import ai.libs.jaicore.ml.tsc.dataset.TimeSeriesDataset;
 import ai.libs.jaicore.ml.tsc.exceptions.TimeSeriesLoadingException;
 
@@ -151,6 +152,49 @@ public class SimplifiedTimeSeriesLoader {
 		return new Pair<>(new TimeSeriesDataset(matrices, new ArrayList<>(), target), cm);
 	}
 
+	/**
+	 * Loads a univariate time series dataset from the given arff file into a
+	 * {@link ContiguousTimeSeriesMatrix}. In contrast to
+	 * {@link #loadArff(File)}, the values are parsed directly into one buffer
+	 * without creating an array per instance, and the buffer can be memory-mapped
+	 * from a file for datasets that should not reside on the heap. Assumes the
+	 * class attribute to be the last among the declared attributes in the file.
+	 *
+	 * @param arffFile
+	 *            The arff file which is read
+	 * @param bufferFile
+	 *            File the values are written to and memory-mapped from, or
+	 *            <code>null</code> to store the values on the heap
+	 * @return Returns a pair consisting of an univariate TimeSeriesDataset object
+	 *         and a list of String objects containing the class values.
+	 * @throws TimeSeriesLoadingException
+	 *             Throws an exception when the TimeSeriesDataset could not be
+	 *             created from the given file.
+	 */
+	@SuppressWarnings("unchecked")
+	public static Pair<TimeSeriesDataset, ClassMapper> loadArffContiguous(final File arffFile, final File bufferFile) throws TimeSeriesLoadingException {
+		if (arffFile == null) {
+			throw new IllegalArgumentException("Parameter 'arffFile' must not be null!");
+		}
+
+		Object[] tsTargetClassNames;
+		try (ContiguousTimeSeriesMatrix.Builder builder = bufferFile != null ? new ContiguousTimeSeriesMatrix.Builder(bufferFile) : new ContiguousTimeSeriesMatrix.Builder()) {
+			tsTargetClassNames = loadContiguousTimeSeriesWithTargetFromArffFile(arffFile, builder);
+		} catch (IOException e) {
+			throw new TimeSeriesLoadingException(String.format("Could not create buffer file '%s'.", bufferFile), e);
+		}
+
+		List<ContiguousTimeSeriesMatrix> matrices = new ArrayList<>();
+		matrices.add((ContiguousTimeSeriesMatrix) tsTargetClassNames[0]);
+
+		ClassMapper cm = null;
+		if (tsTargetClassNames[2] != null) {
+			cm = new ClassMapper((List<String>) tsTargetClassNames[2]);
+		}
+
+		return new Pair<>(TimeSeriesDataset.fromContiguous(matrices, (int[]) tsTargetClassNames[1]), cm);
+	}
+
 	/**
 	 * Extracting the time series and target matrices from a given arff file.
 	 * Assumes the class attribute to be the last among the declared attributes in
@@ -269,6 +313,95 @@ public class SimplifiedTimeSeriesLoader {
 		}
 	}
 
+	/**
+	 * Extracting the time series into the given builder and the targets from a
+	 * given arff file. Reads the file in a single pass. Assumes the class
+	 * attribute to be the last among the declared attributes in the file.
+	 *
+	 * @param arffFile
+	 *            The arff file to be parsed
+	 * @param builder
+	 *            The builder the values of the instances are appended to
+	 * @return Returns an object consisting of three elements: 1. The time series
+	 *         value matrix (ContiguousTimeSeriesMatrix), 2. the target value
+	 *         matrix (int[]) or null if no target has been declared and 3. a list
+	 *         of the class value strings (List<String>)
+	 * @throws TimeSeriesLoadingException
+	 *             Throws an exception when the matrices could not be extracted from
+	 *             the given arff file
+	 */
+	private static Object[] loadContiguousTimeSeriesWithTargetFromArffFile(final File arffFile, final ContiguousTimeSeriesMatrix.Builder builder) throws TimeSeriesLoadingException {
+		int[] targetMatrix = new int[1024];
+		int numInstances = 0;
+
+		List<String> targetValues = null;
+		boolean stringAttributes = false;
+
+		try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(arffFile), StandardCharsets.UTF_8))) {
+			boolean targetSet = false;
+			boolean readData = false;
+			String line;
+			String lastLine = "";
+
+			while ((line = br.readLine()) != null) {
+				if (!readData) {
+					// Set target values
+					if (!targetSet && line.equals("") && lastLine.startsWith(ARFF_ATTRIBUTE_PREFIX)) {
+						String targetString = lastLine.substring(lastLine.indexOf('{') + 1, lastLine.length() - 1);
+						targetValues = Arrays.asList(targetString.split(ARFF_VALUE_DELIMITER));
+						if (!SetUtil.doesStringCollectionOnlyContainNumbers(targetValues)) {
+							stringAttributes = true;
+						}
+						targetSet = true;
+					}
+
+					if (line.startsWith(ARFF_DATA_FLAG)) {
+						readData = true;
+						if (!targetSet) {
+							LOGGER.warn("No target has been set before reading data.");
+						}
+					}
+				} else if (!line.equals("")) {
+					// Read the data without splitting the line into strings first
+					int start = 0;
+					int end;
+					while ((end = line.indexOf(ARFF_VALUE_DELIMITER, start)) >= 0) {
+						builder.add(Double.parseDouble(line.substring(start, end)));
+						start = end + 1;
+					}
+					String lastValue = line.substring(start);
+					if (targetSet) {
+						if (numInstances == targetMatrix.length) {
+							targetMatrix = Arrays.copyOf(targetMatrix, 2 * targetMatrix.length);
+						}
+						targetMatrix[numInstances] = targetValues.indexOf(lastValue);
+					} else {
+						builder.add(Double.parseDouble(lastValue));
+					}
+					builder.endRow();
+					numInstances++;
+				}
+
+				lastLine = line;
+			}
+
+			if (!readData) {
+				throw new IllegalStateException("The file does not contain a data block!");
+			}
+
+			Object[] result = new Object[3];
+			result[0] = builder.build();
+			result[1] = targetSet ? Arrays.copyOf(targetMatrix, numInstances) : null;
+			result[2] = stringAttributes ? targetValues : null;
+			return result;
+
+		} catch (FileNotFoundException e) {
+			throw new TimeSeriesLoadingException(String.format("Could not locate time series dataset file '%s'.", arffFile.getPath()), e);
+		} catch (IOException e) {
+			throw new TimeSeriesLoadingException("Could not load time series dataset due to IOException.", e);
+		}
+	}
+
 	/**
 	 * Function returning a submatrix of the given <code>matrix</code>. The
 	 * submatrix is specified by the indices <code>begin</code> and
@@ -0,0 +1,295 @@
+package ai.libs.jaicore.ml.weka.dataset.splitter;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * Process-wide cache for splits of datasets, so that evaluators working on the same data (e.g. the MCCV evaluators of the threads of ML-Plan) compute every split only once.
+ *
+ * Splits are identified by the identity of the dataset object, the identity of the splitter object (whose configuration may affect the split), the seed, and the portion. They are stored as arrays of indices of the instances of the dataset, and every request is answered with
+ * folds that contain the original instance objects instead of copies of them. Hence, the folds must not be modified. The memory used by the cache is bounded by the total number of stored indices; if the bound is
+ * exceeded, the least recently used splits are evicted. Entries of datasets or splitters that have been garbage collected are evicted as well.
+ *
+ * If a splitter does not create its folds from the instances of the dataset (so that they cannot be expressed by indices), its folds are cached as they are.
+ *
+ * @author fmohr
+ *
+ */
+public class SplitCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(SplitCache.class);
+
+	private static final long DEFAULT_MAX_NUMBER_OF_INDICES = 20000000;
+	private static final SplitCache DEFAULT_CACHE = new SplitCache(DEFAULT_MAX_NUMBER_OF_INDICES);
+
+	private final long maxNumberOfIndices;
+	private long numberOfIndices = 0;
+	private final LinkedHashMap<SplitKey, CachedSplit> splits = new LinkedHashMap<>(16, .75f, true);
+	private final Map<SplitKey, FutureTask<CachedSplit>> splitsInComputation = new HashMap<>();
+
+	private static class SplitKey {
+		private final WeakReference<Instances> data;
+		private final int dataHash;
+		private final WeakReference<IDatasetSplitter> splitter;
+		private final int splitterHash;
+		private final long seed;
+		private final double portion;
+
+		public SplitKey(final Instances data, final IDatasetSplitter splitter, final long seed, final double portion) {
+			super();
+			this.data = new WeakReference<>(data);
+			this.dataHash = System.identityHashCode(data);
+			this.splitter = new WeakReference<>(splitter);
+			this.splitterHash = System.identityHashCode(splitter);
+			this.seed = seed;
+			this.portion = portion;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.dataHash, this.splitterHash, this.seed, this.portion);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof SplitKey)) {
+				return false;
+			}
+			SplitKey other = (SplitKey) obj;
+			Instances data = this.data.get();
+			IDatasetSplitter splitter = this.splitter.get();
+			return data != null && data == other.data.get() && splitter != null && splitter == other.splitter.get() && this.seed == other.seed && Double.compare(this.portion, other.portion) == 0;
+		}
+
+		private boolean isCollected() {
+			return this.data.get() == null || this.splitter.get() == null;
+		}
+	}
+
+	private static class CachedSplit {
+		private final int[][] indices;
+		private final List<Instances> folds;
+		private final long weight;
+
+		private CachedSplit(final int[][] indices) {
+			this.indices = indices;
+			this.folds = null;
+			this.weight = Arrays.stream(indices).mapToLong(fold -> fold.length).sum();
+		}
+
+		private CachedSplit(final List<Instances> folds) {
+			this.indices = null;
+			this.folds = folds;
+			this.weight = folds.stream().mapToLong(fold -> (long) fold.size() * fold.numAttributes()).sum();
+		}
+	}
+
+	/**
+	 * Folds that contain the instances of the dataset themselves instead of copies.
+	 */
+	@SuppressWarnings("serial")
+	private static class SharedInstances extends Instances {
+
+		public SharedInstances(final Instances data, final int[] indices) {
+			super(data, indices.length);
+			for (int index : indices) {
+				this.m_Instances.add(data.get(index));
+			}
+		}
+	}
+
+	/**
+	 * @param maxNumberOfIndices
+	 *            The number of indices the cache may hold (4 bytes each)
+	 */
+	public SplitCache(final long maxNumberOfIndices) {
+		super();
+		if (maxNumberOfIndices < 0) {
+			throw new IllegalArgumentException("The maximum number of indices must not be negative.");
+		}
+		this.maxNumberOfIndices = maxNumberOfIndices;
+	}
+
+	/**
+	 * @return The cache shared by all evaluators that have not been configured otherwise
+	 */
+	public static SplitCache getDefault() {
+		return DEFAULT_CACHE;
+	}
+
+	/**
+	 * Returns the split of the data created by the splitter for the given seed and portion, which is computed if it is not in the cache. Concurrent requests for the same split wait for a single computation.
+	 *
+	 * @return The folds of the split, which must not be modified
+	 */
+	public List<Instances> getSplit(final Instances data, final IDatasetSplitter splitter, final long seed, final double portion) throws SplitFailedException, InterruptedException {
+		SplitKey key = new SplitKey(data, splitter, seed, portion);
+		FutureTask<CachedSplit> computation;
+		boolean isComputedByThisThread = false;
+		synchronized (this) {
+			CachedSplit split = this.splits.get(key);
+			if (split != null) {
+				return realize(data, split);
+			}
+			computation = this.splitsInComputation.get(key);
+			if (computation == null) {
+				computation = new FutureTask<>(() -> toCachedSplit(data, splitter.split(data, seed, portion)));
+				this.splitsInComputation.put(key, computation);
+				isComputedByThisThread = true;
+			}
+		}
+		if (isComputedByThisThread) {
+			computation.run();
+		}
+		try {
+			CachedSplit split = computation.get();
+			if (isComputedByThisThread) {
+				this.put(key, split);
+			}
+			return realize(data, split);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof SplitFailedException) {
+				throw (SplitFailedException) e.getCause();
+			}
+			if (e.getCause() instanceof InterruptedException) {
+				throw (InterruptedException) e.getCause();
+			}
+			if (e.getCause() instanceof Exception) {
+				throw new SplitFailedException((Exception) e.getCause());
+			}
+			throw (Error) e.getCause();
+		} finally {
+			if (isComputedByThisThread) {
+				synchronized (this) {
+					this.splitsInComputation.remove(key);
+				}
+			}
+		}
+	}
+
+	private synchronized void put(final SplitKey key, final CachedSplit split) {
+		if (split.weight > this.maxNumberOfIndices) {
+			return;
+		}
+		if (this.splits.put(key, split) == null) {
+			this.numberOfIndices += split.weight;
+		}
+
+		/* first drop splits of datasets or splitters that do not exist anymore, then the least recently used ones */
+		Iterator<Map.Entry<SplitKey, CachedSplit>> it = this.splits.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<SplitKey, CachedSplit> entry = it.next();
+			if (entry.getKey().isCollected()) {
+				this.numberOfIndices -= entry.getValue().weight;
+				it.remove();
+			}
+		}
+		it = this.splits.entrySet().iterator();
+		while (this.numberOfIndices > this.maxNumberOfIndices && it.hasNext()) {
+			Map.Entry<SplitKey, CachedSplit> entry = it.next();
+			this.numberOfIndices -= entry.getValue().weight;
+			it.remove();
+			logger.debug("Evicted split with seed {} from the cache.", entry.getKey().seed);
+		}
+	}
+
+	/**
+	 * @return The number of splits in the cache
+	 */
+	public synchronized int size() {
+		return this.splits.size();
+	}
+
+	/**
+	 * @return The number of indices stored by the cache
+	 */
+	public synchronized long getNumberOfIndices() {
+		return this.numberOfIndices;
+	}
+
+	public synchronized void clear() {
+		this.splits.clear();
+		this.numberOfIndices = 0;
+	}
+
+	private static List<Instances> realize(final Instances data, final CachedSplit split) {
+		if (split.folds != null) {
+			return split.folds;
+		}
+		List<Instances> folds = new ArrayList<>(split.indices.length);
+		for (int[] foldIndices : split.indices) {
+			folds.add(new SharedInstances(data, foldIndices));
+		}
+		return folds;
+	}
+
+	/**
+	 * Determines the indices of the instances of the folds in the data. Since splitters may copy instances, instances are identified by their values and weights; equal instances of the dataset are interchangeable.
+	 */
+	private static CachedSplit toCachedSplit(final Instances data, final List<Instances> folds) {
+		Map<InstanceContent, Deque<Integer>> positions = new HashMap<>();
+		for (int i = 0; i < data.size(); i++) {
+			positions.computeIfAbsent(new InstanceContent(data.get(i)), c -> new ArrayDeque<>()).add(i);
+		}
+		int[][] indices = new int[folds.size()][];
+		for (int f = 0; f < folds.size(); f++) {
+			Instances fold = folds.get(f);
+			indices[f] = new int[fold.size()];
+			for (int i = 0; i < fold.size(); i++) {
+				Deque<Integer> candidates = positions.get(new InstanceContent(fold.get(i)));
+				if (candidates == null || candidates.isEmpty()) {
+					logger.debug("Fold {} contains an instance that is not in the dataset, so the folds are cached as they are.", f);
+					return new CachedSplit(folds);
+				}
+				indices[f][i] = candidates.poll();
+			}
+		}
+		return new CachedSplit(indices);
+	}
+
+	private static class InstanceContent {
+		private final double[] values;
+		private final double weight;
+		private final int hashCode;
+
+		public InstanceContent(final Instance instance) {
+			this.values = instance.toDoubleArray();
+			this.weight = instance.weight();
+			this.hashCode = 31 * Arrays.hashCode(this.values) + Double.hashCode(this.weight);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (!(obj instanceof InstanceContent)) {
+				return false;
+			}
+			InstanceContent other = (InstanceContent) obj;
+			return Double.compare(this.weight, other.weight) == 0 && Arrays.equals(this.values, other.values);
+		}
+	}
+}
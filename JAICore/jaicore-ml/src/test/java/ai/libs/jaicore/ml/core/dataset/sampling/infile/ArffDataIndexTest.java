@@ -0,0 +1,84 @@
+package ai.libs.jaicore.ml.core.dataset.sampling.infile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ai.libs.jaicore.basic.TempFileHandler;
+import ai.libs.jaicore.ml.core.dataset.ArffUtilities;
+import ai.libs.jaicore.ml.core.dataset.sampling.infiles.ArffDataIndex;
+import ai.libs.jaicore.ml.core.dataset.sampling.infiles.DatasetFileSorter;
+
+public class ArffDataIndexTest {
+
+	private static final String ARFF = "% comment\r\n@relation test\r\n@attribute a numeric\r\n@attribute b {x,y}\r\n\r\n  @data  \r\n1,x\r\n% 2,y\r\n\r\n  3,y \r\n4,x";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File writeArff(final String content) throws IOException {
+		File file = this.folder.newFile();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	@Test
+	public void testThatIndexContainsTrimmedDatapoints() throws IOException {
+		File file = this.writeArff(ARFF);
+		ArffDataIndex index = ArffDataIndex.of(file);
+		assertEquals(ArffUtilities.countDatasetEntries(file, true), index.size());
+		assertEquals(3, index.size());
+		try (FileChannel channel = index.open()) {
+			assertEquals("1,x", index.readDatapoint(channel, 0));
+			assertEquals("3,y", index.readDatapoint(channel, 1));
+			assertEquals("4,x", index.readDatapoint(channel, 2));
+		}
+		StringWriter writer = new StringWriter();
+		index.writeDatapoints(new int[] { 2, 0 }, writer);
+		assertEquals("4,x\n1,x\n", writer.toString());
+	}
+
+	@Test
+	public void testThatNonASCIICharactersAreNotTreatedAsWhitespace() throws IOException {
+		File file = this.writeArff("@relation test\n@attribute a {\u00e9t\u00e9,hiver}\n@attribute b {\u00fc,x}\n@data\nhiver,\u00fc\n \u00e9t\u00e9,x \n");
+		File sortedFile = new DatasetFileSorter(file, new TempFileHandler(this.folder.newFolder())).sort(this.folder.getRoot() + File.separator + "sorted.arff");
+		ArffDataIndex index = ArffDataIndex.of(sortedFile);
+		assertEquals(2, index.size());
+		try (FileChannel channel = index.open()) {
+			assertEquals("hiver,\u00fc", index.readDatapoint(channel, 0));
+			assertEquals("\u00e9t\u00e9,x", index.readDatapoint(channel, 1));
+		}
+	}
+
+	@Test
+	public void testThatRecentlyUsedIndicesStayCached() throws IOException {
+		File file = this.writeArff(ARFF);
+		ArffDataIndex index = ArffDataIndex.of(file);
+		for (int i = 0; i < 20; i++) {
+			ArffDataIndex.of(this.writeArff(ARFF));
+			assertSame(index, ArffDataIndex.of(file));
+		}
+	}
+
+	@Test
+	public void testThatCachedIndexIsInvalidatedOnModification() throws IOException {
+		File file = this.writeArff(ARFF);
+		ArffDataIndex index = ArffDataIndex.of(file);
+		assertSame(index, ArffDataIndex.of(file));
+		Files.write(file.toPath(), (ARFF + "\n5,y\n").getBytes(StandardCharsets.UTF_8));
+		ArffDataIndex newIndex = ArffDataIndex.of(file);
+		assertNotSame(index, newIndex);
+		assertEquals(4, newIndex.size());
+	}
+}
@@ -6,13 +6,22 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import ai.libs.jaicore.basic.TempFileHandler;
 import ai.libs.jaicore.ml.core.dataset.sampling.infiles.DatasetFileSorter;
 
 public class DataFileSorterTest {
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	@Test
 	public void testDataFileSorting() throws IOException {
 		DatasetFileSorter sorter = new DatasetFileSorter(new File("testsrc/ml/orig/letter_small.arff"));
@@ -40,4 +49,29 @@ public class DataFileSorterTest {
 		assertEquals(sortedData, sortedFileContent);
 	}
 
+	@Test
+	public void testThatExternalSortingEqualsInMemorySorting() throws IOException {
+		StringBuilder arff = new StringBuilder("@relation test\n@attribute a numeric\n@attribute b numeric\n@data\n");
+		Random random = new Random(0);
+		for (int i = 0; i < 2000; i++) {
+			arff.append(random.nextInt(100)).append(',').append(i).append('\n');
+		}
+		File input = this.folder.newFile("input.arff");
+		Files.write(input.toPath(), arff.toString().getBytes(StandardCharsets.UTF_8));
+
+		// the comparator only considers the first attribute, so the second one reveals whether the sort is stable
+		DatasetFileSorter inMemorySorter = new DatasetFileSorter(input, new TempFileHandler(this.folder.getRoot()));
+		inMemorySorter.setComparator((l1, l2) -> Integer.compare(Integer.parseInt(l1.split(",")[0]), Integer.parseInt(l2.split(",")[0])));
+		File inMemorySorted = inMemorySorter.sort(this.folder.getRoot() + File.separator + "inmemory.arff");
+
+		DatasetFileSorter externalSorter = new DatasetFileSorter(input, new TempFileHandler(this.folder.getRoot()));
+		externalSorter.setComparator((l1, l2) -> Integer.compare(Integer.parseInt(l1.split(",")[0]), Integer.parseInt(l2.split(",")[0])));
+		externalSorter.setMemoryLimit(1000);
+		externalSorter.setMaxRunsPerMerge(4);
+		File externallySorted = externalSorter.sort(this.folder.getRoot() + File.separator + "external.arff");
+
+		assertEquals(new String(Files.readAllBytes(inMemorySorted.toPath()), StandardCharsets.UTF_8), new String(Files.readAllBytes(externallySorted.toPath()), StandardCharsets.UTF_8));
+		assertEquals(3, this.folder.getRoot().list().length); // all temporary runs have been deleted
+	}
+
 }
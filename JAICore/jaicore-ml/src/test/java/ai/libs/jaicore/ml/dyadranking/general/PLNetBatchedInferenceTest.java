@@ -0,0 +1,139 @@
+package ai.libs.jaicore.ml.dyadranking.general;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import ai.libs.jaicore.ml.core.exception.PredictionException;
+import ai.libs.jaicore.ml.core.exception.TrainingException;
+import ai.libs.jaicore.ml.dyadranking.Dyad;
+import ai.libs.jaicore.ml.dyadranking.algorithm.PLNetDyadRanker;
+import ai.libs.jaicore.ml.dyadranking.dataset.DyadRankingDataset;
+import ai.libs.jaicore.ml.dyadranking.dataset.DyadRankingInstance;
+import ai.libs.jaicore.ml.dyadranking.dataset.IDyadRankingInstance;
+
+/**
+ * Checks that the batched inference of the {@link PLNetDyadRanker} yields the
+ * same skills as feeding the dyads through the network one by one.
+ *
+ * @author fmohr
+ *
+ */
+public class PLNetBatchedInferenceTest {
+
+	private static final double DELTA = 1E-5;
+	private static final int NUMBER_OF_DYADS = 500;
+	private static final int NUMBER_OF_THREADS = 4;
+
+	private PLNetDyadRanker ranker;
+	private List<Dyad> dyads;
+
+	@Before
+	public void setup() throws TrainingException {
+		this.ranker = new PLNetDyadRanker();
+		DyadRankingDataset dataset = new DyadRankingDataset();
+		for (int i = 0; i < 10; i++) {
+			dataset.add(this.getRanking(5 * i));
+		}
+		this.ranker.train(dataset, 2, 1.0);
+		this.dyads = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_DYADS; i++) {
+			this.dyads.add(DyadSupplier.getRandomDyad(i, 2, 2));
+		}
+	}
+
+	private DyadRankingInstance getRanking(final int seed) {
+		List<Dyad> dyads = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			dyads.add(DyadSupplier.getRandomDyad(seed + i, 2, 2));
+		}
+		dyads.sort(DyadRankingInstanceSupplier.complexDyadRanker());
+		return new DyadRankingInstance(dyads);
+	}
+
+	private double[] getSkillsDyadByDyad(final List<Dyad> dyads) {
+		double[] skills = new double[dyads.size()];
+		for (int i = 0; i < skills.length; i++) {
+			INDArray input = Nd4j.hstack(Nd4j.create(dyads.get(i).getInstance().asArray()), Nd4j.create(dyads.get(i).getAlternative().asArray()));
+			skills[i] = this.ranker.getPlNet().output(input).getDouble(0);
+		}
+		return skills;
+	}
+
+	@Test
+	public void testThatBatchedSkillsCoincideWithSkillsOfSingleDyads() {
+		double[] expectedSkills = this.getSkillsDyadByDyad(this.dyads);
+		double[] skills = this.ranker.getSkillsForDyads(this.dyads);
+		assertArrayEquals(expectedSkills, skills, DELTA);
+		for (int i = 0; i < 10; i++) {
+			assertEquals(expectedSkills[i], this.ranker.getSkillForDyad(this.dyads.get(i)), DELTA);
+		}
+	}
+
+	@Test
+	public void testThatRankingsOfDatasetCoincideWithRankingsOfSingleInstances() throws PredictionException {
+		DyadRankingDataset dataset = new DyadRankingDataset();
+		for (int i = 0; i < NUMBER_OF_DYADS; i += 50) {
+			dataset.add(new DyadRankingInstance(this.dyads.subList(i, i + 50)));
+		}
+		List<IDyadRankingInstance> rankings = this.ranker.predict(dataset);
+		assertEquals(dataset.size(), rankings.size());
+		for (int i = 0; i < dataset.size(); i++) {
+			IDyadRankingInstance ranking = rankings.get(i);
+			IDyadRankingInstance expectedRanking = this.ranker.predict(dataset.get(i));
+			assertEquals(expectedRanking.length(), ranking.length());
+			for (int j = 0; j < ranking.length(); j++) {
+				assertEquals(expectedRanking.getDyadAtPosition(j), ranking.getDyadAtPosition(j));
+			}
+		}
+	}
+
+	@Test
+	public void testThatConcurrentQueriesYieldTheSkillsOfTheCurrentModel() throws InterruptedException, TrainingException {
+		double[] skillsBeforeUpdate = this.ranker.getSkillsForDyads(this.dyads);
+		this.ranker.update(this.getRanking(1000));
+		double[] expectedSkills = this.getSkillsDyadByDyad(this.dyads);
+		assertArrayEquals(expectedSkills, this.ranker.getSkillsForDyads(this.dyads), DELTA);
+
+		/* the update must have changed the model, otherwise the check above would not show that the replica has been refreshed */
+		double maxDifference = 0;
+		for (int i = 0; i < expectedSkills.length; i++) {
+			maxDifference = Math.max(maxDifference, Math.abs(expectedSkills[i] - skillsBeforeUpdate[i]));
+		}
+		assertTrue(maxDifference > 0);
+
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < NUMBER_OF_THREADS; t++) {
+			Thread thread = new Thread(() -> {
+				try {
+					for (int i = 0; i < 20; i++) {
+						int from = (i * 37) % (NUMBER_OF_DYADS - 100);
+						double[] skills = this.ranker.getSkillsForDyads(this.dyads.subList(from, from + 100));
+						for (int j = 0; j < skills.length; j++) {
+							assertEquals(expectedSkills[from + j], skills[j], DELTA);
+						}
+					}
+				} catch (Throwable e) {
+					failure.compareAndSet(null, e);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertNull(failure.get());
+	}
+}
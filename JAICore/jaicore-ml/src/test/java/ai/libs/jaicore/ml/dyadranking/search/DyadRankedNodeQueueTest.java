@@ -0,0 +1,126 @@
+package ai.libs.jaicore.ml.dyadranking.search;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import ai.libs.jaicore.math.linearalgebra.DenseDoubleVector;
+import ai.libs.jaicore.math.linearalgebra.Vector;
+import ai.libs.jaicore.ml.dyadranking.algorithm.IDyadRanker;
+import ai.libs.jaicore.ml.dyadranking.algorithm.PLNetDyadRanker;
+import ai.libs.jaicore.search.model.travesaltree.Node;
+
+/**
+ * Checks that the incrementally ranking node queue yields the nodes in the same
+ * order as the queue that re-ranks all nodes on every insertion, and that both
+ * queues keep track of all nodes in a best-first like usage (poll one node, add
+ * its successors).
+ *
+ * @author fmohr
+ *
+ */
+public class DyadRankedNodeQueueTest {
+
+	private static final int CONTEXT_SIZE = 5;
+	private static final int CHARACTERIZATION_SIZE = 10;
+	private static final int BRANCHING = 4;
+	private static final int EXPANSIONS = 300;
+
+	private static class VectorNodeQueue extends ADyadRankedNodeQueue<double[], Double> {
+
+		public VectorNodeQueue(final IDyadRanker ranker, final boolean incrementalRanking) {
+			super(getContext(), ranker, null);
+			this.setIncrementalRanking(incrementalRanking);
+		}
+
+		@Override
+		protected Vector characterize(final Node<double[], Double> node) {
+			return new DenseDoubleVector(node.getPoint().clone());
+		}
+	}
+
+	private static Vector getContext() {
+		double[] context = new double[CONTEXT_SIZE];
+		for (int i = 0; i < CONTEXT_SIZE; i++) {
+			context[i] = i / (double) CONTEXT_SIZE;
+		}
+		return new DenseDoubleVector(context);
+	}
+
+	private static List<Node<double[], Double>> getSuccessors(final Node<double[], Double> parent, final Random random) {
+		List<Node<double[], Double>> successors = new ArrayList<>(BRANCHING);
+		for (int i = 0; i < BRANCHING; i++) {
+			double[] point = new double[CHARACTERIZATION_SIZE];
+			for (int j = 0; j < CHARACTERIZATION_SIZE; j++) {
+				point[j] = random.nextDouble();
+			}
+			successors.add(new Node<>(parent, point));
+		}
+		return successors;
+	}
+
+	/**
+	 * Simulates a best-first search that polls the best node and adds its successors to the queue.
+	 *
+	 * @return the nodes in the order in which they have been polled
+	 */
+	private List<Node<double[], Double>> search(final ADyadRankedNodeQueue<double[], Double> queue, final int expansions) {
+		Random random = new Random(0);
+		List<Node<double[], Double>> polledNodes = new ArrayList<>();
+		queue.addAll(getSuccessors(null, random));
+		for (int i = 0; i < expansions && !queue.isEmpty(); i++) {
+			Node<double[], Double> node = queue.poll();
+			polledNodes.add(node);
+			queue.addAll(getSuccessors(node, random));
+		}
+		return polledNodes;
+	}
+
+	@Test
+	public void testThatIncrementalRankingCoincidesWithFullRanking() {
+		PLNetDyadRanker ranker = new PLNetDyadRanker();
+		List<Node<double[], Double>> expectedNodes = this.search(new VectorNodeQueue(ranker, false), 50);
+		List<Node<double[], Double>> nodes = this.search(new VectorNodeQueue(ranker, true), 50);
+		assertEquals(expectedNodes.size(), nodes.size());
+		for (int i = 0; i < nodes.size(); i++) {
+			assertArrayEquals(expectedNodes.get(i).getPoint(), nodes.get(i).getPoint(), 0);
+		}
+	}
+
+	@Test
+	public void testThatUnrankedNodesAreContainedAndRemovable() {
+		VectorNodeQueue queue = new VectorNodeQueue(new PLNetDyadRanker(), true);
+		List<Node<double[], Double>> nodes = getSuccessors(null, new Random(0));
+		queue.addAll(nodes);
+		assertEquals(BRANCHING, queue.size());
+		assertTrue(queue.containsAll(nodes));
+		assertTrue(queue.remove(nodes.get(1)));
+		assertFalse(queue.contains(nodes.get(1)));
+		assertEquals(BRANCHING - 1, queue.size());
+		int polledNodes = 0;
+		while (queue.poll() != null) {
+			polledNodes++;
+		}
+		assertEquals(BRANCHING - 1, polledNodes);
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void testThatNoNodeIsLostDuringSearch() {
+		PLNetDyadRanker ranker = new PLNetDyadRanker();
+		for (boolean incrementalRanking : new boolean[] { false, true }) {
+			VectorNodeQueue queue = new VectorNodeQueue(ranker, incrementalRanking);
+			List<Node<double[], Double>> polledNodes = this.search(queue, EXPANSIONS);
+			assertEquals(EXPANSIONS, polledNodes.size());
+			assertEquals(EXPANSIONS, polledNodes.stream().distinct().count());
+			assertEquals(BRANCHING + EXPANSIONS * (BRANCHING - 1), queue.size());
+		}
+	}
+}
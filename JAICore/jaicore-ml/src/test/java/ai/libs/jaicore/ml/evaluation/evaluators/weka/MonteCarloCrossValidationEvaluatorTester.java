@@ -0,0 +1,97 @@
+package ai.libs.jaicore.ml.evaluation.evaluators.weka;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import ai.libs.jaicore.ml.core.evaluation.measure.singlelabel.ZeroOneLoss;
+import ai.libs.jaicore.ml.evaluation.evaluators.weka.factory.MonteCarloCrossValidationEvaluatorFactory;
+import ai.libs.jaicore.ml.evaluation.evaluators.weka.splitevaluation.ISplitBasedClassifierEvaluator;
+import ai.libs.jaicore.ml.evaluation.evaluators.weka.splitevaluation.SimpleSLCSplitBasedClassifierEvaluator;
+import ai.libs.jaicore.ml.weka.dataset.splitter.MulticlassClassStratifiedSplitter;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+
+public class MonteCarloCrossValidationEvaluatorTester {
+
+	private static final int REPEATS = 6;
+	private static final double TRAIN_PORTION = .7;
+	private static final long SEED = 0;
+
+	private static Instances data;
+
+	@BeforeClass
+	public static void loadData() throws IOException {
+		data = new Instances(new FileReader(new File("testrsc/ml/orig/vowel.arff")));
+		data.setClassIndex(data.numAttributes() - 1);
+	}
+
+	private static ISplitBasedClassifierEvaluator<Double> getCountingSplitEvaluator(final AtomicInteger counter) {
+		ISplitBasedClassifierEvaluator<Double> evaluator = new SimpleSLCSplitBasedClassifierEvaluator(new ZeroOneLoss());
+		return (h, train, test) -> {
+			counter.incrementAndGet();
+			return evaluator.evaluateSplit(h, train, test);
+		};
+	}
+
+	@Test
+	public void testThatParallelEvaluationYieldsSameScoreAsSequentialEvaluation() throws Exception {
+		AtomicInteger sequentialCalls = new AtomicInteger();
+		MonteCarloCrossValidationEvaluator sequential = new MonteCarloCrossValidationEvaluator(getCountingSplitEvaluator(sequentialCalls), REPEATS, data, TRAIN_PORTION, SEED);
+		double sequentialScore = sequential.evaluate(new J48());
+
+		AtomicInteger parallelCalls = new AtomicInteger();
+		double parallelScore;
+		try (MonteCarloCrossValidationEvaluator parallel = new MonteCarloCrossValidationEvaluator(getCountingSplitEvaluator(parallelCalls), REPEATS, data, TRAIN_PORTION, SEED)) {
+			parallel.setNumberOfThreads(3);
+			parallelScore = parallel.evaluate(new J48());
+		}
+
+		assertEquals(REPEATS, sequentialCalls.get());
+		assertEquals(REPEATS, parallelCalls.get());
+		assertEquals(sequentialScore, parallelScore, 1E-10);
+	}
+
+	@Test
+	public void testThatEvaluatorsOfFactoryShareThePool() throws Exception {
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+		ISplitBasedClassifierEvaluator<Double> splitEvaluator = new SimpleSLCSplitBasedClassifierEvaluator(new ZeroOneLoss());
+		MonteCarloCrossValidationEvaluatorFactory factory = new MonteCarloCrossValidationEvaluatorFactory().withSplitBasedEvaluator((h, train, test) -> {
+			threads.add(Thread.currentThread().getName());
+			return splitEvaluator.evaluateSplit(h, train, test);
+		}).withDatasetSplitter(new MulticlassClassStratifiedSplitter()).withNumMCIterations(REPEATS).withTrainFoldSize(TRAIN_PORTION).withNumThreads(2);
+		for (int i = 0; i < 3; i++) {
+			factory.getIClassifierEvaluator(data, SEED).evaluate(new J48());
+		}
+		assertTrue(threads.size() <= 2);
+	}
+
+	@Test
+	public void testThatRacingStopsHopelessCandidates() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		MonteCarloCrossValidationEvaluator mccv = new MonteCarloCrossValidationEvaluator(getCountingSplitEvaluator(calls), REPEATS, data, TRAIN_PORTION, SEED);
+		mccv.setRacing(0.05, 3);
+		mccv.updateBestScore(0.0);
+		mccv.evaluate(new J48());
+		assertEquals(3, calls.get());
+	}
+
+	@Test
+	public void testThatRacingDoesNotStopPromisingCandidates() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		MonteCarloCrossValidationEvaluator mccv = new MonteCarloCrossValidationEvaluator(getCountingSplitEvaluator(calls), REPEATS, data, TRAIN_PORTION, SEED);
+		mccv.setRacing(0.05, 2);
+		mccv.updateBestScore(1.0);
+		mccv.evaluate(new J48());
+		assertEquals(REPEATS, calls.get());
+	}
+}
@@ -0,0 +1,133 @@
+package ai.libs.jaicore.ml.extendedtree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+import ai.libs.jaicore.ml.intervaltree.ExtendedRandomForest;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+import weka.core.ProtectedProperties;
+
+/**
+ * Checks that the fANOVA of the forest decomposes the variance, that it does not depend on the number of threads, and that it identifies the most important
+ * parameter among all subsets of at most two of 31 parameters.
+ *
+ * @author fmohr
+ *
+ */
+public class ExtendedRandomForestFANOVATest {
+
+	private static final int SEED = 1;
+
+	/**
+	 * Creates performance samples of numeric parameters in [0,1] and one categorical parameter with three values, whose performance is 3 * x0 + 2 * x1 * x2 + c
+	 * plus some noise.
+	 */
+	private static Instances getPerformanceSamples(final int numberOfNumericParameters, final int numberOfSamples) {
+		Properties properties = new Properties();
+		properties.setProperty("range", "[0,1]");
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		for (int i = 0; i < numberOfNumericParameters; i++) {
+			attributes.add(new Attribute("x" + i, new ProtectedProperties(properties)));
+		}
+		attributes.add(new Attribute("c", Arrays.asList("a", "b", "c")));
+		attributes.add(new Attribute("performance_score"));
+		Instances data = new Instances("performance_samples", attributes, numberOfSamples);
+		data.setClassIndex(numberOfNumericParameters + 1);
+		Random random = new Random(SEED);
+		for (int j = 0; j < numberOfSamples; j++) {
+			double[] values = new double[numberOfNumericParameters + 2];
+			for (int i = 0; i < numberOfNumericParameters; i++) {
+				values[i] = random.nextDouble();
+			}
+			values[numberOfNumericParameters] = random.nextInt(3);
+			values[numberOfNumericParameters + 1] = 3 * values[0] + 2 * values[1] * values[2] + values[numberOfNumericParameters] + 0.1 * random.nextGaussian();
+			data.add(new DenseInstance(1, values));
+		}
+		return data;
+	}
+
+	private static ExtendedRandomForest getPreparedForest(final Instances data, final int numberOfThreads) throws Exception {
+		ExtendedRandomForest forest = new ExtendedRandomForest(SEED);
+		forest.setNumExecutionSlots(numberOfThreads);
+		forest.buildClassifier(data);
+		forest.prepareForest(data);
+		return forest;
+	}
+
+	private static List<Set<Integer>> getSubsets(final int numberOfParameters, final int sizeOfLargestSubset) {
+		Set<Integer> parameterIndices = new HashSet<>();
+		for (int i = 0; i < numberOfParameters; i++) {
+			parameterIndices.add(i);
+		}
+		List<Set<Integer>> subsets = new ArrayList<>();
+		for (int k = 1; k <= sizeOfLargestSubset; k++) {
+			subsets.addAll(Sets.combinations(parameterIndices, k));
+		}
+		return subsets;
+	}
+
+	@Test
+	public void testThatVarianceContributionsOfAllSubsetsSumUpToOne() throws Exception {
+		Instances data = getPerformanceSamples(2, 200);
+		ExtendedRandomForest forest = getPreparedForest(data, 1);
+		List<Set<Integer>> subsets = getSubsets(3, 3);
+		Map<Set<Integer>, Double> contributions = forest.computeMarginalVarianceContributionsForFeatureSubsets(subsets);
+		double sum = 0;
+		for (Set<Integer> subset : subsets) {
+			sum += contributions.get(subset);
+		}
+		assertEquals(1.0, sum, 1E-6);
+
+		/* x0 and the categorical parameter have the largest main effects */
+		assertTrue(contributions.get(subsets.get(0)) > contributions.get(subsets.get(1)));
+		assertTrue(contributions.get(subsets.get(2)) > contributions.get(subsets.get(1)));
+	}
+
+	@Test
+	public void testThatParallelComputationCoincidesWithSequentialComputation() throws Exception {
+		Instances data = getPerformanceSamples(5, 200);
+		List<Set<Integer>> subsets = getSubsets(6, 2);
+		ExtendedRandomForest forest = getPreparedForest(data, 1);
+		Map<Set<Integer>, Double> expectedContributions = forest.computeMarginalVarianceContributionsForFeatureSubsets(subsets);
+		forest.setNumExecutionSlots(4);
+		forest.prepareForest(data);
+		Map<Set<Integer>, Double> contributions = forest.computeMarginalVarianceContributionsForFeatureSubsets(subsets);
+		for (Set<Integer> subset : subsets) {
+			assertEquals(expectedContributions.get(subset), contributions.get(subset), 0);
+			assertEquals(expectedContributions.get(subset), forest.computeMarginalVarianceContributionForFeatureSubset(subset), 0);
+		}
+	}
+
+	@Test
+	public void testImportanceEstimationOfSecondOrderInteractionsOfManyParameters() throws Exception {
+		Instances data = getPerformanceSamples(30, 500);
+		List<Set<Integer>> subsets = getSubsets(31, 2);
+		ExtendedRandomForest forest = getPreparedForest(data, Runtime.getRuntime().availableProcessors());
+		Map<Set<Integer>, Double> contributions = forest.computeMarginalVarianceContributionsForFeatureSubsets(subsets);
+		assertEquals(subsets.size(), contributions.size());
+		for (Set<Integer> subset : subsets) {
+			assertTrue(contributions.get(subset) >= 0);
+			assertTrue(contributions.get(subset) <= 1);
+		}
+
+		/* the importance of x0 is the largest of the numeric parameters */
+		for (int i = 1; i < 30; i++) {
+			assertTrue(contributions.get(subsets.get(0)) > contributions.get(subsets.get(i)));
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package ai.libs.jaicore.ml.learningcurve.extrapolation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import ai.libs.jaicore.ml.core.dataset.sampling.inmemory.factories.SimpleRandomSamplingFactory;
+import ai.libs.jaicore.ml.core.dataset.weka.WekaInstance;
+import ai.libs.jaicore.ml.core.dataset.weka.WekaInstances;
+import weka.classifiers.Classifier;
+import weka.classifiers.lazy.IBk;
+import weka.classifiers.trees.J48;
+import weka.core.EuclideanDistance;
+import weka.core.Instances;
+
+/**
+ * Checks that the incremental and the parallel training of the learner on the anchor points yield the same accuracies as training the learner from scratch on
+ * each anchor point.
+ *
+ * @author fmohr
+ *
+ */
+public class LearningCurveExtrapolatorTest {
+
+	private static final int[] ANCHOR_POINTS = { 8, 16, 32, 64, 128, 256 };
+	private static final long SEED = 1;
+
+	private static Instances data;
+
+	/**
+	 * An IBk that counts how often it is trained from scratch. The distances are not normalized, because the attribute ranges that are updated incrementally may
+	 * differ slightly from those computed on the whole sample, which may change the nearest neighbors.
+	 */
+	private static class CountingIBk extends IBk {
+		private static final long serialVersionUID = 1L;
+		private final AtomicInteger builds = new AtomicInteger();
+
+		public CountingIBk() {
+			super();
+			((EuclideanDistance) this.getNearestNeighbourSearchAlgorithm().getDistanceFunction()).setDontNormalize(true);
+		}
+
+		@Override
+		public void buildClassifier(final Instances instances) throws Exception {
+			this.builds.incrementAndGet();
+			super.buildClassifier(instances);
+		}
+	}
+
+	@BeforeClass
+	public static void setup() throws IOException {
+		data = new Instances(new FileReader(new File("testrsc/ml/orig/vowel.arff")));
+		data.setClassIndex(data.numAttributes() - 1);
+	}
+
+	private static double[] getAccuracies(final Classifier learner, final boolean incrementalTraining, final int numberOfThreads) throws Exception {
+		double[][] accuracies = new double[1][];
+		LearningCurveExtrapolator<WekaInstance<Object>, WekaInstances<Object>> extrapolator = new LearningCurveExtrapolator<>((x, y, size) -> {
+			accuracies[0] = y.clone();
+			return null;
+		}, learner, new WekaInstances<>(data), 0.7, ANCHOR_POINTS, new SimpleRandomSamplingFactory<>(), SEED);
+		extrapolator.setIncrementalTraining(incrementalTraining);
+		extrapolator.setNumberOfThreads(numberOfThreads);
+		extrapolator.extrapolateLearningCurve();
+		return accuracies[0];
+	}
+
+	@Test
+	public void testThatIncrementalTrainingCoincidesWithTrainingFromScratch() throws Exception {
+		double[] expectedAccuracies = getAccuracies(new CountingIBk(), false, 1);
+		CountingIBk learner = new CountingIBk();
+		double[] accuracies = getAccuracies(learner, true, 1);
+		assertArrayEquals(expectedAccuracies, accuracies, 0);
+
+		/* the samples of the simple random sampling are nested, so the learner must only have been built once */
+		assertEquals(1, learner.builds.get());
+	}
+
+	@Test
+	public void testThatParallelTrainingCoincidesWithSequentialTraining() throws Exception {
+		double[] expectedAccuracies = getAccuracies(new J48(), false, 1);
+		J48 learner = new J48();
+		double[] accuracies = getAccuracies(learner, false, 4);
+		assertArrayEquals(expectedAccuracies, accuracies, 0);
+
+		/* the learner itself must have been trained on the last anchor point */
+		assertTrue(learner.measureNumLeaves() > 0);
+	}
+}
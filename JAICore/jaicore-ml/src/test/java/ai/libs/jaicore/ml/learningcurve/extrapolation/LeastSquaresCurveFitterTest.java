@@ -0,0 +1,111 @@
+package ai.libs.jaicore.ml.learningcurve.extrapolation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import ai.libs.jaicore.ml.learningcurve.extrapolation.ipl.InversePowerLawConfiguration;
+import ai.libs.jaicore.ml.learningcurve.extrapolation.ipl.InversePowerLawFitter;
+import ai.libs.jaicore.ml.learningcurve.extrapolation.ipl.InversePowerLawLearningCurve;
+import ai.libs.jaicore.ml.learningcurve.extrapolation.lc.LinearCombinationFitter;
+import ai.libs.jaicore.ml.learningcurve.extrapolation.lc.LinearCombinationLearningCurve;
+
+public class LeastSquaresCurveFitterTest {
+
+	private static final int[] X_VALUES = { 8, 16, 64, 128, 256 };
+
+	private static double[] getValues(final InversePowerLawLearningCurve curve, final int[] xValues) {
+		double[] yValues = new double[xValues.length];
+		for (int i = 0; i < xValues.length; i++) {
+			yValues[i] = curve.getCurveValue(xValues[i]);
+		}
+		return yValues;
+	}
+
+	@Test
+	public void testThatInversePowerLawParametersAreRecovered() throws InvalidAnchorPointsException {
+		InversePowerLawLearningCurve curve = new InversePowerLawLearningCurve(0.15, 0.5, -0.4);
+		InversePowerLawConfiguration configuration = new InversePowerLawFitter().fit(X_VALUES, getValues(curve, X_VALUES));
+		assertEquals(0.15, configuration.getA(), 1E-6);
+		assertEquals(0.5, configuration.getB(), 1E-6);
+		assertEquals(-0.4, configuration.getC(), 1E-6);
+	}
+
+	@Test(expected = InvalidAnchorPointsException.class)
+	public void testThatTooFewAnchorPointsAreRejected() throws InvalidAnchorPointsException {
+		new InversePowerLawFitter().fit(new int[] { 1, 2, 3 }, new double[] { 0.5, 0.6, 0.65 });
+	}
+
+	@Test
+	public void testThatFittedConfigurationsAreCached() throws InvalidAnchorPointsException {
+		double[] yValues = getValues(new InversePowerLawLearningCurve(0.2, 0.6, -0.3), X_VALUES);
+		InversePowerLawFitter fitter = new InversePowerLawFitter();
+		InversePowerLawConfiguration configuration = fitter.fit(X_VALUES, yValues);
+		assertSame(configuration, fitter.fit(X_VALUES.clone(), yValues.clone()));
+		InversePowerLawFitter fitterWithoutCache = new InversePowerLawFitter(0);
+		assertNotSame(fitterWithoutCache.fit(X_VALUES, yValues), fitterWithoutCache.fit(X_VALUES, yValues));
+	}
+
+	@Test
+	public void testThatLinearCombinationFitsRealAnchorPoints() throws InvalidAnchorPointsException {
+		int[] xValues = { 4, 8, 16, 32, 64, 128, 256 };
+		double[] yValues = { 0.1672, 0.2513, 0.4161, 0.5485, 0.7381, 0.7961, 0.8471 };
+		LinearCombinationLearningCurve curve = new LinearCombinationLearningCurve(new LinearCombinationFitter().fit(xValues, yValues), 2000);
+		for (int i = 0; i < xValues.length; i++) {
+			assertEquals(yValues[i], curve.getCurveValue(xValues[i]), 0.05);
+		}
+		assertTrue(curve.getCurveValue(2000) > yValues[yValues.length - 1] - 0.05);
+	}
+
+	@Test
+	public void testThatConcurrentFitsCoincideWithSequentialFits() throws InterruptedException, InvalidAnchorPointsException {
+		Random random = new Random(0);
+		List<double[]> yValues = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			InversePowerLawLearningCurve curve = new InversePowerLawLearningCurve(0.05 + 0.5 * random.nextDouble(), 0.1 + random.nextDouble(), -0.9 + 0.8 * random.nextDouble());
+			double[] values = getValues(curve, X_VALUES);
+			for (int j = 0; j < values.length; j++) {
+				values[j] += 0.01 * random.nextGaussian();
+			}
+			yValues.add(values);
+		}
+
+		/* fits of several threads on a fitter without cache must coincide with the sequential ones */
+		InversePowerLawFitter fitter = new InversePowerLawFitter(0);
+		List<InversePowerLawConfiguration> expectedConfigurations = new ArrayList<>();
+		for (double[] values : yValues) {
+			expectedConfigurations.add(fitter.fit(X_VALUES, values));
+		}
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			Thread thread = new Thread(() -> {
+				try {
+					for (int i = 0; i < yValues.size(); i++) {
+						InversePowerLawConfiguration configuration = fitter.fit(X_VALUES, yValues.get(i));
+						assertEquals(expectedConfigurations.get(i).getA(), configuration.getA(), 0);
+						assertEquals(expectedConfigurations.get(i).getB(), configuration.getB(), 0);
+						assertEquals(expectedConfigurations.get(i).getC(), configuration.getC(), 0);
+					}
+				} catch (Throwable e) {
+					failure.compareAndSet(null, e);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertNull(failure.get());
+	}
+}
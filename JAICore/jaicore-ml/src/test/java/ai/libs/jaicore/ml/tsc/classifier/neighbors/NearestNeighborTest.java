@@ -3,7 +3,9 @@ package ai.libs.jaicore.ml.tsc.classifier.neighbors;
 import static org.junit.Assert.assertEquals;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.PriorityQueue;
+import java.util.Random;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -12,6 +14,7 @@ import ai.libs.jaicore.basic.sets.Pair;
 import ai.libs.jaicore.ml.core.exception.PredictionException;
 import ai.libs.jaicore.ml.core.exception.TrainingException;
 import ai.libs.jaicore.ml.tsc.dataset.TimeSeriesDataset;
+import ai.libs.jaicore.ml.tsc.distances.DynamicTimeWarping;
 import ai.libs.jaicore.ml.tsc.distances.EuclideanDistance;
 
 /**
@@ -139,6 +142,51 @@ public class NearestNeighborTest {
 		assertEquals(expectation, prediction);
 	}
 
+	/**
+	 * Tests that the nearest neighbors found with the lower bound cascade and
+	 * early abandoning of DTW are the same as the ones of the exhaustive search
+	 * (which is used for DTW with a custom point distance).
+	 */
+	@Test
+	public void testThatDTWSearchWithLowerBoundsFindsSameNeighborsAsExhaustiveSearch() {
+		Random random = new Random(0);
+		double[][] data = new double[200][30];
+		int[] targets = new int[data.length];
+		for (int i = 0; i < data.length; i++) {
+			for (int j = 0; j < data[i].length; j++) {
+				data[i][j] = (j > 0 ? data[i][j - 1] : 0) + random.nextGaussian();
+			}
+			targets[i] = i;
+		}
+		for (int window : new int[] { -1, 3 }) {
+			NearestNeighborClassifier withLowerBounds = new NearestNeighborClassifier(3, new DynamicTimeWarping(window));
+			withLowerBounds.setValues(data);
+			withLowerBounds.setTargets(targets);
+			NearestNeighborClassifier exhaustive = new NearestNeighborClassifier(3, new DynamicTimeWarping((x, y) -> Math.abs(x - y)) {
+				@Override
+				public double distance(final double[] a, final double[] b) {
+					return this.distanceWithWindow(a, b, window);
+				}
+			});
+			exhaustive.setValues(data);
+			exhaustive.setTargets(targets);
+			for (int t = 0; t < 20; t++) {
+				double[] query = data[random.nextInt(data.length)].clone();
+				for (int j = 0; j < query.length; j++) {
+					query[j] += random.nextGaussian() * .5;
+				}
+				List<Pair<Integer, Double>> expected = new ArrayList<>(exhaustive.calculateNearestNeigbors(query));
+				List<Pair<Integer, Double>> actual = new ArrayList<>(withLowerBounds.calculateNearestNeigbors(query));
+				expected.sort(NearestNeighborClassifier.nearestNeighborComparator);
+				actual.sort(NearestNeighborClassifier.nearestNeighborComparator);
+				assertEquals(expected.size(), actual.size());
+				for (int i = 0; i < expected.size(); i++) {
+					assertEquals(expected.get(i).getY(), actual.get(i).getY(), 1.0E-9);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Test the @see NearestNeighborComparator by first adding elements to a
 	 * priority queue using the comparator and then polling the elements out and
@@ -0,0 +1,102 @@
+package ai.libs.jaicore.ml.tsc.dataset;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link ContiguousTimeSeriesMatrix} and its use in
+ * {@link TimeSeriesDataset}.
+ *
+ * @author fischor
+ */
+public class ContiguousTimeSeriesMatrixTest {
+
+	private static final double[][] MATRIX = { { 1, 2, 3 }, {}, { 4, 5 }, { 6 } };
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static void assertRowsEqual(final double[][] expected, final ContiguousTimeSeriesMatrix actual) {
+		assertEquals(expected.length, actual.getNumberOfRows());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i].length, actual.getRowLength(i));
+			assertArrayEquals(expected[i], actual.copyRow(i), 0);
+			DoubleBuffer row = actual.getRow(i);
+			assertEquals(expected[i].length, row.remaining());
+			for (int j = 0; j < expected[i].length; j++) {
+				assertEquals(expected[i][j], actual.get(i, j), 0);
+				assertEquals(expected[i][j], row.get(j), 0);
+			}
+		}
+	}
+
+	@Test
+	public void testHeapMatrix() {
+		ContiguousTimeSeriesMatrix matrix = ContiguousTimeSeriesMatrix.fromMatrix(MATRIX);
+		assertTrue(matrix.isOnHeap());
+		assertRowsEqual(MATRIX, matrix);
+		assertEquals(6, matrix.getData().length);
+		assertEquals(4, matrix.getData()[matrix.getOffset(2)], 0);
+		assertArrayEquals(MATRIX, matrix.toMatrix());
+	}
+
+	@Test
+	public void testMemoryMappedMatrix() throws IOException {
+		ContiguousTimeSeriesMatrix matrix;
+		try (ContiguousTimeSeriesMatrix.Builder builder = new ContiguousTimeSeriesMatrix.Builder(this.folder.newFile())) {
+			for (double[] row : MATRIX) {
+				builder.addRow(row);
+			}
+			matrix = builder.build();
+		}
+		assertFalse(matrix.isOnHeap());
+		assertRowsEqual(MATRIX, matrix);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testThatAccessBeyondRowFails() {
+		ContiguousTimeSeriesMatrix.fromMatrix(MATRIX).get(2, 2);
+	}
+
+	@Test
+	public void testDatasetMaterializesContiguousValues() {
+		TimeSeriesDataset dataset = TimeSeriesDataset.fromContiguous(Arrays.asList(ContiguousTimeSeriesMatrix.fromMatrix(MATRIX)), new int[] { 0, 1, 0, 1 });
+		assertTrue(dataset.isTrain());
+		assertEquals(4, dataset.getNumberOfInstances());
+		assertArrayEquals(MATRIX, dataset.getValues(0));
+		assertArrayEquals(MATRIX, dataset.getValueMatrices().get(0));
+
+		/* the materialized matrix replaces the contiguous representation, so that changes to it are retained */
+		double[][] materializedMatrix = dataset.getValues(0);
+		assertSame(materializedMatrix, dataset.getValues(0));
+		assertSame(materializedMatrix, dataset.getValueMatrices().get(0));
+		materializedMatrix[0][0] = -1;
+		assertEquals(-1, dataset.getContiguousValues(0).get(0, 0), 0);
+		materializedMatrix[0][0] = 1;
+
+		double[][] other = { { 7 }, { 8 }, { 9 }, { 10 } };
+		dataset.add(other);
+		assertRowsEqual(other, dataset.getContiguousValues(1));
+		dataset.remove(0);
+		assertEquals(1, dataset.getNumberOfVariables());
+		assertRowsEqual(other, dataset.getContiguousValues(0));
+
+		List<double[][]> valueMatrices = new ArrayList<>();
+		valueMatrices.add(MATRIX);
+		TimeSeriesDataset arrayDataset = new TimeSeriesDataset(valueMatrices, new int[4]);
+		assertRowsEqual(MATRIX, arrayDataset.getContiguousValues(0));
+	}
+}
@@ -0,0 +1,53 @@
+package ai.libs.jaicore.ml.tsc.distances;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Test suite for the {@link ai.libs.jaicore.ml.tsc.distances.DTWLowerBounds}.
+ *
+ * @author fischor
+ */
+public class DTWLowerBoundsTest {
+
+	/**
+	 * Tests the envelope against a naive computation.
+	 */
+	@Test
+	public void testEnvelope() {
+		double[] t = { 3, 1, 4, 1, 5, 9, 2, 6 };
+		double[][] envelope = DTWLowerBounds.envelope(t, 1);
+		assertArrayEquals(new double[] { 3, 4, 4, 5, 9, 9, 9, 6 }, envelope[0], 0);
+		assertArrayEquals(new double[] { 1, 1, 1, 1, 1, 2, 2, 2 }, envelope[1], 0);
+		envelope = DTWLowerBounds.envelope(t, -1);
+		assertArrayEquals(new double[] { 9, 9, 9, 9, 9, 9, 9, 9 }, envelope[0], 0);
+		assertArrayEquals(new double[] { 1, 1, 1, 1, 1, 1, 1, 1 }, envelope[1], 0);
+	}
+
+	/**
+	 * Tests that LB_Kim and LB_Keogh do not exceed the DTW distance on random
+	 * time series.
+	 */
+	@Test
+	public void testThatBoundsAreLowerBounds() {
+		Random random = new Random(0);
+		for (int window : new int[] { -1, 0, 2, 5 }) {
+			DynamicTimeWarping dtw = new DynamicTimeWarping(window);
+			for (int run = 0; run < 200; run++) {
+				double[] a = new double[25];
+				double[] b = new double[25];
+				for (int i = 0; i < a.length; i++) {
+					a[i] = random.nextGaussian();
+					b[i] = random.nextGaussian();
+				}
+				double distance = dtw.distance(a, b);
+				assertTrue(DTWLowerBounds.lbKim(a, b) <= distance + 1.0E-9);
+				assertTrue(DTWLowerBounds.lbKeogh(a, DTWLowerBounds.envelope(b, window), Double.MAX_VALUE) <= distance + 1.0E-9);
+			}
+		}
+	}
+}
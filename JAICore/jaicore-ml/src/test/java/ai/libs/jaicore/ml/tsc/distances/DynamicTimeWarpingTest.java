@@ -2,6 +2,9 @@ package ai.libs.jaicore.ml.tsc.distances;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
+import java.util.Random;
+
 import org.junit.Test;
 
 import ai.libs.jaicore.ml.tsc.distances.DynamicTimeWarping;
@@ -86,6 +89,67 @@ public class DynamicTimeWarpingTest {
 		assertEquals(expectation, distance, 1.0E-5);
 	}
 
+	/**
+	 * Tests that the constrained distance equals the one of the full matrix
+	 * computation, restricted to the band, on random time series.
+	 */
+	@Test
+	public void testThatWindowedDistanceMatchesMatrixComputation() {
+		Random random = new Random(0);
+		DynamicTimeWarping dtw = new DynamicTimeWarping();
+		for (int run = 0; run < 100; run++) {
+			double[] a = randomSeries(random, 5 + random.nextInt(20));
+			double[] b = randomSeries(random, 5 + random.nextInt(20));
+			int w = random.nextInt(10);
+			assertEquals(matrixDistance(a, b, w), dtw.distanceWithWindow(a, b, w), 1.0E-9);
+			assertEquals(matrixDistance(a, b, Integer.MAX_VALUE / 2), dtw.distance(a, b), 1.0E-9);
+		}
+	}
+
+	/**
+	 * Tests that early abandoning only abandons computations whose distance
+	 * exceeds the limit.
+	 */
+	@Test
+	public void testEarlyAbandoning() {
+		Random random = new Random(0);
+		DynamicTimeWarping dtw = new DynamicTimeWarping(3);
+		for (int run = 0; run < 100; run++) {
+			double[] a = randomSeries(random, 20);
+			double[] b = randomSeries(random, 20);
+			double distance = dtw.distance(a, b);
+			assertEquals(distance, dtw.distance(a, b, 3, distance), 0);
+			assertEquals(Double.MAX_VALUE, dtw.distance(a, b, 3, distance * 0.99), 0);
+		}
+		dtw.setBestSoFar(0);
+		assertEquals(Double.MAX_VALUE, dtw.distance(new double[] { 1, 2 }, new double[] { 2, 3 }), 0);
+	}
+
+	private static double[] randomSeries(final Random random, final int length) {
+		double[] series = new double[length];
+		for (int i = 0; i < length; i++) {
+			series[i] = random.nextGaussian();
+		}
+		return series;
+	}
+
+	private static double matrixDistance(final double[] a, final double[] b, int w) {
+		int n = a.length;
+		int m = b.length;
+		w = Math.max(w, Math.abs(n - m));
+		double[][] matrix = new double[n + 1][m + 1];
+		for (double[] row : matrix) {
+			Arrays.fill(row, Double.MAX_VALUE);
+		}
+		matrix[0][0] = 0;
+		for (int i = 1; i <= n; i++) {
+			for (int j = Math.max(1, i - w); j <= Math.min(m, i + w); j++) {
+				matrix[i][j] = Math.abs(a[i - 1] - b[j - 1]) + Math.min(matrix[i - 1][j], Math.min(matrix[i][j - 1], matrix[i - 1][j - 1]));
+			}
+		}
+		return matrix[n][m];
+	}
+
 	/**
 	 * Robustness test: When initializing with <code>null</code> for the scalar
 	 * distance measure, the constructor is supposed to throw an
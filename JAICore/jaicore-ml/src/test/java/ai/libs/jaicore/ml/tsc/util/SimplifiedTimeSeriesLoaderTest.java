@@ -1,12 +1,18 @@
 package ai.libs.jaicore.ml.tsc.util;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.List;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import ai.libs.jaicore.basic.sets.Pair;
 import ai.libs.jaicore.ml.tsc.dataset.TimeSeriesDataset;
@@ -25,6 +31,17 @@ public class SimplifiedTimeSeriesLoaderTest {
 	 */
 	private static final String TSC_DATASET_PATH_PREFIX = "data" + File.separator;
 
+	private static final String SMALL_ARFF = "@relation small\n\n@attribute t0 numeric\n@attribute t1 numeric\n@attribute t2 numeric\n@attribute target {a,b}\n\n@data\n1.0,2.0,3.0,b\n-1.5,0,2E-1,a\n4,5,6,b\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File writeSmallArff() throws IOException {
+		File arffFile = this.folder.newFile("small.arff");
+		Files.write(arffFile.toPath(), SMALL_ARFF.getBytes(StandardCharsets.UTF_8));
+		return arffFile;
+	}
+
 	@Test
 	public void testUnivariateArffFileLoading() throws TimeSeriesLoadingException {
 		final File datasetFile = new File(
@@ -92,4 +109,25 @@ public class SimplifiedTimeSeriesLoaderTest {
 		assertEquals(expectedNumTargets, result.getTargets().length);
 		assertEquals(expectedClassDomain, pairResult.getY().getClassValues());
 	}
+
+	@Test
+	public void testContiguousArffFileLoadingEqualsArrayLoading() throws TimeSeriesLoadingException, IOException {
+		File arffFile = this.writeSmallArff();
+		Pair<TimeSeriesDataset, ClassMapper> expected = SimplifiedTimeSeriesLoader.loadArff(arffFile);
+		Pair<TimeSeriesDataset, ClassMapper> onHeap = SimplifiedTimeSeriesLoader.loadArffContiguous(arffFile, null);
+		Pair<TimeSeriesDataset, ClassMapper> mapped = SimplifiedTimeSeriesLoader.loadArffContiguous(arffFile, this.folder.newFile("small.bin"));
+
+		for (Pair<TimeSeriesDataset, ClassMapper> actual : Arrays.asList(onHeap, mapped)) {
+			TimeSeriesDataset result = actual.getX();
+			assertEquals(3, result.getNumberOfInstances());
+			assertEquals(1, result.getNumberOfVariables());
+			assertArrayEquals(expected.getX().getTargets(), result.getTargets());
+			assertArrayEquals(new int[] { 1, 0, 1 }, result.getTargets());
+			assertEquals(expected.getY().getClassValues(), actual.getY().getClassValues());
+			for (int i = 0; i < 3; i++) {
+				assertArrayEquals(expected.getX().getValues(0)[i], result.getValues(0)[i], 0);
+			}
+			assertEquals(0.2, result.getContiguousValues(0).get(1, 2), 0);
+		}
+	}
 }
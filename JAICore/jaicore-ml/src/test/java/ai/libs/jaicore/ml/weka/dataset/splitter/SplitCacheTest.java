@@ -0,0 +1,111 @@
+package ai.libs.jaicore.ml.weka.dataset.splitter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import weka.core.Instances;
+
+public class SplitCacheTest {
+
+	private static Instances data;
+
+	@BeforeClass
+	public static void loadData() throws IOException {
+		data = new Instances(new FileReader(new File("testrsc/ml/orig/vowel.arff")));
+		data.setClassIndex(data.numAttributes() - 1);
+	}
+
+	private static class CountingSplitter extends MulticlassClassStratifiedSplitter {
+		private final AtomicInteger calls = new AtomicInteger();
+
+		@Override
+		public List<Instances> split(final Instances data, final long seed, final double portions) throws SplitFailedException, InterruptedException {
+			this.calls.incrementAndGet();
+			return super.split(data, seed, portions);
+		}
+	}
+
+	@Test
+	public void testThatCachedSplitsEqualComputedSplitsAndShareInstances() throws Exception {
+		SplitCache cache = new SplitCache(Long.MAX_VALUE);
+		MulticlassClassStratifiedSplitter splitter = new MulticlassClassStratifiedSplitter();
+		List<Instances> expected = new MulticlassClassStratifiedSplitter().split(data, 0, .7);
+		List<Instances> actual = cache.getSplit(data, splitter, 0, .7);
+		assertEquals(expected.size(), actual.size());
+		for (int f = 0; f < expected.size(); f++) {
+			assertEquals(expected.get(f).size(), actual.get(f).size());
+			for (int i = 0; i < expected.get(f).size(); i++) {
+				assertArrayEquals(expected.get(f).get(i).toDoubleArray(), actual.get(f).get(i).toDoubleArray(), 0);
+			}
+		}
+		assertEquals(data.size(), cache.getNumberOfIndices());
+
+		/* the folds contain the instances of the data themselves */
+		List<Instances> again = cache.getSplit(data, splitter, 0, .7);
+		assertSame(actual.get(0).get(0), again.get(0).get(0));
+		assertTrue(data.contains(again.get(1).get(0)));
+	}
+
+	@Test
+	public void testThatConcurrentRequestsComputeSplitOnce() throws Exception {
+		SplitCache cache = new SplitCache(Long.MAX_VALUE);
+		CountingSplitter splitter = new CountingSplitter();
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		List<Future<List<Instances>>> futures = new ArrayList<>();
+		for (int i = 0; i < 32; i++) {
+			futures.add(pool.submit(() -> cache.getSplit(data, splitter, 1, .7)));
+		}
+		for (Future<List<Instances>> future : futures) {
+			assertEquals(data.size(), future.get().get(0).size() + future.get().get(1).size());
+		}
+		pool.shutdown();
+		assertEquals(1, splitter.calls.get());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testThatSplittersOfTheSameClassDoNotShareSplits() throws Exception {
+		SplitCache cache = new SplitCache(Long.MAX_VALUE);
+		CountingSplitter splitter = new CountingSplitter();
+		CountingSplitter otherSplitter = new CountingSplitter();
+		cache.getSplit(data, splitter, 0, .7);
+		cache.getSplit(data, otherSplitter, 0, .7);
+		assertEquals(1, splitter.calls.get());
+		assertEquals(1, otherSplitter.calls.get());
+		assertEquals(2, cache.size());
+		cache.getSplit(data, otherSplitter, 0, .7);
+		assertEquals(1, otherSplitter.calls.get());
+	}
+
+	@Test
+	public void testThatLeastRecentlyUsedSplitsAreEvicted() throws Exception {
+		SplitCache cache = new SplitCache(2L * data.size());
+		CountingSplitter splitter = new CountingSplitter();
+		cache.getSplit(data, splitter, 0, .7);
+		cache.getSplit(data, splitter, 1, .7);
+		cache.getSplit(data, splitter, 0, .7);
+		assertEquals(2, splitter.calls.get());
+		cache.getSplit(data, splitter, 2, .7); // evicts the split for seed 1
+		assertEquals(2, cache.size());
+		assertTrue(cache.getNumberOfIndices() <= 2L * data.size());
+		cache.getSplit(data, splitter, 0, .7);
+		assertEquals(3, splitter.calls.get());
+		cache.getSplit(data, splitter, 1, .7);
+		assertEquals(4, splitter.calls.get());
+	}
+}
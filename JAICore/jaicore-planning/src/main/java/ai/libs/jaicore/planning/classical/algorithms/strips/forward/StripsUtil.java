@@ -11,6 +11,7 @@ import java.util.Map.Entry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import ai.libs.jaicore.basic.sets.Pair;
 import ai.libs.jaicore.logic.fol.structure.CNFFormula;
 import ai.libs.jaicore.logic.fol.structure.Clause;
 import ai.libs.jaicore.logic.fol.structure.ConstantParam;
@@ -103,15 +104,29 @@ public class StripsUtil {
 	}
 
 	public static void updateState(final Monom state, final Action appliedAction) {
+		Pair<Collection<Literal>, Collection<Literal>> effects = getEffectsOfActionInState(state, appliedAction);
+		state.removeAll(effects.getX());
+		state.addAll(effects.getY());
+	}
 
-		/* apply effects of action (STRIPS) */
+	/**
+	 * Computes the effects of an action without modifying the state it is applied in.
+	 *
+	 * @param state
+	 *            The state in which the action is applied
+	 * @param appliedAction
+	 *            The action
+	 * @return A pair of the literals that are removed from the state and the literals that are added to the state (in this order)
+	 */
+	public static Pair<Collection<Literal>, Collection<Literal>> getEffectsOfActionInState(final Monom state, final Action appliedAction) {
+
+		/* effects of action (STRIPS) */
 		if (appliedAction.getOperation() instanceof StripsOperation) {
-			Action a = new StripsAction((StripsOperation) appliedAction.getOperation(), appliedAction.getGrounding());
-			state.removeAll(((StripsAction) a).getDeleteList());
-			state.addAll(((StripsAction) a).getAddList());
+			StripsAction a = new StripsAction((StripsOperation) appliedAction.getOperation(), appliedAction.getGrounding());
+			return new Pair<>(a.getDeleteList(), a.getAddList());
 		}
 
-		/* apply effects of action (ConditionalEffect operations) */
+		/* effects of action (ConditionalEffect operations) */
 		else if (appliedAction.getOperation() instanceof CEOperation) {
 			CEAction a = new CEAction((CEOperation) appliedAction.getOperation(), appliedAction.getGrounding());
 			Map<CNFFormula, Monom> addLists = a.getAddLists();
@@ -154,12 +169,11 @@ public class StripsUtil {
 				}
 			}
 
-			/* now conduct update */
-			state.removeAll(toRemove);
-			state.addAll(toAdd);
+			return new Pair<>(toRemove, toAdd);
 
 		} else {
 			logger.error("No support for operations of class {}", appliedAction.getOperation().getClass());
+			return new Pair<>(Collections.emptyList(), Collections.emptyList());
 		}
 	}
 
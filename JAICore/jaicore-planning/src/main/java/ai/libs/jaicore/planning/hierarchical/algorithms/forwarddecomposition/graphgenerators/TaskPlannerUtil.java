@@ -57,9 +57,10 @@ public class TaskPlannerUtil {
 	public Collection<MethodInstance> getMethodInstancesForTaskThatAreApplicableInState(final CNFFormula knowledge, final Collection<? extends Method> methods, final Literal task, final Monom state, final List<Literal> remainingProblems)
 			throws InterruptedException {
 		Collection<MethodInstance> applicableDerivedMethods = new ArrayList<>();
+		Monom unitedKnowledge = getKnowledgeForChecks(knowledge, state); // shared by all methods, so that its literal index is built only once
 		for (Method m : methods) {
 			if (m.getTask().getPropertyName().equals(task.getPropertyName())) {
-				Collection<MethodInstance> additionalInstances = this.getMethodInstancesForTaskThatAreApplicableInState(knowledge, m, task, state, remainingProblems);
+				Collection<MethodInstance> additionalInstances = this.getMethodInstancesForTaskThatAreApplicableInState(unitedKnowledge, m, task, state, remainingProblems);
 				assert !m.isLonely() || additionalInstances.size() <= 1 : "Computed more than one instantiations for lonely method: \n\t" + additionalInstances.stream().map(MethodInstance::toString).collect(Collectors.joining("\n\t"));
 				applicableDerivedMethods.addAll(additionalInstances);
 			}
@@ -69,8 +70,13 @@ public class TaskPlannerUtil {
 
 	public Collection<MethodInstance> getMethodInstancesForTaskThatAreApplicableInState(final CNFFormula knowledge, final Method method, final Literal task, final Monom state, final List<Literal> remainingProblems)
 			throws InterruptedException {
+		return this.getMethodInstancesForTaskThatAreApplicableInState(getKnowledgeForChecks(knowledge, state), method, task, state, remainingProblems);
+	}
+
+	private Collection<MethodInstance> getMethodInstancesForTaskThatAreApplicableInState(final Monom unitedKnowledge, final Method method, final Literal task, final Monom state, final List<Literal> remainingProblems)
+			throws InterruptedException {
 		Collection<MethodInstance> applicableDerivedMethodInstances = new ArrayList<>();
-		Collection<Map<VariableParam, LiteralParam>> maps = this.getMappingsThatMatchTasksAndMakesItApplicable(knowledge, method.getTask(), task, method.getPrecondition(), state);
+		Collection<Map<VariableParam, LiteralParam>> maps = this.getMappingsThatMatchTasksAndMakesItApplicable(unitedKnowledge, method.getTask(), task, method.getPrecondition());
 		for (Map<VariableParam, LiteralParam> grounding : maps) {
 
 			/* create a copy of the grounding */
@@ -302,7 +308,7 @@ public class TaskPlannerUtil {
 		}
 		sbTaskNameOfOperation.append(")");
 		Literal taskOfOperation = new Literal(sbTaskNameOfOperation.toString());
-		for (Map<VariableParam, LiteralParam> grounding : this.getMappingsThatMatchTasksAndMakesItApplicable(knowledge, taskOfOperation, task, op.getPrecondition(), state)) {
+		for (Map<VariableParam, LiteralParam> grounding : this.getMappingsThatMatchTasksAndMakesItApplicable(getKnowledgeForChecks(knowledge, state), taskOfOperation, task, op.getPrecondition())) {
 			Map<VariableParam, ConstantParam> constantGrounding = new HashMap<>();
 			for (Entry<VariableParam,LiteralParam> groundingEntry : grounding.entrySet()) {
 				constantGrounding.put(groundingEntry.getKey(), (ConstantParam) groundingEntry.getValue());
@@ -316,8 +322,21 @@ public class TaskPlannerUtil {
 		return applicableDerivedActions;
 	}
 
-	private Collection<Map<VariableParam, LiteralParam>> getMappingsThatMatchTasksAndMakesItApplicable(final CNFFormula knowledge, final Literal methodOrPrimitiveTask, final Literal target, final Monom preconditionOfMethodOrPrimitive,
-			final Monom state) throws InterruptedException {
+	/**
+	 * Creates the knowledge against which preconditions are checked, i.e. the literals of the state and of the additional knowledge. The result is a shallow copy of the
+	 * state, so that the literal index built by the checks is not attached to the state itself (which is usually kept by a search node) but is discarded with the copy.
+	 */
+	private static Monom getKnowledgeForChecks(final CNFFormula knowledge, final Monom state) {
+		assert knowledge == null || !knowledge.hasDisjunctions() : "Currently no support for non-factbase knowledge!";
+		Monom unitedKnowledge = new Monom(state, false);
+		if (knowledge != null) {
+			unitedKnowledge.addAll(knowledge.extractMonom());
+		}
+		return unitedKnowledge;
+	}
+
+	private Collection<Map<VariableParam, LiteralParam>> getMappingsThatMatchTasksAndMakesItApplicable(final Monom unitedKnowledge, final Literal methodOrPrimitiveTask, final Literal target,
+			final Monom preconditionOfMethodOrPrimitive) throws InterruptedException {
 		assert preconditionOfMethodOrPrimitive != null : "precondition of methode or primitive task " + methodOrPrimitiveTask + " is null";
 		logger.info("Now computing the possible applications of method {} for task {}", methodOrPrimitiveTask, target);
 
@@ -355,13 +374,6 @@ public class TaskPlannerUtil {
 		}
 		final List<Map<VariableParam, LiteralParam>> groundings = new ArrayList<>();
 
-		/* create knowledge for the check */
-		assert knowledge == null || !knowledge.hasDisjunctions() : "Currently no support for non-factbase knowledge!";
-		Monom unitedKnowledge = new Monom(state);
-		if (knowledge != null) {
-			unitedKnowledge.addAll(knowledge.extractMonom());
-		}
-
 		/* determine potential output parameters of the task */
 		final Collection<VariableParam> outputs = SetUtil.difference(target.getVariableParams(), preconditionOfMethodOrPrimitive.getVariableParams());
 		final Collection<VariableParam> parametersThatNeedGrounding = SetUtil.difference(target.getVariableParams(), outputs);
@@ -444,7 +456,7 @@ public class TaskPlannerUtil {
 				}
 			}
 		}
-		logger.info("Admissible groundings for {} with precondition {} on {} in state {} are: {}", methodOrPrimitiveTask, preconditionOfMethodOrPrimitive, target, state, groundings);
+		logger.info("Admissible groundings for {} with precondition {} on {} with knowledge {} are: {}", methodOrPrimitiveTask, preconditionOfMethodOrPrimitive, target, unitedKnowledge, groundings);
 		return groundings;
 	}
 
@@ -6,6 +6,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,10 +14,12 @@ import org.slf4j.LoggerFactory;
 import ai.libs.jaicore.basic.sets.SetUtil;
 import ai.libs.jaicore.logic.fol.structure.ConstantParam;
 import ai.libs.jaicore.logic.fol.structure.Literal;
+import ai.libs.jaicore.logic.fol.structure.LiteralParam;
 import ai.libs.jaicore.logic.fol.structure.Monom;
 import ai.libs.jaicore.planning.core.Action;
 import ai.libs.jaicore.planning.hierarchical.algorithms.forwarddecomposition.graphgenerators.tfd.TFDGraphGenerator;
 import ai.libs.jaicore.planning.hierarchical.algorithms.forwarddecomposition.graphgenerators.tfd.TFDNode;
+import ai.libs.jaicore.planning.hierarchical.algorithms.forwarddecomposition.graphgenerators.tfd.TFDRestProblem;
 import ai.libs.jaicore.planning.hierarchical.problems.ceocstn.CEOCSTNPlanningProblem;
 import ai.libs.jaicore.planning.hierarchical.problems.stn.MethodInstance;
 
@@ -30,10 +33,30 @@ public class CEOCTFDGraphGenerator extends TFDGraphGenerator {
 
 	@Override
 	protected TFDNode postProcessPrimitiveTaskNode(final TFDNode node) {
-		Monom state = node.getState();
-		state.getParameters().stream().filter(p -> p.getName().startsWith("newVar") && !state.contains(new Literal("def('" + p.getName() + "')")))
-		.forEach(p -> state.add(new Literal("def('" + p.getName() + "')")));
-		return node;
+		TFDRestProblem restProblem = node.getProblem();
+		if (!restProblem.isDeltaEncoded()) {
+			Monom state = node.getState();
+			state.getParameters().stream().filter(p -> p.getName().startsWith("newVar") && !state.contains(new Literal("def('" + p.getName() + "')")))
+			.forEach(p -> state.add(new Literal("def('" + p.getName() + "')")));
+			return node;
+		}
+
+		/* only the added literals can introduce new variables, and their definitions are added to the delta */
+		Set<Literal> definitions = new HashSet<>();
+		for (Literal l : restProblem.getAddedLiterals()) {
+			for (LiteralParam p : l.getParameters()) {
+				if (p.getName().startsWith("newVar")) {
+					Literal definition = new Literal("def('" + p.getName() + "')");
+					if (!restProblem.stateContains(definition)) {
+						definitions.add(definition);
+					}
+				}
+			}
+		}
+		if (definitions.isEmpty()) {
+			return node;
+		}
+		return new TFDNode(restProblem.getProblemWithAdditionalLiterals(definitions), node.getAppliedMethodInstance(), node.getAppliedAction());
 	}
 
 	@Override
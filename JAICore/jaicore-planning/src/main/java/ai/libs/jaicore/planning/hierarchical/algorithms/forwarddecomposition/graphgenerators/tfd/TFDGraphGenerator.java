@@ -2,6 +2,7 @@ package ai.libs.jaicore.planning.hierarchical.algorithms.forwarddecomposition.gr
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -12,6 +13,7 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import ai.libs.jaicore.basic.sets.Pair;
 import ai.libs.jaicore.logging.ToJSONStringUtil;
 import ai.libs.jaicore.logic.fol.structure.Literal;
 import ai.libs.jaicore.logic.fol.structure.Monom;
@@ -44,18 +46,22 @@ public class TFDGraphGenerator implements GraphGenerator<TFDNode, String>, PathU
 		}
 	}
 
-	protected Collection<TFDNode> getSuccessorsResultingFromResolvingPrimitiveTask(final Monom state, final Literal taskToBeResolved, final List<Literal> remainingOtherTasks) throws InterruptedException {
+	/**
+	 * The states of the successors are not copied but only encoded by the effects of the applied actions relative to the given problem.
+	 */
+	protected Collection<TFDNode> getSuccessorsResultingFromResolvingPrimitiveTask(final TFDRestProblem restProblem, final Literal taskToBeResolved, final List<Literal> remainingOtherTasks) throws InterruptedException {
 		Collection<TFDNode> successors = new ArrayList<>();
+		Monom state = restProblem.getState();
 		for (Action applicableAction : this.util.getActionsForPrimitiveTaskThatAreApplicableInState(null, this.primitiveTasks.get(taskToBeResolved.getPropertyName()), taskToBeResolved, state)) {
-			Monom stateCopy = new Monom(state);
-			StripsUtil.updateState(stateCopy, applicableAction);
-			successors.add(this.postProcessPrimitiveTaskNode(new TFDNode(stateCopy, remainingOtherTasks, null, applicableAction)));
+			Pair<Collection<Literal>, Collection<Literal>> effects = StripsUtil.getEffectsOfActionInState(state, applicableAction);
+			successors.add(this.postProcessPrimitiveTaskNode(new TFDNode(new TFDRestProblem(restProblem, effects.getX(), effects.getY(), remainingOtherTasks), null, applicableAction)));
 		}
 		return successors;
 	}
 
-	protected Collection<TFDNode> getSuccessorsResultingFromResolvingComplexTask(final Monom state, final Literal taskToBeResolved, final List<Literal> remainingOtherTasks) throws InterruptedException {
+	protected Collection<TFDNode> getSuccessorsResultingFromResolvingComplexTask(final TFDRestProblem restProblem, final Literal taskToBeResolved, final List<Literal> remainingOtherTasks) throws InterruptedException {
 		Collection<TFDNode> successors = new ArrayList<>();
+		Monom state = restProblem.getState();
 		Collection<MethodInstance> applicableMethodInstances = this.util.getMethodInstancesForTaskThatAreApplicableInState(null, this.problem.getDomain().getMethods(), taskToBeResolved, state, remainingOtherTasks);
 		assert this.areLonelyMethodsContainedAtMostOnce(applicableMethodInstances);
 		for (MethodInstance instance : applicableMethodInstances) {
@@ -63,7 +69,7 @@ public class TFDGraphGenerator implements GraphGenerator<TFDNode, String>, PathU
 			/* derive remaining network for this instance */
 			List<Literal> remainingTasks = this.stripTNPrefixes(this.util.getTaskChainOfTotallyOrderedNetwork(instance.getNetwork()));
 			remainingTasks.addAll(remainingOtherTasks);
-			successors.add(this.postProcessComplexTaskNode(new TFDNode(state, remainingTasks, instance, null)));
+			successors.add(this.postProcessComplexTaskNode(new TFDNode(new TFDRestProblem(restProblem, Collections.emptyList(), Collections.emptyList(), remainingTasks), instance, null)));
 		}
 		return successors;
 	}
@@ -116,7 +122,7 @@ public class TFDGraphGenerator implements GraphGenerator<TFDNode, String>, PathU
 	@Override
 	public SuccessorGenerator<TFDNode, String> getSuccessorGenerator() {
 		return l -> {
-			Monom state = l.getState();
+			TFDRestProblem restProblem = l.getProblem();
 			List<Literal> currentlyRemainingTasks = new ArrayList<>(l.getRemainingTasks());
 			if (currentlyRemainingTasks.isEmpty()) {
 				return new ArrayList<>();
@@ -128,8 +134,8 @@ public class TFDGraphGenerator implements GraphGenerator<TFDNode, String>, PathU
 
 			/* get the child nodes */
 			long creationStartTime = System.currentTimeMillis();
-			Collection<TFDNode> successors = this.primitiveTasks.containsKey(nextTask.getPropertyName()) ? this.getSuccessorsResultingFromResolvingPrimitiveTask(state, nextTask, currentlyRemainingTasks)
-					: this.getSuccessorsResultingFromResolvingComplexTask(state, nextTask, currentlyRemainingTasks);
+			Collection<TFDNode> successors = this.primitiveTasks.containsKey(nextTask.getPropertyName()) ? this.getSuccessorsResultingFromResolvingPrimitiveTask(restProblem, nextTask, currentlyRemainingTasks)
+					: this.getSuccessorsResultingFromResolvingComplexTask(restProblem, nextTask, currentlyRemainingTasks);
 			logger.info("Node generation finished and took {}ms", System.currentTimeMillis() - creationStartTime);
 
 			/* change order in remaining tasks based on numbered prefixes */
@@ -164,7 +170,10 @@ public class TFDGraphGenerator implements GraphGenerator<TFDNode, String>, PathU
 		List<Literal> newLiteralList = new ArrayList<>();
 		orderedLiterals.keySet().stream().sorted().forEach(order -> newLiteralList.addAll(orderedLiterals.get(order)));
 		newLiteralList.addAll(unorderedLiterals);
-		return new TFDNode(node.getState(), newLiteralList, node.getAppliedMethodInstance(), node.getAppliedAction());
+		if (newLiteralList.equals(node.getRemainingTasks())) {
+			return node;
+		}
+		return new TFDNode(new TFDRestProblem(node.getProblem(), Collections.emptyList(), Collections.emptyList(), newLiteralList), node.getAppliedMethodInstance(), node.getAppliedAction());
 	}
 
 	@Override
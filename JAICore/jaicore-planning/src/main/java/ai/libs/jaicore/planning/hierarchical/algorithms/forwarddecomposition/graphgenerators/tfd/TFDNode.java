@@ -41,11 +41,15 @@ public class TFDNode implements Serializable {
 	}
 
 	public TFDNode(final Monom state, final List<Literal> remainingTasks, final MethodInstance appliedMethodInstance, final Action appliedAction) {
+		this(new TFDRestProblem(state, remainingTasks), appliedMethodInstance, appliedAction);
+	}
+
+	public TFDNode(final TFDRestProblem problem, final MethodInstance appliedMethodInstance, final Action appliedAction) {
 		super();
-		this.problem = new TFDRestProblem(state, remainingTasks);
+		this.problem = problem;
 		this.appliedMethodInstance = appliedMethodInstance;
 		this.appliedAction = appliedAction;
-		this.isGoal = remainingTasks.isEmpty();
+		this.isGoal = problem.getRemainingTasks().isEmpty();
 	}
 
 	public TFDRestProblem getProblem() {
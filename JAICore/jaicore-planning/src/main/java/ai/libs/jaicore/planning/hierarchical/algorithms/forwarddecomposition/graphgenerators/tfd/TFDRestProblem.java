@@ -1,28 +1,233 @@
 package ai.libs.jaicore.planning.hierarchical.algorithms.forwarddecomposition.graphgenerators.tfd;
 
 import java.io.Serializable;
+import java.lang.ref.SoftReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import ai.libs.jaicore.logging.ToJSONStringUtil;
 import ai.libs.jaicore.logic.fol.structure.Literal;
 import ai.libs.jaicore.logic.fol.structure.Monom;
 
+/**
+ * The rest problem of a node in the TFD search, i.e. the current state and the remaining tasks.
+ *
+ * The state is either given explicitly or delta-encoded as the state of a base problem together with the literals that are deleted from and added to it. Delta-encoded states share their structure with the states of their
+ * ancestors, so deriving a successor only costs the size of the effects. The state is only materialized when it is requested and is then held through a soft reference, i.e. it may be recomputed later on if memory is
+ * short. Since the materialized state may be shared with other problems or be recomputed, it must not be modified.
+ *
+ * The hash code of a delta-encoded state is derived from the one of the base state when the problem is created, so that problems can be hashed (e.g. by the search) without materializing their states.
+ *
+ * @author fmohr
+ *
+ */
 public class TFDRestProblem implements Serializable {
 
 	private static final long serialVersionUID = 6946349883053172033L;
 	private final Monom state;
+	private final TFDRestProblem base;
+	private final Collection<Literal> deletedLiterals;
+	private final Collection<Literal> addedLiterals;
 	private final List<Literal> remainingTasks;
+	private final int stateHashCode; // only used for delta-encoded states
+	private transient SoftReference<Monom> materializedState;
 
 	public TFDRestProblem(final Monom state, final List<Literal> remainingTasks) {
 		super();
 		this.state = state;
+		this.base = null;
+		this.deletedLiterals = Collections.emptyList();
+		this.addedLiterals = Collections.emptyList();
 		this.remainingTasks = remainingTasks;
+		this.stateHashCode = 0;
 	}
 
+	/**
+	 * Creates a rest problem whose state is the one of the base problem after removing the deleted and adding the added literals.
+	 *
+	 * @param base
+	 *            The problem whose state is modified
+	 * @param deletedLiterals
+	 *            Literals that are removed from the state of the base problem
+	 * @param addedLiterals
+	 *            Literals that are added to the state of the base problem after the deleted ones have been removed
+	 * @param remainingTasks
+	 *            The remaining tasks of this problem
+	 */
+	public TFDRestProblem(final TFDRestProblem base, final Collection<Literal> deletedLiterals, final Collection<Literal> addedLiterals, final List<Literal> remainingTasks) {
+		super();
+		TFDRestProblem effectiveBase = base;
+		while (effectiveBase.isDeltaEncoded() && effectiveBase.deletedLiterals.isEmpty() && effectiveBase.addedLiterals.isEmpty()) {
+			effectiveBase = effectiveBase.base; // problems without effects have the same state as their base
+		}
+		this.state = null;
+		this.base = effectiveBase;
+		this.deletedLiterals = deletedLiterals;
+		this.addedLiterals = addedLiterals;
+		this.remainingTasks = remainingTasks;
+		this.stateHashCode = this.computeStateHashCode();
+	}
+
+	/**
+	 * Computes the hash code of the state, which is the sum of the hash codes of its literals, from the one of the base state: the hash codes of the deleted literals that are in the base state are subtracted, and the ones
+	 * of the added literals that are not in the state after the deletion are added.
+	 */
+	private int computeStateHashCode() {
+		int hashCode = this.base.getStateHashCode();
+		Set<Literal> deletedLiteralsOfBaseState = new HashSet<>();
+		for (Literal literal : this.deletedLiterals) {
+			if (this.base.stateContains(literal) && deletedLiteralsOfBaseState.add(literal)) {
+				hashCode -= literal.hashCode();
+			}
+		}
+		Set<Literal> addedLiteralsOfState = new HashSet<>();
+		for (Literal literal : this.addedLiterals) {
+			if ((deletedLiteralsOfBaseState.contains(literal) || !this.base.stateContains(literal)) && addedLiteralsOfState.add(literal)) {
+				hashCode += literal.hashCode();
+			}
+		}
+		return hashCode;
+	}
+
+	private int getStateHashCode() {
+		if (!this.isDeltaEncoded()) {
+			return this.state != null ? this.state.hashCode() : 0;
+		}
+		return this.stateHashCode;
+	}
+
+	/**
+	 * @return The state of the problem, which must not be modified if the problem is delta-encoded
+	 */
 	public Monom getState() {
-		return this.state;
+		if (!this.isDeltaEncoded()) {
+			return this.state;
+		}
+		if (this.deletedLiterals.isEmpty() && this.addedLiterals.isEmpty()) {
+			return this.base.getState();
+		}
+		Monom materialized = this.getMaterializedState();
+		if (materialized != null) {
+			return materialized;
+		}
+		synchronized (this) {
+			materialized = this.getMaterializedState();
+			if (materialized == null) {
+
+				/* collect the deltas up to the next problem whose state is known */
+				Deque<TFDRestProblem> deltas = new ArrayDeque<>();
+				TFDRestProblem current = this;
+				Monom knownState = null;
+				while (knownState == null) {
+					if (!current.isDeltaEncoded()) {
+						knownState = current.state;
+					} else if (current.getMaterializedState() != null) {
+						knownState = current.getMaterializedState();
+					} else {
+						deltas.push(current);
+						current = current.base;
+					}
+				}
+
+				/* apply the deltas from the top to the bottom */
+				materialized = new Monom(knownState, false);
+				while (!deltas.isEmpty()) {
+					TFDRestProblem delta = deltas.pop();
+					materialized.removeAll(delta.deletedLiterals);
+					materialized.addAll(delta.addedLiterals);
+				}
+				this.materializedState = new SoftReference<>(materialized);
+			}
+			return materialized;
+		}
+	}
+
+	private Monom getMaterializedState() {
+		SoftReference<Monom> reference = this.materializedState;
+		return reference != null ? reference.get() : null;
+	}
+
+	/**
+	 * @return true iff this problem currently holds a materialized version of its delta-encoded state
+	 */
+	public boolean isStateMaterialized() {
+		return this.getMaterializedState() != null;
+	}
+
+	/**
+	 * Checks whether the state contains a literal without materializing the state.
+	 *
+	 * @param literal
+	 *            The literal to check
+	 * @return true iff the state contains the literal
+	 */
+	public boolean stateContains(final Literal literal) {
+		TFDRestProblem current = this;
+		while (current.isDeltaEncoded()) {
+			if (current.addedLiterals.contains(literal)) {
+				return true;
+			}
+			if (current.deletedLiterals.contains(literal)) {
+				return false;
+			}
+			Monom materialized = current.getMaterializedState();
+			if (materialized != null) {
+				return materialized.contains(literal);
+			}
+			current = current.base;
+		}
+		return current.state.contains(literal);
+	}
+
+	/**
+	 * Derives a problem with the same base and remaining tasks whose delta additionally adds the given literals.
+	 *
+	 * @param literals
+	 *            The literals to be added to the state
+	 * @return The derived problem
+	 */
+	public TFDRestProblem getProblemWithAdditionalLiterals(final Collection<Literal> literals) {
+		if (!this.isDeltaEncoded()) {
+			Monom extendedState = new Monom(this.state, false);
+			extendedState.addAll(literals);
+			return new TFDRestProblem(extendedState, this.remainingTasks);
+		}
+		List<Literal> extendedAddedLiterals = new ArrayList<>(this.addedLiterals);
+		extendedAddedLiterals.addAll(literals);
+		return new TFDRestProblem(this.base, this.deletedLiterals, extendedAddedLiterals, this.remainingTasks);
+	}
+
+	public boolean isDeltaEncoded() {
+		return this.base != null;
+	}
+
+	/**
+	 * @return The problem whose state is modified by the delta of this problem or NULL if the state is given explicitly
+	 */
+	public TFDRestProblem getBase() {
+		return this.base;
+	}
+
+	/**
+	 * @return The literals this problem deletes from the state of its base problem (empty if the state is given explicitly)
+	 */
+	public Collection<Literal> getDeletedLiterals() {
+		return Collections.unmodifiableCollection(this.deletedLiterals);
+	}
+
+	/**
+	 * @return The literals this problem adds to the state of its base problem (empty if the state is given explicitly)
+	 */
+	public Collection<Literal> getAddedLiterals() {
+		return Collections.unmodifiableCollection(this.addedLiterals);
 	}
 
 	public List<Literal> getRemainingTasks() {
@@ -32,7 +237,7 @@ public class TFDRestProblem implements Serializable {
 	@Override
 	public String toString() {
 		Map<String, Object> fields = new HashMap<>();
-		fields.put("state", this.state);
+		fields.put("state", this.getState());
 		fields.put("remainingTasks", remainingTasks);
 		return ToJSONStringUtil.toJSONString(fields);
 //			return "TFDRestProblem [state=" + this.state + ", remainingTasks=" + this.remainingTasks + "]";
@@ -43,7 +248,7 @@ public class TFDRestProblem implements Serializable {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((this.remainingTasks == null) ? 0 : this.remainingTasks.hashCode());
-		result = prime * result + ((this.state == null) ? 0 : this.state.hashCode());
+		result = prime * result + this.getStateHashCode();
 		return result;
 	}
 
@@ -66,11 +271,18 @@ public class TFDRestProblem implements Serializable {
 		} else if (!this.remainingTasks.equals(other.remainingTasks)) {
 			return false;
 		}
-		if (this.state == null) {
-			if (other.state != null) {
+
+		/* only materialize the states if they may be equal */
+		if (this.getStateHashCode() != other.getStateHashCode()) {
+			return false;
+		}
+		Monom s = this.getState();
+		Monom otherState = other.getState();
+		if (s == null) {
+			if (otherState != null) {
 				return false;
 			}
-		} else if (!this.state.equals(other.state)) {
+		} else if (!s.equals(otherState)) {
 			return false;
 		}
 		return true;
@@ -0,0 +1,47 @@
+package ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The answer of a coworker to a job. It contains the solutions found in the subtrees of the job and the nodes that have not been expanded by the coworker (because its time for the job has elapsed). The master puts the
+ * latter back on its OPEN list.
+ *
+ * @author fmohr
+ *
+ * @param <T>
+ * @param <A>
+ * @param <V>
+ */
+public class DistributedComputationResult<T, A, V extends Comparable<V>> implements Serializable {
+	private static final long serialVersionUID = 4711437542926469473L;
+	private final String coworker;
+	private final ArrayList<SerializablePath<T, A, V>> solutions;
+	private final ArrayList<SerializablePath<T, A, V>> unexploredNodes;
+
+	public DistributedComputationResult(final String coworker, final List<SerializablePath<T, A, V>> solutions, final List<SerializablePath<T, A, V>> unexploredNodes) {
+		super();
+		this.coworker = coworker;
+		this.solutions = new ArrayList<>(solutions);
+		this.unexploredNodes = new ArrayList<>(unexploredNodes);
+	}
+
+	public String getCoworker() {
+		return this.coworker;
+	}
+
+	public List<SerializablePath<T, A, V>> getSolutions() {
+		return Collections.unmodifiableList(this.solutions);
+	}
+
+	public List<SerializablePath<T, A, V>> getUnexploredNodes() {
+		return Collections.unmodifiableList(this.unexploredNodes);
+	}
+
+	@Override
+	public String toString() {
+		return "DistributedComputationResult [coworker=" + this.coworker + ", solutions=" + this.solutions.size() + ", unexploredNodes=" + this.unexploredNodes.size() + "]";
+	}
+}
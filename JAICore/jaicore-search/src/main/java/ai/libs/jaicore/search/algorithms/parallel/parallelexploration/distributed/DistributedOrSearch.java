@@ -0,0 +1,207 @@
+package ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ai.libs.jaicore.basic.algorithm.AlgorithmExecutionCanceledException;
+import ai.libs.jaicore.basic.algorithm.events.AlgorithmEvent;
+import ai.libs.jaicore.basic.algorithm.exceptions.AlgorithmException;
+import ai.libs.jaicore.basic.algorithm.exceptions.AlgorithmTimeoutedException;
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.events.NodePassedToCoworkerEvent;
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.interfaces.DistributedSearchCommunicationLayer;
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.interfaces.SerializableGraphGenerator;
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.interfaces.SerializableNodeEvaluator;
+import ai.libs.jaicore.search.algorithms.standard.bestfirst.BestFirst;
+import ai.libs.jaicore.search.algorithms.standard.bestfirst.IBestFirstConfig;
+import ai.libs.jaicore.search.model.travesaltree.Node;
+import ai.libs.jaicore.search.probleminputs.GraphSearchWithSubpathEvaluationsInput;
+
+/**
+ * Master of a distributed best-first search. The master runs a usual best-first search, but whenever a coworker is idle, the first node of OPEN is not expanded locally but passed to the coworker, which then
+ * searches the subtree under that node (see {@link DistributedOrSearchCoworker}). The coworker returns the solutions it has found together with the nodes it has not expanded within its time for the job; the
+ * solutions are registered as solutions of the master, and the unexplored nodes are put back on OPEN.
+ *
+ * Coworkers may join at any time. If a coworker unregisters without answering its job, or if it crashes and hence its lease at the communication layer expires, the node passed to it is put back on OPEN.
+ * When the master is shut down, all coworkers are detached.
+ *
+ * @author fmohr
+ *
+ * @param <T>
+ * @param <A>
+ * @param <V>
+ */
+public class DistributedOrSearch<T, A, V extends Comparable<V>> extends BestFirst<GraphSearchWithSubpathEvaluationsInput<T, A, V>, T, A, V> {
+
+	private static final int POLLING_INTERVAL_IN_MS = 50;
+
+	private Logger logger = LoggerFactory.getLogger(DistributedOrSearch.class);
+
+	private final SerializableGraphGenerator<T, A> serializableGraphGenerator;
+	private final SerializableNodeEvaluator<T, V> serializableNodeEvaluator;
+	private final DistributedSearchCommunicationLayer<T, A, V> communicationLayer;
+	private final Set<String> idleCoworkers = ConcurrentHashMap.newKeySet(); // concurrent, because the coworkers are detached by the thread conducting the shutdown
+	private final Map<String, Node<T, V>> busyCoworkers = new ConcurrentHashMap<>(); // the node passed to each busy coworker
+	private int passedNodesCounter;
+
+	public DistributedOrSearch(final SerializableGraphGenerator<T, A> graphGenerator, final SerializableNodeEvaluator<T, V> nodeEvaluator, final DistributedSearchCommunicationLayer<T, A, V> communicationLayer) {
+		this(ConfigFactory.create(IBestFirstConfig.class), graphGenerator, nodeEvaluator, communicationLayer);
+	}
+
+	public DistributedOrSearch(final IBestFirstConfig config, final SerializableGraphGenerator<T, A> graphGenerator, final SerializableNodeEvaluator<T, V> nodeEvaluator,
+			final DistributedSearchCommunicationLayer<T, A, V> communicationLayer) {
+		super(config, new GraphSearchWithSubpathEvaluationsInput<>(graphGenerator, nodeEvaluator));
+		this.serializableGraphGenerator = graphGenerator;
+		this.serializableNodeEvaluator = nodeEvaluator;
+		this.communicationLayer = communicationLayer;
+	}
+
+	@Override
+	public AlgorithmEvent nextWithException() throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmTimeoutedException, AlgorithmException {
+		switch (this.getState()) {
+		case CREATED:
+			try {
+				this.communicationLayer.publishProblem(this.serializableGraphGenerator, this.serializableNodeEvaluator);
+			} catch (IOException e) {
+				throw new AlgorithmException(e, "Could not publish the search problem to the coworkers.");
+			}
+			return super.nextWithException();
+
+		case ACTIVE:
+			this.registerActiveThread();
+			try {
+				while (true) {
+					this.checkAndConductTermination();
+					this.synchronizeWithCoworkers();
+
+					/* solutions (also those reported by the coworkers) are returned by the standard routine */
+					if (!this.pendingSolutionFoundEvents.isEmpty()) {
+						return super.nextWithException();
+					}
+
+					/* if a coworker is idle, pass the first node of OPEN to it */
+					if (!this.idleCoworkers.isEmpty()) {
+						Node<T, V> node = this.pollOpen();
+						if (node != null) {
+							return this.passNodeToCoworker(node);
+						}
+					}
+
+					/* expand the next node locally unless there is nothing to do but waiting for the coworkers */
+					if (!this.open.isEmpty() || this.activeJobs.get() > 0 || this.busyCoworkers.isEmpty()) {
+						return super.nextWithException();
+					}
+					try {
+						Thread.sleep(POLLING_INTERVAL_IN_MS);
+					} catch (InterruptedException e) { // if we are interrupted during a wait, we must still conduct a controlled shutdown
+						Thread.currentThread().interrupt();
+						this.checkAndConductTermination();
+						throw e;
+					}
+				}
+			} finally {
+				this.unregisterActiveThread();
+			}
+
+		default:
+			throw new IllegalStateException("Distributed search is in state " + this.getState() + " in which next must not be called!");
+		}
+	}
+
+	private AlgorithmEvent passNodeToCoworker(final Node<T, V> node) throws AlgorithmException {
+		Iterator<String> it = this.idleCoworkers.iterator();
+		String coworker = it.next();
+		it.remove();
+		try {
+			this.communicationLayer.createNewJobForCoworker(coworker, Arrays.asList(SerializablePath.fromNode(node)));
+		} catch (IOException e) {
+			throw new AlgorithmException(e, "Could not pass node to coworker " + coworker);
+		}
+		this.busyCoworkers.put(coworker, node);
+		this.passedNodesCounter++;
+		this.logger.debug("Passed node {} with f-value {} to coworker {}", node.getPoint(), node.getInternalLabel(), coworker);
+		NodePassedToCoworkerEvent<Node<T, V>> event = new NodePassedToCoworkerEvent<>(this.getId(), node, coworker);
+		this.post(event);
+		return event;
+	}
+
+	/**
+	 * Registers new coworkers, processes the results of busy coworkers, and takes back the nodes of coworkers that have left.
+	 */
+	private void synchronizeWithCoworkers() throws AlgorithmException, InterruptedException {
+		try {
+			this.idleCoworkers.addAll(this.communicationLayer.detectNewCoworkers());
+			this.idleCoworkers.removeIf(c -> !this.isCoworkerRegistered(c));
+			Iterator<Entry<String, Node<T, V>>> it = this.busyCoworkers.entrySet().iterator();
+			while (it.hasNext()) {
+				Entry<String, Node<T, V>> job = it.next();
+				String coworker = job.getKey();
+				DistributedComputationResult<T, A, V> result = this.communicationLayer.readResult(coworker);
+				if (result != null) {
+					this.logger.debug("Received result {} from coworker {}", result, coworker);
+					for (SerializablePath<T, A, V> solution : result.getSolutions()) {
+						this.registerSolution(solution.toSolution());
+					}
+					for (SerializablePath<T, A, V> unexploredNode : result.getUnexploredNodes()) {
+						this.insertNodeIntoLocalGraphAndOpen(unexploredNode.toNode());
+					}
+					it.remove();
+					this.idleCoworkers.add(coworker);
+				} else if (!this.communicationLayer.isCoworkerRegistered(coworker)) {
+					this.logger.warn("Coworker {} has left or crashed without answering its job. Putting its node back on OPEN.", coworker);
+					this.insertNodeIntoLocalGraphAndOpen(job.getValue());
+					it.remove();
+				}
+			}
+		} catch (IOException e) {
+			throw new AlgorithmException(e, "Could not communicate with the coworkers.");
+		}
+	}
+
+	private boolean isCoworkerRegistered(final String coworker) {
+		try {
+			return this.communicationLayer.isCoworkerRegistered(coworker);
+		} catch (IOException e) {
+			this.logger.warn("Could not determine whether coworker {} is still registered. Assuming that it has left.", coworker, e);
+			return false;
+		}
+	}
+
+	@Override
+	protected void shutdown() {
+		if (this.isShutdownInitialized()) {
+			return;
+		}
+		super.shutdown();
+		List<String> coworkers = new ArrayList<>(this.idleCoworkers);
+		coworkers.addAll(this.busyCoworkers.keySet());
+		for (String coworker : coworkers) {
+			try {
+				this.communicationLayer.detachCoworker(coworker);
+			} catch (IOException e) {
+				this.logger.error("Could not detach coworker {}", coworker, e);
+			}
+		}
+		this.logger.info("Detached {} coworkers.", coworkers.size());
+	}
+
+	public int getPassedNodesCounter() {
+		return this.passedNodesCounter;
+	}
+
+	@Override
+	public void setLoggerName(final String name) {
+		super.setLoggerName(name);
+		this.logger = LoggerFactory.getLogger(name);
+	}
+}
@@ -0,0 +1,171 @@
+package ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ai.libs.jaicore.basic.algorithm.AlgorithmExecutionCanceledException;
+import ai.libs.jaicore.basic.algorithm.IAlgorithmConfig;
+import ai.libs.jaicore.basic.algorithm.events.AlgorithmEvent;
+import ai.libs.jaicore.basic.algorithm.exceptions.AlgorithmException;
+import ai.libs.jaicore.basic.algorithm.exceptions.AlgorithmTimeoutedException;
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.interfaces.DistributedSearchCommunicationLayer;
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.interfaces.SerializableGraphGenerator;
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.interfaces.SerializableNodeEvaluator;
+import ai.libs.jaicore.search.algorithms.standard.bestfirst.BestFirst;
+import ai.libs.jaicore.search.algorithms.standard.bestfirst.IBestFirstConfig;
+import ai.libs.jaicore.search.algorithms.standard.bestfirst.events.EvaluatedSearchSolutionCandidateFoundEvent;
+import ai.libs.jaicore.search.model.travesaltree.Node;
+import ai.libs.jaicore.search.probleminputs.GraphSearchWithSubpathEvaluationsInput;
+
+/**
+ * Coworker of a {@link DistributedOrSearch}. The coworker registers at the master, fetches the problem, and then processes jobs until it is detached. For each job, it runs a local best-first search that is
+ * bootstrapped with the nodes of the job. The local search runs until the subtrees of the job are exhausted or the time for the job has elapsed; then, the solutions found and the nodes that are still on OPEN are
+ * returned to the master.
+ *
+ * The time for a job bounds how long nodes are withheld from the master, so shorter times yield a better balance among the coworkers at the cost of more communication.
+ *
+ * While it is registered, the coworker sends heartbeats from a separate thread, so that the master can take back the job of a coworker that has crashed.
+ *
+ * @author fmohr
+ *
+ * @param <T>
+ * @param <A>
+ * @param <V>
+ */
+public class DistributedOrSearchCoworker<T, A, V extends Comparable<V>> {
+
+	private static final Logger logger = LoggerFactory.getLogger(DistributedOrSearchCoworker.class);
+
+	private final DistributedSearchCommunicationLayer<T, A, V> communicationLayer;
+	private final String coworkerName;
+	private final int cpus;
+	private final int timeoutPerJobInMS;
+	private int heartbeatIntervalInMS = 1000;
+
+	public DistributedOrSearchCoworker(final DistributedSearchCommunicationLayer<T, A, V> communicationLayer, final String coworkerName, final int cpus, final int timeoutPerJobInMS) {
+		super();
+		this.communicationLayer = communicationLayer;
+		this.coworkerName = coworkerName;
+		this.cpus = cpus;
+		this.timeoutPerJobInMS = timeoutPerJobInMS;
+	}
+
+	public int getHeartbeatIntervalInMS() {
+		return this.heartbeatIntervalInMS;
+	}
+
+	public void setHeartbeatIntervalInMS(final int heartbeatIntervalInMS) {
+		this.heartbeatIntervalInMS = heartbeatIntervalInMS;
+	}
+
+	private void sendHeartbeats() {
+		while (!Thread.currentThread().isInterrupted()) {
+			try {
+				Thread.sleep(this.heartbeatIntervalInMS);
+				this.communicationLayer.heartbeat(this.coworkerName);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (IOException e) {
+				logger.warn("Coworker {} could not send its heartbeat.", this.coworkerName, e);
+			}
+		}
+	}
+
+	/**
+	 * Processes jobs of the master until the coworker is detached.
+	 *
+	 * @throws IOException
+	 * @throws InterruptedException
+	 * @throws AlgorithmException
+	 */
+	public void cowork() throws IOException, InterruptedException, AlgorithmException {
+		this.communicationLayer.register(this.coworkerName);
+		Thread heartbeatThread = new Thread(this::sendHeartbeats, "Heartbeat of coworker " + this.coworkerName);
+		heartbeatThread.setDaemon(true);
+		heartbeatThread.start();
+		try {
+			SerializableGraphGenerator<T, A> graphGenerator = this.communicationLayer.getGraphGenerator();
+			SerializableNodeEvaluator<T, V> nodeEvaluator = this.communicationLayer.getNodeEvaluator();
+			logger.info("Coworker {} has received the problem and is ready for jobs.", this.coworkerName);
+			List<SerializablePath<T, A, V>> job;
+			while ((job = this.communicationLayer.nextJob(this.coworkerName)) != null) {
+				logger.debug("Coworker {} received a job with {} nodes.", this.coworkerName, job.size());
+				DistributedComputationResult<T, A, V> result = this.solveJob(graphGenerator, nodeEvaluator, job);
+				logger.debug("Coworker {} reports {}", this.coworkerName, result);
+				this.communicationLayer.reportResult(this.coworkerName, result);
+			}
+			logger.info("Coworker {} has been detached.", this.coworkerName);
+		} finally {
+			heartbeatThread.interrupt();
+			this.communicationLayer.unregister(this.coworkerName);
+		}
+	}
+
+	private DistributedComputationResult<T, A, V> solveJob(final SerializableGraphGenerator<T, A> graphGenerator, final SerializableNodeEvaluator<T, V> nodeEvaluator, final List<SerializablePath<T, A, V>> job)
+			throws InterruptedException, IOException, AlgorithmException {
+		IBestFirstConfig config = ConfigFactory.create(IBestFirstConfig.class);
+		config.setProperty(IAlgorithmConfig.K_CPUS, String.valueOf(this.cpus));
+		BestFirst<GraphSearchWithSubpathEvaluationsInput<T, A, V>, T, A, V> search = new BestFirst<>(config, new GraphSearchWithSubpathEvaluationsInput<>(graphGenerator, nodeEvaluator));
+		search.bootstrap(job.stream().map(SerializablePath::toNode).collect(Collectors.toList()));
+
+		/* conduct the search until the subtrees are exhausted, the time for the job has elapsed, or the coworker has been detached */
+		List<SerializablePath<T, A, V>> solutions = new ArrayList<>();
+		long deadline = System.currentTimeMillis() + this.timeoutPerJobInMS;
+		try {
+			while (search.hasNext() && System.currentTimeMillis() < deadline && !this.communicationLayer.isDetached(this.coworkerName)) {
+				AlgorithmEvent event = search.nextWithException();
+				if (event instanceof EvaluatedSearchSolutionCandidateFoundEvent) {
+					@SuppressWarnings("unchecked")
+					EvaluatedSearchSolutionCandidateFoundEvent<T, A, V> solutionEvent = (EvaluatedSearchSolutionCandidateFoundEvent<T, A, V>) event;
+					solutions.add(SerializablePath.fromSolution(solutionEvent.getSolutionCandidate()));
+				}
+			}
+
+			/* collect the nodes that have not been expanded yet. Nodes under construction must be waited for, because their parents are not on OPEN anymore */
+			search.awaitActiveJobs();
+			List<SerializablePath<T, A, V>> unexploredNodes = new ArrayList<>();
+			for (Node<T, V> node : search.getOpen()) {
+				unexploredNodes.add(SerializablePath.fromNode(node));
+			}
+			return new DistributedComputationResult<>(this.coworkerName, solutions, unexploredNodes);
+		} catch (AlgorithmExecutionCanceledException | AlgorithmTimeoutedException e) {
+			throw new AlgorithmException(e, "The local search of coworker " + this.coworkerName + " has been stopped unexpectedly.");
+		} finally {
+			search.cancel();
+		}
+	}
+
+	private static <T, A, V extends Comparable<V>> void launch(final Path communicationFolder, final String coworkerName, final int cpus, final int timeoutPerJobInMS) throws IOException, InterruptedException, AlgorithmException {
+		DistributedSearchCommunicationLayer<T, A, V> communicationLayer = new FolderBasedDistributedSearchCommunicationLayer<>(communicationFolder, false);
+		new DistributedOrSearchCoworker<>(communicationLayer, coworkerName, cpus, timeoutPerJobInMS).cowork();
+	}
+
+	/**
+	 * Starts a coworker that communicates with the master over a shared folder.
+	 *
+	 * @param args
+	 *            The communication folder, the name of the coworker, the number of CPUs to be used, and the time in milliseconds after which a job is returned to the master
+	 */
+	public static void main(final String[] args) {
+		if (args.length < 4) {
+			logger.error("Usage: DistributedOrSearchCoworker <communication folder> <name> <cpus> <timeout per job in ms>");
+			return;
+		}
+		try {
+			launch(Paths.get(args[0]), args[1], Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			logger.info("Coworker {} has been interrupted.", args[1]);
+		} catch (IOException | AlgorithmException e) {
+			logger.error("Coworker {} has failed.", args[1], e);
+		}
+	}
+}
@@ -0,0 +1,303 @@
+package ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.interfaces.DistributedSearchCommunicationLayer;
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.interfaces.SerializableGraphGenerator;
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.interfaces.SerializableNodeEvaluator;
+
+/**
+ * Communication layer that exchanges serialized objects via a folder that is shared by the master and the coworkers (e.g. a network file system on a cluster).
+ *
+ * Every file is first written under a temporary name and then moved to its final name, so that readers never see partially written files. The layout of the folder is:
+ * <ul>
+ * <li>problem/graphgenerator.ser and problem/nodeevaluator.ser: the problem published by the master</li>
+ * <li>coworkers/&lt;name&gt;.registered: exists as long as the coworker is registered, and its modification time is updated by the heartbeats of the coworker</li>
+ * <li>coworkers/&lt;name&gt;.detached: created by the master to tell the coworker to quit</li>
+ * <li>jobs/&lt;name&gt;.job: the next job of the coworker</li>
+ * <li>results/&lt;name&gt;.result: the result of the last job of the coworker</li>
+ * </ul>
+ *
+ * The master clears the folder when it is created, so coworkers must be started after the master's communication layer has been created.
+ *
+ * A coworker that crashes cannot delete its registration file. Therefore, the master considers a coworker as gone once the modification time of its registration file has not
+ * changed for the lease time (see {@link #setLeaseTimeInMS(int)}). The master measures this time with its own clock, so the clocks of the machines need not be synchronized.
+ * When a coworker is detected again after its lease has expired, its stale result is discarded, since its job has been taken back in the meantime.
+ *
+ * @author fmohr
+ *
+ * @param <T>
+ * @param <A>
+ * @param <V>
+ */
+public class FolderBasedDistributedSearchCommunicationLayer<T, A, V extends Comparable<V>> implements DistributedSearchCommunicationLayer<T, A, V> {
+
+	private static final Logger logger = LoggerFactory.getLogger(FolderBasedDistributedSearchCommunicationLayer.class);
+
+	private static final String SUFFIX_REGISTERED = ".registered";
+	private static final String SUFFIX_DETACHED = ".detached";
+	private static final String SUFFIX_JOB = ".job";
+	private static final String SUFFIX_RESULT = ".result";
+	private static final String SUFFIX_TMP = ".tmp";
+
+	private final Path problemFolder;
+	private final Path coworkerFolder;
+	private final Path jobFolder;
+	private final Path resultFolder;
+	private final Set<String> knownCoworkers = new HashSet<>();
+	private final Map<String, Lease> leases = new HashMap<>();
+	private int pollingIntervalInMS = 100;
+	private int leaseTimeInMS = 10000;
+
+	/**
+	 * The last heartbeat of a coworker observed by the master and the time of the master at which it has been observed.
+	 */
+	private static class Lease {
+		private final FileTime heartbeat;
+		private final long observationTime;
+
+		private Lease(final FileTime heartbeat, final long observationTime) {
+			super();
+			this.heartbeat = heartbeat;
+			this.observationTime = observationTime;
+		}
+	}
+
+	public FolderBasedDistributedSearchCommunicationLayer(final Path communicationFolder, final boolean master) throws IOException {
+		super();
+		this.problemFolder = communicationFolder.resolve("problem");
+		this.coworkerFolder = communicationFolder.resolve("coworkers");
+		this.jobFolder = communicationFolder.resolve("jobs");
+		this.resultFolder = communicationFolder.resolve("results");
+		for (Path folder : new Path[] { this.problemFolder, this.coworkerFolder, this.jobFolder, this.resultFolder }) {
+			Files.createDirectories(folder);
+			if (master) {
+				try (DirectoryStream<Path> files = Files.newDirectoryStream(folder)) {
+					for (Path file : files) {
+						logger.debug("Removing stale file {}", file);
+						Files.deleteIfExists(file);
+					}
+				}
+			}
+		}
+	}
+
+	public int getPollingIntervalInMS() {
+		return this.pollingIntervalInMS;
+	}
+
+	public void setPollingIntervalInMS(final int pollingIntervalInMS) {
+		this.pollingIntervalInMS = pollingIntervalInMS;
+	}
+
+	public int getLeaseTimeInMS() {
+		return this.leaseTimeInMS;
+	}
+
+	/**
+	 * @param leaseTimeInMS
+	 *            The time after which the master considers a coworker without heartbeat as gone. It must be several times the heartbeat interval of the coworkers.
+	 */
+	public void setLeaseTimeInMS(final int leaseTimeInMS) {
+		this.leaseTimeInMS = leaseTimeInMS;
+	}
+
+	private void write(final Path file, final Serializable object) throws IOException {
+		Path tmpFile = file.resolveSibling(file.getFileName() + SUFFIX_TMP);
+		try (OutputStream out = Files.newOutputStream(tmpFile); ObjectOutputStream oos = new ObjectOutputStream(out)) {
+			oos.writeObject(object);
+		}
+		try {
+			Files.move(tmpFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * @return The object stored in the file or NULL if the file does not exist
+	 */
+	private Object read(final Path file) throws IOException {
+		try (InputStream in = Files.newInputStream(file); ObjectInputStream ois = new ObjectInputStream(in)) {
+			return ois.readObject();
+		} catch (NoSuchFileException e) {
+			return null;
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Could not deserialize the content of " + file, e);
+		}
+	}
+
+	/**
+	 * Reads and deletes the file. Only one party may consume a file, so there is no race between reading and deleting it.
+	 */
+	private Object consume(final Path file) throws IOException {
+		Object object = this.read(file);
+		if (object != null) {
+			Files.delete(file);
+		}
+		return object;
+	}
+
+	private Object awaitFile(final Path file) throws IOException, InterruptedException {
+		while (!Files.exists(file)) {
+			Thread.sleep(this.pollingIntervalInMS);
+		}
+		return this.read(file);
+	}
+
+	private Path getRegistrationFile(final String coworker) {
+		return this.coworkerFolder.resolve(coworker + SUFFIX_REGISTERED);
+	}
+
+	private Path getDetachmentFile(final String coworker) {
+		return this.coworkerFolder.resolve(coworker + SUFFIX_DETACHED);
+	}
+
+	/* master side */
+
+	@Override
+	public void publishProblem(final SerializableGraphGenerator<T, A> graphGenerator, final SerializableNodeEvaluator<T, V> nodeEvaluator) throws IOException {
+		this.write(this.problemFolder.resolve("nodeevaluator.ser"), nodeEvaluator);
+		this.write(this.problemFolder.resolve("graphgenerator.ser"), graphGenerator);
+	}
+
+	@Override
+	public Collection<String> detectNewCoworkers() throws IOException {
+		List<String> newCoworkers = new ArrayList<>();
+		Set<String> registeredCoworkers = new HashSet<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(this.coworkerFolder, "*" + SUFFIX_REGISTERED)) {
+			for (Path file : files) {
+				String filename = file.getFileName().toString();
+				String coworker = filename.substring(0, filename.length() - SUFFIX_REGISTERED.length());
+				if (!this.isCoworkerRegistered(coworker)) {
+					continue;
+				}
+				registeredCoworkers.add(coworker);
+				if (this.knownCoworkers.add(coworker)) {
+					logger.info("Detected new coworker {}", coworker);
+					Files.deleteIfExists(this.resultFolder.resolve(coworker + SUFFIX_RESULT)); // a result of a job that has been taken back after the lease expired
+					newCoworkers.add(coworker);
+				}
+			}
+		}
+
+		/* forget the coworkers that have left, so that a coworker that registers again under the same name is detected as new */
+		this.knownCoworkers.retainAll(registeredCoworkers);
+		return newCoworkers;
+	}
+
+	@Override
+	public boolean isCoworkerRegistered(final String coworker) throws IOException {
+		FileTime heartbeat;
+		try {
+			heartbeat = Files.getLastModifiedTime(this.getRegistrationFile(coworker));
+		} catch (NoSuchFileException e) {
+			this.leases.remove(coworker);
+			return false;
+		}
+		long now = System.currentTimeMillis();
+		Lease lease = this.leases.get(coworker);
+		if (lease == null || !lease.heartbeat.equals(heartbeat)) {
+			lease = new Lease(heartbeat, now);
+			this.leases.put(coworker, lease);
+		}
+		if (now - lease.observationTime > this.leaseTimeInMS) {
+			logger.debug("The lease of coworker {} has expired, because it has not sent a heartbeat for {}ms.", coworker, now - lease.observationTime);
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public void createNewJobForCoworker(final String coworker, final List<SerializablePath<T, A, V>> nodesToBeSolved) throws IOException {
+		this.write(this.jobFolder.resolve(coworker + SUFFIX_JOB), new ArrayList<>(nodesToBeSolved));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public DistributedComputationResult<T, A, V> readResult(final String coworker) throws IOException {
+		return (DistributedComputationResult<T, A, V>) this.consume(this.resultFolder.resolve(coworker + SUFFIX_RESULT));
+	}
+
+	@Override
+	public void detachCoworker(final String coworker) throws IOException {
+		Files.deleteIfExists(this.jobFolder.resolve(coworker + SUFFIX_JOB));
+		this.write(this.getDetachmentFile(coworker), coworker);
+	}
+
+	/* coworker side */
+
+	@Override
+	public void register(final String coworker) throws IOException {
+		Files.deleteIfExists(this.getDetachmentFile(coworker));
+		this.write(this.getRegistrationFile(coworker), coworker);
+	}
+
+	@Override
+	public void unregister(final String coworker) throws IOException {
+		Files.deleteIfExists(this.getRegistrationFile(coworker));
+	}
+
+	@Override
+	public void heartbeat(final String coworker) throws IOException {
+		Files.setLastModifiedTime(this.getRegistrationFile(coworker), FileTime.fromMillis(System.currentTimeMillis()));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public SerializableGraphGenerator<T, A> getGraphGenerator() throws IOException, InterruptedException {
+		return (SerializableGraphGenerator<T, A>) this.awaitFile(this.problemFolder.resolve("graphgenerator.ser"));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public SerializableNodeEvaluator<T, V> getNodeEvaluator() throws IOException, InterruptedException {
+		return (SerializableNodeEvaluator<T, V>) this.awaitFile(this.problemFolder.resolve("nodeevaluator.ser"));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<SerializablePath<T, A, V>> nextJob(final String coworker) throws IOException, InterruptedException {
+		Path jobFile = this.jobFolder.resolve(coworker + SUFFIX_JOB);
+		while (!this.isDetached(coworker)) {
+			Object job = this.consume(jobFile);
+			if (job != null) {
+				return (List<SerializablePath<T, A, V>>) job;
+			}
+			Thread.sleep(this.pollingIntervalInMS);
+		}
+		return null;
+	}
+
+	@Override
+	public boolean isDetached(final String coworker) {
+		return Files.exists(this.getDetachmentFile(coworker));
+	}
+
+	@Override
+	public void reportResult(final String coworker, final DistributedComputationResult<T, A, V> result) throws IOException {
+		this.write(this.resultFolder.resolve(coworker + SUFFIX_RESULT), result);
+	}
+}
@@ -0,0 +1,76 @@
+package ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import ai.libs.jaicore.search.model.other.EvaluatedSearchGraphPath;
+import ai.libs.jaicore.search.model.travesaltree.Node;
+
+/**
+ * A path from the root to some node together with the label of that node. This is the format in which nodes of OPEN and solutions are exchanged between the master and the coworkers of a distributed search.
+ *
+ * @author fmohr
+ *
+ * @param <T>
+ * @param <A>
+ * @param <V>
+ */
+public class SerializablePath<T, A, V extends Comparable<V>> implements Serializable {
+	private static final long serialVersionUID = -1640218226545428553L;
+	private final ArrayList<T> nodes;
+	private final ArrayList<A> edges;
+	private final V score;
+
+	public SerializablePath(final List<T> nodes, final List<A> edges, final V score) {
+		super();
+		this.nodes = new ArrayList<>(nodes);
+		this.edges = edges != null ? new ArrayList<>(edges) : null;
+		this.score = score;
+	}
+
+	public static <T, A, V extends Comparable<V>> SerializablePath<T, A, V> fromNode(final Node<T, V> node) {
+		return new SerializablePath<>(node.externalPath(), null, node.getInternalLabel());
+	}
+
+	public static <T, A, V extends Comparable<V>> SerializablePath<T, A, V> fromSolution(final EvaluatedSearchGraphPath<T, A, V> solution) {
+		return new SerializablePath<>(solution.getNodes(), solution.getEdges(), solution.getScore());
+	}
+
+	/**
+	 * @return A chain of new nodes that corresponds to this path. The returned node is the leaf of the chain and is labeled with the score of this path.
+	 */
+	public Node<T, V> toNode() {
+		Node<T, V> node = null;
+		for (T point : this.nodes) {
+			node = new Node<>(node, point);
+		}
+		if (node == null) {
+			throw new IllegalStateException("Cannot create a node from an empty path.");
+		}
+		node.setInternalLabel(this.score);
+		return node;
+	}
+
+	public EvaluatedSearchGraphPath<T, A, V> toSolution() {
+		return new EvaluatedSearchGraphPath<>(this.nodes, this.edges, this.score);
+	}
+
+	public List<T> getNodes() {
+		return Collections.unmodifiableList(this.nodes);
+	}
+
+	public List<A> getEdges() {
+		return this.edges != null ? Collections.unmodifiableList(this.edges) : null;
+	}
+
+	public V getScore() {
+		return this.score;
+	}
+
+	@Override
+	public String toString() {
+		return "SerializablePath [nodes=" + this.nodes + ", score=" + this.score + "]";
+	}
+}
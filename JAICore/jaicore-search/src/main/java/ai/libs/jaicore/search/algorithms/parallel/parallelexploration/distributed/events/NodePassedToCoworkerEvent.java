@@ -1,13 +1,22 @@
 package ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.events;
 
-public class NodePassedToCoworkerEvent<T> {
+import ai.libs.jaicore.basic.algorithm.events.AAlgorithmEvent;
+
+public class NodePassedToCoworkerEvent<T> extends AAlgorithmEvent {
 	private final T node;
+	private final String coworker;
 
-	public NodePassedToCoworkerEvent(T node) {
-		super();
+	public NodePassedToCoworkerEvent(final String algorithmId, final T node, final String coworker) {
+		super(algorithmId);
 		this.node = node;
+		this.coworker = coworker;
 	}
 
 	public T getNode() {
-		return node;
-	}}
+		return this.node;
+	}
+
+	public String getCoworker() {
+		return this.coworker;
+	}
+}
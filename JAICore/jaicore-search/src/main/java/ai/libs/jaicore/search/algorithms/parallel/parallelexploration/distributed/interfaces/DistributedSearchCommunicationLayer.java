@@ -0,0 +1,81 @@
+package ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.interfaces;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.DistributedComputationResult;
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.SerializablePath;
+
+/**
+ * The channel through which the master of a distributed search and its coworkers communicate. The master publishes the problem and passes jobs (paths to nodes of its OPEN list) to the coworkers; the coworkers
+ * answer each job with a {@link DistributedComputationResult}.
+ *
+ * Methods that are only meaningful for one of the two roles are grouped accordingly. Reading methods of the master never block, reading methods of the coworker block until the respective information is available.
+ *
+ * @author fmohr
+ *
+ * @param <T>
+ * @param <A>
+ * @param <V>
+ */
+public interface DistributedSearchCommunicationLayer<T, A, V extends Comparable<V>> {
+
+	/* master side */
+
+	public void publishProblem(SerializableGraphGenerator<T, A> graphGenerator, SerializableNodeEvaluator<T, V> nodeEvaluator) throws IOException;
+
+	/**
+	 * @return The coworkers that have registered since the last call of this method
+	 * @throws IOException
+	 */
+	public Collection<String> detectNewCoworkers() throws IOException;
+
+	/**
+	 * @param coworker
+	 * @return true iff the coworker is registered and still alive, i.e. a coworker that has crashed without unregistering is eventually not registered anymore
+	 * @throws IOException
+	 */
+	public boolean isCoworkerRegistered(String coworker) throws IOException;
+
+	public void createNewJobForCoworker(String coworker, List<SerializablePath<T, A, V>> nodesToBeSolved) throws IOException;
+
+	/**
+	 * @param coworker
+	 * @return The result of the last job of the coworker or NULL if the coworker has not finished the job yet
+	 * @throws IOException
+	 */
+	public DistributedComputationResult<T, A, V> readResult(String coworker) throws IOException;
+
+	public void detachCoworker(String coworker) throws IOException;
+
+	/* coworker side */
+
+	public void register(String coworker) throws IOException;
+
+	public void unregister(String coworker) throws IOException;
+
+	/**
+	 * Signals that the coworker is still alive. Registered coworkers must call this regularly, also while they are working on a job.
+	 *
+	 * @param coworker
+	 * @throws IOException
+	 */
+	public void heartbeat(String coworker) throws IOException;
+
+	public SerializableGraphGenerator<T, A> getGraphGenerator() throws IOException, InterruptedException;
+
+	public SerializableNodeEvaluator<T, V> getNodeEvaluator() throws IOException, InterruptedException;
+
+	/**
+	 * @param coworker
+	 * @return The next job of the coworker or NULL if the coworker has been detached by the master
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public List<SerializablePath<T, A, V>> nextJob(String coworker) throws IOException, InterruptedException;
+
+	public boolean isDetached(String coworker) throws IOException;
+
+	public void reportResult(String coworker, DistributedComputationResult<T, A, V> result) throws IOException;
+}
@@ -96,6 +96,10 @@ public class BestFirst<I extends GraphSearchWithSubpathEvaluationsInput<N, A, V>
 		NONE, OPEN, ALL
 	}
 
+	public enum OpenListImplementation {
+		PRIORITY_QUEUE, CONCURRENT
+	}
+
 	/* problem definition */
 	protected final GraphGenerator<N, A> graphGenerator;
 	protected final RootGenerator<N> rootGenerator;
@@ -125,7 +129,9 @@ public class BestFirst<I extends GraphSearchWithSubpathEvaluationsInput<N, A, V>
 	protected final Map<N, Node<N, V>> ext2int = new ConcurrentHashMap<>();
 
 	/* search graph model */
-	protected Queue<Node<N, V>> open = new PriorityQueue<>((n1, n2) -> n1.getInternalLabel().compareTo(n2.getInternalLabel()));
+	protected Queue<Node<N, V>> open;
+	private boolean lockFreeOpen; // true iff OPEN is thread-safe on its own, so that insertions and selections need not lock it
+	private ParentDiscarding parentDiscarding; // cached, because reading the configuration is costly and happens for every created node
 	private Node<N, V> nodeSelectedForExpansion; // the node that will be expanded next
 	private final Map<N, Thread> expanding = new HashMap<>(); // EXPANDING contains the nodes being expanded and the threads doing this job
 	private final Set<N> closed = new HashSet<>(); // CLOSED contains only node but not paths
@@ -139,6 +145,7 @@ public class BestFirst<I extends GraphSearchWithSubpathEvaluationsInput<N, A, V>
 	private final Lock openLock = new ReentrantLock(); // lock that has to be locked before accessing the open queue
 	private final Lock nodeSelectionLock = new ReentrantLock(true);
 	private final Condition numberOfActiveJobsHasChanged = this.activeJobsCounterLock.newCondition(); // condition that is signaled whenever a node is added to the open queue
+	private final Thread shutdownHook = new Thread(() -> BestFirst.this.cancel(), "Shutdown hook thread for " + BestFirst.this);
 
 	public BestFirst(final I problem) {
 		this(ConfigFactory.create(IBestFirstConfig.class), problem);
@@ -192,11 +199,20 @@ public class BestFirst<I extends GraphSearchWithSubpathEvaluationsInput<N, A, V>
 		}
 		this.cancelableNodeEvaluator = this.nodeEvaluator instanceof ICancelableNodeEvaluator;
 
+		/* create OPEN */
+		this.parentDiscarding = config.parentDiscarding();
+		if (config.openListImplementation() == OpenListImplementation.CONCURRENT) {
+			this.open = new ConcurrentOpenList<>();
+		} else {
+			this.open = new PriorityQueue<>((n1, n2) -> n1.getInternalLabel().compareTo(n2.getInternalLabel()));
+		}
+		this.lockFreeOpen = this.isLockFreeOpen(this.open);
+
 		/*
 		 * add shutdown hook so as to cancel the search once the overall program is
 		 * shutdown
 		 */
-		Runtime.getRuntime().addShutdownHook(new Thread(() -> BestFirst.this.cancel(), "Shutdown hook thread for " + BestFirst.this));
+		Runtime.getRuntime().addShutdownHook(this.shutdownHook);
 	}
 
 	/** BLOCK A: Internal behavior of the algorithm **/
@@ -316,7 +332,7 @@ public class BestFirst<I extends GraphSearchWithSubpathEvaluationsInput<N, A, V>
 
 				/* if we discard (either only on OPEN or on both OPEN and CLOSED) */
 				boolean nodeProcessed = false;
-				if (BestFirst.this.getConfig().parentDiscarding() != ParentDiscarding.NONE) {
+				if (BestFirst.this.parentDiscarding != ParentDiscarding.NONE) {
 					BestFirst.this.openLock.lockInterruptibly();
 					try {
 
@@ -342,7 +358,7 @@ public class BestFirst<I extends GraphSearchWithSubpathEvaluationsInput<N, A, V>
 						 * if parent discarding is not only for OPEN but also for CLOSE (and the node
 						 * was not on OPEN), check the list of expanded nodes
 						 */
-						else if (BestFirst.this.getConfig().parentDiscarding() == ParentDiscarding.ALL) {
+						else if (BestFirst.this.parentDiscarding == ParentDiscarding.ALL) {
 							/* reopening, if the node is already on CLOSED */
 							Optional<N> existingIdenticalNodeOnClosed = BestFirst.this.closed.stream().filter(n -> n.equals(newNode.getPoint())).findFirst();
 							if (existingIdenticalNodeOnClosed.isPresent()) {
@@ -369,18 +385,16 @@ public class BestFirst<I extends GraphSearchWithSubpathEvaluationsInput<N, A, V>
 				 */
 				if (!nodeProcessed) {
 					if (!newNode.isGoal()) {
-						BestFirst.this.openLock.lockInterruptibly();
-						synchronized (BestFirst.this.expanding) {
+						assert BestFirst.this.isNodeNeitherClosedNorExpanding(newNode);
+						if (newNode.getInternalLabel() == null) {
+							throw new IllegalArgumentException("Cannot insert nodes with value NULL into OPEN!");
+						}
+						BestFirst.this.logger.debug("Inserting successor {} of {} to OPEN. F-Value is {}", newNode.hashCode(), this.expandedNodeInternal, newNode.getInternalLabel());
+						if (BestFirst.this.lockFreeOpen) {
+							BestFirst.this.open.add(newNode);
+						} else {
+							BestFirst.this.openLock.lockInterruptibly();
 							try {
-								assert !BestFirst.this.closed.contains(newNode.getPoint()) : "Currently only tree search is supported. But now we add a node to OPEN whose point has already been expanded before.";
-								BestFirst.this.expanding.keySet().forEach(node -> {
-									assert !node.equals(newNode.getPoint()) : Thread.currentThread() + " cannot add node to OPEN that is currently being expanded by " + BestFirst.this.expanding.get(node) + ".\n\tFrom: "
-											+ newNode.getParent().getPoint() + "\n\tTo: " + node;
-								});
-								if (newNode.getInternalLabel() == null) {
-									throw new IllegalArgumentException("Cannot insert nodes with value NULL into OPEN!");
-								}
-								BestFirst.this.logger.debug("Inserting successor {} of {} to OPEN. F-Value is {}", newNode.hashCode(), this.expandedNodeInternal, newNode.getInternalLabel());
 								BestFirst.this.open.add(newNode);
 							} finally {
 								BestFirst.this.openLock.unlock();
@@ -438,13 +452,39 @@ public class BestFirst<I extends GraphSearchWithSubpathEvaluationsInput<N, A, V>
 		return this.newNode(parent, t2, null);
 	}
 
-	protected Node<N, V> newNode(final Node<N, V> parent, final N t2, final V evaluation) throws InterruptedException {
-		this.openLock.lockInterruptibly();
+	/**
+	 * Only used in assertions, so that OPEN is not locked for node creation if assertions are disabled.
+	 */
+	private boolean isNodeNotOnOpen(final Node<N, V> node) {
+		this.openLock.lock();
 		try {
-			assert !this.open.contains(parent) : "Parent node " + parent + " is still on OPEN, which must not be the case! OPEN class: " + this.open.getClass().getName() + ". OPEN size: " + this.open.size();
+			assert !this.open.contains(node) : "Parent node " + node + " is still on OPEN, which must not be the case! OPEN class: " + this.open.getClass().getName() + ". OPEN size: " + this.open.size();
 		} finally {
 			this.openLock.unlock();
 		}
+		return true;
+	}
+
+	/**
+	 * Only used in assertions, so that the EXPANDING map is not locked for node insertion if assertions are disabled.
+	 */
+	private boolean isNodeNeitherClosedNorExpanding(final Node<N, V> newNode) {
+		synchronized (this.expanding) {
+			assert !this.closed.contains(newNode.getPoint()) : "Currently only tree search is supported. But now we add a node to OPEN whose point has already been expanded before.";
+			this.expanding.keySet().forEach(node -> {
+				assert !node.equals(newNode.getPoint()) : Thread.currentThread() + " cannot add node to OPEN that is currently being expanded by " + this.expanding.get(node) + ".\n\tFrom: " + newNode.getParent().getPoint()
+				+ "\n\tTo: " + node;
+			});
+		}
+		return true;
+	}
+
+	private boolean isLockFreeOpen(final Queue<Node<N, V>> queue) {
+		return queue instanceof ConcurrentOpenList && this.parentDiscarding == ParentDiscarding.NONE;
+	}
+
+	protected Node<N, V> newNode(final Node<N, V> parent, final N t2, final V evaluation) throws InterruptedException {
+		assert parent == null || this.isNodeNotOnOpen(parent);
 
 		/* create new node and check whether it is a goal */
 		Node<N, V> newNode = new Node<>(parent, t2);
@@ -546,7 +586,7 @@ public class BestFirst<I extends GraphSearchWithSubpathEvaluationsInput<N, A, V>
 			} else {
 				BestFirst.this.logger.debug("Not inserting node {} because computation of f-value timed out.", node.hashCode());
 			}
-			if (!node.getAnnotations().containsKey(ENodeAnnotation.F_ERROR.toString())) {
+			if (!node.hasAnnotation(ENodeAnnotation.F_ERROR.toString())) {
 				node.setAnnotation(ENodeAnnotation.F_ERROR.toString(), "f-computer returned NULL");
 			}
 			return;
@@ -614,21 +654,26 @@ public class BestFirst<I extends GraphSearchWithSubpathEvaluationsInput<N, A, V>
 		assert node != null : "Cannot select node NULL for expansion!";
 		this.nodeSelectionLock.lockInterruptibly();
 		try {
-			this.openLock.lockInterruptibly();
+			if (!this.lockFreeOpen) {
+				this.openLock.lockInterruptibly();
+			}
 			try {
-				assert !this.open.contains(null) : "OPEN contains NULL";
+				assert this.lockFreeOpen || !this.open.contains(null) : "OPEN contains NULL";
 				assert this.open.stream().noneMatch(n -> n.getInternalLabel() == null) : "OPEN contains an element with value NULL";
-				int openSizeBefore = this.open.size();
+				int openSizeBefore = this.open.size(); // only meaningful in the sequential case, where OPEN is locked
 				assert this.nodeSelectedForExpansion == null : "Node selected for expansion must be NULL when setting it!";
 				this.nodeSelectedForExpansion = node;
 				assert this.open.contains(node) : "OPEN must contain the node to be expanded.\n\tOPEN size: " + this.open.size() + "\n\tNode to be expanded: " + node + ".\n\tOPEN: "
 				+ this.open.stream().map(n -> SPACER + n).collect(Collectors.joining());
-				this.open.remove(this.nodeSelectedForExpansion);
+				boolean removed = this.open.remove(this.nodeSelectedForExpansion);
 				int openSizeAfter = this.open.size();
 				assert this.ext2int.containsKey(this.nodeSelectedForExpansion.getPoint()) : "A node chosen for expansion has no entry in the ext2int map!";
-				assert openSizeAfter == openSizeBefore - 1 : "OPEN size must descrease by one when selecting node for expansion";
+				assert removed : "The node selected for expansion could not be removed from OPEN";
+				assert this.lockFreeOpen || openSizeAfter == openSizeBefore - 1 : "OPEN size must descrease by one when selecting node for expansion";
 			} finally {
-				this.openLock.unlock();
+				if (!this.lockFreeOpen) {
+					this.openLock.unlock();
+				}
 			}
 		} finally {
 			this.nodeSelectionLock.unlock();
@@ -672,14 +717,24 @@ public class BestFirst<I extends GraphSearchWithSubpathEvaluationsInput<N, A, V>
 						stopCriterionSatisfied = this.isStopCriterionSatisfied();
 					}
 					if (!stopCriterionSatisfied) {
-						this.openLock.lock();
-						try {
-							if (this.open.isEmpty()) {
+						if (this.lockFreeOpen) {
+
+							/* only this thread removes nodes from OPEN, so the peeked node will still be there when being selected */
+							Node<N, V> head = this.open.peek();
+							if (head == null) {
 								return null;
 							}
-							this.selectNodeForNextExpansion(this.open.peek());
-						} finally {
-							this.openLock.unlock();
+							this.selectNodeForNextExpansion(head);
+						} else {
+							this.openLock.lock();
+							try {
+								if (this.open.isEmpty()) {
+									return null;
+								}
+								this.selectNodeForNextExpansion(this.open.peek());
+							} finally {
+								this.openLock.unlock();
+							}
 						}
 					}
 				} finally {
@@ -790,11 +845,13 @@ public class BestFirst<I extends GraphSearchWithSubpathEvaluationsInput<N, A, V>
 		this.post(new NodeTypeSwitchEvent<Node<N, V>>(this.getId(), actualNodeSelectedForExpansion, ENodeType.OR_CLOSED.toString()));
 		this.afterExpansion(actualNodeSelectedForExpansion);
 		this.checkAndConductTermination();
-		this.openLock.lockInterruptibly();
-		try {
-			this.logger.debug("Step ends. Size of OPEN now {}", this.open.size());
-		} finally {
-			this.openLock.unlock();
+		if (this.logger.isDebugEnabled()) {
+			this.openLock.lockInterruptibly();
+			try {
+				this.logger.debug("Step ends. Size of OPEN now {}", this.open.size());
+			} finally {
+				this.openLock.unlock();
+			}
 		}
 		return expansionEvent;
 	}
@@ -928,6 +985,15 @@ public class BestFirst<I extends GraphSearchWithSubpathEvaluationsInput<N, A, V>
 			this.logger.info("Canceling node evaluator.");
 			((ICancelableNodeEvaluator) this.nodeEvaluator).cancelActiveTasks();
 		}
+
+		/* release the shutdown hook, which would otherwise keep the whole search graph alive (relevant if many searches are run in one JVM) */
+		if (Thread.currentThread() != this.shutdownHook) {
+			try {
+				Runtime.getRuntime().removeShutdownHook(this.shutdownHook);
+			} catch (IllegalStateException e) {
+				this.logger.debug("Could not remove shutdown hook, because the JVM is already shutting down.");
+			}
+		}
 		this.logger.info("Shutdown completed");
 	}
 
@@ -995,6 +1061,51 @@ public class BestFirst<I extends GraphSearchWithSubpathEvaluationsInput<N, A, V>
 		}
 	}
 
+	/**
+	 * Inserts a node that has been created outside of this search (e.g. by a coworker of a distributed search) together with its path into the local graph and puts the local version of it on OPEN.
+	 *
+	 * @param node
+	 * @throws InterruptedException
+	 */
+	protected void insertNodeIntoLocalGraphAndOpen(final Node<N, V> node) throws InterruptedException {
+		if (node.getInternalLabel() == null) {
+			throw new IllegalArgumentException("Cannot insert node with label NULL");
+		}
+		this.insertNodeIntoLocalGraph(node);
+		Node<N, V> localVersion = this.getLocalVersionOfNode(node);
+		if (localVersion.getInternalLabel() == null) {
+			localVersion.setInternalLabel(node.getInternalLabel());
+		}
+		if (!this.lockFreeOpen) {
+			this.openLock.lockInterruptibly();
+		}
+		try {
+			this.open.add(localVersion);
+		} finally {
+			if (!this.lockFreeOpen) {
+				this.openLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Removes the first node from OPEN without expanding it. This is used to hand nodes over to other searches (e.g. coworkers of a distributed search).
+	 *
+	 * @return The first node on OPEN or NULL if OPEN is empty
+	 * @throws InterruptedException
+	 */
+	protected Node<N, V> pollOpen() throws InterruptedException {
+		if (this.lockFreeOpen) {
+			return this.open.poll();
+		}
+		this.openLock.lockInterruptibly();
+		try {
+			return this.open.poll();
+		} finally {
+			this.openLock.unlock();
+		}
+	}
+
 	/**
 	 * This is relevant if we work with several copies of a node (usually if we need to copy the search space somewhere).
 	 *
@@ -1054,6 +1165,8 @@ public class BestFirst<I extends GraphSearchWithSubpathEvaluationsInput<N, A, V>
 			case CREATED:
 				AlgorithmInitializedEvent initEvent = this.activate();
 				this.logger.info("Initializing BestFirst search {} with {} CPUs and a timeout of {}ms", this.getId(), this.getConfig().cpus(), this.getConfig().timeout());
+				this.parentDiscarding = this.getConfig().parentDiscarding(); // the configuration may have changed since the construction of the search
+				this.lockFreeOpen = this.isLockFreeOpen(this.open);
 				int additionalCPUs = this.getConfig().cpus() - 1;
 				if (additionalCPUs > 0) {
 					this.parallelizeNodeExpansion(additionalCPUs);
@@ -1157,6 +1270,22 @@ public class BestFirst<I extends GraphSearchWithSubpathEvaluationsInput<N, A, V>
 		return null;
 	}
 
+	/**
+	 * Blocks until no node attachment job is running anymore. Afterwards, OPEN contains all nodes that have been generated so far (as long as no further step is triggered).
+	 *
+	 * @throws InterruptedException
+	 */
+	public void awaitActiveJobs() throws InterruptedException {
+		this.activeJobsCounterLock.lockInterruptibly();
+		try {
+			while (this.activeJobs.get() > 0) {
+				this.numberOfActiveJobsHasChanged.await();
+			}
+		} finally {
+			this.activeJobsCounterLock.unlock();
+		}
+	}
+
 	public EvaluatedSearchGraphPath<N, A, V> nextSolutionThatDominatesOpen() throws InterruptedException, AlgorithmExecutionCanceledException, TimeoutException, AlgorithmException {
 		EvaluatedSearchGraphPath<N, A, V> currentlyBestSolution = null;
 		V currentlyBestScore = null;
@@ -1273,6 +1402,7 @@ public class BestFirst<I extends GraphSearchWithSubpathEvaluationsInput<N, A, V>
 			collection.clear();
 			collection.addAll(this.open);
 			this.open = collection;
+			this.lockFreeOpen = this.isLockFreeOpen(collection);
 		} finally {
 			this.openLock.unlock();
 		}
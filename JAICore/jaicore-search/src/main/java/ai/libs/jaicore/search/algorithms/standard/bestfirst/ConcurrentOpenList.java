@@ -0,0 +1,179 @@
+package ai.libs.jaicore.search.algorithms.standard.bestfirst;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ai.libs.jaicore.search.model.travesaltree.Node;
+
+/**
+ * Thread-safe OPEN list for {@link BestFirst} that does not require an external lock for insertions, removals, and selections.
+ *
+ * The nodes are kept in a skip list ordered by their internal label; ties are broken by insertion order. An additional hash index maps each node to its entry in the skip list so that <code>contains</code> and <code>remove</code> run in
+ * (expected) logarithmic time instead of the linear scans of a binary heap.
+ *
+ * In contrast to {@link java.util.PriorityQueue}, this list has set semantics, i.e. a node that is already on the list is not inserted a second time. The label of a node must not change while it is on the list.
+ *
+ * @author fmohr
+ *
+ * @param <N>
+ * @param <V>
+ */
+public class ConcurrentOpenList<N, V extends Comparable<V>> extends AbstractQueue<Node<N, V>> {
+
+	private static class Entry<N, V extends Comparable<V>> {
+		private final Node<N, V> node;
+		private final V label;
+		private final long insertionIndex;
+
+		public Entry(final Node<N, V> node, final long insertionIndex) {
+			super();
+			this.node = node;
+			this.label = node.getInternalLabel();
+			this.insertionIndex = insertionIndex;
+		}
+	}
+
+	private final AtomicLong insertionCounter = new AtomicLong();
+	private final ConcurrentSkipListSet<Entry<N, V>> entries = new ConcurrentSkipListSet<>((e1, e2) -> {
+		int comparison = e1.label.compareTo(e2.label);
+		return comparison != 0 ? comparison : Long.compare(e1.insertionIndex, e2.insertionIndex);
+	});
+	private final Map<Node<N, V>, Entry<N, V>> index = new ConcurrentHashMap<>();
+
+	/**
+	 * Inserts the node unless it is already on the list. Unlike {@link AbstractQueue#add(Object)}, this returns false (instead of throwing an exception) if the node has not been inserted.
+	 */
+	@Override
+	public boolean add(final Node<N, V> node) {
+		return this.offer(node);
+	}
+
+	@Override
+	public boolean offer(final Node<N, V> node) {
+		if (node == null) {
+			throw new IllegalArgumentException("Cannot add NULL to OPEN!");
+		}
+		if (node.getInternalLabel() == null) {
+			throw new IllegalArgumentException("Cannot insert nodes with value NULL into OPEN!");
+		}
+		Entry<N, V> entry = new Entry<>(node, this.insertionCounter.getAndIncrement());
+		if (this.index.putIfAbsent(node, entry) != null) {
+			return false;
+		}
+		this.entries.add(entry);
+		return true;
+	}
+
+	/**
+	 * An entry is live iff it is still registered in the index. Entries of nodes that have been removed concurrently to their insertion may remain in the skip list for a short time and are skipped (and discarded) here.
+	 */
+	private boolean isLive(final Entry<N, V> entry) {
+		return this.index.get(entry.node) == entry;
+	}
+
+	@Override
+	public Node<N, V> poll() {
+		Entry<N, V> entry;
+		while ((entry = this.entries.pollFirst()) != null) {
+			if (this.index.remove(entry.node, entry)) {
+				return entry.node;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public Node<N, V> peek() {
+		for (Entry<N, V> entry : this.entries) {
+			if (this.isLive(entry)) {
+				return entry.node;
+			}
+			this.entries.remove(entry);
+		}
+		return null;
+	}
+
+	@Override
+	public boolean remove(final Object o) {
+		Entry<N, V> entry = this.index.remove(o);
+		if (entry == null) {
+			return false;
+		}
+		this.entries.remove(entry);
+		return true;
+	}
+
+	@Override
+	public boolean contains(final Object o) {
+		return this.index.containsKey(o);
+	}
+
+	@Override
+	public int size() {
+		return this.index.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.index.isEmpty();
+	}
+
+	@Override
+	public void clear() {
+		this.index.clear();
+		this.entries.clear();
+	}
+
+	/**
+	 * @return A weakly consistent iterator over the nodes in the order of their labels.
+	 */
+	@Override
+	public Iterator<Node<N, V>> iterator() {
+		Iterator<Entry<N, V>> entryIterator = this.entries.iterator();
+		return new Iterator<Node<N, V>>() {
+			private Entry<N, V> next = this.advance();
+			private Entry<N, V> last;
+
+			private Entry<N, V> advance() {
+				while (entryIterator.hasNext()) {
+					Entry<N, V> candidate = entryIterator.next();
+					if (ConcurrentOpenList.this.isLive(candidate)) {
+						return candidate;
+					}
+				}
+				return null;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return this.next != null;
+			}
+
+			@Override
+			public Node<N, V> next() {
+				if (this.next == null) {
+					throw new NoSuchElementException();
+				}
+				this.last = this.next;
+				this.next = this.advance();
+				return this.last.node;
+			}
+
+			@Override
+			public void remove() {
+				if (this.last == null) {
+					throw new IllegalStateException();
+				}
+				if (ConcurrentOpenList.this.index.remove(this.last.node, this.last)) {
+					ConcurrentOpenList.this.entries.remove(this.last);
+				}
+				this.last = null;
+			}
+		};
+	}
+}
@@ -1,11 +1,13 @@
 package ai.libs.jaicore.search.algorithms.standard.bestfirst;
 
 import ai.libs.jaicore.basic.algorithm.IAlgorithmConfig;
+import ai.libs.jaicore.search.algorithms.standard.bestfirst.BestFirst.OpenListImplementation;
 import ai.libs.jaicore.search.algorithms.standard.bestfirst.BestFirst.ParentDiscarding;
 
 public interface IBestFirstConfig extends IAlgorithmConfig {
 	
 	public static final String K_PD = "bestfirst.parentdiscarding";
+	public static final String K_OPEN = "bestfirst.open";
 
 	/**
 	 * @return Whether or not parent discarding should be used
@@ -13,4 +15,11 @@ public interface IBestFirstConfig extends IAlgorithmConfig {
 	@Key(K_PD)
 	@DefaultValue("NONE")
 	public ParentDiscarding parentDiscarding();
+
+	/**
+	 * @return The data structure used for OPEN. With CONCURRENT, the worker threads for node attachment insert into OPEN without locking it (unless parent discarding is active).
+	 */
+	@Key(K_OPEN)
+	@DefaultValue("PRIORITY_QUEUE")
+	public OpenListImplementation openListImplementation();
 }
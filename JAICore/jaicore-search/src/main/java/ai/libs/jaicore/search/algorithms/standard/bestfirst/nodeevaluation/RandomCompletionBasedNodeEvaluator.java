@@ -9,8 +9,16 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -60,8 +68,8 @@ implements IPotentiallyGraphDependentNodeEvaluator<T, V>, IPotentiallySolutionRe
 	private final int timeoutForSingleCompletionEvaluationInMS;
 
 	protected Set<List<T>> unsuccessfulPaths = Collections.synchronizedSet(new HashSet<>());
-	protected Set<List<T>> postedSolutions = new HashSet<>();
-	protected Map<List<T>, Integer> timesToComputeEvaluations = new HashMap<>();
+	protected Set<List<T>> postedSolutions = Collections.synchronizedSet(new HashSet<>());
+	protected Map<List<T>, Integer> timesToComputeEvaluations = new ConcurrentHashMap<>();
 
 	protected Map<List<T>, V> scoresOfSolutionPaths = new ConcurrentHashMap<>();
 	protected Map<Node<T, ?>, V> fValues = new ConcurrentHashMap<>();
@@ -83,9 +91,15 @@ implements IPotentiallyGraphDependentNodeEvaluator<T, V>, IPotentiallySolutionRe
 	protected final IObjectEvaluator<SearchGraphPath<T, A>, V> solutionEvaluator;
 	protected IUncertaintySource<T, V> uncertaintySource;
 	protected SolutionEventBus<T> eventBus = new SolutionEventBus<>();
-	private final Map<List<T>, V> bestKnownScoreUnderNodeInCompleterGraph = new HashMap<>();
+	private final Map<List<T>, V> bestKnownScoreUnderNodeInCompleterGraph = new ConcurrentHashMap<>();
 	private boolean visualizeSubSearch;
 
+	/* parallel sampling */
+	private static final long SAMPLING_THREAD_KEEP_ALIVE_IN_MS = 1000;
+	private int numberOfSamplingThreads = 1;
+	private ExecutorService samplingPool;
+	private long samplingSeed;
+
 	public RandomCompletionBasedNodeEvaluator(final Random random, final int samples, final IObjectEvaluator<SearchGraphPath<T, A>, V> solutionEvaluator) {
 		this(random, samples, samples, solutionEvaluator, -1, -1);
 	}
@@ -188,82 +202,54 @@ implements IPotentiallyGraphDependentNodeEvaluator<T, V>, IPotentiallySolutionRe
 				AtomicInteger drawnSamples = new AtomicInteger();
 				AtomicInteger successfulSamples = new AtomicInteger();
 				int countedExceptions = 0;
-				List<V> evaluations = new ArrayList<>();
+				List<V> evaluations = Collections.synchronizedList(new ArrayList<>());
 				List<List<T>> completedPaths = new ArrayList<>();
+				final List<? extends Node<T, ?>> nodePath = n.path(); // computed once, since it is part of every rollout event
 				this.logger.debug("Now drawing {} successful examples but no more than {}", this.desiredNumberOfSuccesfulSamples, this.maxSamples);
-				while (successfulSamples.get() < this.desiredNumberOfSuccesfulSamples) {
-					this.logger.debug("Drawing next sample. {} samples have been drawn already, {} have been successful.", drawnSamples, successfulSamples);
-					this.checkInterruption();
-					if (deadline > 0 && deadline < System.currentTimeMillis()) {
-						this.logger.info("Deadline for random completions hit! Finishing node evaluation.");
-						break;
-					}
-
-					/* determine time that is available to conduct next computation */
-					long remainingTimeForNodeEvaluation = deadline > 0 ? deadline - System.currentTimeMillis() : -1; // this value is positive or -1 due to the previous check
-					long timeoutForJob;
-					if (remainingTimeForNodeEvaluation >= 0 && this.timeoutForSingleCompletionEvaluationInMS >= 0) {
-						timeoutForJob = Math.min(remainingTimeForNodeEvaluation, this.timeoutForSingleCompletionEvaluationInMS);
-					} else if (remainingTimeForNodeEvaluation >= 0) {
-						timeoutForJob = remainingTimeForNodeEvaluation;
-					} else if (this.timeoutForSingleCompletionEvaluationInMS >= 0) {
-						timeoutForJob = this.timeoutForSingleCompletionEvaluationInMS;
-					} else {
-						timeoutForJob = -1;
-					}
-
-					/* complete the current path by the dfs-solution; we assume that this goes quickly */
-					List<T> tmpCompletedPath = null;
-					try {
-						tmpCompletedPath = this.getNextRandomPathCompletionForNode(n);
-					} catch (RCNEPathCompletionFailedException e1) {
-						if (e1.getCause() instanceof InterruptedException) {
-							throw (InterruptedException)e1.getCause();
+				if (this.numberOfSamplingThreads > 1) {
+					countedExceptions = this.drawAndEvaluateSamplesInParallel(n, path, nodePath, deadline, drawnSamples, successfulSamples, evaluations, completedPaths);
+				} else {
+					while (successfulSamples.get() < this.desiredNumberOfSuccesfulSamples) {
+						this.logger.debug("Drawing next sample. {} samples have been drawn already, {} have been successful.", drawnSamples, successfulSamples);
+						this.checkInterruption();
+						if (deadline > 0 && deadline < System.currentTimeMillis()) {
+							this.logger.info("Deadline for random completions hit! Finishing node evaluation.");
+							break;
 						}
-						this.logger.info("Stopping sampling.");
-						break;
-					}
-					final List<T> completedPath = tmpCompletedPath;
-					completedPaths.add(completedPath);
 
-					/* evaluate the found solution and update internal value model */
-					try {
-						TimedComputation.compute(() -> {
-							drawnSamples.incrementAndGet();
-							V val = this.getFValueOfSolutionPath(completedPath);
-							this.logger.debug("Completed path evaluation. Score is {}", val);
-							successfulSamples.incrementAndGet();
-							this.eventBus.post(new RolloutEvent<>(ALGORITHM_ID, n.path(), val));
-							if (val != null) {
-								evaluations.add(val);
-								this.updateMapOfBestScoreFoundSoFar(completedPath, val);
-							} else {
-								this.logger.warn("Got NULL result as score for path {}", completedPath);
-							}
-							return true;
-						}, timeoutForJob, "RCNE-timeout");
-					} catch (InterruptedException e) { // Interrupts are directly re-thrown
-						this.logger.debug("Path evaluation has been interrupted.");
-						throw e;
-					} catch (Exception ex) {
-						if (countedExceptions == this.maxSamples) {
-							this.logger.warn("Too many retry attempts, giving up. {} samples were drawn, {} were successful.", drawnSamples, successfulSamples);
-							throw new NodeEvaluationException(ex, "Error in the evaluation of a node!");
-						} else {
-							countedExceptions++;
-							if (LOG_FAILURES_AS_ERRORS) {
-								this.logger.error("Could not evaluate solution candidate ... retry another completion. {}", LoggerUtil.getExceptionInfo(ex));
-							} else {
-								this.logger.debug("Could not evaluate solution candidate ... retry another completion. {}", LoggerUtil.getExceptionInfo(ex));
+						/* determine time that is available to conduct next computation */
+						long timeoutForJob = this.getTimeoutForNextSample(deadline);
+
+						/* complete the current path by the dfs-solution; we assume that this goes quickly */
+						List<T> tmpCompletedPath = null;
+						try {
+							tmpCompletedPath = this.getNextRandomPathCompletionForNode(n, path);
+						} catch (RCNEPathCompletionFailedException e1) {
+							if (e1.getCause() instanceof InterruptedException) {
+								throw (InterruptedException)e1.getCause();
 							}
+							this.logger.info("Stopping sampling.");
+							break;
+						}
+						final List<T> completedPath = tmpCompletedPath;
+						completedPaths.add(completedPath);
+
+						/* evaluate the found solution and update internal value model */
+						try {
+							TimedComputation.compute(this.getSampleEvaluationTask(nodePath, completedPath, drawnSamples, successfulSamples, evaluations), timeoutForJob, "RCNE-timeout");
+						} catch (InterruptedException e) { // Interrupts are directly re-thrown
+							this.logger.debug("Path evaluation has been interrupted.");
+							throw e;
+						} catch (Exception ex) {
+							countedExceptions = this.registerFailedSample(ex, countedExceptions, drawnSamples, successfulSamples);
+						} finally { // make sure that the abortion task is definitely killed
+							this.logger.debug("Finished process for sample {}.", drawnSamples);
 						}
-					} finally { // make sure that the abortion task is definitely killed
-						this.logger.debug("Finished process for sample {}.", drawnSamples);
 					}
 				}
 
 				/* the only reason why we have no score at this point is that all evaluations have failed with exception or were interrupted */
-				V best = this.bestKnownScoreUnderNodeInCompleterGraph.get(n.externalPath());
+				V best = this.bestKnownScoreUnderNodeInCompleterGraph.get(path);
 				this.logger.debug("Finished sampling. {} samples were drawn, {} were successful. Best seen score is {}", drawnSamples, successfulSamples, best);
 				if (best == null) {
 					this.checkInterruption();
@@ -316,12 +302,145 @@ implements IPotentiallyGraphDependentNodeEvaluator<T, V>, IPotentiallySolutionRe
 		return f;
 	}
 
+	private long getTimeoutForNextSample(final long deadline) {
+		long remainingTimeForNodeEvaluation = deadline > 0 ? Math.max(0, deadline - System.currentTimeMillis()) : -1;
+		if (remainingTimeForNodeEvaluation >= 0 && this.timeoutForSingleCompletionEvaluationInMS >= 0) {
+			return Math.min(remainingTimeForNodeEvaluation, this.timeoutForSingleCompletionEvaluationInMS);
+		} else if (remainingTimeForNodeEvaluation >= 0) {
+			return remainingTimeForNodeEvaluation;
+		} else if (this.timeoutForSingleCompletionEvaluationInMS >= 0) {
+			return this.timeoutForSingleCompletionEvaluationInMS;
+		} else {
+			return -1;
+		}
+	}
+
+	private Callable<Boolean> getSampleEvaluationTask(final List<? extends Node<T, ?>> nodePath, final List<T> completedPath, final AtomicInteger drawnSamples, final AtomicInteger successfulSamples, final List<V> evaluations) {
+		return () -> {
+			drawnSamples.incrementAndGet();
+			V val = this.getFValueOfSolutionPath(completedPath);
+			this.logger.debug("Completed path evaluation. Score is {}", val);
+			successfulSamples.incrementAndGet();
+			this.eventBus.post(new RolloutEvent<>(ALGORITHM_ID, nodePath, val));
+			if (val != null) {
+				evaluations.add(val);
+				this.updateMapOfBestScoreFoundSoFar(completedPath, val);
+			} else {
+				this.logger.warn("Got NULL result as score for path {}", completedPath);
+			}
+			return true;
+		};
+	}
+
+	/**
+	 * @return the new number of counted exceptions
+	 * @throws NodeEvaluationException
+	 *             if the maximum number of failed samples has been reached
+	 */
+	private int registerFailedSample(final Exception ex, final int countedExceptions, final AtomicInteger drawnSamples, final AtomicInteger successfulSamples) throws NodeEvaluationException {
+		if (countedExceptions == this.maxSamples) {
+			this.logger.warn("Too many retry attempts, giving up. {} samples were drawn, {} were successful.", drawnSamples, successfulSamples);
+			throw new NodeEvaluationException(ex, "Error in the evaluation of a node!");
+		}
+		if (LOG_FAILURES_AS_ERRORS) {
+			this.logger.error("Could not evaluate solution candidate ... retry another completion. {}", LoggerUtil.getExceptionInfo(ex));
+		} else {
+			this.logger.debug("Could not evaluate solution candidate ... retry another completion. {}", LoggerUtil.getExceptionInfo(ex));
+		}
+		return countedExceptions + 1;
+	}
+
+	/**
+	 * Draws the completions of a node one after another (the completer is not thread-safe, but drawing is cheap) and evaluates up to {@link #numberOfSamplingThreads} of them at the same time. The i-th completion is drawn with a
+	 * random source whose seed only depends on the seed of the evaluator, the path to the node, and i, so that the drawn completions do not depend on the order in which the evaluations terminate. The path enters the seed
+	 * by its hash code, so the completions are only reproducible across runs if the hash codes of the nodes of the search graph are based on their values and not on their identity.
+	 *
+	 * Like in the sequential sampling, the evaluation of the node fails once more than {@link #maxSamples} samples have failed; no more samples are running than may still fail before this limit is reached.
+	 *
+	 * Evaluations that are still running when the deadline is hit, when enough samples have been evaluated successfully, or when the evaluation is interrupted are canceled.
+	 *
+	 * @return the number of samples whose evaluation failed
+	 */
+	private int drawAndEvaluateSamplesInParallel(final Node<T, ?> n, final List<T> path, final List<? extends Node<T, ?>> nodePath, final long deadline, final AtomicInteger drawnSamples, final AtomicInteger successfulSamples,
+			final List<V> evaluations, final List<List<T>> completedPaths) throws InterruptedException, NodeEvaluationException {
+		CompletionService<Boolean> completionService = new ExecutorCompletionService<>(this.samplingPool);
+		Set<Future<Boolean>> runningEvaluations = new HashSet<>();
+		int countedExceptions = 0;
+		int sampleIndex = 0;
+		boolean completionsExhausted = false;
+		try {
+			while (successfulSamples.get() < this.desiredNumberOfSuccesfulSamples) {
+				this.checkInterruption();
+				if (deadline > 0 && deadline < System.currentTimeMillis()) {
+					this.logger.info("Deadline for random completions hit! Canceling {} running evaluations and finishing node evaluation.", runningEvaluations.size());
+					break;
+				}
+
+				/* submit new samples as long as there are free threads, the running evaluations do not suffice to reach the desired number of samples, and they may still all fail without exceeding the maximum number of failed samples */
+				while (!completionsExhausted && runningEvaluations.size() < this.numberOfSamplingThreads && successfulSamples.get() + runningEvaluations.size() < this.desiredNumberOfSuccesfulSamples
+						&& countedExceptions + runningEvaluations.size() <= this.maxSamples) {
+					List<T> completedPath;
+					try {
+						completedPath = this.getNextRandomPathCompletionForNode(n, path, new Random(this.samplingSeed + 31L * path.hashCode() + sampleIndex++));
+					} catch (RCNEPathCompletionFailedException e1) {
+						if (e1.getCause() instanceof InterruptedException) {
+							throw (InterruptedException) e1.getCause();
+						}
+						this.logger.info("Stopping sampling.");
+						completionsExhausted = true;
+						break;
+					}
+					completedPaths.add(completedPath);
+					long timeoutForJob = this.getTimeoutForNextSample(deadline);
+					Callable<Boolean> task = this.getSampleEvaluationTask(nodePath, completedPath, drawnSamples, successfulSamples, evaluations);
+					runningEvaluations.add(completionService.submit(() -> TimedComputation.compute(task, timeoutForJob, "RCNE-timeout")));
+				}
+				if (runningEvaluations.isEmpty()) {
+					break;
+				}
+
+				/* wait for the next evaluation to finish (but not beyond the deadline) */
+				Future<Boolean> finishedEvaluation = deadline > 0 ? completionService.poll(Math.max(1, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS) : completionService.take();
+				if (finishedEvaluation == null) {
+					continue;
+				}
+				runningEvaluations.remove(finishedEvaluation);
+				try {
+					finishedEvaluation.get();
+				} catch (ExecutionException ex) {
+					countedExceptions = this.registerFailedSample(ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex, countedExceptions, drawnSamples, successfulSamples);
+				}
+			}
+		} finally {
+			for (Future<Boolean> runningEvaluation : runningEvaluations) {
+				runningEvaluation.cancel(true);
+			}
+		}
+		return countedExceptions;
+	}
+
 	public List<T> getNextRandomPathCompletionForNode(final Node<T, ?> n) throws InterruptedException, RCNEPathCompletionFailedException {
+		return this.getNextRandomPathCompletionForNode(n, n.externalPath());
+	}
+
+	private List<T> getNextRandomPathCompletionForNode(final Node<T, ?> n, final List<T> pathToNode) throws InterruptedException, RCNEPathCompletionFailedException {
+		return this.getNextRandomPathCompletionForNode(n, pathToNode, null);
+	}
+
+	/**
+	 * @param n
+	 *            The node to be completed
+	 * @param pathToNode
+	 *            The external path of the node, which is passed in to not reconstruct it for every sample
+	 * @param random
+	 *            The random source for the completion or NULL if the one of the completer shall be used
+	 */
+	private List<T> getNextRandomPathCompletionForNode(final Node<T, ?> n, final List<T> pathToNode, final Random random) throws InterruptedException, RCNEPathCompletionFailedException {
 
 		/* make sure that the completer has the path from the root to the node in question and that the f-values of the nodes above are added to the map */
 		if (!this.completer.knowsNode(n.getPoint())) {
 			synchronized (this.completer) {
-				this.completer.appendPathToNode(n.externalPath());
+				this.completer.appendPathToNode(pathToNode);
 			}
 			Node<T, ?> current = n.getParent();
 			while (current != null && !this.fValues.containsKey(current)) {
@@ -333,7 +452,7 @@ implements IPotentiallyGraphDependentNodeEvaluator<T, V>, IPotentiallySolutionRe
 
 		/* now draw random completion */
 		List<T> pathCompletion = null;
-		final List<T> completedPath = new ArrayList<>(n.externalPath());
+		final List<T> completedPath = new ArrayList<>(pathToNode);
 		synchronized (this.completer) {
 			long startCompletion = System.currentTimeMillis();
 			if (this.completer.isCanceled()) {
@@ -343,14 +462,14 @@ implements IPotentiallyGraphDependentNodeEvaluator<T, V>, IPotentiallySolutionRe
 			this.logger.debug("Starting search for next solution ...");
 			SearchGraphPath<T, ?> solutionPathFromN = null;
 			try {
-				solutionPathFromN = this.completer.nextSolutionUnderNode(n.getPoint());
+				solutionPathFromN = random != null ? this.completer.nextSolutionUnderNode(n.getPoint(), random) : this.completer.nextSolutionUnderNode(n.getPoint());
 			} catch (AlgorithmExecutionCanceledException | TimeoutException e) {
 				this.logger.info("Completer has been canceled or timeouted. Returning control.");
 				throw new RCNEPathCompletionFailedException(e);
 			}
 			if (solutionPathFromN == null) {
-				this.logger.info("No completion was found for path {}.", n.externalPath());
-				throw new RCNEPathCompletionFailedException("No completion found for path " + n.externalPath());
+				this.logger.info("No completion was found for path {}.", pathToNode);
+				throw new RCNEPathCompletionFailedException("No completion found for path " + pathToNode);
 			}
 			long finishedCompletion = System.currentTimeMillis();
 			this.logger.debug("Found solution of length {} in {}ms. Enable TRACE for details.", solutionPathFromN.getNodes().size(), finishedCompletion - startCompletion);
@@ -362,7 +481,7 @@ implements IPotentiallyGraphDependentNodeEvaluator<T, V>, IPotentiallySolutionRe
 		return completedPath;
 	}
 
-	private void updateMapOfBestScoreFoundSoFar(final List<T> nodeInCompleterGraph, final V scoreOnOriginalBenchmark) {
+	private synchronized void updateMapOfBestScoreFoundSoFar(final List<T> nodeInCompleterGraph, final V scoreOnOriginalBenchmark) {
 		V bestKnownScore = this.bestKnownScoreUnderNodeInCompleterGraph.get(nodeInCompleterGraph);
 		if (bestKnownScore == null || scoreOnOriginalBenchmark.compareTo(bestKnownScore) < 0) {
 			this.logger.debug("Updating best score of path, because score {} is better than previously observed best score {} under path {}", scoreOnOriginalBenchmark, bestKnownScore, nodeInCompleterGraph);
@@ -495,6 +614,9 @@ implements IPotentiallyGraphDependentNodeEvaluator<T, V>, IPotentiallySolutionRe
 	public void cancelActiveTasks() {
 		this.logger.info("Receive cancel signal. Canceling the completer.");
 		this.completer.cancel();
+		if (this.samplingPool != null) {
+			this.samplingPool.shutdownNow();
+		}
 	}
 
 	@Override
@@ -506,6 +628,38 @@ implements IPotentiallyGraphDependentNodeEvaluator<T, V>, IPotentiallySolutionRe
 		return this.solutionEvaluator;
 	}
 
+	public int getNumberOfSamplingThreads() {
+		return this.numberOfSamplingThreads;
+	}
+
+	/**
+	 * Sets the number of random completions of a node that are evaluated at the same time. With one thread (default), the completions are drawn and evaluated one after another by the thread that evaluates the node.
+	 *
+	 * @param numberOfSamplingThreads
+	 */
+	public void setNumberOfSamplingThreads(final int numberOfSamplingThreads) {
+		if (numberOfSamplingThreads < 1) {
+			throw new IllegalArgumentException("The number of sampling threads must be positive.");
+		}
+		if (this.samplingPool != null) {
+			throw new IllegalStateException("The number of sampling threads can only be set once.");
+		}
+		this.numberOfSamplingThreads = numberOfSamplingThreads;
+		if (numberOfSamplingThreads > 1) {
+			this.samplingSeed = this.random.nextLong();
+			AtomicInteger threadCounter = new AtomicInteger();
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(numberOfSamplingThreads, numberOfSamplingThreads, SAMPLING_THREAD_KEEP_ALIVE_IN_MS, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+				Thread t = new Thread(r, "RCNE-sampler-" + threadCounter.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			});
+
+			/* the threads terminate when no node is evaluated anymore, so the pool does not outlive the search even if the evaluator is never canceled */
+			pool.allowCoreThreadTimeOut(true);
+			this.samplingPool = pool;
+		}
+	}
+
 	public boolean isVisualizeSubSearch() {
 		return this.visualizeSubSearch;
 	}
@@ -0,0 +1,20 @@
+package ai.libs.jaicore.search.algorithms.standard.mcts;
+
+import java.util.List;
+
+/**
+ * A tree policy that supports several concurrent playouts. While the score of a playout path is being computed, the path carries a virtual loss, i.e. the policy treats
+ * its nodes as if they had been visited with a bad outcome. This way, concurrent selections are guided towards other parts of the tree.
+ *
+ * For every path, {@link #applyVirtualLoss(List)} is called once before the playout is evaluated and {@link #revertVirtualLoss(List)} is called once afterwards, before the
+ * path is updated with its true score.
+ *
+ * @author fmohr
+ *
+ */
+public interface IVirtualLossPolicy<T, A, V extends Comparable<V>> extends IPathUpdatablePolicy<T, A, V> {
+
+	public void applyVirtualLoss(List<T> path);
+
+	public void revertVirtualLoss(List<T> path);
+}
@@ -7,7 +7,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -30,7 +37,6 @@ import ai.libs.jaicore.search.core.interfaces.AOptimalPathInORGraphSearch;
 import ai.libs.jaicore.search.core.interfaces.GraphGenerator;
 import ai.libs.jaicore.search.model.other.EvaluatedSearchGraphPath;
 import ai.libs.jaicore.search.model.other.SearchGraphPath;
-import ai.libs.jaicore.search.model.travesaltree.Node;
 import ai.libs.jaicore.search.model.travesaltree.NodeExpansionDescription;
 import ai.libs.jaicore.search.probleminputs.GraphSearchWithPathEvaluationsInput;
 import ai.libs.jaicore.search.structure.graphgenerator.NodeGoalTester;
@@ -44,6 +50,10 @@ import ai.libs.jaicore.search.structure.graphgenerator.SuccessorGenerator;
  *
  * This implementation follows the description in Browne, Cb AND Powley, Edward - A survey of monte carlo tree search methods (2012)
  *
+ * If more than one parallel playout is allowed, the search is tree-parallel: the tree is still only modified by the thread that runs the algorithm, but the scores of up to
+ * that many playouts are computed concurrently by a pool of worker threads. If the tree policy is an {@link IVirtualLossPolicy}, a virtual loss is applied to the path of each
+ * pending playout, so that subsequent selections are guided towards other parts of the tree.
+ *
  * @author Felix Mohr
  */
 public class MCTSPathSearch<N, A, V extends Comparable<V>> extends AOptimalPathInORGraphSearch<GraphSearchWithPathEvaluationsInput<N, A, V>, N, A, V> implements IPolicy<N, A, V> {
@@ -53,9 +63,6 @@ public class MCTSPathSearch<N, A, V extends Comparable<V>> extends AOptimalPathI
 	private Logger logger = LoggerFactory.getLogger(MCTSPathSearch.class);
 	private String loggerName;
 
-	/* communication */
-	protected final Map<N, Node<N, V>> ext2int = new HashMap<>();
-
 	protected final GraphGenerator<N, A> graphGenerator;
 	protected final RootGenerator<N> rootGenerator;
 	protected final SuccessorGenerator<N, A> successorGenerator;
@@ -79,6 +86,28 @@ public class MCTSPathSearch<N, A, V extends Comparable<V>> extends AOptimalPathI
 
 	private final boolean forbidDoublePaths;
 
+	/* tree parallelization */
+	private int numberOfParallelPlayouts = 1;
+	private ExecutorService playoutPool;
+	private CompletionService<PlayoutResult> playoutCompletionService;
+	private final Collection<List<N>> pendingPlayouts = new HashSet<>();
+
+	/**
+	 * The outcome of a playout whose score has been computed by a worker thread.
+	 */
+	private class PlayoutResult {
+		private final List<N> path;
+		private final V score;
+		private final ObjectEvaluationFailedException exception;
+
+		private PlayoutResult(final List<N> path, final V score, final ObjectEvaluationFailedException exception) {
+			super();
+			this.path = path;
+			this.score = score;
+			this.exception = exception;
+		}
+	}
+
 	public MCTSPathSearch(final GraphSearchWithPathEvaluationsInput<N, A, V> problem, final IPathUpdatablePolicy<N, A, V> treePolicy, final IPolicy<N, A, V> defaultPolicy, final V penaltyForFailedEvaluation, final boolean forbidDoublePaths) {
 		super(problem);
 		this.graphGenerator = problem.getGraphGenerator();
@@ -355,6 +384,9 @@ public class MCTSPathSearch<N, A, V extends Comparable<V>> extends AOptimalPathI
 				throw new IllegalStateException("no simulator has been set!");
 			}
 			this.logger.debug("Next algorithm iteration. Number of unexpanded nodes: {}", this.unexpandedNodes.size());
+			if (this.numberOfParallelPlayouts > 1) {
+				return this.nextWithParallelPlayouts();
+			}
 			try {
 				this.registerActiveThread();
 				while (this.getState() == EAlgorithmState.ACTIVE) {
@@ -420,6 +452,162 @@ public class MCTSPathSearch<N, A, V extends Comparable<V>> extends AOptimalPathI
 		}
 	}
 
+	/**
+	 * Draws new playouts until as many playouts as allowed are pending and waits for the next pending playout to finish. The tree is only modified by the thread that
+	 * calls this method; the worker threads only compute the scores of the playouts.
+	 *
+	 * @return The next solution event or the event that the algorithm has finished
+	 */
+	private AlgorithmEvent nextWithParallelPlayouts() throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmException, AlgorithmTimeoutedException {
+		if (this.playoutPool == null) {
+			AtomicInteger counter = new AtomicInteger(0);
+			this.playoutPool = Executors.newFixedThreadPool(this.numberOfParallelPlayouts, r -> {
+				Thread t = new Thread(r);
+				t.setName("MCTS-playout-worker-" + counter.incrementAndGet());
+				return t;
+			});
+			this.playoutCompletionService = new ExecutorCompletionService<>(this.playoutPool);
+		}
+		try {
+			this.registerActiveThread();
+			while (this.getState() == EAlgorithmState.ACTIVE) {
+				this.checkAndConductTermination();
+
+				/* draw new playouts until all workers are busy. If the next path is still pending, wait for a result first, since the tree policy would only suggest it again */
+				boolean exhausted = this.unexpandedNodes.isEmpty();
+				while (!exhausted && this.pendingPlayouts.size() < this.numberOfParallelPlayouts) {
+					List<N> path;
+					try {
+						path = this.getPlayout();
+					} catch (NoSuchElementException e) {
+						this.logger.info("No more playouts exist.");
+						exhausted = true;
+						break;
+					}
+					assert path != null : "The playout must never be null!";
+					if (this.pendingPlayouts.contains(path)) {
+						this.logger.debug("Path {} is currently being evaluated. Waiting for a result before drawing another playout.", path);
+						break;
+					} else if (this.scoreCache.containsKey(path)) {
+						assert !this.forbidDoublePaths : "Second time path " + this.getActionListForPath(path) + " has been generated even though double paths are forbidden!";
+						this.logger.warn("Path {} has already been observed in the past.", this.getActionListForPath(path));
+						this.treePolicy.updatePath(path, this.scoreCache.get(path));
+						this.closePath(path);
+					} else {
+						this.submitPlayout(path);
+					}
+					exhausted = this.unexpandedNodes.isEmpty();
+				}
+				if (this.pendingPlayouts.isEmpty()) {
+					if (exhausted) {
+						this.logger.info("Finishing MCTS as all nodes have been expanded; the search graph has been exhausted.");
+						return this.terminate();
+					}
+					continue;
+				}
+
+				/* wait for the next playout to finish and update its path */
+				PlayoutResult result;
+				try {
+					result = this.playoutCompletionService.take().get();
+				} catch (InterruptedException e) { // don't forward this directly since this could come indirectly through a cancel. Rather invoke checkTermination
+					Thread.interrupted(); // reset interrupt field
+					this.checkAndConductTermination();
+					throw e; // if we get here (no exception for timeout or cancel has been thrown in check), we really have been interrupted
+				} catch (ExecutionException e) {
+					this.checkAndConductTermination();
+					throw new AlgorithmException(e.getCause(), "Could not compute the score of a playout.");
+				}
+				List<N> path = result.path;
+				this.pendingPlayouts.remove(path);
+				if (this.treePolicy instanceof IVirtualLossPolicy) {
+					((IVirtualLossPolicy<N, A, V>) this.treePolicy).revertVirtualLoss(path);
+				}
+				try {
+					if (result.exception != null) {
+						this.scoreCache.put(path, this.penaltyForFailedEvaluation);
+						this.post(new NodeTypeSwitchEvent<>(this.getId(), path.get(path.size() - 1), "or_ffail"));
+						this.treePolicy.updatePath(path, this.penaltyForFailedEvaluation);
+						this.logger.warn("Could not evaluate playout {}", result.exception);
+					} else {
+						boolean isSolutionPlayout = this.nodeGoalTester.isGoal(path.get(path.size() - 1));
+						this.logger.debug("Determined playout score {}. Is goal: {}. Now updating the path.", result.score, isSolutionPlayout);
+						this.scoreCache.put(path, result.score);
+						this.treePolicy.updatePath(path, result.score);
+						if (isSolutionPlayout) {
+							return this.registerSolution(new EvaluatedSearchGraphPath<>(path, this.getActionListForPath(path), result.score));
+						}
+					}
+				} finally {
+					this.closePath(path); // visualize that path rollout has been completed
+				}
+			}
+		} catch (ActionPredictionFailedException e) {
+			throw new AlgorithmException(e, "Step failed due to an exception in predicting an action when computing the playout.");
+		} finally {
+			this.unregisterActiveThread();
+		}
+
+		/* the algorithm should never come here */
+		throw new IllegalStateException("The algorithm has reached the end of the active-block, which shall never happen.");
+	}
+
+	private void submitPlayout(final List<N> path) {
+		this.logger.debug("Obtained path {}. Now submitting the computation of the score for this playout.", path);
+		this.pendingPlayouts.add(path);
+		if (this.treePolicy instanceof IVirtualLossPolicy) {
+			((IVirtualLossPolicy<N, A, V>) this.treePolicy).applyVirtualLoss(path);
+		}
+		SearchGraphPath<N, A> searchGraphPath = this.getPathForNodeList(path);
+		this.playoutCompletionService.submit(() -> {
+			try {
+				return new PlayoutResult(path, this.playoutSimulator.evaluate(searchGraphPath), null);
+			} catch (ObjectEvaluationFailedException e) {
+				return new PlayoutResult(path, null, e);
+			}
+		});
+	}
+
+	@Override
+	protected void shutdown() {
+		if (this.isShutdownInitialized()) {
+			return;
+		}
+		super.shutdown();
+		if (this.playoutPool != null) {
+			this.logger.debug("Shutting down playout pool.");
+			this.playoutPool.shutdownNow();
+			try {
+				if (!this.playoutPool.awaitTermination(1, TimeUnit.MINUTES)) {
+					this.logger.error("Playout pool has not been shutdown correctly!");
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				this.logger.warn("Got interrupted during shutdown!", e);
+			}
+		}
+	}
+
+	public int getNumberOfParallelPlayouts() {
+		return this.numberOfParallelPlayouts;
+	}
+
+	/**
+	 * Sets the number of playouts whose scores may be computed concurrently. With more than one parallel playout, the playout simulator must be thread-safe.
+	 *
+	 * @param numberOfParallelPlayouts
+	 *            The maximum number of concurrently computed playouts
+	 */
+	public void setNumberOfParallelPlayouts(final int numberOfParallelPlayouts) {
+		if (this.getState() != EAlgorithmState.CREATED) {
+			throw new IllegalStateException("The number of parallel playouts can only be set before the search is started.");
+		}
+		if (numberOfParallelPlayouts < 1) {
+			throw new IllegalArgumentException("The number of parallel playouts must be positive.");
+		}
+		this.numberOfParallelPlayouts = numberOfParallelPlayouts;
+	}
+
 	private List<A> getActionListForPath(final List<N> path) {
 		List<A> actions = new ArrayList<>();
 		int n = path.size();
@@ -10,6 +10,7 @@ public class MCTSPathSearchFactory<N, A, V extends Comparable<V>> extends Standa
 	private IPolicy<N, A, V> defaultPolicy;
 	private V evaluationFailurePenalty;
 	private boolean forbidDoublePaths;
+	private int numberOfParallelPlayouts = 1;
 
 	public IPathUpdatablePolicy<N, A, V> getTreePolicy() {
 		return this.treePolicy;
@@ -43,6 +44,14 @@ public class MCTSPathSearchFactory<N, A, V extends Comparable<V>> extends Standa
 		this.forbidDoublePaths = forbidDoublePaths;
 	}
 
+	public int getNumberOfParallelPlayouts() {
+		return this.numberOfParallelPlayouts;
+	}
+
+	public void setNumberOfParallelPlayouts(final int numberOfParallelPlayouts) {
+		this.numberOfParallelPlayouts = numberOfParallelPlayouts;
+	}
+
 	@Override
 	public MCTSPathSearch<N, A, V> getAlgorithm() {
 		return this.getAlgorithm(this.getInput());
@@ -50,6 +59,8 @@ public class MCTSPathSearchFactory<N, A, V extends Comparable<V>> extends Standa
 
 	@Override
 	public MCTSPathSearch<N, A, V> getAlgorithm(final GraphSearchWithPathEvaluationsInput<N, A, V> problem) {
-		return new MCTSPathSearch<>(problem, this.treePolicy, this.defaultPolicy, this.evaluationFailurePenalty, this.forbidDoublePaths);
+		MCTSPathSearch<N, A, V> search = new MCTSPathSearch<>(problem, this.treePolicy, this.defaultPolicy, this.evaluationFailurePenalty, this.forbidDoublePaths);
+		search.setNumberOfParallelPlayouts(this.numberOfParallelPlayouts);
+		return search;
 	}
 }
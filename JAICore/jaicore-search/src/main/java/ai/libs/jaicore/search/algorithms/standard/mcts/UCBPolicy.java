@@ -1,99 +1,245 @@
 package ai.libs.jaicore.search.algorithms.standard.mcts;
 
-import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ai.libs.jaicore.basic.ILoggingCustomizable;
 
-public class UCBPolicy<T,A> implements IPathUpdatablePolicy<T,A,Double>, ILoggingCustomizable {
-	
+/**
+ * UCB1 tree policy. For each node, only the streaming moments of the observed scores (count, mean, sum of squared deviations, best and worst score) are stored, so the
+ * memory per node is constant. The statistics are kept in a concurrent table and may be updated by several threads at the same time.
+ *
+ * The policy supports virtual losses: while a playout is pending, each node on its path counts as visited once more with the worst score observed for the node so far.
+ *
+ * @author fmohr
+ */
+public class UCBPolicy<T,A> implements IVirtualLossPolicy<T,A,Double>, ILoggingCustomizable {
+
 	private String loggerName;
 	private Logger logger = LoggerFactory.getLogger(UCBPolicy.class);
-	
+
 	private final boolean maximize;
 
 	public UCBPolicy() {
 		this(true);
 	}
-	
+
 	public UCBPolicy(boolean maximize) {
 		this.maximize = maximize;
 	}
-	
+
+	/**
+	 * Statistics of a node. The moments are updated with Welford's algorithm.
+	 */
 	class NodeLabel {
-		private final DescriptiveStatistics scores = new DescriptiveStatistics();
 		private int visits;
+		private double mean;
+		private double m2;
+		private double best = Double.NaN;
+		private double worst = Double.NaN;
+		private int pendingPlayouts;
+
+		synchronized void update(double score) {
+			visits++;
+			double delta = score - mean;
+			mean += delta / visits;
+			m2 += delta * (score - mean);
+			if (visits == 1) {
+				best = score;
+				worst = score;
+			} else if (maximize ? score > best : score < best) {
+				best = score;
+			} else if (maximize ? score < worst : score > worst) {
+				worst = score;
+			}
+		}
+
+		synchronized void addPendingPlayout() {
+			pendingPlayouts++;
+		}
+
+		synchronized void removePendingPlayout() {
+			if (pendingPlayouts == 0) {
+				throw new IllegalStateException("Cannot revert a virtual loss that has not been applied.");
+			}
+			pendingPlayouts--;
+		}
+
+		/**
+		 * @return The number of visits including the pending playouts
+		 */
+		synchronized int getEffectiveVisits() {
+			return visits + pendingPlayouts;
+		}
+
+		/**
+		 * @return The mean score where every pending playout counts as a visit with the worst score observed so far or NaN if no score has been observed yet
+		 */
+		synchronized double getEffectiveMean() {
+			if (visits == 0) {
+				return Double.NaN;
+			}
+			return (mean * visits + worst * pendingPlayouts) / (visits + pendingPlayouts);
+		}
+
+		synchronized int getVisits() {
+			return visits;
+		}
+
+		synchronized double getMean() {
+			return mean;
+		}
+
+		synchronized double getVariance() {
+			return visits > 1 ? m2 / (visits - 1) : 0;
+		}
+
+		synchronized double getBest() {
+			return best;
+		}
+
 		@Override
-		public String toString() {
-			return "NodeLabel [scores=" + scores + ", visits=" + visits + "]";
+		public synchronized String toString() {
+			return "NodeLabel [visits=" + visits + ", mean=" + mean + ", variance=" + getVariance() + ", best=" + best + ", pendingPlayouts=" + pendingPlayouts + "]";
+		}
+	}
+
+	private final Map<T, NodeLabel> labels = new ConcurrentHashMap<>();
+
+	private NodeLabel getOrCreateLabel(T node) {
+		NodeLabel label = labels.get(node);
+		if (label == null) {
+			label = labels.computeIfAbsent(node, n -> new NodeLabel());
 		}
+		return label;
 	}
-	
-	private final Map<T, NodeLabel> labels = new HashMap<>();
 
+	@Override
 	public void updatePath(List<T> path, Double score) {
 		logger.debug("Updating path {} with score {}", path, score);
 		for (T node : path) {
-			if (!labels.containsKey(node)) {
-				labels.put(node, new NodeLabel());
-			}
-			NodeLabel label = labels.get(node);
-			label.visits++;
-			label.scores.addValue(score);
-			logger.trace("Updated label of node {}. Visits now {}, stats contains {} entries with mean {}", node, label.visits, label.scores.getN(), label.scores.getMean());
+			NodeLabel label = getOrCreateLabel(node);
+			label.update(score);
+			logger.trace("Updated label of node {}: {}", node, label);
+		}
+	}
+
+	@Override
+	public void applyVirtualLoss(List<T> path) {
+		logger.debug("Applying virtual loss to path {}", path);
+		for (T node : path) {
+			getOrCreateLabel(node).addPendingPlayout();
 		}
 	}
-	
+
+	@Override
+	public void revertVirtualLoss(List<T> path) {
+		logger.debug("Reverting virtual loss of path {}", path);
+		for (T node : path) {
+			getOrCreateLabel(node).removePendingPlayout();
+		}
+	}
+
 	@Override
 	public A getAction(T node, Map<A,T> actionsWithTheirSuccessors) {
-		Collection<A> possibleActions = actionsWithTheirSuccessors.keySet();
-		logger.debug("Deriving action for node {}. The {} options are: {}", node, possibleActions.size(), actionsWithTheirSuccessors);
-		
+		if (logger.isDebugEnabled()) {
+			logger.debug("Deriving action for node {}. The {} options are: {}", node, actionsWithTheirSuccessors.size(), actionsWithTheirSuccessors);
+		}
+
 		/* if an applicable action has not been tried, play it to get some initial idea */
-		List<A> actionsThatHaveNotBeenTriedYet = possibleActions.stream().filter(a -> !labels.containsKey(actionsWithTheirSuccessors.get(a))).collect(Collectors.toList());
-		if (!actionsThatHaveNotBeenTriedYet.isEmpty()) {
-			A action = actionsThatHaveNotBeenTriedYet.get(0);
-			T child = actionsWithTheirSuccessors.get(action);
-			labels.put(child, new NodeLabel());
-			logger.info("Dictating action {}, because this was never played before.", action);
-			return action;
-		}
-		
-		/* otherwise, play best action */
-		double best = maximize ? Double.MIN_VALUE : Double.MAX_VALUE;
+		for (Entry<A, T> actionAndSuccessor : actionsWithTheirSuccessors.entrySet()) {
+			if (!labels.containsKey(actionAndSuccessor.getValue())) {
+				getOrCreateLabel(actionAndSuccessor.getValue());
+				logger.info("Dictating action {}, because this was never played before.", actionAndSuccessor.getKey());
+				return actionAndSuccessor.getKey();
+			}
+		}
+
+		/* otherwise, play best action. Successors whose only playouts are still pending are only considered if there is no other option */
 		logger.debug("All actions have been tried. Label is: {}", labels.get(node));
-		int n = labels.get(node).visits;
+		NodeLabel labelOfNode = labels.get(node);
+		int n = labelOfNode != null ? labelOfNode.getEffectiveVisits() : 0;
+		double best = maximize ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
 		A choice = null;
-		for (A action : possibleActions) {
-			T child = actionsWithTheirSuccessors.get(action);
-			NodeLabel label = labels.get(child);
-			assert label.visits != 0 : "Visits of node " + child + " cannot be 0 if we already used this action before!";
-			assert label.scores.getN() != 0 : "Number of observations cannot be 0 if we already visited this node before";
-			logger.trace("Considering action {} whose successor state has stats {} and {} visits", action, label.scores.getMean(), label.visits);
-			double ucb = label.scores.getMean() + (maximize ? 1 : -1) * Math.sqrt(2 * Math.log(n) / label.visits);
-			assert !(new Double(ucb).equals(Double.NaN)) : "The UCB score is NaN, which cannot be the case. Score mean is " + label.scores.getMean() + ", number of visits is " + label.visits;
-			if (maximize && (ucb > best) || !maximize && (ucb < best)) {
-				logger.trace("Updating best choice {} with {} since it is better than the current solution with performance {}", choice, action, best);
+		A fallback = null;
+		for (Entry<A, T> actionAndSuccessor : actionsWithTheirSuccessors.entrySet()) {
+			A action = actionAndSuccessor.getKey();
+			NodeLabel label = labels.get(actionAndSuccessor.getValue());
+			double mean = label.getEffectiveMean();
+			int visits = label.getEffectiveVisits();
+			assert visits != 0 : "Visits of node " + actionAndSuccessor.getValue() + " cannot be 0 if we already used this action before!";
+			if (Double.isNaN(mean)) {
+				logger.trace("Skipping action {} whose successor has no observed score yet.", action);
+				if (fallback == null) {
+					fallback = action;
+				}
+				continue;
+			}
+			double ucb = mean + (maximize ? 1 : -1) * Math.sqrt(2 * Math.log(n) / visits);
+			assert !Double.isNaN(ucb) : "The UCB score is NaN, which cannot be the case. Score mean is " + mean + ", number of visits is " + visits;
+			if (logger.isTraceEnabled()) {
+				logger.trace("Considering action {} whose successor state has mean {}, {} visits and UCB score {}", action, mean, visits, ucb);
+			}
+			if (choice == null || maximize && (ucb > best) || !maximize && (ucb < best)) {
 				best = ucb;
 				choice = action;
 			}
-			else
-				logger.trace("Skipping current solution {} since its score {} is not better than the currently best {}.", action, ucb, best);	
 		}
-		
+		if (choice == null) {
+			choice = fallback;
+		}
+
 		/* quick sanity check */
 		assert choice != null : "Would return null, but this must not be the case!";
 		logger.info("Recommending action {}.", choice);
 		return choice;
 	}
 
+	/**
+	 * @param node
+	 *            The node for which the statistics are requested.
+	 * @return The number of playouts through the given node whose score has been observed.
+	 */
+	public int getVisits(T node) {
+		NodeLabel label = labels.get(node);
+		return label != null ? label.getVisits() : 0;
+	}
+
+	/**
+	 * @param node
+	 *            The node for which the statistics are requested.
+	 * @return The mean score of the playouts through the given node or NaN if the node has not been visited.
+	 */
+	public double getMean(T node) {
+		NodeLabel label = labels.get(node);
+		return label != null && label.getVisits() > 0 ? label.getMean() : Double.NaN;
+	}
+
+	/**
+	 * @param node
+	 *            The node for which the statistics are requested.
+	 * @return The sample variance of the scores of the playouts through the given node.
+	 */
+	public double getVariance(T node) {
+		NodeLabel label = labels.get(node);
+		return label != null ? label.getVariance() : Double.NaN;
+	}
+
+	/**
+	 * @param node
+	 *            The node for which the statistics are requested.
+	 * @return The best score of a playout through the given node or NaN if the node has not been visited.
+	 */
+	public double getBestScore(T node) {
+		NodeLabel label = labels.get(node);
+		return label != null ? label.getBest() : Double.NaN;
+	}
+
 	@Override
 	public String getLoggerName() {
 		return loggerName;
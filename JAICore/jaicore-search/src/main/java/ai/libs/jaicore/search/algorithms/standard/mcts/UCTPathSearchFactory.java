@@ -14,6 +14,8 @@ public class UCTPathSearchFactory<T, A> extends MCTSPathSearchFactory<T, A, Doub
 	@Override
 	public UCTPathSearch<T, A> getAlgorithm() {
 		assert getEvaluationFailurePenalty() != null : "The evaluationFailurePenalty must not be null!";
-		return new UCTPathSearch<>(getInput(), seed, getEvaluationFailurePenalty(), isForbidDoublePaths());
+		UCTPathSearch<T, A> search = new UCTPathSearch<>(getInput(), seed, getEvaluationFailurePenalty(), isForbidDoublePaths());
+		search.setNumberOfParallelPlayouts(getNumberOfParallelPlayouts());
+		return search;
 	}
 }
@@ -87,11 +87,13 @@ public class RandomSearch<N, A> extends AAnyPathInORGraphSearch<GraphSearchInput
 	 * Note that the fact that a new successor is generated does not mean that the algorithm will choose the newly generated successor to be appended to the paths.
 	 *
 	 * @param node
+	 * @param random
+	 *            the random source used to generate single successors
 	 * @throws InterruptedException
 	 * @throws AlgorithmExecutionCanceledException
 	 * @throws AlgorithmTimeoutedException
 	 */
-	private void expandNode(final N node) throws InterruptedException, AlgorithmTimeoutedException, AlgorithmExecutionCanceledException {
+	private void expandNode(final N node, final Random random) throws InterruptedException, AlgorithmTimeoutedException, AlgorithmExecutionCanceledException {
 		synchronized (this.exploredGraph) {
 			assert this.exploredGraph.isGraphSane();
 			assert !this.goalTester.isGoal(node) : "Goal nodes cannot be expanded!";
@@ -106,7 +108,7 @@ public class RandomSearch<N, A> extends AAnyPathInORGraphSearch<GraphSearchInput
 				SingleSuccessorGenerator<N, A> cGen = ((SingleSuccessorGenerator<N, A>) this.gen);
 				for (int i = 0; i < 3 && !nodeAdded; i++) {
 					assert this.exploredGraph.isGraphSane();
-					NodeExpansionDescription<N, A> successor = cGen.generateSuccessor(node, this.random.nextInt(Integer.MAX_VALUE));
+					NodeExpansionDescription<N, A> successor = cGen.generateSuccessor(node, random.nextInt(Integer.MAX_VALUE));
 					assert this.exploredGraph.isGraphSane();
 					if (successor == null) {
 						continue;
@@ -245,6 +247,22 @@ public class RandomSearch<N, A> extends AAnyPathInORGraphSearch<GraphSearchInput
 	}
 
 	public SearchGraphPath<N, A> nextSolutionUnderNode(final N node) throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmTimeoutedException {
+		return this.nextSolutionUnderNode(node, this.random);
+	}
+
+	/**
+	 * Draws a random path from the given node to a goal node that has not been drawn before.
+	 *
+	 * @param node
+	 *            the node under which the path is drawn
+	 * @param random
+	 *            the random source used for the decisions of this draw. Passing a random source with a fixed seed makes the draw reproducible for a given state of the explored graph.
+	 * @return the drawn path or NULL if all paths under the node have been drawn already
+	 * @throws InterruptedException
+	 * @throws AlgorithmExecutionCanceledException
+	 * @throws AlgorithmTimeoutedException
+	 */
+	public SearchGraphPath<N, A> nextSolutionUnderNode(final N node, final Random random) throws InterruptedException, AlgorithmExecutionCanceledException, AlgorithmTimeoutedException {
 		this.logger.info("Looking for next solution under node {}. Remaining time is {}.", node, this.getRemainingTimeToDeadline());
 		this.checkAndConductTermination();
 		assert this.exploredGraph.isGraphSane();
@@ -266,7 +284,7 @@ public class RandomSearch<N, A> extends AAnyPathInORGraphSearch<GraphSearchInput
 
 				/* expand node if this has not happened yet. */
 				if (!this.closed.contains(head)) {
-					this.expandNode(head);
+					this.expandNode(head, random);
 				}
 
 				/* get unexhausted successors */
@@ -296,7 +314,7 @@ public class RandomSearch<N, A> extends AAnyPathInORGraphSearch<GraphSearchInput
 				} else {
 					int n = successors.size();
 					assert n != 0 : "Ended up in a situation where only exhausted nodes can be chosen.";
-					int k = this.random.nextInt(n);
+					int k = random.nextInt(n);
 					head = successors.get(k);
 					final N tmpHead = head; // needed for stream in assertion
 					assert !path.contains(head) : "Going in circles ... " + path.stream().map(pn -> "\n\t[" + (pn.equals(tmpHead) ? "*" : " ") + "]" + pn.toString()).collect(Collectors.joining()) + "\n\t[*]" + head;
@@ -51,10 +51,10 @@ public class ParetoSelection<T, V extends Comparable<V>> implements Queue<Node<T
 	 */
 	@SuppressWarnings("unchecked")
 	private boolean dominates(final Node<T, V> p, final Node<T, V> q) {
-		if (!p.getAnnotations().containsKey(UNCERTAINTY)) {
+		if (!p.hasAnnotation(UNCERTAINTY)) {
 			throw new IllegalArgumentException("Node " + p + " has no uncertainty information.");
 		}
-		if (!q.getAnnotations().containsKey(UNCERTAINTY)) {
+		if (!q.hasAnnotation(UNCERTAINTY)) {
 			throw new IllegalArgumentException("Node " + q + " has no uncertainty information.");
 		}
 		// Get f and u values of nodes
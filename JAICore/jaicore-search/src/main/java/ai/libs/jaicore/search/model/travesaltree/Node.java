@@ -1,21 +1,38 @@
 package ai.libs.jaicore.search.model.travesaltree;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import ai.libs.jaicore.logging.ToJSONStringUtil;
 
+/**
+ * A node of a search tree. Since searches may create millions of nodes, the node is kept compact: the f-value (internal label), the depth, and the goal flag are stored in dedicated fields, and the map for further
+ * annotations is only created once the first annotation is set.
+ *
+ * For compatibility, the f-value is still accessible as the annotation "f".
+ *
+ * @param <T>
+ *            type of the points (external labels) of the nodes
+ * @param <V>
+ *            type of the f-values (internal labels) of the nodes
+ */
 public class Node<T, V extends Comparable<V>> {
+	private static final String F_ANNOTATION = "f";
+
 	private final T externalLabel;
+	private V internalLabel;
 	private boolean goal;
+	private int depth;
 	protected Node<T, V> parent;
-	private final Map<String, Object> annotations = new HashMap<>(); // for nodes effectively examined
+	private Map<String, Object> annotations; // created lazily, since most nodes are never annotated
 
 	public Node(final Node<T, V> parent, final T point) {
 		super();
 		this.parent = parent;
+		this.depth = parent != null ? parent.depth + 1 : 0;
 		this.externalLabel = point;
 	}
 
@@ -27,29 +44,65 @@ public class Node<T, V extends Comparable<V>> {
 		return this.externalLabel;
 	}
 
-	@SuppressWarnings("unchecked")
 	public V getInternalLabel() {
-		return (V) this.annotations.get("f");
+		return this.internalLabel;
 	}
 
+	/**
+	 * Changes the parent of this node. Note that the depths of the descendants of this node are not updated.
+	 *
+	 * @param newParent
+	 */
 	public void setParent(final Node<T, V> newParent) {
 		this.parent = newParent;
+		this.depth = newParent != null ? newParent.depth + 1 : 0;
 	}
 
 	public void setInternalLabel(final V internalLabel) {
-		this.setAnnotation("f", internalLabel);
+		this.internalLabel = internalLabel;
 	}
 
+	@SuppressWarnings("unchecked")
 	public void setAnnotation(final String annotationName, final Object annotationValue) {
+		if (annotationName.equals(F_ANNOTATION)) {
+			this.internalLabel = (V) annotationValue;
+			return;
+		}
+		if (this.annotations == null) {
+			this.annotations = new HashMap<>(4);
+		}
 		this.annotations.put(annotationName, annotationValue);
 	}
 
 	public Object getAnnotation(final String annotationName) {
-		return this.annotations.get(annotationName);
+		if (annotationName.equals(F_ANNOTATION)) {
+			return this.internalLabel;
+		}
+		return this.annotations != null ? this.annotations.get(annotationName) : null;
 	}
 
+	/**
+	 * @return true iff the annotation has been set on this node; in contrast to {@link #getAnnotations()}, this does not create a snapshot of the annotations
+	 */
+	public boolean hasAnnotation(final String annotationName) {
+		if (annotationName.equals(F_ANNOTATION)) {
+			return this.internalLabel != null;
+		}
+		return this.annotations != null && this.annotations.containsKey(annotationName);
+	}
+
+	/**
+	 * @return An unmodifiable snapshot of the annotations of this node including the f-value (if set)
+	 */
 	public Map<String, Object> getAnnotations() {
-		return this.annotations;
+		if (this.annotations == null && this.internalLabel == null) {
+			return Collections.emptyMap();
+		}
+		Map<String, Object> snapshot = this.annotations != null ? new HashMap<>(this.annotations) : new HashMap<>(2);
+		if (this.internalLabel != null) {
+			snapshot.put(F_ANNOTATION, this.internalLabel);
+		}
+		return Collections.unmodifiableMap(snapshot);
 	}
 
 	public boolean isGoal() {
@@ -60,23 +113,32 @@ public class Node<T, V extends Comparable<V>> {
 		this.goal = goal;
 	}
 
+	/**
+	 * @return The depth of the node when it was attached to its current parent; the root has depth 0.
+	 */
+	public int getDepth() {
+		return this.depth;
+	}
+
 	public List<Node<T, V>> path() {
-		List<Node<T, V>> path = new ArrayList<>();
+		List<Node<T, V>> path = new ArrayList<>(this.depth + 1);
 		Node<T, V> current = this;
 		while (current != null) {
-			path.add(0, current);
+			path.add(current);
 			current = current.parent;
 		}
+		Collections.reverse(path);
 		return path;
 	}
 
 	public List<T> externalPath() {
-		List<T> path = new ArrayList<>();
+		List<T> path = new ArrayList<>(this.depth + 1);
 		Node<T, V> current = this;
 		while (current != null) {
-			path.add(0, current.externalLabel);
+			path.add(current.externalLabel);
 			current = current.parent;
 		}
+		Collections.reverse(path);
 		return path;
 	}
 
@@ -94,7 +156,7 @@ public class Node<T, V extends Comparable<V>> {
 			s += "null";
 		}
 		s += ", annotations=";
-		s += this.annotations;
+		s += this.getAnnotations();
 		s += "]";
 		return s;
 	}
@@ -104,7 +166,7 @@ public class Node<T, V extends Comparable<V>> {
 		Map<String, Object> fields = new HashMap<>();
 		fields.put("externalLabel", this.externalLabel);
 		fields.put("goal", this.goal);
-		fields.put("annotations", this.annotations);
+		fields.put("annotations", this.getAnnotations());
 		return ToJSONStringUtil.toJSONString(this.getClass().getSimpleName(), fields);
 	}
-}
\ No newline at end of file
+}
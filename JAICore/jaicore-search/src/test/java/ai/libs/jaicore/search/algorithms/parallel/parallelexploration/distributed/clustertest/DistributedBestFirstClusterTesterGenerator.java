@@ -21,7 +21,6 @@ public class DistributedBestFirstClusterTesterGenerator implements SerializableG
 		super();
 		this.target = target;
 		this.rootGenerator =  () -> new TestNode(0, size);
-		System.out.println("Trying to find " + target + " within a space of " + size + " items.");
 	}
 
 	@Override
@@ -1,27 +1,31 @@
 package ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.clustertest;
-//package jaicore.search.algorithms.parallel.parallelexploration.distributed.clustertest;
-//
-//import java.nio.file.Path;
-//import java.nio.file.Paths;
-//import java.util.List;
-//
-//import jaicore.graphvisualizer.SimpleGraphVisualizationWindow;
-//import jaicore.search.algorithms.parallel.parallelexploration.distributed.DistributedOrSearch;
-//import jaicore.search.algorithms.parallel.parallelexploration.distributed.FolderBasedDistributedSearchCommunicationLayer;
-//import jaicore.search.algorithms.parallel.parallelexploration.distributed.interfaces.DistributedSearchCommunicationLayer;
-//import jaicore.search.algorithms.parallel.parallelexploration.distributed.interfaces.SerializableNodeEvaluator;
-//
-//public class DistributedBestFirstClusterTesterMaster {
-//
-//	public static void main(String[] args) throws InterruptedException {
-//		Path folder = Paths.get("Z:/pc2/distsearch/testrsc/comm");
-//		DistributedBestFirstClusterTesterGenerator gen = new DistributedBestFirstClusterTesterGenerator((int) Math.pow(2, 25), 12345678);
-//		SerializableNodeEvaluator<TestNode, Integer> evaluator = n -> -1 * n.externalPath().size();
-//		DistributedSearchCommunicationLayer<TestNode, String, Integer> communicationLayer = new FolderBasedDistributedSearchCommunicationLayer<>(folder, true);
-//		DistributedOrSearch<TestNode, String, Integer> master = new DistributedOrSearch<>(gen, evaluator, communicationLayer);
-//		new SimpleGraphVisualizationWindow<>(master);
-//		List<TestNode> solution = master.nextSolution();
-//		master.cancel();
-//		System.out.println(solution);
-//	}
-//}
\ No newline at end of file
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import ai.libs.jaicore.basic.algorithm.AlgorithmExecutionCanceledException;
+import ai.libs.jaicore.basic.algorithm.exceptions.AlgorithmException;
+import ai.libs.jaicore.basic.algorithm.exceptions.AlgorithmTimeoutedException;
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.DistributedOrSearch;
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.FolderBasedDistributedSearchCommunicationLayer;
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.interfaces.DistributedSearchCommunicationLayer;
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.interfaces.SerializableNodeEvaluator;
+import ai.libs.jaicore.search.model.other.EvaluatedSearchGraphPath;
+
+/**
+ * Master for a test on a cluster. Start this first and then the coworkers on the other machines via DistributedOrSearchCoworker &lt;folder&gt; &lt;name&gt; &lt;cpus&gt; &lt;timeout per job&gt;.
+ */
+public class DistributedBestFirstClusterTesterMaster {
+
+	public static void main(final String[] args) throws IOException, InterruptedException, AlgorithmTimeoutedException, AlgorithmExecutionCanceledException, AlgorithmException {
+		Path folder = Paths.get(args.length > 0 ? args[0] : "testrsc/distsearch/comm");
+		DistributedBestFirstClusterTesterGenerator gen = new DistributedBestFirstClusterTesterGenerator((int) Math.pow(2, 25), 12345678);
+		SerializableNodeEvaluator<TestNode, Integer> evaluator = n -> -1 * n.externalPath().size();
+		DistributedSearchCommunicationLayer<TestNode, String, Integer> communicationLayer = new FolderBasedDistributedSearchCommunicationLayer<>(folder, true);
+		DistributedOrSearch<TestNode, String, Integer> master = new DistributedOrSearch<>(gen, evaluator, communicationLayer);
+		EvaluatedSearchGraphPath<TestNode, String, Integer> solution = master.nextSolutionCandidate();
+		master.cancel();
+		System.out.println(solution.getNodes());
+	}
+}
@@ -1,149 +1,147 @@
 package ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.clustertest;
-//package jaicore.search.algorithms.parallel.parallelexploration.distributed.clustertest;
-//
-//import java.io.Serializable;
-//import java.nio.file.Path;
-//import java.nio.file.Paths;
-//import java.util.ArrayList;
-//import java.util.List;
-//import java.util.Random;
-//
-//import org.junit.Test;
-//
-//import jaicore.graphvisualizer.SimpleGraphVisualizationWindow;
-//import jaicore.search.algorithms.parallel.parallelexploration.distributed.DistributedOrSearch;
-//import jaicore.search.algorithms.parallel.parallelexploration.distributed.DistributedOrSearchCoworker;
-//import jaicore.search.algorithms.parallel.parallelexploration.distributed.FolderBasedDistributedSearchCommunicationLayer;
-//import jaicore.search.algorithms.parallel.parallelexploration.distributed.interfaces.DistributedSearchCommunicationLayer;
-//import jaicore.search.algorithms.parallel.parallelexploration.distributed.interfaces.SerializableGraphGenerator;
-//import jaicore.search.algorithms.parallel.parallelexploration.distributed.interfaces.SerializableNodeEvaluator;
-//import jaicore.search.algorithms.standard.bestfirst.model.Node;
-//import jaicore.search.algorithms.standard.bestfirst.model.NodeExpansionDescription;
-//import jaicore.search.algorithms.standard.bestfirst.model.NodeType;
-//import jaicore.search.structure.graphgenerator.NodeGoalTester;
-//import jaicore.search.structure.graphgenerator.SingleRootGenerator;
-//import jaicore.search.structure.graphgenerator.SuccessorGenerator;
-//
-//public class DistributedBestFirstTester implements Serializable {
-//
-//	static class TestNode implements Serializable {
-//		private static final long serialVersionUID = 793618120417152627L;
-//		final int depth;
-//		final int min, max;
-//
-//		public TestNode(int depth, int min, int max) {
-//			super();
-//			this.depth = depth;
-//			this.min = min;
-//			this.max = max;
-//		}
-//
-//		public String toString() {
-//			return min + "/" + max;
-//		}
-//
-//		@Override
-//		public int hashCode() {
-//			final int prime = 31;
-//			int result = 1;
-//			result = prime * result + max;
-//			result = prime * result + min;
-//			return result;
-//		}
-//
-//		@Override
-//		public boolean equals(Object obj) {
-//			if (this == obj)
-//				return true;
-//			if (obj == null)
-//				return false;
-//			if (getClass() != obj.getClass())
-//				return false;
-//			TestNode other = (TestNode) obj;
-//			if (max != other.max)
-//				return false;
-//			if (min != other.min)
-//				return false;
-//			return true;
-//		}
-//	}
-//
-//	@Test
-//	public void test() throws InterruptedException {
-//
-//		Random rand = new Random(1);
-//		int size = (int) Math.pow(2, 20);
-//		int target = (int) Math.round(rand.nextDouble() * size);
-//		System.out.println("Trying to find " + target + " within a space of " + size + " items.");
-//
-//		SerializableGraphGenerator<TestNode, String> gen = new SerializableGraphGenerator<TestNode, String>() {
-//
-//			@Override
-//			public SingleRootGenerator<TestNode> getRootGenerator() {
-//				return () -> new TestNode(0, 0, size);
-//			}
-//
-//			@Override
-//			public SuccessorGenerator<TestNode, String> getSuccessorGenerator() {
-//				return n -> {
-//					List<NodeExpansionDescription<TestNode, String>> l = new ArrayList<>();
-//					TestNode parent = n;
-//					try {
-//						Thread.sleep(10 * n.depth);
-//					} catch (InterruptedException e) {
-//						e.printStackTrace();
-//					}
-//					if (parent.min < parent.max) {
-//						int split = (int) Math.floor((parent.min + parent.max) / 2f);
-//						l.add(new NodeExpansionDescription<>(parent, new TestNode(parent.depth + 1, parent.min, split), "edge label", NodeType.OR));
-//						l.add(new NodeExpansionDescription<>(parent, new TestNode(parent.depth + 1, split + 1, parent.max), "edge label", NodeType.OR));
-//					}
-//					return l;
-//				};
-//			}
-//
-//			@Override
-//			public NodeGoalTester<TestNode> getGoalTester() {
-//				return n -> (n.min == n.max && n.min == target);
-//			}
-//
-//			@Override
-//			public boolean isSelfContained() {
-//				return false;
-//			}
-//
-//			@Override
-//			public void setNodeNumbering(boolean nodenumbering) {
-//				// TODO Auto-generated method stub
-//
-//			}
-//		};
-//
-//		final Path folder = Paths.get("Z:/pc2/distsearch/testrsc/comm");
-//		DistributedSearchCommunicationLayer<TestNode, String, Integer> masterCommunicationLayer = new FolderBasedDistributedSearchCommunicationLayer<>(folder, true);
-//
-//		SerializableNodeEvaluator<TestNode, Integer> evaluator = n -> -1 * n.externalPath().size();
-//		DistributedOrSearch<TestNode, String, Integer> master = new DistributedOrSearch<>(gen, evaluator, masterCommunicationLayer);
-//
-//		/* setup coworkers */
-//		int coworkers = 5;
-//		for (int i = 1; i <= coworkers; i++) {
-//			final String name = "cw" + i;
-//			final String[] args = { folder.toFile().getAbsolutePath(), name, "5", "1000", "true" };
-//			new Thread(() -> DistributedOrSearchCoworker.main(args)).start();
-//		}
-//
-//		/* run master in separate thread */
-//		SimpleGraphVisualizationWindow<Node<TestNode, Integer>> window = new SimpleGraphVisualizationWindow<>(master);
-//		window.setTitle("Master");
-//		window.getPanel().setTooltipGenerator(n -> (n.getPoint().min + "-" + n.getPoint().max));
-//
-//		long start = System.currentTimeMillis();
-//		List<TestNode> solution = master.nextSolution();
-//		long end = System.currentTimeMillis();
-//		org.junit.Assert.assertNotNull(solution);
-//		System.out.println(solution);
-//		System.out.println("Found after " + (end - start) / 1000f + " seconds.");
-//	}
-//
-//}
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import ai.libs.jaicore.basic.algorithm.AlgorithmExecutionCanceledException;
+import ai.libs.jaicore.basic.algorithm.exceptions.AlgorithmException;
+import ai.libs.jaicore.basic.algorithm.exceptions.AlgorithmTimeoutedException;
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.DistributedOrSearch;
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.DistributedOrSearchCoworker;
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.FolderBasedDistributedSearchCommunicationLayer;
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.SerializablePath;
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.interfaces.DistributedSearchCommunicationLayer;
+import ai.libs.jaicore.search.algorithms.parallel.parallelexploration.distributed.interfaces.SerializableNodeEvaluator;
+import ai.libs.jaicore.search.model.other.EvaluatedSearchGraphPath;
+
+public class DistributedBestFirstTester {
+
+	@Test
+	public void test() throws IOException, InterruptedException, AlgorithmTimeoutedException, AlgorithmExecutionCanceledException, AlgorithmException {
+
+		Random rand = new Random(1);
+		int size = (int) Math.pow(2, 12);
+		int target = (int) Math.round(rand.nextDouble() * size);
+		DistributedBestFirstClusterTesterGenerator gen = new DistributedBestFirstClusterTesterGenerator(size, target);
+
+		final Path folder = Files.createTempDirectory("distsearch");
+		try {
+			DistributedSearchCommunicationLayer<TestNode, String, Integer> masterCommunicationLayer = new FolderBasedDistributedSearchCommunicationLayer<>(folder, true);
+			SerializableNodeEvaluator<TestNode, Integer> evaluator = n -> -1 * n.externalPath().size();
+			DistributedOrSearch<TestNode, String, Integer> master = new DistributedOrSearch<>(gen, evaluator, masterCommunicationLayer);
+
+			/* setup coworkers */
+			int coworkers = 3;
+			List<Thread> coworkerThreads = new ArrayList<>();
+			for (int i = 1; i <= coworkers; i++) {
+				final String[] args = { folder.toFile().getAbsolutePath(), "cw" + i, "1", "200" };
+				Thread t = new Thread(() -> DistributedOrSearchCoworker.main(args), "cw" + i);
+				coworkerThreads.add(t);
+				t.start();
+			}
+
+			/* run master */
+			EvaluatedSearchGraphPath<TestNode, String, Integer> solution = master.nextSolutionCandidate();
+			master.cancel();
+			assertNotNull(solution);
+			TestNode goal = solution.getNodes().get(solution.getNodes().size() - 1);
+			assertEquals(target, goal.min);
+			assertEquals(target, goal.max);
+			assertTrue("No node has been passed to a coworker", master.getPassedNodesCounter() > 0);
+
+			/* the coworkers must quit after having been detached */
+			for (Thread t : coworkerThreads) {
+				t.join(10000);
+				assertFalse("Coworker " + t.getName() + " has not quit after having been detached.", t.isAlive());
+			}
+		} finally {
+			deleteFolder(folder);
+		}
+	}
+
+	/**
+	 * A coworker that crashes in the middle of its job leaves its registration behind. The master must take back the job once the lease of the coworker has expired. Since the crashed coworker is the
+	 * only one at the beginning, it receives the root, so the search can only succeed if the root is put back on OPEN.
+	 */
+	@Test
+	public void testThatJobOfCrashedCoworkerIsTakenBack() throws IOException, InterruptedException, AlgorithmTimeoutedException, AlgorithmExecutionCanceledException, AlgorithmException {
+		int size = (int) Math.pow(2, 8);
+		int target = 17;
+		DistributedBestFirstClusterTesterGenerator gen = new DistributedBestFirstClusterTesterGenerator(size, target);
+
+		final Path folder = Files.createTempDirectory("distsearch");
+		try {
+			FolderBasedDistributedSearchCommunicationLayer<TestNode, String, Integer> masterCommunicationLayer = new FolderBasedDistributedSearchCommunicationLayer<>(folder, true);
+			masterCommunicationLayer.setLeaseTimeInMS(1000);
+			SerializableNodeEvaluator<TestNode, Integer> evaluator = n -> -1 * n.externalPath().size();
+			DistributedOrSearch<TestNode, String, Integer> master = new DistributedOrSearch<>(gen, evaluator, masterCommunicationLayer);
+
+			/* the crashed coworker registers, takes its job, and then stops without sending heartbeats, answering, or unregistering */
+			DistributedSearchCommunicationLayer<TestNode, String, Integer> crashedCommunicationLayer = new FolderBasedDistributedSearchCommunicationLayer<>(folder, false);
+			crashedCommunicationLayer.register("crashed");
+			AtomicReference<List<SerializablePath<TestNode, String, Integer>>> jobOfCrashedCoworker = new AtomicReference<>();
+			AtomicReference<Exception> exceptionOfCrashedCoworker = new AtomicReference<>();
+			Thread crashedCoworker = new Thread(() -> {
+				try {
+					jobOfCrashedCoworker.set(crashedCommunicationLayer.nextJob("crashed"));
+				} catch (Exception e) {
+					exceptionOfCrashedCoworker.set(e);
+				}
+			}, "crashed");
+			crashedCoworker.start();
+
+			/* the other coworkers only join after the crashed coworker has received its job */
+			Thread coworker = new Thread(() -> {
+				try {
+					crashedCoworker.join();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				DistributedOrSearchCoworker.main(new String[] { folder.toFile().getAbsolutePath(), "cw", "1", "200" });
+			}, "cw");
+			coworker.start();
+
+			/* run master */
+			EvaluatedSearchGraphPath<TestNode, String, Integer> solution = master.nextSolutionCandidate();
+			master.cancel();
+			assertNull(exceptionOfCrashedCoworker.get());
+			assertNotNull("The crashed coworker has not received a job", jobOfCrashedCoworker.get());
+			assertEquals(1, jobOfCrashedCoworker.get().size());
+			assertEquals(new TestNode(0, size), jobOfCrashedCoworker.get().get(0).toNode().getPoint());
+			assertNotNull(solution);
+			TestNode goal = solution.getNodes().get(solution.getNodes().size() - 1);
+			assertEquals(target, goal.min);
+			assertEquals(target, goal.max);
+			assertTrue("The job of the crashed coworker has not been taken back", master.getPassedNodesCounter() > 1);
+			coworker.join(10000);
+			assertFalse("Coworker has not quit after having been detached.", coworker.isAlive());
+		} finally {
+			deleteFolder(folder);
+		}
+	}
+
+	private static void deleteFolder(final Path folder) throws IOException {
+		try (Stream<Path> files = Files.walk(folder)) {
+			for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+				Files.deleteIfExists(file);
+			}
+		}
+	}
+}
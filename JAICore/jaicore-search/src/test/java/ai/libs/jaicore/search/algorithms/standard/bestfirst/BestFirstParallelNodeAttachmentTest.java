@@ -0,0 +1,131 @@
+package ai.libs.jaicore.search.algorithms.standard.bestfirst;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import ai.libs.jaicore.basic.algorithm.AlgorithmExecutionCanceledException;
+import ai.libs.jaicore.basic.algorithm.IAlgorithmConfig;
+import ai.libs.jaicore.basic.algorithm.exceptions.AlgorithmException;
+import ai.libs.jaicore.basic.algorithm.exceptions.AlgorithmTimeoutedException;
+import ai.libs.jaicore.search.algorithms.standard.bestfirst.BestFirst.OpenListImplementation;
+import ai.libs.jaicore.search.core.interfaces.GraphGenerator;
+import ai.libs.jaicore.search.model.travesaltree.NodeExpansionDescription;
+import ai.libs.jaicore.search.model.travesaltree.NodeType;
+import ai.libs.jaicore.search.probleminputs.GraphSearchWithSubpathEvaluationsInput;
+import ai.libs.jaicore.search.structure.graphgenerator.NodeGoalTester;
+import ai.libs.jaicore.search.structure.graphgenerator.SingleRootGenerator;
+import ai.libs.jaicore.search.structure.graphgenerator.SuccessorGenerator;
+
+/**
+ * Checks that BestFirst expands every node except the goal exactly once for an increasing number of threads for node attachment, both with the lock-protected and the concurrent OPEN list.
+ *
+ * The search space is a complete tree whose nodes are numbered as in a heap, and only the left-most leaf is a goal, so that the whole tree is expanded. The node evaluator simulates a (cheap) computation, so that the
+ * worker threads compete for OPEN.
+ *
+ * @author fmohr
+ *
+ */
+@RunWith(Parameterized.class)
+public class BestFirstParallelNodeAttachmentTest {
+
+	private static final int BRANCHING = 4;
+	private static final int DEPTH = 7;
+	private static final int WORK_PER_EVALUATION = 200;
+
+	@Parameters(name = "open = {0}, threads = {1}")
+	public static Collection<Object[]> data() {
+		List<Object[]> data = new ArrayList<>();
+		for (OpenListImplementation open : OpenListImplementation.values()) {
+			for (int threads : new int[] { 0, 1, 2, 4, 8, 16, 32 }) {
+				data.add(new Object[] { open, threads });
+			}
+		}
+		return data;
+	}
+
+	// fields used together with @Parameter must be public
+	@Parameter(0)
+	public OpenListImplementation openListImplementation;
+
+	@Parameter(1)
+	public int threadsForNodeAttachment;
+
+	private static long firstLeaf() {
+		long leaf = 0;
+		for (int d = 0; d < DEPTH; d++) {
+			leaf = leaf * BRANCHING + 1;
+		}
+		return leaf;
+	}
+
+	private static GraphGenerator<Long, Integer> getTreeGenerator() {
+		final long firstLeaf = firstLeaf();
+		return new GraphGenerator<Long, Integer>() {
+
+			@Override
+			public SingleRootGenerator<Long> getRootGenerator() {
+				return () -> 0L;
+			}
+
+			@Override
+			public SuccessorGenerator<Long, Integer> getSuccessorGenerator() {
+				return n -> {
+					List<NodeExpansionDescription<Long, Integer>> successors = new ArrayList<>(BRANCHING);
+					if (n >= firstLeaf) {
+						return successors;
+					}
+					for (int i = 1; i <= BRANCHING; i++) {
+						successors.add(new NodeExpansionDescription<>(n * BRANCHING + i, i, NodeType.OR));
+					}
+					return successors;
+				};
+			}
+
+			@Override
+			public NodeGoalTester<Long> getGoalTester() {
+				return n -> n == firstLeaf;
+			}
+		};
+	}
+
+	private static int getNumberOfNodes() {
+		int numberOfNodes = 0;
+		int nodesInLayer = 1;
+		for (int d = 0; d <= DEPTH; d++) {
+			numberOfNodes += nodesInLayer;
+			nodesInLayer *= BRANCHING;
+		}
+		return numberOfNodes;
+	}
+
+	@Test
+	public void testThatEachNodeIsExpandedOnce() throws AlgorithmTimeoutedException, InterruptedException, AlgorithmExecutionCanceledException, AlgorithmException {
+		GraphSearchWithSubpathEvaluationsInput<Long, Integer, Double> problem = new GraphSearchWithSubpathEvaluationsInput<>(getTreeGenerator(), n -> {
+			double f = n.getPoint();
+			for (int i = 0; i < WORK_PER_EVALUATION; i++) {
+				f = Math.sin(f) + i;
+			}
+			return Math.abs(f) + n.externalPath().size();
+		});
+
+		/* the main thread and the timer must not be counted as threads for node attachment */
+		IBestFirstConfig config = ConfigFactory.create(IBestFirstConfig.class);
+		config.setProperty(IBestFirstConfig.K_OPEN, this.openListImplementation.name());
+		config.setProperty(IAlgorithmConfig.K_CPUS, String.valueOf(this.threadsForNodeAttachment + 1));
+		config.setProperty(IAlgorithmConfig.K_THREADS, String.valueOf(this.threadsForNodeAttachment + 2));
+		BestFirst<GraphSearchWithSubpathEvaluationsInput<Long, Integer, Double>, Long, Integer, Double> bf = new BestFirst<>(config, problem);
+		bf.call();
+		assertEquals(1, bf.getSolutionQueue().size());
+		assertEquals(getNumberOfNodes() - 1, bf.getExpandedCounter()); // the goal is not expanded
+	}
+}
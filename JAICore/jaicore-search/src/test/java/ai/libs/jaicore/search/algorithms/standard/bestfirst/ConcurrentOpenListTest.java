@@ -0,0 +1,87 @@
+package ai.libs.jaicore.search.algorithms.standard.bestfirst;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import ai.libs.jaicore.search.model.travesaltree.Node;
+
+public class ConcurrentOpenListTest {
+
+	private static Node<Integer, Double> node(final int point, final double f) {
+		Node<Integer, Double> node = new Node<>(null, point);
+		node.setInternalLabel(f);
+		return node;
+	}
+
+	@Test
+	public void testThatNodesArePolledInOrderOfTheirLabels() {
+		ConcurrentOpenList<Integer, Double> open = new ConcurrentOpenList<>();
+		open.add(node(1, 3.0));
+		open.add(node(2, 1.0));
+		open.add(node(3, 2.0));
+		open.add(node(4, 1.0));
+		assertEquals(4, open.size());
+		assertEquals(2, (int) open.peek().getPoint());
+		assertEquals(2, (int) open.poll().getPoint());
+		assertEquals(4, (int) open.poll().getPoint()); // ties are broken by insertion order
+		assertEquals(3, (int) open.poll().getPoint());
+		assertEquals(1, (int) open.poll().getPoint());
+		assertNull(open.poll());
+		assertTrue(open.isEmpty());
+	}
+
+	@Test
+	public void testRemovalAndSetSemantics() {
+		ConcurrentOpenList<Integer, Double> open = new ConcurrentOpenList<>();
+		Node<Integer, Double> n1 = node(1, 1.0);
+		Node<Integer, Double> n2 = node(2, 2.0);
+		assertTrue(open.add(n1));
+		assertFalse(open.add(n1));
+		assertTrue(open.add(n2));
+		assertEquals(2, open.size());
+		assertTrue(open.remove(n1));
+		assertFalse(open.remove(n1));
+		assertFalse(open.contains(n1));
+		assertEquals(n2, open.peek());
+		List<Node<Integer, Double>> contents = new ArrayList<>(open);
+		assertEquals(1, contents.size());
+	}
+
+	@Test
+	public void testConcurrentInsertionsAreNotLost() throws InterruptedException {
+		ConcurrentOpenList<Integer, Double> open = new ConcurrentOpenList<>();
+		int threads = 16;
+		int nodesPerThread = 10000;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		for (int t = 0; t < threads; t++) {
+			final int offset = t * nodesPerThread;
+			pool.submit(() -> {
+				for (int i = 0; i < nodesPerThread; i++) {
+					open.add(node(offset + i, (double) ((offset + i) % 97)));
+				}
+			});
+		}
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+		assertEquals(threads * nodesPerThread, open.size());
+		double last = Double.NEGATIVE_INFINITY;
+		int polled = 0;
+		Node<Integer, Double> next;
+		while ((next = open.poll()) != null) {
+			assertTrue(next.getInternalLabel() >= last);
+			last = next.getInternalLabel();
+			polled++;
+		}
+		assertEquals(threads * nodesPerThread, polled);
+	}
+}
@@ -3,9 +3,12 @@ package ai.libs.jaicore.search.algorithms.standard.bestfirst;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -13,6 +16,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.apache.commons.math3.util.CombinatoricsUtils;
@@ -33,6 +37,7 @@ import ai.libs.jaicore.basic.algorithm.exceptions.ObjectEvaluationFailedExceptio
 import ai.libs.jaicore.search.algorithms.standard.bestfirst.StandardBestFirst;
 import ai.libs.jaicore.search.algorithms.standard.bestfirst.events.EvaluatedSearchSolutionCandidateFoundEvent;
 import ai.libs.jaicore.search.algorithms.standard.bestfirst.events.NodeExpansionJobSubmittedEvent;
+import ai.libs.jaicore.search.algorithms.standard.bestfirst.exceptions.NodeEvaluationException;
 import ai.libs.jaicore.search.algorithms.standard.bestfirst.exceptions.RCNEPathCompletionFailedException;
 import ai.libs.jaicore.search.algorithms.standard.bestfirst.nodeevaluation.RandomCompletionBasedNodeEvaluator;
 import ai.libs.jaicore.search.model.other.SearchGraphPath;
@@ -234,6 +239,72 @@ public class RandomCompletionNodeEvaluatorTester extends TimeAwareNodeEvaluatorT
 		}
 	}
 
+	/**
+	 * Tests that evaluating the samples in parallel yields the same solutions and score as long as the seed is the same, and that it succeeds if only some of the samples can be evaluated.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testThatParallelSamplingIsReproducible() throws Exception {
+		final int CITIES = 7;
+		final int NUM_SAMPLES = 6;
+		StandardBestFirst<EnhancedTTSPNode, String, Double> bf = getBF(CITIES, node -> node.externalPath().size() * 1.0);
+		bf.initGraph();
+		Node<EnhancedTTSPNode, ?> root = bf.getOpen().get(0);
+		List<Set<List<EnhancedTTSPNode>>> solutionsPerRun = new ArrayList<>();
+		List<Double> scorePerRun = new ArrayList<>();
+		for (int run = 0; run < 2; run++) {
+			RandomCompletionBasedNodeEvaluator<EnhancedTTSPNode, String, Double> ne = this.getSeededNodeEvaluator(CITIES, 0, NUM_SAMPLES, 2 * NUM_SAMPLES);
+			ne.setNumberOfSamplingThreads(4);
+			ne.setGenerator(bf.getGraphGenerator());
+			Set<List<EnhancedTTSPNode>> seenSolutions = Collections.synchronizedSet(new HashSet<>());
+			ne.registerSolutionListener(new Object() {
+				@Subscribe
+				public void receiveSolution(final EvaluatedSearchSolutionCandidateFoundEvent<EnhancedTTSPNode, String, Double> e) {
+					seenSolutions.add(e.getSolutionCandidate().getNodes());
+				}
+			});
+			scorePerRun.add(ne.f(root));
+			assertEquals(NUM_SAMPLES, seenSolutions.size());
+			solutionsPerRun.add(seenSolutions);
+		}
+		assertEquals(solutionsPerRun.get(0), solutionsPerRun.get(1));
+		assertEquals(scorePerRun.get(0), scorePerRun.get(1));
+	}
+
+	@Test
+	public void testThatParallelSamplingCopesWithFailingSamples() throws Exception {
+		final int CITIES = 5;
+		StandardBestFirst<EnhancedTTSPNode, String, Double> bf = getBF(CITIES, node -> node.externalPath().size() * 1.0);
+		bf.initGraph();
+		Node<EnhancedTTSPNode, ?> root = bf.getOpen().get(0);
+		RandomCompletionBasedNodeEvaluator<EnhancedTTSPNode, String, Double> ne = this.getNodeEvaluator(CITIES, new PartiallyFailingObjectEvaluator<>(Arrays.asList(3, 5), 0.0), 0, 2, 10, -1);
+		ne.setNumberOfSamplingThreads(3);
+		assertEquals(0.0, ne.f(root), 0.0);
+	}
+
+	@Test
+	public void testThatParallelSamplingDoesNotDrawMoreSamplesThanMayFail() throws Exception {
+		final int CITIES = 6;
+		final int MAX_SAMPLES = 2;
+		StandardBestFirst<EnhancedTTSPNode, String, Double> bf = getBF(CITIES, node -> node.externalPath().size() * 1.0);
+		bf.initGraph();
+		Node<EnhancedTTSPNode, ?> root = bf.getOpen().get(0);
+		AtomicInteger evaluations = new AtomicInteger();
+		RandomCompletionBasedNodeEvaluator<EnhancedTTSPNode, String, Double> ne = this.getNodeEvaluator(CITIES, path -> {
+			evaluations.incrementAndGet();
+			throw new ObjectEvaluationFailedException("Intentional Exception for test purposes.", null);
+		}, 0, 10, MAX_SAMPLES, -1);
+		ne.setNumberOfSamplingThreads(8);
+		try {
+			ne.f(root);
+			fail("The evaluation of the node must fail if all samples fail.");
+		} catch (NodeEvaluationException e) {
+			/* expected */
+		}
+		assertTrue(evaluations.get() <= MAX_SAMPLES + 1);
+	}
+
 	public RandomCompletionBasedNodeEvaluator<EnhancedTTSPNode, String, Double> getNodeEvaluator(final int problemDifficulty, final IObjectEvaluator<SearchGraphPath<EnhancedTTSPNode, String>, Double> oe, final int seed, final int numSamples, final int maxSamples,
 			final int timeoutForNodeEvaluationInMs) {
 		
@@ -0,0 +1,23 @@
+package ai.libs.jaicore.search.algorithms.standard.mcts;
+
+import ai.libs.jaicore.search.algorithms.GraphSearchSolutionIteratorTester;
+import ai.libs.jaicore.search.core.interfaces.IGraphSearch;
+import ai.libs.jaicore.search.model.other.AgnosticPathEvaluator;
+import ai.libs.jaicore.search.probleminputs.GraphSearchInput;
+import ai.libs.jaicore.search.probleminputs.GraphSearchWithPathEvaluationsInput;
+
+public class ParallelMCTSTester extends GraphSearchSolutionIteratorTester {
+
+	private static final int PARALLEL_PLAYOUTS = 4;
+
+	@Override
+	public <N, A> IGraphSearch<?, ?, N, A> getSearchAlgorithm(final GraphSearchInput<N, A> problem) {
+		UCTPathSearchFactory<N, A> factory = new UCTPathSearchFactory<>();
+		GraphSearchWithPathEvaluationsInput<N, A, Double> newProblem = new GraphSearchWithPathEvaluationsInput<>(problem.getGraphGenerator(), new AgnosticPathEvaluator<>());
+		factory.setProblemInput(newProblem);
+		factory.setEvaluationFailurePenalty(0.0);
+		factory.setForbidDoublePaths(true);
+		factory.setNumberOfParallelPlayouts(PARALLEL_PLAYOUTS);
+		return factory.getAlgorithm();
+	}
+}
@@ -0,0 +1,117 @@
+package ai.libs.jaicore.search.algorithms.standard.mcts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.junit.Test;
+
+public class UCBPolicyTest {
+
+	private static final double DELTA = 1E-9;
+
+	private Map<String, String> getActions(final String... successors) {
+		Map<String, String> actions = new HashMap<>();
+		for (String successor : successors) {
+			actions.put("to" + successor, successor);
+		}
+		return actions;
+	}
+
+	@Test
+	public void testThatStreamingMomentsCoincideWithDescriptiveStatistics() {
+		UCBPolicy<String, String> policy = new UCBPolicy<>(false);
+		DescriptiveStatistics stats = new DescriptiveStatistics();
+		double[] scores = { 0.3, 0.1, 0.7, 0.25, 0.9, 0.5, 0.05 };
+		for (double score : scores) {
+			policy.updatePath(Arrays.asList("r", "a"), score);
+			stats.addValue(score);
+		}
+		assertEquals(scores.length, policy.getVisits("a"));
+		assertEquals(stats.getMean(), policy.getMean("a"), DELTA);
+		assertEquals(stats.getVariance(), policy.getVariance("a"), DELTA);
+		assertEquals(stats.getMin(), policy.getBestScore("a"), DELTA);
+		assertEquals(0, policy.getVisits("b"));
+	}
+
+	@Test
+	public void testThatVirtualLossGuidesSelectionToOtherSuccessors() {
+		UCBPolicy<String, String> policy = new UCBPolicy<>(true);
+		Map<String, String> actions = this.getActions("a", "b");
+
+		/* a is clearly better than b */
+		policy.updatePath(Arrays.asList("r", "a"), 0.9);
+		policy.updatePath(Arrays.asList("r", "a"), 0.8);
+		policy.updatePath(Arrays.asList("r", "b"), 0.2);
+		policy.updatePath(Arrays.asList("r", "b"), 0.1);
+		policy.updatePath(Arrays.asList("r", "a"), 0.9);
+		policy.updatePath(Arrays.asList("r", "b"), 0.1);
+		assertEquals("toa", policy.getAction("r", actions));
+
+		/* with pending playouts through a, its effective mean drops to its worst score, and b is chosen */
+		List<String> pendingPath = Arrays.asList("r", "a");
+		for (int i = 0; i < 20; i++) {
+			policy.applyVirtualLoss(pendingPath);
+		}
+		assertEquals("tob", policy.getAction("r", actions));
+		for (int i = 0; i < 20; i++) {
+			policy.revertVirtualLoss(pendingPath);
+		}
+		assertEquals("toa", policy.getAction("r", actions));
+		assertEquals(3, policy.getVisits("a"));
+	}
+
+	@Test
+	public void testThatSuccessorsWithOnlyPendingPlayoutsAreNotPreferred() {
+		UCBPolicy<String, String> policy = new UCBPolicy<>(true);
+		Map<String, String> actions = this.getActions("a", "b");
+		String first = policy.getAction("r", actions);
+		policy.applyVirtualLoss(Arrays.asList("r", actions.get(first)));
+		String second = policy.getAction("r", actions);
+		policy.applyVirtualLoss(Arrays.asList("r", actions.get(second)));
+		assertEquals(2, Arrays.asList(first, second).stream().distinct().count());
+		policy.revertVirtualLoss(Arrays.asList("r", actions.get(first)));
+		policy.updatePath(Arrays.asList("r", actions.get(first)), 0.0);
+
+		/* the second successor has no observed score yet, so the first one must be chosen even though its score is bad */
+		assertEquals(first, policy.getAction("r", actions));
+	}
+
+	@Test
+	public void testConcurrentUpdates() throws InterruptedException {
+		UCBPolicy<String, String> policy = new UCBPolicy<>(true);
+		int threads = 8;
+		int updatesPerThread = 10000;
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		List<Thread> workers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			Thread worker = new Thread(() -> {
+				try {
+					List<String> path = Arrays.asList("r", "a");
+					for (int i = 0; i < updatesPerThread; i++) {
+						policy.applyVirtualLoss(path);
+						policy.revertVirtualLoss(path);
+						policy.updatePath(path, 1.0);
+					}
+				} catch (Throwable e) {
+					failure.compareAndSet(null, e);
+				}
+			});
+			workers.add(worker);
+			worker.start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		assertNull(failure.get());
+		assertEquals(threads * updatesPerThread, policy.getVisits("r"));
+		assertEquals(1.0, policy.getMean("a"), DELTA);
+	}
+}
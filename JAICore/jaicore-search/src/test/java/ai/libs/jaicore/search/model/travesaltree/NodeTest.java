@@ -0,0 +1,51 @@
+package ai.libs.jaicore.search.model.travesaltree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class NodeTest {
+
+	@Test
+	public void testPathsAndDepth() {
+		Node<String, Double> root = new Node<>(null, "a");
+		Node<String, Double> child = new Node<>(root, "b");
+		Node<String, Double> grandChild = new Node<>(child, "c");
+		assertEquals(0, root.getDepth());
+		assertEquals(2, grandChild.getDepth());
+		assertEquals(Arrays.asList("a", "b", "c"), grandChild.externalPath());
+		assertEquals(Arrays.asList(root, child, grandChild), grandChild.path());
+
+		/* the returned paths are fresh lists that may be modified by the caller */
+		grandChild.externalPath().add("d");
+		assertEquals(3, grandChild.externalPath().size());
+
+		grandChild.setParent(root);
+		assertEquals(1, grandChild.getDepth());
+		assertEquals(Arrays.asList("a", "c"), grandChild.externalPath());
+	}
+
+	@Test
+	public void testThatFValueIsAccessibleAsAnnotation() {
+		Node<String, Double> node = new Node<>(null, "a");
+		assertTrue(node.getAnnotations().isEmpty());
+		assertNull(node.getAnnotation("f"));
+		assertFalse(node.hasAnnotation("f"));
+		node.setInternalLabel(1.0);
+		assertTrue(node.hasAnnotation("f"));
+		assertEquals(1.0, node.getAnnotation("f"));
+		assertEquals(1.0, node.getAnnotations().get("f"));
+		node.setAnnotation("f", 2.0);
+		assertEquals(2.0, node.getInternalLabel(), 0.0);
+		node.setAnnotation("fRPSamples", 3);
+		assertEquals(3, node.getAnnotation("fRPSamples"));
+		assertTrue(node.hasAnnotation("fRPSamples"));
+		assertFalse(node.hasAnnotation("fError"));
+		assertEquals(2, node.getAnnotations().size());
+	}
+}
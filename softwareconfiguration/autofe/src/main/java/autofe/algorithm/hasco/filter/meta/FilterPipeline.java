@@ -2,14 +2,20 @@ package autofe.algorithm.hasco.filter.meta;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,116 +34,171 @@ public class FilterPipeline implements IFilter, Serializable, EvaluatedSoftwareC
 
 	private final transient ComponentInstance ci;
 	private final transient Graph<IFilter> filters;
+	private final transient Map<IFilter, String> descriptionsOfFilters;
+	private final transient FilterPipelineCache cache;
+	private int numberOfThreads = Runtime.getRuntime().availableProcessors();
 
-	class FilterDataEntry implements Comparable<FilterDataEntry> {
-		private IFilter filter;
-		private DataSet dataset;
-
-		public FilterDataEntry(final IFilter filter, final DataSet dataset) {
-			this.filter = filter;
-			this.dataset = dataset;
-		}
-
-		@Override
-		public int compareTo(final FilterDataEntry arg0) {
-			return this.filter.getClass().getName().compareTo(arg0.getClass().getName());
-		}
-
-		@Override
-		public boolean equals(final Object o) {
-			return super.equals(o);
-		}
-
-		@Override
-		public int hashCode() {
-			return super.hashCode();
-		}
+	public FilterPipeline(final ComponentInstance ci, final Graph<IFilter> filters) {
+		this(ci, filters, new HashMap<>(), null);
 	}
 
-	public FilterPipeline(final ComponentInstance ci, final Graph<IFilter> filters) {
+	/**
+	 * @param descriptionsOfFilters
+	 *            Canonical descriptions (component and parameters) of the filters. The data sets of sub-pipelines whose filters all have a description are cached.
+	 * @param cache
+	 *            The cache of the data sets of sub-pipelines, which is usually shared among all pipelines of a search, or null if nothing should be cached.
+	 */
+	public FilterPipeline(final ComponentInstance ci, final Graph<IFilter> filters, final Map<IFilter, String> descriptionsOfFilters, final FilterPipelineCache cache) {
 		this.ci = ci;
 		this.filters = filters;
+		this.descriptionsOfFilters = descriptionsOfFilters;
+		this.cache = cache;
 	}
 
+	/**
+	 * Applies the filters of the graph, starting with its sinks and ending with its root. The independent branches of unions are applied concurrently, and the data
+	 * sets of sub-pipelines that are already in the cache are not computed again.
+	 */
 	@Override
 	public DataSet applyFilter(final DataSet data, final boolean copy) throws InterruptedException {
 		if (this.filters == null) {
 			return data;
 		}
 
-		// Copy graph
-		Graph<FilterDataEntry> dataGraph = this.copyGraphIntoDataGraph();
-
-		// Create a new data copy for each leaf node
-		List<FilterDataEntry> leafNodes = new ArrayList<>(dataGraph.getSinks());
-		HashSet<FilterDataEntry> nextNodes = new HashSet<>();
-		for (FilterDataEntry entry : leafNodes) {
-			entry.dataset = entry.filter.applyFilter(data, true);
-			nextNodes.addAll(dataGraph.getPredecessors(entry));
+		DataSet resultDataSet = data;
+		if (!this.filters.getItems().isEmpty()) {
+			resultDataSet = this.computeDataSetOfRoot(data);
 		}
 
-		// Iterate through graph to generate data sets by applying filters
-		while (!nextNodes.isEmpty()) {
-			if (Thread.currentThread().isInterrupted()) {
-				throw new InterruptedException("Execution of filter pipeline got interrupted.");
-			}
-			FilterDataEntry nextEntry = pollRandomElementFromSet(nextNodes);
+		// Update intermediate instances into Weka instances
+		logger.debug("Updating instances...");
+		resultDataSet.updateInstances();
+		logger.debug("Done.");
+		return resultDataSet;
+	}
 
-			if (nextEntry == null) {
-				throw new IllegalStateException("Could not poll first entry from tree set which is not empty.");
+	private DataSet computeDataSetOfRoot(final DataSet data) throws InterruptedException {
+		IFilter root = this.filters.getRoot();
+		Map<IFilter, String> keysOfFilters = new HashMap<>();
+		/* a described sink gives keys to the sub-pipelines above it, which must then identify the input data */
+		boolean isFingerprintRequired = this.isCaching() && this.filters.getSinks().stream().anyMatch(this.descriptionsOfFilters::containsKey);
+		this.computeKeys(root, isFingerprintRequired ? this.cache.getFingerprint(data) : "", keysOfFilters, new HashSet<>());
+
+		/* only pipelines with unions have independent branches */
+		boolean hasUnion = this.filters.getItems().stream().anyMatch(filter -> this.filters.getSuccessors(filter).size() > 1);
+		ExecutorService pool = null;
+		Executor executor = Runnable::run;
+		if (hasUnion && this.numberOfThreads > 1) {
+			AtomicInteger threadCounter = new AtomicInteger();
+			pool = Executors.newFixedThreadPool(this.numberOfThreads, r -> {
+				Thread t = new Thread(r);
+				t.setName("FilterPipeline-worker-" + threadCounter.incrementAndGet());
+				return t;
+			});
+			executor = pool;
+		}
+		try {
+			return this.getFutureDataSet(root, data, keysOfFilters, executor).get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof InterruptedException) {
+				throw (InterruptedException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
 			}
+			throw new IllegalStateException("Could not apply the filter pipeline.", cause);
+		} finally {
+			if (pool != null) {
+				pool.shutdownNow();
+			}
+		}
+	}
 
-			// Detect cycles
-			if (nextEntry.dataset != null) {
-				logger.warn("Detected cycle in the filter graph.");
-			} else {
-				boolean addPredecessors = true;
-
-				// Check for union
-				Set<FilterDataEntry> successors = dataGraph.getSuccessors(nextEntry);
-				if (successors.isEmpty()) {
-					throw new IllegalStateException("Entry propagated to the working set by a successor should have successors.");
-				}
-				if (successors.size() > 1) {
-					// Union
-					Iterator<FilterDataEntry> it = successors.iterator();
-					FilterDataEntry succ1 = it.next();
-					FilterDataEntry succ2 = it.next();
+	/**
+	 * Computes the canonical key of the sub-pipeline of each filter, which consists of the description of the filter and the keys of its inputs. A filter whose
+	 * sub-pipeline contains a filter without description has no key.
+	 */
+	private String computeKeys(final IFilter filter, final String fingerprintOfData, final Map<IFilter, String> keysOfFilters, final Set<IFilter> visitedFilters) {
+		if (!visitedFilters.add(filter)) {
+			throw new IllegalStateException("Detected cycle in the filter graph.");
+		}
+		List<String> keysOfInputs = new ArrayList<>();
+		Set<IFilter> successors = this.filters.getSuccessors(filter);
+		if (successors.isEmpty()) {
+			keysOfInputs.add(fingerprintOfData);
+		}
+		for (IFilter successor : successors) {
+			keysOfInputs.add(this.computeKeys(successor, fingerprintOfData, keysOfFilters, visitedFilters));
+		}
+		String description = this.descriptionsOfFilters.get(filter);
+		if (description == null || keysOfInputs.contains(null)) {
+			return null;
+		}
+		Collections.sort(keysOfInputs);
+		String key = description + keysOfInputs;
+		keysOfFilters.put(filter, key);
+		return key;
+	}
 
-					if (succ1.dataset == null || succ2.dataset == null) {
-						nextNodes.add(nextEntry);
-						continue;
-					}
+	/**
+	 * Creates the future of the data set that the sub-pipeline of the given filter computes. The futures of the successors are only created if the data set is not
+	 * cached.
+	 */
+	private CompletableFuture<DataSet> getFutureDataSet(final IFilter filter, final DataSet data, final Map<IFilter, String> keysOfFilters, final Executor executor) {
+		String key = this.isCaching() ? keysOfFilters.get(filter) : null;
+		if (key != null) {
+			DataSet cachedDataSet = this.cache.get(key);
+			if (cachedDataSet != null) {
+				logger.debug("Reusing cached data set of sub-pipeline {}.", key);
+				return CompletableFuture.completedFuture(cachedDataSet);
+			}
+		}
 
-					nextEntry.dataset = nextEntry.filter.applyFilter(UnionFilter.union(succ1.dataset, succ2.dataset), false);
-					dataGraph = this.eraseSubTreeData(dataGraph, nextEntry);
+		/* unions get their inputs in the order of their keys such that their result is canonical */
+		List<IFilter> successors = new ArrayList<>(this.filters.getSuccessors(filter));
+		if (keysOfFilters.keySet().containsAll(successors)) {
+			successors.sort(Comparator.comparing(keysOfFilters::get));
+		}
+		switch (successors.size()) {
+		case 0:
+			return CompletableFuture.supplyAsync(() -> this.computeDataSet(filter, data, true, key), executor);
+		case 1:
+			return this.getFutureDataSet(successors.get(0), data, keysOfFilters, executor).thenApply(input -> this.computeDataSet(filter, input, false, key));
+		default:
+			CompletableFuture<DataSet> firstInput = this.getFutureDataSet(successors.get(0), data, keysOfFilters, executor);
+			CompletableFuture<DataSet> secondInput = this.getFutureDataSet(successors.get(1), data, keysOfFilters, executor);
+			return firstInput.thenCombine(secondInput, (input1, input2) -> this.computeDataSet(filter, UnionFilter.union(input1, input2), false, key));
+		}
+	}
 
-				} else {
-					FilterDataEntry successor = successors.iterator().next();
-					if (successor.dataset != null) {
-						nextEntry.dataset = nextEntry.filter.applyFilter(successor.dataset, false);
-					} else {
-						nextNodes.add(nextEntry);
-						addPredecessors = false;
-					}
-				}
-				if (addPredecessors) {
-					// Add predecessors to working set
-					nextNodes.addAll(dataGraph.getPredecessors(nextEntry));
-				}
+	private DataSet computeDataSet(final IFilter filter, final DataSet input, final boolean copy, final String key) {
+		try {
+			if (Thread.currentThread().isInterrupted()) {
+				throw new InterruptedException("Execution of filter pipeline got interrupted.");
 			}
+			DataSet result = filter.applyFilter(input, copy);
+			if (key != null) {
+				this.cache.put(key, result);
+			}
+			return result;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CompletionException(e);
 		}
+	}
 
-		DataSet resultDataSet = data;
-		if (!dataGraph.getItems().isEmpty()) {
-			resultDataSet = dataGraph.getRoot().dataset;
-		}
+	private boolean isCaching() {
+		return this.cache != null && this.cache.isEnabled();
+	}
 
-		// Update intermediate instances into Weka instances
-		logger.debug("Updating instances...");
-		resultDataSet.updateInstances();
-		logger.debug("Done.");
-		return resultDataSet;
+	public void setNumberOfThreads(final int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	public FilterPipelineCache getCache() {
+		return this.cache;
 	}
 
 	@Override
@@ -160,61 +221,6 @@ public class FilterPipeline implements IFilter, Serializable, EvaluatedSoftwareC
 		return result.toString();
 	}
 
-	// Only used to remove temporary stored data instances (called when using union)
-	private Graph<FilterDataEntry> eraseSubTreeData(final Graph<FilterDataEntry> graph, final FilterDataEntry parent) {
-		TreeSet<FilterDataEntry> nextSuccs = new TreeSet<>(graph.getSuccessors(parent));
-
-		// Relies on tree structure of the graph
-		while (!nextSuccs.isEmpty()) {
-			FilterDataEntry succ = nextSuccs.pollFirst();
-			if (succ != null && succ.dataset != null) {
-				succ.dataset = null;
-				nextSuccs.addAll(graph.getSuccessors(succ));
-			}
-		}
-		return graph;
-	}
-
-	private Graph<FilterDataEntry> copyGraphIntoDataGraph() {
-		// Copy graph
-		Graph<FilterDataEntry> dataGraph = new Graph<>();
-		Map<IFilter, FilterDataEntry> filterFDEMapping = new HashMap<>();
-		// Add all items
-		for (IFilter filter : this.filters.getItems()) {
-			FilterDataEntry newEntry = new FilterDataEntry(filter, null);
-			filterFDEMapping.put(filter, newEntry);
-			dataGraph.addItem(newEntry);
-		}
-		// Add all edges
-		for (IFilter filter : this.filters.getItems()) {
-			for (IFilter succ : this.filters.getSuccessors(filter)) {
-				dataGraph.addEdge(filterFDEMapping.get(filter), filterFDEMapping.get(succ));
-			}
-		}
-		return dataGraph;
-	}
-
-	private static FilterDataEntry pollRandomElementFromSet(final HashSet<FilterDataEntry> set) {
-		int size = set.size();
-		FilterDataEntry selectedElem = null;
-		if (size > 1) {
-			int itemIndex = new Random().nextInt(size);
-			int i = 0;
-			for (FilterDataEntry entry : set) {
-				if (i == itemIndex) {
-					selectedElem = entry;
-					break;
-				}
-				i++;
-			}
-		}
-		if (selectedElem == null) {
-			selectedElem = set.iterator().next();
-		}
-		set.remove(selectedElem);
-		return selectedElem;
-	}
-
 	public Graph<IFilter> getFilters() {
 		return this.filters;
 	}
@@ -239,6 +245,11 @@ public class FilterPipeline implements IFilter, Serializable, EvaluatedSoftwareC
 			filterMapping.put(filter, (IFilter) filter.clone());
 		}
 
+		Map<IFilter, String> clonedDescriptionsOfFilters = new HashMap<>();
+		for (Map.Entry<IFilter, String> entry : this.descriptionsOfFilters.entrySet()) {
+			clonedDescriptionsOfFilters.put(filterMapping.get(entry.getKey()), entry.getValue());
+		}
+
 		Graph<IFilter> clonedGraph = new Graph<>();
 		for (Map.Entry<IFilter, IFilter> entry : filterMapping.entrySet()) {
 			clonedGraph.addItem(entry.getValue());
@@ -247,7 +258,9 @@ public class FilterPipeline implements IFilter, Serializable, EvaluatedSoftwareC
 			clonedGraph.addEdge(filterMapping.get(pair.getX()), filterMapping.get(pair.getY()));
 		}
 
-		return new FilterPipeline(this.ci, clonedGraph);
+		FilterPipeline clonedPipeline = new FilterPipeline(this.ci, clonedGraph, clonedDescriptionsOfFilters, this.cache);
+		clonedPipeline.setNumberOfThreads(this.numberOfThreads);
+		return clonedPipeline;
 	}
 
 	@Override
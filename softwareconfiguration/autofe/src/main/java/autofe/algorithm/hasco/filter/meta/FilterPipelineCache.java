@@ -0,0 +1,168 @@
+package autofe.algorithm.hasco.filter.meta;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+import autofe.util.DataSet;
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * Bounded cache of the data sets that the sub-pipelines of {@link FilterPipeline}s compute, so that the filters of a prefix that several candidate pipelines share
+ * are only applied once.
+ *
+ * The keys are the canonical descriptions of the sub-pipelines, i.e. the filter components with their parameters together with the fingerprint of the data
+ * the sub-pipeline has been applied to. The fingerprint is a SHA-256 digest of the values of the data, which is computed only once per data set object (as long as
+ * its dimensions do not change); hence, the data a pipeline is applied to must not be modified in place afterwards. If the cache is full, the least recently used
+ * data set is evicted. Since filters may transform their input in place, the cache stores and hands out copies of the data sets. Each entry holds a complete data
+ * set, so the capacity should be chosen with respect to the available memory; a capacity of 0 disables the cache.
+ *
+ * @author fmohr
+ *
+ */
+public class FilterPipelineCache {
+
+	public static final int DEFAULT_CAPACITY = 8;
+
+	private final int capacity;
+	private final Map<String, DataSet> dataSets;
+	private final Map<DataSet, Fingerprint> fingerprints = Collections.synchronizedMap(new WeakHashMap<>()); // data sets are compared by identity
+
+	/**
+	 * The digest of a data set together with its dimensions, which tell whether the data set has been changed in a way that is detected at low cost.
+	 */
+	private static class Fingerprint {
+		private final String dimensions;
+		private final String digest;
+
+		private Fingerprint(final String dimensions, final String digest) {
+			this.dimensions = dimensions;
+			this.digest = digest;
+		}
+	}
+
+	public FilterPipelineCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public FilterPipelineCache(final int capacity) {
+		this.capacity = capacity;
+		this.dataSets = Collections.synchronizedMap(new LinkedHashMap<String, DataSet>(16, .75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, DataSet> eldest) {
+				return this.size() > capacity;
+			}
+		});
+	}
+
+	public boolean isEnabled() {
+		return this.capacity > 0;
+	}
+
+	/**
+	 * @return A copy of the data set cached for the given sub-pipeline or null if there is none.
+	 */
+	public DataSet get(final String key) {
+		DataSet dataSet = this.dataSets.get(key);
+		return dataSet != null ? dataSet.copy() : null;
+	}
+
+	public void put(final String key, final DataSet dataSet) {
+		if (this.isEnabled()) {
+			this.dataSets.put(key, dataSet.copy());
+		}
+	}
+
+	public int size() {
+		return this.dataSets.size();
+	}
+
+	public void clear() {
+		this.dataSets.clear();
+	}
+
+	/**
+	 * Returns the fingerprint of the values of the given data set, which identifies the input of the sub-pipelines in the keys of the cache. The fingerprint is only
+	 * computed again if the dimensions of the data set have changed since the last call.
+	 */
+	String getFingerprint(final DataSet data) {
+		String dimensions = getDimensions(data);
+		Fingerprint fingerprint = this.fingerprints.get(data);
+		if (fingerprint == null || !fingerprint.dimensions.equals(dimensions)) {
+			fingerprint = new Fingerprint(dimensions, computeDigest(data, dimensions));
+			this.fingerprints.put(data, fingerprint);
+		}
+		return fingerprint.digest;
+	}
+
+	private static String getDimensions(final DataSet data) {
+		StringBuilder sb = new StringBuilder();
+		Instances instances = data.getInstances();
+		if (instances != null) {
+			sb.append(instances.numInstances()).append('x').append(instances.numAttributes());
+		}
+		List<INDArray> intermediateInstances = data.getIntermediateInstances();
+		if (intermediateInstances != null) {
+			for (INDArray intermediateInstance : intermediateInstances) {
+				sb.append(Arrays.toString(intermediateInstance.shape()));
+			}
+		}
+		return sb.toString();
+	}
+
+	private static String computeDigest(final DataSet data, final String dimensions) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported by this platform.", e);
+		}
+		digest.update(dimensions.getBytes(StandardCharsets.UTF_8));
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 13);
+		Instances instances = data.getInstances();
+		if (instances != null) {
+			for (Instance instance : instances) {
+				for (int i = 0; i < instance.numAttributes(); i++) {
+					update(digest, buffer, instance.value(i));
+				}
+			}
+		}
+		List<INDArray> intermediateInstances = data.getIntermediateInstances();
+		if (intermediateInstances != null) {
+			for (INDArray intermediateInstance : intermediateInstances) {
+				/* read the values one by one instead of copying the array */
+				for (long i = 0; i < intermediateInstance.length(); i++) {
+					update(digest, buffer, intermediateInstance.getDouble(i));
+				}
+			}
+		}
+		buffer.flip();
+		digest.update(buffer);
+		StringBuilder sb = new StringBuilder();
+		for (byte b : digest.digest()) {
+			sb.append(String.format("%02x", b));
+		}
+		return sb.toString();
+	}
+
+	private static void update(final MessageDigest digest, final ByteBuffer buffer, final double value) {
+		if (buffer.remaining() < Double.BYTES) {
+			buffer.flip();
+			digest.update(buffer);
+			buffer.clear();
+		}
+		buffer.putDouble(value);
+	}
+}
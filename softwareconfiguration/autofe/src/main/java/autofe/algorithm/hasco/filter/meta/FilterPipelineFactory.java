@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Queue;
+import java.util.TreeMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,6 +12,7 @@ import org.slf4j.LoggerFactory;
 import ai.libs.hasco.model.ComponentInstance;
 import ai.libs.hasco.optimizingfactory.BaseFactory;
 import ai.libs.jaicore.graph.Graph;
+import autofe.algorithm.hasco.filter.generic.AddRandomFilter;
 import autofe.algorithm.hasco.filter.generic.IdentityFilter;
 import autofe.util.FilterUtils;
 
@@ -24,9 +26,23 @@ public class FilterPipelineFactory implements BaseFactory<FilterPipeline> {
 	private static final Logger logger = LoggerFactory.getLogger(FilterPipelineFactory.class);
 
 	private final long[] inputShape;
+	private final FilterPipelineCache cache;
 
+	/**
+	 * Creates a factory whose pipelines do not cache the data sets of their sub-pipelines.
+	 */
 	public FilterPipelineFactory(final long[] inputShape) {
+		this(inputShape, null);
+	}
+
+	/**
+	 * @param cache
+	 *            The cache of the data sets of sub-pipelines that is shared among all pipelines of this factory, or null if nothing should be cached. Since each
+	 *            entry of the cache is a complete data set, its capacity should be chosen with respect to the available memory.
+	 */
+	public FilterPipelineFactory(final long[] inputShape, final FilterPipelineCache cache) {
 		this.inputShape = inputShape;
+		this.cache = cache;
 	}
 
 	@Override
@@ -38,6 +54,7 @@ public class FilterPipelineFactory implements BaseFactory<FilterPipeline> {
 		Graph<IFilter> filterGraph = new Graph<>();
 		Queue<ComponentInstance> open = new LinkedList<>();
 		Map<ComponentInstance, IFilter> predFilters = new HashMap<>();
+		Map<IFilter, String> descriptionsOfFilters = new HashMap<>();
 
 		if (groundComponent.getComponent().getName().equalsIgnoreCase("FilterPipeline")) {
 
@@ -61,7 +78,7 @@ public class FilterPipelineFactory implements BaseFactory<FilterPipeline> {
 
 				switch (actCI.getComponent().getName()) {
 				case UNION_NAME:
-					this.handleUnionFilter(actCI, filterGraph, predFilter, open, predFilters);
+					this.handleUnionFilter(actCI, filterGraph, predFilter, open, predFilters, descriptionsOfFilters);
 					break;
 
 				case PREP_PIPE_NAME:
@@ -74,6 +91,7 @@ public class FilterPipelineFactory implements BaseFactory<FilterPipeline> {
 							prepCI.getParameterValues(), this.inputShape);
 
 					filterGraph.addItem(prep);
+					addDescription(descriptionsOfFilters, prep, prepCI);
 					if (predFilter != null) {
 						filterGraph.addEdge(predFilter, prep);
 					}
@@ -95,6 +113,7 @@ public class FilterPipelineFactory implements BaseFactory<FilterPipeline> {
 							extractorCI.getParameterValues(), this.inputShape);
 
 					filterGraph.addItem(extractor);
+					addDescription(descriptionsOfFilters, extractor, extractorCI);
 					if (predFilter != null) {
 						filterGraph.addEdge(predFilter, extractor);
 					}
@@ -117,6 +136,7 @@ public class FilterPipelineFactory implements BaseFactory<FilterPipeline> {
 							netCI.getParameterValues(), this.inputShape);
 
 					filterGraph.addItem(net);
+					addDescription(descriptionsOfFilters, net, netCI);
 					if (predFilter != null) {
 						filterGraph.addEdge(predFilter, net);
 					}
@@ -128,11 +148,11 @@ public class FilterPipelineFactory implements BaseFactory<FilterPipeline> {
 					}
 					break;
 				default:
-					this.handleDefaultCase(actCI, filterGraph, predFilter);
+					this.handleDefaultCase(actCI, filterGraph, predFilter, descriptionsOfFilters);
 					break;
 				}
 			}
-			FilterPipeline result = new FilterPipeline(actCI, filterGraph);
+			FilterPipeline result = new FilterPipeline(actCI, filterGraph, descriptionsOfFilters, this.cache);
 
 			logger.info("Result pipeline after build: {}", result);
 			return result;
@@ -146,10 +166,11 @@ public class FilterPipelineFactory implements BaseFactory<FilterPipeline> {
 
 	private void handleUnionFilter(final ComponentInstance actCI, final Graph<IFilter> filterGraph,
 			final IFilter predFilter, final Queue<ComponentInstance> open,
-			final Map<ComponentInstance, IFilter> predFilters) {
+			final Map<ComponentInstance, IFilter> predFilters, final Map<IFilter, String> descriptionsOfFilters) {
 		UnionFilter unionFilter = new UnionFilter();
 
 		filterGraph.addItem(unionFilter);
+		addDescription(descriptionsOfFilters, unionFilter, actCI);
 		if (predFilter != null) {
 			filterGraph.addEdge(predFilter, unionFilter);
 		}
@@ -167,14 +188,28 @@ public class FilterPipelineFactory implements BaseFactory<FilterPipeline> {
 	}
 
 	private void handleDefaultCase(final ComponentInstance actCI, final Graph<IFilter> filterGraph,
-			final IFilter predFilter) {
+			final IFilter predFilter, final Map<IFilter, String> descriptionsOfFilters) {
 		IFilter basicFilter = FilterUtils.getFilterForName(actCI.getComponent().getName(),
 				actCI.getParameterValues(), this.inputShape);
 
 		filterGraph.addItem(basicFilter);
+		addDescription(descriptionsOfFilters, basicFilter, actCI);
 		if (predFilter != null) {
 			filterGraph.addEdge(predFilter, basicFilter);
 		}
 	}
 
+	/**
+	 * Describes the filter canonically by the name and the parameters of its component, which identifies the data sets of its sub-pipelines in the cache.
+	 */
+	private static void addDescription(final Map<IFilter, String> descriptionsOfFilters, final IFilter filter, final ComponentInstance filterCI) {
+		// The noise of random filters differs between instances, so their data sets must not be reused
+		if (!(filter instanceof AddRandomFilter)) {
+			descriptionsOfFilters.put(filter, filterCI.getComponent().getName() + new TreeMap<>(filterCI.getParameterValues()));
+		}
+	}
+
+	public FilterPipelineCache getCache() {
+		return this.cache;
+	}
 }
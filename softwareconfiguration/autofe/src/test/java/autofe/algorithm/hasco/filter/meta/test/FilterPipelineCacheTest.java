@@ -0,0 +1,203 @@
+package autofe.algorithm.hasco.filter.meta.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import ai.libs.jaicore.graph.Graph;
+import autofe.algorithm.hasco.filter.meta.FilterPipeline;
+import autofe.algorithm.hasco.filter.meta.FilterPipelineCache;
+import autofe.algorithm.hasco.filter.meta.FilterPipelineFactory;
+import autofe.algorithm.hasco.filter.meta.IFilter;
+import autofe.algorithm.hasco.filter.meta.UnionFilter;
+import autofe.util.DataSet;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * Checks that the data sets of prefixes that several filter pipelines share are only computed once and that the concurrent application of the branches of a
+ * union yields the same data set as the sequential one.
+ *
+ * @author fmohr
+ *
+ */
+public class FilterPipelineCacheTest {
+
+	/**
+	 * A filter that adds a value to all features after some delay and counts how often it is applied.
+	 */
+	private static class AddValueFilter implements IFilter {
+		private final double value;
+		private final long delay;
+		private final AtomicInteger applications;
+
+		public AddValueFilter(final double value, final long delay, final AtomicInteger applications) {
+			this.value = value;
+			this.delay = delay;
+			this.applications = applications;
+		}
+
+		@Override
+		public DataSet applyFilter(final DataSet inputData, final boolean copy) throws InterruptedException {
+			this.applications.incrementAndGet();
+			Thread.sleep(this.delay);
+			Instances instances = copy ? new Instances(inputData.getInstances()) : inputData.getInstances();
+			for (Instance instance : instances) {
+				for (int i = 0; i < instance.numAttributes() - 1; i++) {
+					instance.setValue(i, instance.value(i) + this.value);
+				}
+			}
+			return new DataSet(instances, null);
+		}
+
+		@Override
+		public AddValueFilter clone() {
+			return new AddValueFilter(this.value, this.delay, this.applications);
+		}
+
+		public String getDescription() {
+			return "AddValue{value=" + this.value + "}";
+		}
+	}
+
+	private static DataSet getDataSet() {
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			attributes.add(new Attribute("x" + i));
+		}
+		attributes.add(new Attribute("class", Arrays.asList("a", "b")));
+		Instances instances = new Instances("data", attributes, 100);
+		instances.setClassIndex(3);
+		Random random = new Random(0);
+		for (int j = 0; j < 100; j++) {
+			instances.add(new DenseInstance(1, new double[] { random.nextDouble(), random.nextDouble(), random.nextDouble(), random.nextInt(2) }));
+		}
+		return new DataSet(instances, null);
+	}
+
+	private static FilterPipeline getChain(final FilterPipelineCache cache, final AddValueFilter... filters) {
+		Graph<IFilter> graph = new Graph<>();
+		Map<IFilter, String> descriptionsOfFilters = new HashMap<>();
+		for (int i = 0; i < filters.length; i++) {
+			graph.addItem(filters[i]);
+			descriptionsOfFilters.put(filters[i], filters[i].getDescription());
+			if (i > 0) {
+				graph.addEdge(filters[i], filters[i - 1]);
+			}
+		}
+		return new FilterPipeline(null, graph, descriptionsOfFilters, cache);
+	}
+
+	private static FilterPipeline getUnion(final AddValueFilter filter1, final AddValueFilter filter2, final int numberOfThreads) {
+		return getUnion(filter1, filter2, true, null, numberOfThreads);
+	}
+
+	private static FilterPipeline getUnion(final AddValueFilter filter1, final AddValueFilter filter2, final boolean isFirstFilterDescribed, final FilterPipelineCache cache,
+			final int numberOfThreads) {
+		Graph<IFilter> graph = new Graph<>();
+		UnionFilter union = new UnionFilter();
+		graph.addItem(union);
+		graph.addItem(filter1);
+		graph.addItem(filter2);
+		graph.addEdge(union, filter1);
+		graph.addEdge(union, filter2);
+		Map<IFilter, String> descriptionsOfFilters = new HashMap<>();
+		descriptionsOfFilters.put(union, "autofe.MakeUnion{}");
+		if (isFirstFilterDescribed) {
+			descriptionsOfFilters.put(filter1, filter1.getDescription());
+		}
+		descriptionsOfFilters.put(filter2, filter2.getDescription());
+		FilterPipeline pipeline = new FilterPipeline(null, graph, descriptionsOfFilters, cache);
+		pipeline.setNumberOfThreads(numberOfThreads);
+		return pipeline;
+	}
+
+	private static void assertEqualDataSets(final DataSet expected, final DataSet actual) {
+		assertEquals(expected.getInstances().numInstances(), actual.getInstances().numInstances());
+		for (int i = 0; i < expected.getInstances().numInstances(); i++) {
+			assertArrayEquals(expected.getInstances().get(i).toDoubleArray(), actual.getInstances().get(i).toDoubleArray(), 0);
+		}
+	}
+
+	@Test
+	public void testThatSharedPrefixesAreComputedOnce() throws InterruptedException {
+		DataSet data = getDataSet();
+		AtomicInteger applicationsOfPrefix = new AtomicInteger();
+		AtomicInteger applicationsOfSuffixes = new AtomicInteger();
+		DataSet expectedDataSet = getChain(null, new AddValueFilter(1, 0, new AtomicInteger()), new AddValueFilter(2, 0, new AtomicInteger())).applyFilter(data, true);
+
+		FilterPipelineCache cache = new FilterPipelineCache();
+		DataSet dataSet = getChain(cache, new AddValueFilter(1, 0, applicationsOfPrefix), new AddValueFilter(2, 0, applicationsOfSuffixes)).applyFilter(data, true);
+		assertEqualDataSets(expectedDataSet, dataSet);
+		getChain(cache, new AddValueFilter(1, 0, applicationsOfPrefix), new AddValueFilter(3, 0, applicationsOfSuffixes)).applyFilter(data, true);
+		dataSet = getChain(cache, new AddValueFilter(1, 0, applicationsOfPrefix), new AddValueFilter(2, 0, applicationsOfSuffixes)).applyFilter(data, true);
+		assertEqualDataSets(expectedDataSet, dataSet);
+		assertEquals(1, applicationsOfPrefix.get());
+		assertEquals(2, applicationsOfSuffixes.get());
+
+		/* neither the input nor the cached data sets may be changed by the pipelines */
+		assertEqualDataSets(getDataSet(), data);
+		dataSet.getInstances().get(0).setValue(0, -1);
+		assertEqualDataSets(expectedDataSet, getChain(cache, new AddValueFilter(1, 0, applicationsOfPrefix), new AddValueFilter(2, 0, applicationsOfSuffixes)).applyFilter(data, true));
+
+		/* other data are a different input of the prefix */
+		DataSet otherData = getDataSet();
+		otherData.getInstances().get(0).setValue(0, 0);
+		getChain(cache, new AddValueFilter(1, 0, applicationsOfPrefix)).applyFilter(otherData, true);
+		assertEquals(2, applicationsOfPrefix.get());
+
+		/* without capacity, nothing is cached */
+		FilterPipelineCache disabledCache = new FilterPipelineCache(0);
+		getChain(disabledCache, new AddValueFilter(1, 0, applicationsOfPrefix)).applyFilter(data, true);
+		getChain(disabledCache, new AddValueFilter(1, 0, applicationsOfPrefix)).applyFilter(data, true);
+		assertEquals(4, applicationsOfPrefix.get());
+		assertEquals(0, disabledCache.size());
+
+		/* caching must be enabled explicitly */
+		assertNull(new FilterPipelineFactory(new long[] { 100, 3 }).getCache());
+	}
+
+	@Test
+	public void testThatParallelExecutionCoincidesWithSequentialExecution() throws InterruptedException {
+		DataSet data = getDataSet();
+		AtomicInteger applications = new AtomicInteger();
+		DataSet expectedDataSet = getUnion(new AddValueFilter(1, 50, applications), new AddValueFilter(2, 50, applications), 1).applyFilter(data, true);
+		DataSet dataSet = getUnion(new AddValueFilter(1, 50, applications), new AddValueFilter(2, 50, applications), 2).applyFilter(data, true);
+		assertEquals(4, applications.get());
+		assertEquals(7, dataSet.getInstances().numAttributes());
+		assertEqualDataSets(expectedDataSet, dataSet);
+
+		/* the order of the branches of the union is canonical */
+		assertEqualDataSets(expectedDataSet, getUnion(new AddValueFilter(2, 0, applications), new AddValueFilter(1, 0, applications), 2).applyFilter(data, true));
+	}
+
+	@Test
+	public void testThatBranchesWithoutDescriptionDoNotShareCachedDataSetsOfOtherData() throws InterruptedException {
+		DataSet data = getDataSet();
+		DataSet otherData = getDataSet();
+		otherData.getInstances().get(0).setValue(0, 0);
+		DataSet expectedDataSet = getUnion(new AddValueFilter(1, 0, new AtomicInteger()), new AddValueFilter(2, 0, new AtomicInteger()), 1).applyFilter(otherData, true);
+
+		/* only the described branch is cached, but its key must still depend on the data */
+		FilterPipelineCache cache = new FilterPipelineCache();
+		AtomicInteger applicationsOfDescribedBranch = new AtomicInteger();
+		getUnion(new AddValueFilter(1, 0, new AtomicInteger()), new AddValueFilter(2, 0, applicationsOfDescribedBranch), false, cache, 1).applyFilter(data, true);
+		DataSet dataSet = getUnion(new AddValueFilter(1, 0, new AtomicInteger()), new AddValueFilter(2, 0, applicationsOfDescribedBranch), false, cache, 1).applyFilter(otherData, true);
+		assertEqualDataSets(expectedDataSet, dataSet);
+		assertEquals(2, applicationsOfDescribedBranch.get());
+
+		getUnion(new AddValueFilter(1, 0, new AtomicInteger()), new AddValueFilter(2, 0, applicationsOfDescribedBranch), false, cache, 1).applyFilter(otherData, true);
+		assertEquals(2, applicationsOfDescribedBranch.get());
+	}
+}
@@ -0,0 +1,132 @@
+package ai.libs.hasco.core;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import ai.libs.hasco.model.Component;
+import ai.libs.hasco.model.ComponentInstance;
+import ai.libs.hasco.model.ComponentRegistry;
+import ai.libs.jaicore.planning.hierarchical.algorithms.forwarddecomposition.graphgenerators.tfd.TFDNode;
+import ai.libs.jaicore.planning.hierarchical.algorithms.forwarddecomposition.graphgenerators.tfd.TFDRestProblem;
+
+/**
+ * Decodes the component instances encoded in the states of TFD nodes incrementally along the search path.
+ *
+ * The decoder keeps the decodings of recently seen states. Since the states of the nodes are delta-encoded relative to the states of their parents, the decoding of a node is derived from the decoding of its parent by
+ * only applying the literals deleted and added by the node. Only states that have no decoded ancestor are scanned completely.
+ *
+ * @author fmohr
+ *
+ */
+public class ComponentInstanceDecoder {
+
+	private static final int DEFAULT_CAPACITY = 1000;
+
+	private final ComponentRegistry registry;
+	private final Map<ProblemKey, StateDecoding> decodings;
+
+	/**
+	 * Problems are identified by reference, because comparing them by value would require to compare their states.
+	 */
+	private static class ProblemKey {
+		private final TFDRestProblem problem;
+
+		public ProblemKey(final TFDRestProblem problem) {
+			super();
+			this.problem = problem;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(this.problem);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			return obj instanceof ProblemKey && ((ProblemKey) obj).problem == this.problem;
+		}
+	}
+
+	public ComponentInstanceDecoder(final Collection<Component> components) {
+		this(components, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param components
+	 *            The components that may occur in the states
+	 * @param capacity
+	 *            The maximum number of decodings held in memory
+	 */
+	public ComponentInstanceDecoder(final Collection<Component> components, final int capacity) {
+		super();
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity of the decoder must be positive.");
+		}
+		this.registry = new ComponentRegistry(components);
+		this.decodings = Collections.synchronizedMap(new LinkedHashMap<ProblemKey, StateDecoding>(16, .75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<ProblemKey, StateDecoding> eldest) {
+				return this.size() > capacity;
+			}
+		});
+	}
+
+	public ComponentInstance getSolutionComposition(final TFDNode node, final boolean resolveIntervals) {
+		return this.getComponentInstance(node, "solution", resolveIntervals);
+	}
+
+	/**
+	 * @param node
+	 *            The node whose state is decoded
+	 * @param name
+	 *            The name of the object in the state
+	 * @param resolveIntervals
+	 *            Whether the intervals of numeric parameters are to be resolved to single values
+	 * @return The component instance of the object or NULL if the state does not contain the object
+	 */
+	public ComponentInstance getComponentInstance(final TFDNode node, final String name, final boolean resolveIntervals) {
+		if (node.getProblem() == null) {
+			throw new IllegalArgumentException("Cannot decode the state of node " + node + ", because its rest problem has been cleared.");
+		}
+		return this.getDecoding(node.getProblem()).getGroundComponents(this.registry, resolveIntervals).get(name);
+	}
+
+	StateDecoding getDecoding(final TFDRestProblem problem) {
+
+		/* collect the problems up to the next one that has already been decoded or whose state is given explicitly */
+		Deque<TFDRestProblem> problemsToDecode = new ArrayDeque<>();
+		TFDRestProblem current = problem;
+		StateDecoding decoding = this.decodings.get(new ProblemKey(current));
+		while (decoding == null && current.isDeltaEncoded()) {
+			problemsToDecode.push(current);
+			current = current.getBase();
+			decoding = this.decodings.get(new ProblemKey(current));
+		}
+		if (decoding == null) {
+			decoding = StateDecoding.of(current.getState());
+			this.decodings.put(new ProblemKey(current), decoding);
+		}
+
+		/* derive the decodings of the successive problems */
+		while (!problemsToDecode.isEmpty()) {
+			current = problemsToDecode.pop();
+			decoding = decoding.getSuccessorDecoding(current.getDeletedLiterals(), current.getAddedLiterals());
+			this.decodings.put(new ProblemKey(current), decoding);
+		}
+		return decoding;
+	}
+
+	public int size() {
+		return this.decodings.size();
+	}
+
+	public void clear() {
+		this.decodings.clear();
+	}
+}
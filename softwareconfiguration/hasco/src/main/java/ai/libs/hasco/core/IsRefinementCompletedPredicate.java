@@ -12,6 +12,7 @@ import org.slf4j.LoggerFactory;
 import ai.libs.hasco.model.CategoricalParameterDomain;
 import ai.libs.hasco.model.Component;
 import ai.libs.hasco.model.ComponentInstance;
+import ai.libs.hasco.model.ComponentRegistry;
 import ai.libs.hasco.model.NumericParameterDomain;
 import ai.libs.hasco.model.Parameter;
 import ai.libs.hasco.model.ParameterRefinementConfiguration;
@@ -24,12 +25,12 @@ import ai.libs.jaicore.logic.fol.theories.EvaluablePredicate;
 public class IsRefinementCompletedPredicate implements EvaluablePredicate {
 
 	private final Logger logger = LoggerFactory.getLogger(IsRefinementCompletedPredicate.class);
-	private final Collection<Component> components;
+	private final ComponentRegistry registry;
 	private final Map<Component, Map<Parameter, ParameterRefinementConfiguration>> refinementConfiguration;
 
 	public IsRefinementCompletedPredicate(final Collection<Component> components, final Map<Component, Map<Parameter, ParameterRefinementConfiguration>> refinementConfiguration) {
 		super();
-		this.components = components;
+		this.registry = new ComponentRegistry(components);
 		this.refinementConfiguration = refinementConfiguration;
 	}
 
@@ -64,7 +65,7 @@ public class IsRefinementCompletedPredicate implements EvaluablePredicate {
 		final String objectContainer = params[1].getName();
 
 		/* determine current values for the params */
-		ComponentInstance groundComponent = Util.getGroundComponentsFromState(state, components, false).get(objectContainer);
+		ComponentInstance groundComponent = Util.getGroundComponentsFromState(state, this.registry, false).get(objectContainer);
 		Component component = groundComponent.getComponent();
 		Map<String, String> componentParamContainers = Util.getParameterContainerMap(state, objectContainer);
 		for (Parameter param : component.getParameters()) {
@@ -0,0 +1,232 @@
+package ai.libs.hasco.core;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import ai.libs.hasco.model.Component;
+import ai.libs.hasco.model.ComponentInstance;
+import ai.libs.hasco.model.ComponentRegistry;
+import ai.libs.hasco.model.Parameter;
+import ai.libs.jaicore.logic.fol.structure.Literal;
+import ai.libs.jaicore.logic.fol.structure.LiteralParam;
+
+/**
+ * The facts of a HASCO state that are needed to derive the component instances encoded in it, i.e. the objects together with the components resolving them, the parameter containers of the objects, the values of the
+ * containers, the overwritten containers, and the names of the required interfaces the objects are bound to.
+ *
+ * The facts are collected in a single pass over the state and can be derived for a successor state by only applying the literals deleted and added by the successor. The decoding of the successor shares the maps that
+ * are not affected by these literals with its predecessor and only copies the others. A decoding is not modified after it has been created, so decodings of successive states can be used concurrently.
+ *
+ * @author fmohr
+ *
+ */
+class StateDecoding {
+
+	private static final String LITERAL_RESOLVES = "resolves";
+	private static final String LITERAL_PARAMCONTAINER = "parameterContainer";
+	private static final String LITERAL_VAL = "val";
+	private static final String LITERAL_OVERWRITTEN = "overwritten";
+	private static final String LITERAL_INTERFACEIDENTIFIER = "interfaceIdentifier";
+	private static final String REQUEST = "request";
+
+	private final Map<String, String> parentObjects; // object name -> name of the object whose required interface it resolves
+	private final Map<String, String> componentNames; // object name -> name of the component of the object
+	private final Map<String, Map<String, String>> parameterContainers; // object name -> parameter name -> container name (the inner maps are copied on write)
+	private final Map<String, String> values; // container name -> value
+	private final Set<String> overwrittenContainers;
+	private final Map<String, String> interfaceIdentifiers; // object name -> name of the required interface of the parent it is bound to
+
+	private StateDecoding() {
+		this.parentObjects = new HashMap<>();
+		this.componentNames = new HashMap<>();
+		this.parameterContainers = new HashMap<>();
+		this.values = new HashMap<>();
+		this.overwrittenContainers = new HashSet<>();
+		this.interfaceIdentifiers = new HashMap<>();
+	}
+
+	/**
+	 * Creates a decoding that copies the maps of the given decoding that are modified by literals with the given property names and shares the other ones.
+	 */
+	private StateDecoding(final StateDecoding decoding, final Set<String> modifiedProperties) {
+		boolean isResolutionModified = modifiedProperties.contains(LITERAL_RESOLVES);
+		this.parentObjects = isResolutionModified ? new HashMap<>(decoding.parentObjects) : decoding.parentObjects;
+		this.componentNames = isResolutionModified ? new HashMap<>(decoding.componentNames) : decoding.componentNames;
+		this.parameterContainers = modifiedProperties.contains(LITERAL_PARAMCONTAINER) ? new HashMap<>(decoding.parameterContainers) : decoding.parameterContainers;
+		this.values = modifiedProperties.contains(LITERAL_VAL) ? new HashMap<>(decoding.values) : decoding.values;
+		this.overwrittenContainers = modifiedProperties.contains(LITERAL_OVERWRITTEN) ? new HashSet<>(decoding.overwrittenContainers) : decoding.overwrittenContainers;
+		this.interfaceIdentifiers = modifiedProperties.contains(LITERAL_INTERFACEIDENTIFIER) ? new HashMap<>(decoding.interfaceIdentifiers) : decoding.interfaceIdentifiers;
+	}
+
+	/**
+	 * @param state
+	 *            The literals of the state
+	 * @return The decoding of the state
+	 */
+	public static StateDecoding of(final Collection<Literal> state) {
+		StateDecoding decoding = new StateDecoding();
+		for (Literal l : state) {
+			decoding.add(l);
+		}
+		return decoding;
+	}
+
+	/**
+	 * @param deletedLiterals
+	 *            The literals removed from the decoded state
+	 * @param addedLiterals
+	 *            The literals added to the decoded state after the deleted ones have been removed
+	 * @return The decoding of the successor state
+	 */
+	public StateDecoding getSuccessorDecoding(final Collection<Literal> deletedLiterals, final Collection<Literal> addedLiterals) {
+		if (deletedLiterals.isEmpty() && addedLiterals.isEmpty()) {
+			return this;
+		}
+		Set<String> modifiedProperties = new HashSet<>();
+		for (Literal l : deletedLiterals) {
+			modifiedProperties.add(l.getPropertyName());
+		}
+		for (Literal l : addedLiterals) {
+			modifiedProperties.add(l.getPropertyName());
+		}
+		StateDecoding decoding = new StateDecoding(this, modifiedProperties);
+		for (Literal l : deletedLiterals) {
+			decoding.remove(l);
+		}
+		for (Literal l : addedLiterals) {
+			decoding.add(l);
+		}
+		return decoding;
+	}
+
+	private void add(final Literal l) {
+		List<LiteralParam> params = l.getParameters();
+		switch (l.getPropertyName()) {
+		case LITERAL_RESOLVES:
+			this.parentObjects.put(params.get(3).getName(), params.get(0).getName());
+			this.componentNames.put(params.get(3).getName(), params.get(2).getName());
+			break;
+		case LITERAL_PARAMCONTAINER:
+			Map<String, String> containers = new HashMap<>(this.parameterContainers.getOrDefault(params.get(2).getName(), Collections.emptyMap()));
+			containers.put(params.get(1).getName(), params.get(3).getName());
+			this.parameterContainers.put(params.get(2).getName(), containers);
+			break;
+		case LITERAL_VAL:
+			this.values.put(params.get(0).getName(), params.get(1).getName());
+			break;
+		case LITERAL_OVERWRITTEN:
+			this.overwrittenContainers.add(params.get(0).getName());
+			break;
+		case LITERAL_INTERFACEIDENTIFIER:
+			this.interfaceIdentifiers.put(params.get(3).getName(), params.get(1).getName());
+			break;
+		default:
+			/* simply ignore other literals */
+			break;
+		}
+	}
+
+	private void remove(final Literal l) {
+		List<LiteralParam> params = l.getParameters();
+		switch (l.getPropertyName()) {
+		case LITERAL_RESOLVES:
+			this.parentObjects.remove(params.get(3).getName());
+			this.componentNames.remove(params.get(3).getName());
+			break;
+		case LITERAL_PARAMCONTAINER:
+			Map<String, String> containers = new HashMap<>(this.parameterContainers.getOrDefault(params.get(2).getName(), Collections.emptyMap()));
+			containers.remove(params.get(1).getName());
+			this.parameterContainers.put(params.get(2).getName(), containers);
+			break;
+		case LITERAL_VAL:
+			this.values.remove(params.get(0).getName(), params.get(1).getName());
+			break;
+		case LITERAL_OVERWRITTEN:
+			this.overwrittenContainers.remove(params.get(0).getName());
+			break;
+		case LITERAL_INTERFACEIDENTIFIER:
+			this.interfaceIdentifiers.remove(params.get(3).getName());
+			break;
+		default:
+			/* simply ignore other literals */
+			break;
+		}
+	}
+
+	public Set<String> getObjectNames() {
+		return Collections.unmodifiableSet(this.componentNames.keySet());
+	}
+
+	public String getComponentName(final String objectName) {
+		return this.componentNames.get(objectName);
+	}
+
+	/**
+	 * @param objectName
+	 *            The name of the object
+	 * @return A map from the names of the parameters of the object to the names of their containers
+	 */
+	public Map<String, String> getParameterContainers(final String objectName) {
+		return Collections.unmodifiableMap(this.parameterContainers.getOrDefault(objectName, Collections.emptyMap()));
+	}
+
+	public String getValue(final String containerName) {
+		return this.values.get(containerName);
+	}
+
+	public boolean isOverwritten(final String containerName) {
+		return this.overwrittenContainers.contains(containerName);
+	}
+
+	/**
+	 * Creates the component instances of all objects in the state. The required interfaces of the instances are bound, and the parameters whose containers have been overwritten are set.
+	 *
+	 * @param registry
+	 *            The registry of the components that may occur in the state
+	 * @param resolveIntervals
+	 *            Whether the intervals of numeric parameters are to be resolved to single values
+	 * @return A map from the object names to the component instances
+	 */
+	public Map<String, ComponentInstance> getGroundComponents(final ComponentRegistry registry, final boolean resolveIntervals) {
+		Map<String, ComponentInstance> objectMap = new HashMap<>();
+		for (Entry<String, String> objectAndComponent : this.componentNames.entrySet()) {
+			Component component = registry.getComponent(objectAndComponent.getValue());
+			assert component != null : "Could not find component with name " + objectAndComponent.getValue();
+			objectMap.put(objectAndComponent.getKey(), new ComponentInstance(component, new HashMap<>(), new HashMap<>()));
+		}
+
+		/* now establish the binding of the required interfaces of the component instances */
+		for (Entry<String, String> objectAndParent : this.parentObjects.entrySet()) {
+			String objectName = objectAndParent.getKey();
+			String parentObjectName = objectAndParent.getValue();
+			if (!parentObjectName.equals(REQUEST)) {
+				assert this.interfaceIdentifiers.containsKey(objectName) : "Object name " + objectName + " for requried interface must have a defined identifier ";
+				objectMap.get(parentObjectName).getSatisfactionOfRequiredInterfaces().put(this.interfaceIdentifiers.get(objectName), objectMap.get(objectName));
+			}
+		}
+
+		/* set the explicitly defined parameters (e.g. overwritten containers) in the component instances */
+		for (Entry<String, ComponentInstance> entry : objectMap.entrySet()) {
+			String objectName = entry.getKey();
+			ComponentInstance object = entry.getValue();
+			Map<String, String> containers = this.parameterContainers.get(objectName);
+			for (Parameter p : object.getComponent().getParameters()) {
+				assert containers != null : "No parameter container map has been defined for object " + objectName + " of component " + object.getComponent().getName() + "!";
+				assert containers.containsKey(p.getName()) : "The data container for parameter " + p.getName() + " of " + object.getComponent().getName() + " is not defined!";
+				String paramContainerName = containers.get(p.getName());
+				if (this.overwrittenContainers.contains(paramContainerName)) {
+					String assignedValue = this.values.get(paramContainerName);
+					assert assignedValue != null : "parameter containers must always have a value!";
+					object.getParameterValues().put(p.getName(), Util.getParamValue(p, assignedValue, resolveIntervals));
+				}
+			}
+		}
+		return objectMap;
+	}
+}
@@ -10,7 +10,6 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -22,6 +21,7 @@ import org.slf4j.LoggerFactory;
 import ai.libs.hasco.model.CategoricalParameterDomain;
 import ai.libs.hasco.model.Component;
 import ai.libs.hasco.model.ComponentInstance;
+import ai.libs.hasco.model.ComponentRegistry;
 import ai.libs.hasco.model.Dependency;
 import ai.libs.hasco.model.IParameterDomain;
 import ai.libs.hasco.model.NumericParameterDomain;
@@ -40,10 +40,8 @@ import ai.libs.jaicore.search.model.travesaltree.Node;
 
 public class Util {
 
-	private static final String LITERAL_RESOLVES = "resolves";
 	private static final String LITERAL_PARAMCONTAINER = "parameterContainer";
 	private static final String LITERAL_VAL = "val";
-	private static final String LITERAL_INTERFACEIDENTIFIER = "interfaceIdentifier";
 
 	private static final Logger logger = LoggerFactory.getLogger(Util.class);
 
@@ -59,46 +57,17 @@ public class Util {
 	}
 
 	public static Map<ComponentInstance, Map<Parameter, String>> getParametrizations(final Monom state, final Collection<Component> components, final boolean resolveIntervals) {
+		StateDecoding decoding = StateDecoding.of(state);
+		ComponentRegistry registry = new ComponentRegistry(components);
 		Map<String, ComponentInstance> objectMap = new HashMap<>();
-		Map<String, Map<String, String>> parameterContainerMap = new HashMap<>(); // stores for each object the name of the container of each parameter
-		Map<String, String> parameterValues = new HashMap<>();
 
 		Map<ComponentInstance, Map<Parameter, String>> parameterValuesPerComponentInstance = new HashMap<>();
 
-		Collection<String> overwrittenDataContainers = getOverwrittenDatacontainersInState(state);
-
-		/*
-		 * create (empty) component instances, detect containers for parameter values, and register the
-		 * values of the data containers
-		 */
-		for (Literal l : state) {
-			String[] params = l.getParameters().stream().map(LiteralParam::getName).collect(Collectors.toList()).toArray(new String[] {});
-			switch (l.getPropertyName()) {
-			case LITERAL_RESOLVES: // field 0 and 1 (parent object name and interface name) are ignored here
-				String componentName = params[2];
-				String objectName = params[3];
-				Optional<Component> component = components.stream().filter(c -> c.getName().equals(componentName)).findAny();
-				assert component.isPresent() : "Could not find component with name " + componentName;
-				ComponentInstance object = new ComponentInstance(component.get(), new HashMap<>(), new HashMap<>());
-				objectMap.put(objectName, object);
-				break;
-			case LITERAL_PARAMCONTAINER:
-				if (!parameterContainerMap.containsKey(params[2])) {
-					parameterContainerMap.put(params[2], new HashMap<>());
-				}
-				parameterContainerMap.get(params[2]).put(params[1], params[3]);
-				break;
-			case LITERAL_VAL:
-				if (overwrittenDataContainers.contains(params[0])) {
-					parameterValues.put(params[0], params[1]);
-				}
-				break;
-
-			default:
-
-				/* simply ignore other literals */
-				break;
-			}
+		/* create (empty) component instances */
+		for (String objectName : decoding.getObjectNames()) {
+			Component component = registry.getComponent(decoding.getComponentName(objectName));
+			assert component != null : "Could not find component with name " + decoding.getComponentName(objectName);
+			objectMap.put(objectName, new ComponentInstance(component, new HashMap<>(), new HashMap<>()));
 		}
 
 		/* update the configurations of the objects */
@@ -107,12 +76,13 @@ public class Util {
 			String objectName = entry.getKey();
 			ComponentInstance object = entry.getValue();
 			parameterValuesPerComponentInstance.put(object, paramValuesForThisComponent);
+			Map<String, String> parameterContainerMap = decoding.getParameterContainers(objectName);
 			for (Parameter p : object.getComponent().getParameters()) {
 
-				assert parameterContainerMap.containsKey(objectName) : "No parameter container map has been defined for object " + objectName + " of component " + object.getComponent().getName() + "!";
-				assert parameterContainerMap.get(objectName).containsKey(p.getName()) : "The data container for parameter " + p.getName() + " of " + object.getComponent().getName() + " is not defined!";
+				assert parameterContainerMap.containsKey(p.getName()) : "The data container for parameter " + p.getName() + " of " + object.getComponent().getName() + " is not defined!";
 
-				String assignedValue = parameterValues.get(parameterContainerMap.get(objectName).get(p.getName()));
+				String paramContainerName = parameterContainerMap.get(p.getName());
+				String assignedValue = decoding.isOverwritten(paramContainerName) ? decoding.getValue(paramContainerName) : null;
 				String interpretedValue = "";
 				if (assignedValue != null) {
 					if (p.getDefaultDomain() instanceof NumericParameterDomain) {
@@ -149,73 +119,11 @@ public class Util {
 	}
 
 	static Map<String, ComponentInstance> getGroundComponentsFromState(final Monom state, final Collection<Component> components, final boolean resolveIntervals) {
-		Map<String, ComponentInstance> objectMap = new HashMap<>();
-		Map<String, Map<String, String>> parameterContainerMap = new HashMap<>(); // stores for each object the name of the container of each parameter
-		Map<String, String> parameterValues = new HashMap<>();
-		Map<String, String> interfaceContainerMap = new HashMap<>();
-		Collection<String> overwrittenDatacontainers = getOverwrittenDatacontainersInState(state);
-
-		/* create (empty) component instances, detect containers for parameter values, and register the values of the data containers */
-		for (Literal l : state) {
-			String[] params = l.getParameters().stream().map(LiteralParam::getName).collect(Collectors.toList()).toArray(new String[] {});
-			switch (l.getPropertyName()) {
-			case LITERAL_RESOLVES: // field 0 and 1 (parent object name and interface name) are ignored here
-				String componentName = params[2];
-				String objectName = params[3];
-
-				Optional<Component> component = components.stream().filter(c -> c.getName().equals(componentName)).findAny();
-				assert component.isPresent() : "Could not find component with name " + componentName;
-				ComponentInstance object = new ComponentInstance(component.get(), new HashMap<>(), new HashMap<>());
-				objectMap.put(objectName, object);
-				break;
-			case LITERAL_PARAMCONTAINER:
-				if (!parameterContainerMap.containsKey(params[2])) {
-					parameterContainerMap.put(params[2], new HashMap<>());
-				}
-				parameterContainerMap.get(params[2]).put(params[1], params[3]);
-				break;
-			case LITERAL_VAL:
-				parameterValues.put(params[0], params[1]);
-				break;
-			case LITERAL_INTERFACEIDENTIFIER:
-				interfaceContainerMap.put(params[3], params[1]);
-				break;
-			default:
-				/* simply ignore other cases */
-				break;
-			}
-		}
-
-		/* now establish the binding of the required interfaces of the component instances */
-		state.stream().filter(l -> l.getPropertyName().equals(LITERAL_RESOLVES)).forEach(l -> {
-			String[] params = l.getParameters().stream().map(LiteralParam::getName).collect(Collectors.toList()).toArray(new String[] {});
-			String parentObjectName = params[0];
-			String objectName = params[3];
-			ComponentInstance object = objectMap.get(objectName);
-			if (!parentObjectName.equals("request")) {
-				assert interfaceContainerMap.containsKey(objectName) : "Object name " + objectName + " for requried interface must have a defined identifier ";
-				objectMap.get(parentObjectName).getSatisfactionOfRequiredInterfaces().put(interfaceContainerMap.get(objectName), object);
-			}
-		});
-
-		/* set the explicitly defined parameters (e.g. overwritten containers) in the component instances */
-		for (Entry<String, ComponentInstance> entry : objectMap.entrySet()) {
-			String objectName = entry.getKey();
-			ComponentInstance object = entry.getValue();
-			for (Parameter p : object.getComponent().getParameters()) {
+		return getGroundComponentsFromState(state, new ComponentRegistry(components), resolveIntervals);
+	}
 
-				assert parameterContainerMap.containsKey(objectName) : "No parameter container map has been defined for object " + objectName + " of component " + object.getComponent().getName() + "!";
-				assert parameterContainerMap.get(objectName).containsKey(p.getName()) : "The data container for parameter " + p.getName() + " of " + object.getComponent().getName() + " is not defined! State: "
-				+ state.stream().sorted().map(l -> "\n\t" + l).collect(Collectors.joining());
-				String paramContainerName = parameterContainerMap.get(objectName).get(p.getName());
-				if (overwrittenDatacontainers.contains(paramContainerName)) {
-					String assignedValue = parameterValues.get(paramContainerName);
-					assert assignedValue != null : "parameter containers must always have a value!";
-					object.getParameterValues().put(p.getName(), getParamValue(p, assignedValue, resolveIntervals));
-				}
-			}
-		}
-		return objectMap;
+	static Map<String, ComponentInstance> getGroundComponentsFromState(final Monom state, final ComponentRegistry registry, final boolean resolveIntervals) {
+		return StateDecoding.of(state).getGroundComponents(registry, resolveIntervals);
 	}
 
 	public static <N, A, V extends Comparable<V>> ComponentInstance getSolutionCompositionForNode(final IHASCOPlanningReduction<N, A> planningGraphDeriver, final Collection<Component> components,
@@ -375,7 +283,7 @@ public class Util {
 		return getUpdatedDomainsOfComponentParameters(instance);
 	}
 
-	private static String getParamValue(final Parameter p, final String assignedValue, final boolean resolveIntervals) {
+	static String getParamValue(final Parameter p, final String assignedValue, final boolean resolveIntervals) {
 		if (assignedValue == null) {
 			throw new IllegalArgumentException("Cannot determine true value for assigned param value " + assignedValue + " for parameter " + p.getName());
 		}
@@ -3,7 +3,7 @@ package ai.libs.hasco.gui.civiewplugin;
 import java.util.Collection;
 import java.util.Map.Entry;
 
-import ai.libs.hasco.core.Util;
+import ai.libs.hasco.core.ComponentInstanceDecoder;
 import ai.libs.hasco.model.Component;
 import ai.libs.hasco.model.ComponentInstance;
 import ai.libs.hasco.model.Parameter;
@@ -18,15 +18,15 @@ import ai.libs.jaicore.search.model.travesaltree.Node;
  */
 public class TFDNodeAsCIViewInfoGenerator implements NodeInfoGenerator<Node<TFDNode, Double>> {
 
-	private Collection<Component> components;
+	private final ComponentInstanceDecoder decoder;
 
 	public TFDNodeAsCIViewInfoGenerator(final Collection<Component> components) {
-		this.components = components;
+		this.decoder = new ComponentInstanceDecoder(components);
 	}
 
 	@Override
 	public String generateInfoForNode(final Node<TFDNode, Double> node) {
-		ComponentInstance ci = Util.getSolutionCompositionFromState(this.components, node.getPoint().getState(), true);
+		ComponentInstance ci = this.decoder.getSolutionComposition(node.getPoint(), true);
 		if (ci == null) {
 			return "<i>No component has been chosen, yet.</i>";
 		} else {
@@ -1,9 +1,13 @@
 package ai.libs.hasco.knowledgebase;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -84,6 +88,7 @@ public class FANOVAParameterImportanceEstimator implements IParameterImportanceE
 			this.prunedParameters.add(domain.getName());
 		}
 		ExtendedRandomForest forest = new ExtendedRandomForest();
+		forest.setNumExecutionSlots(Runtime.getRuntime().availableProcessors());
 		// forest.setMinNumSamples
 		try {
 			forest.buildClassifier(data);
@@ -99,33 +104,28 @@ public class FANOVAParameterImportanceEstimator implements IParameterImportanceE
 			parameterIndices.add(i);
 		}
 		// for now we only consider subsets of size k <= 2
+		List<Set<Integer>> subsets = new ArrayList<>();
 		for (int k = 1; k <= this.sizeOfLargestSubsetToConsider; k++) {
-			Set<Set<Integer>> currentSubsets = Sets.combinations(parameterIndices, k);
-			for (Set<Integer> subset : currentSubsets) {
-				double currentImportance;
-				// if recomputation is desired of the dictionary has no importance value stored, compute it
-				if (recompute) {
-					currentImportance = forest.computeMarginalVarianceContributionForFeatureSubset(subset);
-					this.importanceDictionary.get(pipelineIdentifier).put(subset, currentImportance);
-				} else if (this.importanceDictionary.get(pipelineIdentifier).containsKey(subset)) {
-					LOGGER.debug("Taking value from dictionary");
-					currentImportance = this.importanceDictionary.get(pipelineIdentifier).get(subset);
-				}
-				// if no value is available in the dictionary, compute it
-				else {
-					currentImportance = forest.computeMarginalVarianceContributionForFeatureSubset(subset);
-					this.importanceDictionary.get(pipelineIdentifier).put(subset, currentImportance);
-					if (Double.isNaN(currentImportance)) {
-						currentImportance = 1.0;
-						LOGGER.debug("importance value is NaN, so it will be set to 1");
-					}
-				}
-				LOGGER.debug("Importance value for parameter subset {}: {}", subset, currentImportance);
-				LOGGER.debug("Importance value {} >= {}" + ": ", currentImportance, this.importanceThreshold, (currentImportance >= this.importanceThreshold));
-				if (currentImportance >= this.importanceThreshold) {
-					for (int i : subset) {
-						importantParameters.add(forest.getFeatureSpace().getFeatureDomain(i).getName());
-					}
+			subsets.addAll(Sets.combinations(parameterIndices, k));
+		}
+		// if recomputation is desired or the dictionary has no importance value stored, compute it; all of them are computed on the forest at once
+		Map<Set<Integer>, Double> importanceValuesOfComposition = this.importanceDictionary.get(pipelineIdentifier);
+		List<Set<Integer>> subsetsToCompute = subsets.stream().filter(subset -> recompute || !importanceValuesOfComposition.containsKey(subset)).collect(Collectors.toList());
+		Map<Set<Integer>, Double> computedImportanceValues = forest.computeMarginalVarianceContributionsForFeatureSubsets(subsetsToCompute);
+		importanceValuesOfComposition.putAll(computedImportanceValues);
+		for (Set<Integer> subset : subsets) {
+			double currentImportance = importanceValuesOfComposition.get(subset);
+			if (!computedImportanceValues.containsKey(subset)) {
+				LOGGER.debug("Taking value from dictionary");
+			} else if (!recompute && Double.isNaN(currentImportance)) {
+				currentImportance = 1.0;
+				LOGGER.debug("importance value is NaN, so it will be set to 1");
+			}
+			LOGGER.debug("Importance value for parameter subset {}: {}", subset, currentImportance);
+			LOGGER.debug("Importance value {} >= {}" + ": ", currentImportance, this.importanceThreshold, (currentImportance >= this.importanceThreshold));
+			if (currentImportance >= this.importanceThreshold) {
+				for (int i : subset) {
+					importantParameters.add(forest.getFeatureSpace().getFeatureDomain(i).getName());
 				}
 			}
 		}
@@ -145,14 +145,18 @@ public class FANOVAParameterImportanceEstimator implements IParameterImportanceE
 			return null;
 		}
 		ExtendedRandomForest forest = new ExtendedRandomForest();
+		forest.setNumExecutionSlots(Runtime.getRuntime().availableProcessors());
 		HashMap<String, Double> result = new HashMap<>();
 		try {
 			forest.buildClassifier(data);
+			forest.prepareForest(data);
+			List<Set<Integer>> subsets = new ArrayList<>();
+			for (int i = 0; i < data.numAttributes() - 1; i++) {
+				subsets.add(Collections.singleton(i));
+			}
+			Map<Set<Integer>, Double> importanceValues = forest.computeMarginalVarianceContributionsForFeatureSubsets(subsets);
 			for (int i = 0; i < data.numAttributes() - 1; i++) {
-				HashSet<Integer> set = new HashSet<>();
-				set.add(i);
-				double importance = forest.computeMarginalVarianceContributionForFeatureSubset(set);
-				result.put(data.attribute(i).name(), importance);
+				result.put(data.attribute(i).name(), importanceValues.get(subsets.get(i)));
 			}
 		} catch (Exception e) {
 			LOGGER.error("Could not build model and compute marginal variance contribution.", e);
@@ -0,0 +1,44 @@
+package ai.libs.hasco.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Index of a collection of components by their names.
+ *
+ * Since the same collection of components is usually decoded over and over again, objects that decode many states, such as the ComponentInstanceDecoder, create one
+ * registry for their components and keep it.
+ *
+ * @author fmohr
+ *
+ */
+public class ComponentRegistry {
+
+	private final Map<String, Component> componentsByName = new LinkedHashMap<>();
+
+	public ComponentRegistry(final Collection<Component> components) {
+		super();
+		for (Component component : components) {
+			this.componentsByName.put(component.getName(), component);
+		}
+	}
+
+	/**
+	 * @param name
+	 *            The name of the component
+	 * @return The component with the given name or NULL if there is no such component
+	 */
+	public Component getComponent(final String name) {
+		return this.componentsByName.get(name);
+	}
+
+	public Collection<Component> getComponents() {
+		return Collections.unmodifiableCollection(this.componentsByName.values());
+	}
+
+	public int size() {
+		return this.componentsByName.size();
+	}
+}
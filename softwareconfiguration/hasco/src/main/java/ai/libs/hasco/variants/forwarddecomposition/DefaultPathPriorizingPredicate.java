@@ -2,8 +2,8 @@ package ai.libs.hasco.variants.forwarddecomposition;
 
 import java.util.function.Predicate;
 
+import ai.libs.hasco.core.ComponentInstanceDecoder;
 import ai.libs.hasco.core.HASCO;
-import ai.libs.hasco.core.Util;
 import ai.libs.hasco.model.ComponentInstance;
 import ai.libs.hasco.model.ComponentUtil;
 import ai.libs.jaicore.planning.hierarchical.algorithms.forwarddecomposition.graphgenerators.tfd.TFDNode;
@@ -19,6 +19,7 @@ import ai.libs.jaicore.planning.hierarchical.algorithms.forwarddecomposition.gra
 public class DefaultPathPriorizingPredicate<N, A> implements Predicate<N> {
 
 	private HASCO<?, N, A, ?> hasco;
+	private ComponentInstanceDecoder decoder;
 
 	@Override
 	public boolean test(final N node) {
@@ -31,7 +32,10 @@ public class DefaultPathPriorizingPredicate<N, A> implements Predicate<N> {
 		if (this.hasco.getInput() == null) {
 			throw new IllegalStateException("HASCO exists, but its problem input has not been defined yet.");
 		}
-		ComponentInstance inst = Util.getSolutionCompositionFromState(this.hasco.getInput().getComponents(), ((TFDNode) node).getState(), false);
+		if (this.decoder == null) {
+			this.decoder = new ComponentInstanceDecoder(this.hasco.getInput().getComponents());
+		}
+		ComponentInstance inst = this.decoder.getSolutionComposition((TFDNode) node, false);
 		if (inst == null) {
 			return true;
 		}
@@ -44,5 +48,6 @@ public class DefaultPathPriorizingPredicate<N, A> implements Predicate<N> {
 
 	public void setHasco(final HASCO<?, N, A, ?> hasco) {
 		this.hasco = hasco;
+		this.decoder = null;
 	}
 }
@@ -0,0 +1,58 @@
+package ai.libs.hasco.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import ai.libs.hasco.core.ComponentInstanceDecoder;
+import ai.libs.hasco.core.RefinementConfiguredSoftwareConfigurationProblem;
+import ai.libs.hasco.core.Util;
+import ai.libs.hasco.reduction.HASCOReduction;
+import ai.libs.jaicore.planning.hierarchical.algorithms.forwarddecomposition.graphgenerators.ceociptfd.CEOCIPTFDGraphGenerator;
+import ai.libs.jaicore.planning.hierarchical.algorithms.forwarddecomposition.graphgenerators.tfd.TFDNode;
+import ai.libs.jaicore.search.model.travesaltree.NodeExpansionDescription;
+import ai.libs.jaicore.search.structure.graphgenerator.SuccessorGenerator;
+
+/**
+ * Checks that the incremental decoding of the nodes along random dives through the Auto-WEKA search space yields the same component instances as decoding their complete states.
+ *
+ * @author fmohr
+ *
+ */
+public class ComponentInstanceDecoderTest {
+
+	private static final int DIVES = 20;
+
+	@Test
+	public void testThatIncrementalDecodingCoincidesWithDecodingOfStates() throws IOException, InterruptedException {
+		RefinementConfiguredSoftwareConfigurationProblem<Double> problem = new RefinementConfiguredSoftwareConfigurationProblem<>(new File("testrsc/weka/weka-all-autoweka.json"), "AbstractClassifier", n -> 0.0);
+		CEOCIPTFDGraphGenerator graphGenerator = new CEOCIPTFDGraphGenerator(new HASCOReduction<Double>(() -> null).encodeProblem(problem).getCorePlanningProblem());
+		SuccessorGenerator<TFDNode, String> successorGenerator = graphGenerator.getSuccessorGenerator();
+		ComponentInstanceDecoder decoder = new ComponentInstanceDecoder(problem.getComponents(), 100);
+		Random random = new Random(0);
+
+		int decodedNodes = 0;
+		for (int dive = 0; dive < DIVES; dive++) {
+			TFDNode node = graphGenerator.getRootGenerator().getRoot();
+			while (!node.isGoal()) {
+				List<NodeExpansionDescription<TFDNode, String>> successors = successorGenerator.generateSuccessors(node);
+				if (successors.isEmpty()) {
+					break;
+				}
+				node = successors.get(random.nextInt(successors.size())).getTo();
+				for (boolean resolveIntervals : new boolean[] { false, true }) {
+					assertEquals(Util.getSolutionCompositionFromState(problem.getComponents(), node.getState(), resolveIntervals), decoder.getSolutionComposition(node, resolveIntervals));
+				}
+				decodedNodes++;
+			}
+		}
+		assertTrue(decodedNodes > DIVES);
+		assertTrue(decoder.size() <= 100);
+	}
+}
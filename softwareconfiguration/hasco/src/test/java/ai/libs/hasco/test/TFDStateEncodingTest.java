@@ -0,0 +1,88 @@
+package ai.libs.hasco.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import ai.libs.hasco.core.RefinementConfiguredSoftwareConfigurationProblem;
+import ai.libs.hasco.reduction.HASCOReduction;
+import ai.libs.jaicore.logic.fol.structure.Literal;
+import ai.libs.jaicore.logic.fol.structure.Monom;
+import ai.libs.jaicore.planning.classical.algorithms.strips.forward.StripsUtil;
+import ai.libs.jaicore.planning.hierarchical.algorithms.forwarddecomposition.graphgenerators.ceociptfd.CEOCIPTFDGraphGenerator;
+import ai.libs.jaicore.planning.hierarchical.algorithms.forwarddecomposition.graphgenerators.tfd.TFDNode;
+import ai.libs.jaicore.planning.hierarchical.algorithms.forwarddecomposition.graphgenerators.tfd.TFDRestProblem;
+import ai.libs.jaicore.planning.hierarchical.problems.ceocipstn.CEOCIPSTNPlanningProblem;
+import ai.libs.jaicore.search.model.travesaltree.NodeExpansionDescription;
+import ai.libs.jaicore.search.structure.graphgenerator.SuccessorGenerator;
+
+/**
+ * Runs random dives through the ML-Plan search space (the HASCO reduction of the Auto-WEKA components), checks that the delta-encoded states of the TFD nodes coincide with the states obtained by copying and updating
+ * the state of the parent, and that the nodes store fewer literals than full copies of the states would need. Hashing the generated nodes, as the search does, must not materialize their states.
+ *
+ * @author fmohr
+ *
+ */
+public class TFDStateEncodingTest {
+
+	private static final int DIVES = 20;
+
+	@Test
+	public void testDeltaEncodedStatesInMLPlanSearchSpace() throws IOException, InterruptedException {
+		RefinementConfiguredSoftwareConfigurationProblem<Double> problem = new RefinementConfiguredSoftwareConfigurationProblem<>(new File("testrsc/weka/weka-all-autoweka.json"), "AbstractClassifier", n -> 0.0);
+		CEOCIPSTNPlanningProblem planningProblem = new HASCOReduction<Double>(() -> null).encodeProblem(problem).getCorePlanningProblem();
+		CEOCIPTFDGraphGenerator graphGenerator = new CEOCIPTFDGraphGenerator(planningProblem);
+		SuccessorGenerator<TFDNode, String> successorGenerator = graphGenerator.getSuccessorGenerator();
+		Random random = new Random(0);
+
+		long generatedNodes = 0;
+		long storedLiterals = 0;
+		long copiedLiterals = 0;
+		long materializedStates = 0;
+		for (int dive = 0; dive < DIVES; dive++) {
+			TFDNode node = graphGenerator.getRootGenerator().getRoot();
+			Monom expectedState = new Monom(node.getState());
+			while (!node.isGoal()) {
+				List<NodeExpansionDescription<TFDNode, String>> successors = successorGenerator.generateSuccessors(node);
+				if (successors.isEmpty()) {
+					break;
+				}
+				generatedNodes += successors.size();
+				Set<TFDNode> hashedNodes = new HashSet<>();
+				for (NodeExpansionDescription<TFDNode, String> successor : successors) {
+					TFDNode child = successor.getTo();
+					hashedNodes.add(child);
+					storedLiterals += child.getProblem().getDeletedLiterals().size() + child.getProblem().getAddedLiterals().size();
+					copiedLiterals += child.getAppliedAction() != null ? expectedState.size() : 0;
+				}
+				for (TFDNode hashedNode : hashedNodes) {
+					materializedStates += hashedNode.getProblem().isStateMaterialized() ? 1 : 0;
+				}
+				TFDNode child = successors.get(random.nextInt(successors.size())).getTo();
+
+				/* compute the state the old way, i.e. by copying the parent state and updating the copy */
+				if (child.getAppliedAction() != null) {
+					Monom stateCopy = new Monom(expectedState);
+					StripsUtil.updateState(stateCopy, child.getAppliedAction());
+					stateCopy.getParameters().stream().filter(p -> p.getName().startsWith("newVar") && !stateCopy.contains(new Literal("def('" + p.getName() + "')")))
+					.forEach(p -> stateCopy.add(new Literal("def('" + p.getName() + "')")));
+					expectedState = stateCopy;
+				}
+				assertEquals(new TFDRestProblem(new Monom(expectedState), child.getRemainingTasks()).hashCode(), child.getProblem().hashCode());
+				assertEquals(expectedState, child.getState());
+				node = child;
+			}
+		}
+		assertTrue(generatedNodes > DIVES);
+		assertEquals(0, materializedStates);
+		assertTrue("The nodes store " + storedLiterals + " literals, full copies of their states would have " + copiedLiterals + " literals.", storedLiterals < copiedLiterals);
+	}
+}
@@ -32,12 +32,12 @@ public class CacheEvaluatorMeasureBridge extends AbstractSplitBasedClassifierEva
 	/* Used for evaluating, when no cache entry could be found. */
 	private SimpleSLCSplitBasedClassifierEvaluator simpleEvaluatorMeasureBridge;
 
-	/* Used for looking up cache entries. */
-	private PerformanceDBAdapter performanceDBAdapter;
+	/* Used for looking up cache entries (either a database or a local file). */
+	private IPerformanceStore performanceStore;
 
-	public CacheEvaluatorMeasureBridge(final IMeasure<Double, Double> basicEvaluator, final PerformanceDBAdapter performanceDBAdapter) {
+	public CacheEvaluatorMeasureBridge(final IMeasure<Double, Double> basicEvaluator, final IPerformanceStore performanceStore) {
 		super(basicEvaluator);
-		this.performanceDBAdapter = performanceDBAdapter;
+		this.performanceStore = performanceStore;
 		this.simpleEvaluatorMeasureBridge = new SimpleSLCSplitBasedClassifierEvaluator(basicEvaluator);
 	}
 
@@ -47,7 +47,7 @@ public class CacheEvaluatorMeasureBridge extends AbstractSplitBasedClassifierEva
 
 			if (((ReproducibleInstances) trainingData).isCacheLookup()) {
 				// check in the cache if the result exists already
-				Optional<Double> potentialCache = this.performanceDBAdapter.exists(this.evaluatedComponent, (ReproducibleInstances) trainingData, (ReproducibleInstances) validationData,
+				Optional<Double> potentialCache = this.performanceStore.exists(this.evaluatedComponent, (ReproducibleInstances) trainingData, (ReproducibleInstances) validationData,
 						this.simpleEvaluatorMeasureBridge.getBasicEvaluator().getClass().getName());
 				if (potentialCache.isPresent()) {
 					logger.debug("Cache hit");
@@ -62,7 +62,7 @@ public class CacheEvaluatorMeasureBridge extends AbstractSplitBasedClassifierEva
 			Duration delta = Duration.between(start, end);
 			// cache it
 			if (((ReproducibleInstances) trainingData).isCacheStorage()) {
-				this.performanceDBAdapter.store(this.evaluatedComponent, (ReproducibleInstances) trainingData, (ReproducibleInstances) validationData, performance, this.simpleEvaluatorMeasureBridge.getBasicEvaluator().getClass().getName(),
+				this.performanceStore.store(this.evaluatedComponent, (ReproducibleInstances) trainingData, (ReproducibleInstances) validationData, performance, this.simpleEvaluatorMeasureBridge.getBasicEvaluator().getClass().getName(),
 						delta.toMillis());
 			}
 			return performance;
@@ -79,7 +79,7 @@ public class CacheEvaluatorMeasureBridge extends AbstractSplitBasedClassifierEva
 	 * @return the lightweight copy
 	 */
 	public CacheEvaluatorMeasureBridge getShallowCopy(final ComponentInstance componentInstance) {
-		CacheEvaluatorMeasureBridge bridge = new CacheEvaluatorMeasureBridge(this.getBasicEvaluator(), this.performanceDBAdapter);
+		CacheEvaluatorMeasureBridge bridge = new CacheEvaluatorMeasureBridge(this.getBasicEvaluator(), this.performanceStore);
 		bridge.evaluatedComponent = componentInstance;
 		return bridge;
 	}
@@ -0,0 +1,248 @@
+package ai.libs.mlpipeline_evaluation;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Embedded, persistent cache for evaluation results that does not need a database. The results are appended to a log file on the local disk, which survives restarts and can be shared by several processes on the same
+ * machine.
+ *
+ * Every record of the log has a fixed size and consists of the SHA-256 digest of the key, the score, the evaluation time, and a CRC32 checksum. The cache keeps an index from digests to record positions in memory and a
+ * bounded LRU map of recently used scores in front of it, so that only scores that have not been used recently must be read from disk. Records appended by other processes are picked up on a miss.
+ *
+ * Appends are guarded by a lock on the file (and a JVM-wide monitor for the file, since file locks are held by the whole JVM). A record that has been torn by a crash is detected by its checksum and overwritten by the next
+ * append.
+ *
+ * @author fmohr
+ *
+ */
+public class FileBasedEvaluationCache implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(FileBasedEvaluationCache.class);
+
+	private static final int DIGEST_LENGTH = 32;
+	private static final int RECORD_LENGTH = DIGEST_LENGTH + Double.BYTES + Long.BYTES + Integer.BYTES;
+	private static final int DEFAULT_LRU_CAPACITY = 10000;
+
+	/* file locks are held on behalf of the whole JVM, so instances working on the same file in one JVM must additionally be synchronized */
+	private static final Map<Path, Object> MONITORS = new ConcurrentHashMap<>();
+
+	private final File file;
+	private final FileChannel channel;
+	private final Object monitor;
+	private final Map<String, Long> index = new HashMap<>();
+	private final Map<String, Double> recentlyUsedScores;
+	private long endOfValidRecords = 0;
+
+	public FileBasedEvaluationCache(final File file) throws IOException {
+		this(file, DEFAULT_LRU_CAPACITY);
+	}
+
+	/**
+	 * @param file
+	 *            The log file, which is created if it does not exist
+	 * @param lruCapacity
+	 *            The number of scores held in memory
+	 * @throws IOException
+	 */
+	public FileBasedEvaluationCache(final File file, final int lruCapacity) throws IOException {
+		super();
+		if (lruCapacity < 1) {
+			throw new IllegalArgumentException("The capacity of the LRU front must be positive.");
+		}
+		this.file = file;
+		if (file.getAbsoluteFile().getParentFile() != null) {
+			file.getAbsoluteFile().getParentFile().mkdirs();
+		}
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		this.monitor = MONITORS.computeIfAbsent(file.getCanonicalFile().toPath(), p -> new Object());
+		this.recentlyUsedScores = Collections.synchronizedMap(new LinkedHashMap<String, Double>(16, .75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, Double> eldest) {
+				return this.size() > lruCapacity;
+			}
+		});
+		this.readNewRecords();
+		logger.info("Opened evaluation cache {} with {} entries.", file, this.index.size());
+	}
+
+	/**
+	 * @param key
+	 *            The key of the evaluation, e.g. a serialized pipeline together with the description of the data and the split
+	 * @return The score stored for the key or an empty optional if there is none
+	 * @throws IOException
+	 */
+	public Optional<Double> get(final String key) throws IOException {
+		String digest = digest(key);
+		Double score = this.recentlyUsedScores.get(digest);
+		if (score != null) {
+			return Optional.of(score);
+		}
+		Long position;
+		synchronized (this) {
+			position = this.index.get(digest);
+			if (position == null) {
+				this.readNewRecords(); // another process may have written the entry in the meantime
+				position = this.index.get(digest);
+			}
+		}
+		if (position == null) {
+			return Optional.empty();
+		}
+		ByteBuffer record = this.readRecord(position);
+		if (record == null) {
+			throw new IOException("Record of " + key + " at position " + position + " in " + this.file + " is corrupted.");
+		}
+		score = record.getDouble(DIGEST_LENGTH);
+		this.recentlyUsedScores.put(digest, score);
+		return Optional.of(score);
+	}
+
+	/**
+	 * Appends the score for the key to the log unless there is already a score for it.
+	 *
+	 * @param key
+	 *            The key of the evaluation
+	 * @param score
+	 *            The observed score
+	 * @param evaluationTimeInMS
+	 *            The time the evaluation took (stored for analysis purposes)
+	 * @return true if the score has been stored and false if there already was a score for the key
+	 * @throws IOException
+	 */
+	public boolean put(final String key, final double score, final long evaluationTimeInMS) throws IOException {
+		String digest = digest(key);
+		synchronized (this.monitor) {
+			try (FileLock lock = this.channel.lock()) {
+				synchronized (this) {
+					this.readNewRecords();
+					if (this.index.containsKey(digest)) {
+						return false;
+					}
+
+					/* everything behind the valid records must be a torn record of a crashed writer, which is overwritten */
+					long position = this.endOfValidRecords;
+					if (this.channel.size() > position) {
+						logger.warn("Discarding {} bytes of incomplete records at the end of {}.", this.channel.size() - position, this.file);
+						this.channel.truncate(position);
+					}
+					ByteBuffer record = ByteBuffer.allocate(RECORD_LENGTH);
+					record.put(hexToBytes(digest));
+					record.putDouble(score);
+					record.putLong(evaluationTimeInMS);
+					record.putInt(checksum(record.array()));
+					record.flip();
+					while (record.hasRemaining()) {
+						this.channel.write(record, position + record.position());
+					}
+					this.index.put(digest, position);
+					this.endOfValidRecords = position + RECORD_LENGTH;
+				}
+			}
+		}
+		this.recentlyUsedScores.put(digest, score);
+		return true;
+	}
+
+	public int size() throws IOException {
+		synchronized (this) {
+			this.readNewRecords();
+			return this.index.size();
+		}
+	}
+
+	/**
+	 * Indexes all valid records behind the ones that are already known. Reading stops at the first incomplete or corrupted record, since it may still be written by another process.
+	 */
+	private synchronized void readNewRecords() throws IOException {
+		long size = this.channel.size();
+		while (this.endOfValidRecords + RECORD_LENGTH <= size) {
+			ByteBuffer record = this.readRecord(this.endOfValidRecords);
+			if (record == null) {
+				break;
+			}
+			byte[] digest = new byte[DIGEST_LENGTH];
+			record.get(digest);
+			this.index.putIfAbsent(bytesToHex(digest), this.endOfValidRecords);
+			this.endOfValidRecords += RECORD_LENGTH;
+		}
+	}
+
+	/**
+	 * @return The record at the given position or NULL if the record is incomplete or its checksum is wrong
+	 */
+	private ByteBuffer readRecord(final long position) throws IOException {
+		ByteBuffer record = ByteBuffer.allocate(RECORD_LENGTH);
+		while (record.hasRemaining()) {
+			if (this.channel.read(record, position + record.position()) < 0) {
+				return null;
+			}
+		}
+		if (record.getInt(RECORD_LENGTH - Integer.BYTES) != checksum(record.array())) {
+			return null;
+		}
+		record.rewind();
+		return record;
+	}
+
+	private static int checksum(final byte[] record) {
+		CRC32 crc = new CRC32();
+		crc.update(record, 0, RECORD_LENGTH - Integer.BYTES);
+		return (int) crc.getValue();
+	}
+
+	private static String digest(final String key) {
+		try {
+			return bytesToHex(MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported by this JVM.", e);
+		}
+	}
+
+	private static String bytesToHex(final byte[] bytes) {
+		StringBuilder sb = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+			sb.append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+
+	private static byte[] hexToBytes(final String hex) {
+		byte[] bytes = new byte[hex.length() / 2];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+		}
+		return bytes;
+	}
+
+	public File getFile() {
+		return this.file;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+}
@@ -0,0 +1,65 @@
+package ai.libs.mlpipeline_evaluation;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import ai.libs.hasco.model.ComponentInstance;
+import ai.libs.jaicore.ml.cache.ReproducibleInstances;
+
+/**
+ * Performance store that keeps the scores in a {@link FileBasedEvaluationCache} on the local disk instead of a database. The entries are identified by the same information as in the {@link PerformanceDBAdapter}, i.e. the
+ * composition, the trajectories of the train and test data, and the loss function.
+ *
+ * @author fmohr
+ *
+ */
+public class FileBasedPerformanceStore implements IPerformanceStore, Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(FileBasedPerformanceStore.class);
+
+	private final FileBasedEvaluationCache cache;
+
+	public FileBasedPerformanceStore(final File file) throws IOException {
+		this(new FileBasedEvaluationCache(file));
+	}
+
+	public FileBasedPerformanceStore(final FileBasedEvaluationCache cache) {
+		super();
+		this.cache = cache;
+	}
+
+	private String getKey(final ComponentInstance composition, final ReproducibleInstances reproducibleInstances, final ReproducibleInstances testData, final String className) throws JsonProcessingException {
+		return String.join("\n", PerformanceDBAdapter.getSettingObjectsAsString(composition, reproducibleInstances, testData)) + "\n" + className;
+	}
+
+	@Override
+	public Optional<Double> exists(final ComponentInstance composition, final ReproducibleInstances reproducibleInstances, final ReproducibleInstances testData, final String className) {
+		try {
+			return this.cache.get(this.getKey(composition, reproducibleInstances, testData, className));
+		} catch (IOException e) {
+			logger.error("Observed exception during existence check: {}", e);
+			return Optional.empty();
+		}
+	}
+
+	@Override
+	public void store(final ComponentInstance composition, final ReproducibleInstances reproducibleInstances, final ReproducibleInstances testData, final double score, final String className, final long evaluationTime) {
+		try {
+			this.cache.put(this.getKey(composition, reproducibleInstances, testData, className), score, evaluationTime);
+		} catch (IOException e) {
+			logger.warn("Error while storing results: {}", e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.cache.close();
+	}
+}
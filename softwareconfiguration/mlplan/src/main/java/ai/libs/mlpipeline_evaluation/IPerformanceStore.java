@@ -0,0 +1,46 @@
+package ai.libs.mlpipeline_evaluation;
+
+import java.util.Optional;
+
+import ai.libs.hasco.model.ComponentInstance;
+import ai.libs.jaicore.ml.cache.ReproducibleInstances;
+
+/**
+ * A store for the performance of compositions on reproducible train/test splits, as used by the {@link CacheEvaluatorMeasureBridge}.
+ *
+ * @author fmohr
+ *
+ */
+public interface IPerformanceStore {
+
+	/**
+	 * @param composition
+	 *            - Solution composition.
+	 * @param reproducibleInstances
+	 *            - The reproducible instances of the training data
+	 * @param testData
+	 *            - The reproducible instances of the test data
+	 * @param className
+	 *            - The java qualified class name of the loss function
+	 * @return The stored score or an empty optional if there is no score for this setting
+	 */
+	public Optional<Double> exists(ComponentInstance composition, ReproducibleInstances reproducibleInstances, ReproducibleInstances testData, String className);
+
+	/**
+	 * Stores the score of the composition for the given setting.
+	 *
+	 * @param composition
+	 *            - Solution composition
+	 * @param reproducibleInstances
+	 *            - The reproducible instances of the training data
+	 * @param testData
+	 *            - The reproducible instances of the test data
+	 * @param score
+	 *            - Score achieved by the composition
+	 * @param className
+	 *            - The java qualified class name of the loss function
+	 * @param evaluationTime
+	 *            - The time it took for the corresponding evaluation in milliseconds
+	 */
+	public void store(ComponentInstance composition, ReproducibleInstances reproducibleInstances, ReproducibleInstances testData, double score, String className, long evaluationTime);
+}
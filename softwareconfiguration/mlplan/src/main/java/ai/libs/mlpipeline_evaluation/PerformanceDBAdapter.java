@@ -33,7 +33,7 @@ import ai.libs.jaicore.ml.cache.ReproducibleInstances;
  * @author jmhansel
  *
  */
-public class PerformanceDBAdapter implements Closeable {
+public class PerformanceDBAdapter implements IPerformanceStore, Closeable {
 	/** Logger for controlled output. */
 	private static final Logger logger = LoggerFactory.getLogger(PerformanceDBAdapter.class);
 
@@ -90,6 +90,7 @@ public class PerformanceDBAdapter implements Closeable {
 	 *            - the java qualified class name of the loss function that was used
 	 * @return opt - Optional that contains the score corresponding to the composition and the reproducible instances or is empty if no suiting entry is found in the database.
 	 */
+	@Override
 	public Optional<Double> exists(final ComponentInstance composition, final ReproducibleInstances reproducibleInstances, final ReproducibleInstances testData, final String className) {
 		Optional<Double> opt = Optional.empty();
 		try {
@@ -106,7 +107,7 @@ public class PerformanceDBAdapter implements Closeable {
 
 	private List<IKVStore> getScoreOfCompositions(final ComponentInstance composition, final ReproducibleInstances reproducibleInstances, final ReproducibleInstances testData, final String className)
 			throws SQLException, JsonProcessingException, NoSuchAlgorithmException {
-		String hexHash = this.getHexHash(this.getSettingObjectsAsString(composition, reproducibleInstances, testData), className);
+		String hexHash = this.getHexHash(getSettingObjectsAsString(composition, reproducibleInstances, testData), className);
 		return this.sqlAdapter.getResultsOfQuery("SELECT score FROM " + this.performanceSampleTableName + " WHERE hash_value = '" + hexHash + "'");
 	}
 
@@ -120,7 +121,7 @@ public class PerformanceDBAdapter implements Closeable {
 		return (new HexBinaryAdapter()).marshal(digest);
 	}
 
-	private String[] getSettingObjectsAsString(final ComponentInstance composition, final ReproducibleInstances reproducibleInstances, final ReproducibleInstances testData) throws JsonProcessingException {
+	static String[] getSettingObjectsAsString(final ComponentInstance composition, final ReproducibleInstances reproducibleInstances, final ReproducibleInstances testData) throws JsonProcessingException {
 		ObjectMapper mapper = new ObjectMapper();
 		return new String[] { mapper.writeValueAsString(composition), mapper.writeValueAsString(reproducibleInstances.getInstructions()), mapper.writeValueAsString(testData.getInstructions()) };
 	}
@@ -141,6 +142,7 @@ public class PerformanceDBAdapter implements Closeable {
 	 * @param evaluationTime
 	 *            - The time it took for the corresponding evaluation in milliseconds
 	 */
+	@Override
 	public void store(final ComponentInstance composition, final ReproducibleInstances reproducibleInstances, final ReproducibleInstances testData, final double score, final String className, final long evaluationTime) {
 		try {
 			List<IKVStore> rs = this.getScoreOfCompositions(composition, reproducibleInstances, testData, className);
@@ -148,7 +150,7 @@ public class PerformanceDBAdapter implements Closeable {
 				return;
 			}
 			Map<String, String> valueMap = new HashMap<>();
-			String[] settingObjectStrings = this.getSettingObjectsAsString(composition, reproducibleInstances, testData);
+			String[] settingObjectStrings = getSettingObjectsAsString(composition, reproducibleInstances, testData);
 			valueMap.put("composition", settingObjectStrings[0]);
 			valueMap.put("train_trajectory", settingObjectStrings[1]);
 			valueMap.put("test_trajectory", settingObjectStrings[2]);
@@ -1,9 +1,15 @@
 package ai.libs.mlpipeline_evaluation;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,17 +20,22 @@ import ai.libs.jaicore.basic.kvstore.IKVStore;
 import ai.libs.jaicore.ml.openml.OpenMLHelper;
 import ai.libs.mlplan.multiclass.wekamlplan.weka.WekaPipelineFactory;
 import weka.classifiers.Classifier;
+import weka.core.Instance;
+import weka.core.Instances;
 import weka.core.converters.ConverterUtils.DataSource;
 
 /**
  * For caching and evaluation MLPipelines.
  *
+ * The results are either stored in a database (through the {@link ai.libs.jaicore.basic.SQLAdapter} of the config) or, if a cache file is configured, in a {@link FileBasedEvaluationCache} on the local disk. In the latter
+ * case, the entries are identified by the pipeline, the dataset origin and id, a fingerprint of the loaded data, and the split configuration, so locally loaded datasets are cached as well.
+ *
  * @author Helena Graf
  * @author Joshua
  * @author Lukas
  *
  */
-public class PipelineEvaluationCache {
+public class PipelineEvaluationCache implements Closeable {
 
 	private Logger logger = LoggerFactory.getLogger(PipelineEvaluationCache.class);
 	private static final String LOG_CANT_CONNECT_TO_CACHE = "Cannot connect to cache. Switching to offline mode.";
@@ -35,6 +46,8 @@ public class PipelineEvaluationCache {
 	private boolean useCache = true;
 
 	private final PipelineEvaluationCacheConfigBuilder config;
+	private final FileBasedEvaluationCache fileCache;
+	private final String datasetFingerprint;
 
 	/**
 	 * Construct a new cache for evaluations. The valid split and evaluation
@@ -62,6 +75,27 @@ public class PipelineEvaluationCache {
 		default:
 			throw new InvalidDatasetOriginException("Invalid dataset origin.");
 		}
+
+		if (this.config.getCacheFile() != null) {
+			this.fileCache = new FileBasedEvaluationCache(this.config.getCacheFile());
+			this.datasetFingerprint = getFingerprint(this.config.getData());
+		} else {
+			this.fileCache = null;
+			this.datasetFingerprint = null;
+		}
+	}
+
+	private static String getFingerprint(final Instances data) throws Exception {
+		MessageDigest md = MessageDigest.getInstance("SHA-256");
+		md.update(new Instances(data, 0).toString().getBytes(StandardCharsets.UTF_8));
+		for (Instance i : data) {
+			md.update(i.toString().getBytes(StandardCharsets.UTF_8));
+		}
+		StringBuilder sb = new StringBuilder();
+		for (byte b : md.digest()) {
+			sb.append(String.format("%02x", b));
+		}
+		return sb.toString();
 	}
 
 	/**
@@ -75,6 +109,10 @@ public class PipelineEvaluationCache {
 	 *             If the pipeline cannot be evaluated
 	 */
 	public double getResultOrExecuteEvaluation(final ComponentInstance cI) throws Exception {
+		if (this.fileCache != null) {
+			return this.getResultFromFileOrExecuteEvaluation(cI);
+		}
+
 		// Lookup
 		String serializedCI = null;
 		if (this.useCache && this.config.getDatasetOrigin() != DatasetOrigin.LOCAL) {
@@ -103,6 +141,34 @@ public class PipelineEvaluationCache {
 		return result;
 	}
 
+	private double getResultFromFileOrExecuteEvaluation(final ComponentInstance cI) throws Exception {
+		String key = null;
+		if (this.useCache) {
+			key = this.getFileCacheKey(CompositionSerializer.serializeComponentInstance(cI).toString());
+			Optional<Double> result = this.fileCache.get(key);
+			if (result.isPresent()) {
+				this.logger.debug("Return cached result");
+				return result.get();
+			}
+		}
+		long start = System.currentTimeMillis();
+		double result = this.evaluate(cI);
+		this.logger.debug("Score: {}", result);
+		if (this.useCache) {
+			this.fileCache.put(key, result, System.currentTimeMillis() - start);
+		}
+		return result;
+	}
+
+	private String getFileCacheKey(final String serializedCI) {
+		List<String> values = new ArrayList<>(Arrays.asList(serializedCI, this.config.getDatasetId(), this.config.getDatasetOrigin().name(), this.datasetFingerprint, this.config.getTestEvaluationTechnique(), this.config.getTestSplitTechnique(),
+				String.valueOf(this.config.getTestSeed())));
+		if (!this.doNotValidate()) {
+			values.addAll(Arrays.asList(this.config.getValEvaluationTechnique(), this.config.getValSplitTechnique(), String.valueOf(this.config.getValSeed())));
+		}
+		return String.join("\n", values);
+	}
+
 	private Double doDBLookUp(final String serializedCI) {
 		String query;
 		List<String> values;
@@ -183,4 +249,11 @@ public class PipelineEvaluationCache {
 	public void setUseCache(final boolean useCache) {
 		this.useCache = useCache;
 	}
+
+	@Override
+	public void close() throws IOException {
+		if (this.fileCache != null) {
+			this.fileCache.close();
+		}
+	}
 }
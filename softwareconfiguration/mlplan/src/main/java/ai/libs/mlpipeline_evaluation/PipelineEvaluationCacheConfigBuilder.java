@@ -1,5 +1,7 @@
 package ai.libs.mlpipeline_evaluation;
 
+import java.io.File;
+
 import ai.libs.jaicore.basic.SQLAdapter;
 import weka.core.Instances;
 
@@ -17,6 +19,7 @@ public class PipelineEvaluationCacheConfigBuilder {
 
 	private Instances data;
 	private SQLAdapter adapter;
+	private File cacheFile;
 
 	public PipelineEvaluationCacheConfigBuilder() {
 		super();
@@ -72,6 +75,17 @@ public class PipelineEvaluationCacheConfigBuilder {
 		return this;
 	}
 
+	/**
+	 * Makes the cache store the results in the given file (see {@link FileBasedEvaluationCache}) instead of the database.
+	 *
+	 * @param cacheFile
+	 * @return The builder object.
+	 */
+	public PipelineEvaluationCacheConfigBuilder withCacheFile(final File cacheFile) {
+		this.cacheFile = cacheFile;
+		return this;
+	}
+
 	public String getDatasetId() {
 		return this.datasetId;
 	}
@@ -112,4 +126,8 @@ public class PipelineEvaluationCacheConfigBuilder {
 		return this.adapter;
 	}
 
+	public File getCacheFile() {
+		return this.cacheFile;
+	}
+
 }
@@ -53,6 +53,8 @@ import ai.libs.jaicore.search.algorithms.standard.bestfirst.nodeevaluation.INode
 import ai.libs.jaicore.search.core.interfaces.IOptimalPathInORGraphSearchFactory;
 import ai.libs.jaicore.search.problemtransformers.GraphSearchProblemInputToGraphSearchWithSubpathEvaluationInputTransformerViaRDFS;
 import ai.libs.mlpipeline_evaluation.CacheEvaluatorMeasureBridge;
+import ai.libs.mlpipeline_evaluation.FileBasedPerformanceStore;
+import ai.libs.mlpipeline_evaluation.IPerformanceStore;
 import ai.libs.mlpipeline_evaluation.PerformanceDBAdapter;
 import ai.libs.mlplan.multiclass.MLPlanClassifierConfig;
 import ai.libs.mlplan.multiclass.wekamlplan.IClassifierFactory;
@@ -146,7 +148,7 @@ public class MLPlanBuilder {
 	private IDatasetSplitter selectionPhaseDatasetSplitter = new MulticlassClassStratifiedSplitter();
 
 	private boolean useCache;
-	private PerformanceDBAdapter dbAdapter = null;
+	private IPerformanceStore performanceStore = null;
 
 	private EMultiClassPerformanceMeasure singleLabelPerformanceMeasure;
 	private EMultilabelPerformanceMeasure multiLabelPerformanceMeasure;
@@ -179,10 +181,13 @@ public class MLPlanBuilder {
 		this.useCache = false;
 	}
 
-	public MLPlanBuilder(final File searchSpaceConfigFile, final File algorithmConfigFile, final EMultiClassPerformanceMeasure performanceMeasure, final PerformanceDBAdapter dbAdapter) {
+	/**
+	 * Creates a builder whose split evaluations are cached in the given performance store, which may be a {@link PerformanceDBAdapter} or a {@link FileBasedPerformanceStore} on the local disk.
+	 */
+	public MLPlanBuilder(final File searchSpaceConfigFile, final File algorithmConfigFile, final EMultiClassPerformanceMeasure performanceMeasure, final IPerformanceStore performanceStore) {
 		this(searchSpaceConfigFile, algorithmConfigFile, performanceMeasure);
 		this.useCache = true;
-		this.dbAdapter = dbAdapter;
+		this.performanceStore = performanceStore;
 	}
 
 	/**
@@ -482,7 +487,11 @@ public class MLPlanBuilder {
 	}
 
 	public PerformanceDBAdapter getDBAdapter() {
-		return this.dbAdapter;
+		return this.performanceStore instanceof PerformanceDBAdapter ? (PerformanceDBAdapter) this.performanceStore : null;
+	}
+
+	public IPerformanceStore getPerformanceStore() {
+		return this.performanceStore;
 	}
 
 	public IClassifierFactory getClassifierFactory() {
@@ -512,7 +521,7 @@ public class MLPlanBuilder {
 	public ISplitBasedClassifierEvaluator<Double> getSingleLabelEvaluationMeasurementBridge(final IMeasure<Double, Double> measure) {
 		if (this.splitBasedClassifierEvaluator == null) {
 			if (this.getUseCache()) {
-				return new CacheEvaluatorMeasureBridge(measure, this.getDBAdapter());
+				return new CacheEvaluatorMeasureBridge(measure, this.getPerformanceStore());
 			} else {
 				return new SimpleSLCSplitBasedClassifierEvaluator(measure);
 			}
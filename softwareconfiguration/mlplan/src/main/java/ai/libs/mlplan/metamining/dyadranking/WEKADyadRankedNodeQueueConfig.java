@@ -74,8 +74,10 @@ public class WEKADyadRankedNodeQueueConfig extends ADyadRankedNodeQueueConfig<TF
 	@Override
 	public void configureBestFirst(final BestFirst bestFirst) {
 		this.logger.trace("Configuring OPEN list of BF");
-		bestFirst.setOpen(new WEKADyadRankedNodeQueue(new DenseDoubleVector(this.contextCharacterization), this.components,
-				this.ranker, this.scaler, this.pipelineCharacterizer));
+		WEKADyadRankedNodeQueue open = new WEKADyadRankedNodeQueue(new DenseDoubleVector(this.contextCharacterization), this.components,
+				this.ranker, this.scaler, this.pipelineCharacterizer);
+		open.setIncrementalRanking(this.incrementalRanking);
+		bestFirst.setOpen(open);
 	}
 
 	/**
@@ -8,7 +8,7 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import ai.libs.hasco.core.Util;
+import ai.libs.hasco.core.ComponentInstanceDecoder;
 import ai.libs.hasco.model.Component;
 import ai.libs.hasco.model.ComponentInstance;
 import ai.libs.jaicore.planning.hierarchical.algorithms.forwarddecomposition.graphgenerators.tfd.TFDNode;
@@ -17,7 +17,7 @@ import ai.libs.jaicore.search.model.travesaltree.Node;
 
 public class PreferenceBasedNodeEvaluator implements INodeEvaluator<TFDNode, Double> {
 
-	private final Collection<Component> components;
+	private final ComponentInstanceDecoder decoder;
 	private final List<String> orderingOfComponents;
 	private final static Logger logger = LoggerFactory.getLogger(PreferenceBasedNodeEvaluator.class);
 	private boolean sentLogMessageForHavingEnteredSecondSubPhase = false;
@@ -25,7 +25,7 @@ public class PreferenceBasedNodeEvaluator implements INodeEvaluator<TFDNode, Dou
 
 	public PreferenceBasedNodeEvaluator(final Collection<Component> components, final List<String> orderingOfComponents) {
 		super();
-		this.components = components;
+		this.decoder = new ComponentInstanceDecoder(components);
 		this.orderingOfComponents = orderingOfComponents;
 	}
 
@@ -48,7 +48,7 @@ public class PreferenceBasedNodeEvaluator implements INodeEvaluator<TFDNode, Dou
 		}
 
 		/* get partial component */
-		ComponentInstance instance = Util.getSolutionCompositionFromState(this.components, n.getPoint().getState(), false);
+		ComponentInstance instance = this.decoder.getSolutionComposition(n.getPoint(), false);
 		boolean isPipeline = appliedMethods.stream().anyMatch(x -> x.toLowerCase().contains("pipeline"));
 		boolean lastMethod = false;
 		String classifierName = null;
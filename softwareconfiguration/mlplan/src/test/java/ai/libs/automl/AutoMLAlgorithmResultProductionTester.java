@@ -161,13 +161,11 @@ public abstract class AutoMLAlgorithmResultProductionTester {
 				Thread.interrupted(); // reset interrupted flag
 			});
 			Interrupter interrupter = Interrupter.get();
-			synchronized (interrupter) {
-				new ArrayList<>(interrupter.getAllUnresolvedInterrupts()).forEach(i -> {
-					logger.warn("Interrupt reason {} for thread {} has not been resolved cleanly. Clearing it up.", i.getReasonForInterruption(), i.getInterruptedThread());
-					interrupter.markInterruptAsResolved(i.getInterruptedThread(), i.getReasonForInterruption());
-				});
-				assert interrupter.getAllUnresolvedInterrupts().isEmpty() : "Interrupter still has list of unresolved interrupts!";
-			}
+			new ArrayList<>(interrupter.getAllUnresolvedInterrupts()).forEach(i -> {
+				logger.warn("Interrupt reason {} for thread {} has not been resolved cleanly. Clearing it up.", i.getReasonForInterruption(), i.getInterruptedThread());
+				interrupter.markInterruptAsResolved(i.getInterruptedThread(), i.getReasonForInterruption());
+			});
+			assert interrupter.getAllUnresolvedInterrupts().isEmpty() : "Interrupter still has list of unresolved interrupts!";
 			if (Thread.currentThread().isInterrupted()) {
 				logger.error("Interrupt-flag of executing thread {} is set to TRUE!", Thread.currentThread());
 			}
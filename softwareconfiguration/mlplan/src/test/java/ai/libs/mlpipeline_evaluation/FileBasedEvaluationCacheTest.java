@@ -0,0 +1,108 @@
+package ai.libs.mlpipeline_evaluation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the persistence and sharing of the {@link FileBasedEvaluationCache}.
+ *
+ * @author fmohr
+ *
+ */
+public class FileBasedEvaluationCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testThatEntriesSurviveReopening() throws IOException {
+		File file = new File(this.folder.getRoot(), "cache.log");
+		try (FileBasedEvaluationCache cache = new FileBasedEvaluationCache(file, 2)) {
+			assertFalse(cache.get("a").isPresent());
+			assertTrue(cache.put("a", 0.1, 10));
+			assertTrue(cache.put("b", 0.2, 10));
+			assertTrue(cache.put("c", 0.3, 10));
+			assertFalse(cache.put("a", 0.5, 10));
+			assertEquals(Optional.of(0.1), cache.get("a")); // has been evicted from the LRU front and must be read from disk
+		}
+		try (FileBasedEvaluationCache cache = new FileBasedEvaluationCache(file)) {
+			assertEquals(3, cache.size());
+			assertEquals(Optional.of(0.1), cache.get("a"));
+			assertEquals(Optional.of(0.2), cache.get("b"));
+			assertEquals(Optional.of(0.3), cache.get("c"));
+		}
+	}
+
+	@Test
+	public void testThatEntriesOfOtherInstancesAreVisible() throws IOException {
+		File file = new File(this.folder.getRoot(), "cache.log");
+		try (FileBasedEvaluationCache writer = new FileBasedEvaluationCache(file); FileBasedEvaluationCache reader = new FileBasedEvaluationCache(file)) {
+			assertFalse(reader.get("a").isPresent());
+			writer.put("a", 0.1, 10);
+			assertEquals(Optional.of(0.1), reader.get("a"));
+			assertFalse(reader.put("a", 0.2, 10));
+		}
+	}
+
+	@Test
+	public void testThatTornRecordsAreDiscarded() throws IOException {
+		File file = new File(this.folder.getRoot(), "cache.log");
+		try (FileBasedEvaluationCache cache = new FileBasedEvaluationCache(file)) {
+			cache.put("a", 0.1, 10);
+		}
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.seek(raf.length());
+			raf.write(new byte[] { 1, 2, 3 }); // simulate a writer that crashed
+		}
+		try (FileBasedEvaluationCache cache = new FileBasedEvaluationCache(file)) {
+			assertEquals(1, cache.size());
+			cache.put("b", 0.2, 10);
+		}
+		try (FileBasedEvaluationCache cache = new FileBasedEvaluationCache(file)) {
+			assertEquals(2, cache.size());
+			assertEquals(Optional.of(0.2), cache.get("b"));
+		}
+	}
+
+	@Test
+	public void testConcurrentWriters() throws Exception {
+		File file = new File(this.folder.getRoot(), "cache.log");
+		int writers = 4;
+		int entriesPerWriter = 250;
+		ExecutorService pool = Executors.newFixedThreadPool(writers);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int w = 0; w < writers; w++) {
+			futures.add(pool.submit(() -> {
+				try (FileBasedEvaluationCache cache = new FileBasedEvaluationCache(file)) {
+					for (int i = 0; i < entriesPerWriter; i++) {
+						cache.put("entry" + i, i, 0); // all writers write the same keys
+					}
+				}
+				return null;
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		pool.shutdown();
+		try (FileBasedEvaluationCache cache = new FileBasedEvaluationCache(file)) {
+			assertEquals(entriesPerWriter, cache.size());
+			assertEquals(file.length(), cache.size() * 52L);
+		}
+	}
+}